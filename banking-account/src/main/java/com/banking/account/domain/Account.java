@@ -4,21 +4,63 @@ import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
 import com.banking.core.exception.InsufficientFundsException;
 import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.intern.StringDictionary;
+import com.banking.core.jfr.AccountLockContentionEvent;
 
+import java.math.BigDecimal;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 /**
  * Represents a bank account with balance and account details.
+ * <p>
+ * Balance changes are serialized by a per-account lock. Callers that need to update
+ * several accounts atomically (e.g. transfers) can hold the locks themselves via
+ * {@link #lock()} / {@link #unlock()}; the lock is reentrant.
+ * <p>
+ * Very hot accounts can be switched to striped mode with {@link #enableStriping(int)}:
+ * deposits then go to one of several sub-balances with their own locks and no longer
+ * take the account lock, while withdrawals and balance reads fold the sub-balances back
+ * into the main balance under all locks, so they always see the exact total.
+ * <p>
+ * For balance snapshots (see {@code AccountService#takeSnapshot}) an operation that changes
+ * several accounts calls {@link #preserveForSnapshot} on each of them under their locks
+ * before the change; the snapshot then reads the preserved value through
+ * {@link #readForSnapshot} instead of the current one.
+ * <p>
+ * {@link #getVersion()} changes whenever the balance or status does, except for deposits into
+ * stripes, so a reader can tell whether a copy it made of the account's state is still current.
  */
 public class Account {
+    private static final AtomicLongFieldUpdater<Account> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Account.class, "version");
+
     private final String accountId;
     private final String customerId;
     private final AccountType accountType;
-    private Money balance;
-    private boolean active;
+    private final Money openingBalance;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Money balance;
+    private volatile boolean active;
+    private volatile BalanceStripes stripes;
+    // Bumped after each change it covers, so a reader that reads it before the state never pairs a new version with old state.
+    private volatile long version;
+    // Guarded by lock: the snapshot epoch this account was last preserved for or read by, and the preserved balance.
+    private long snapshotEpoch;
+    private Money snapshotBalance;
 
     public Account(String customerId, AccountType accountType, Money initialBalance) {
+        this(UUID.randomUUID().toString(), customerId, accountType, initialBalance);
+    }
+
+    public Account(String accountId, String customerId, AccountType accountType, Money initialBalance) {
+        if (accountId == null || accountId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account ID cannot be null or empty");
+        }
         if (customerId == null || customerId.trim().isEmpty()) {
             throw new IllegalArgumentException("Customer ID cannot be null or empty");
         }
@@ -29,17 +71,19 @@ public class Account {
             throw new IllegalArgumentException("Initial balance cannot be null");
         }
         
-        this.accountId = UUID.randomUUID().toString();
-        this.customerId = customerId;
+        this.accountId = accountId;
+        this.customerId = StringDictionary.IDENTIFIERS.intern(customerId);
         this.accountType = accountType;
+        this.openingBalance = initialBalance;
         this.balance = initialBalance;
         this.active = true;
     }
 
     public Account(String accountId, String customerId, AccountType accountType, Money balance, boolean active) {
         this.accountId = accountId;
-        this.customerId = customerId;
+        this.customerId = StringDictionary.IDENTIFIERS.intern(customerId);
         this.accountType = accountType;
+        this.openingBalance = balance;
         this.balance = balance;
         this.active = active;
     }
@@ -56,41 +100,284 @@ public class Account {
         return accountType;
     }
 
+    /**
+     * The balance this account was constructed with, unaffected by later changes. Listeners told
+     * about a new or imported account read it instead of {@link #getBalance()}, which may already
+     * include a deposit made right after the account became visible.
+     */
+    public Money getOpeningBalance() {
+        return openingBalance;
+    }
+
     public Money getBalance() {
-        return balance;
+        if (stripes == null) {
+            return balance;
+        }
+        lock();
+        try {
+            consolidateStripes();
+            return balance;
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Runs {@code reader} on the balance while nothing can change it: the account lock is held and,
+     * for a striped account, so is every stripe. A deposit that runs its listeners while holding a
+     * stripe (see {@link #depositToStripe}) has therefore either finished or not started, so state
+     * those listeners update can be compared with the balance inside {@code reader}.
+     */
+    public <T> T readQuiesced(Function<Money, T> reader) {
+        lock();
+        try {
+            BalanceStripes currentStripes = stripes;
+            if (currentStripes == null) {
+                return reader.apply(balance);
+            }
+            return currentStripes.drain(pending -> {
+                if (pending.getAmount().signum() != 0) {
+                    this.balance = this.balance.add(pending);
+                }
+                return reader.apply(balance);
+            });
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Currency of the balance, which never changes. Unlike {@link #getBalance()} this never locks.
+     */
+    public String getCurrency() {
+        return balance.getCurrency();
     }
 
     public boolean isActive() {
         return active;
     }
 
+    /**
+     * Counter of changes to the balance and status. Deposits into the stripes of a striped account
+     * do not change it, so it only identifies the state of accounts that are not striped; striping
+     * an account changes it once more.
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public void deposit(Money amount) {
-        validateAccount();
-        if (amount == null || amount.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Deposit amount must be positive");
+        BalanceStripes currentStripes = stripes;
+        if (currentStripes != null && !lock.isHeldByCurrentThread()) {
+            validateAccount();
+            validateDepositAmount(amount);
+            if (currentStripes.deposit(amount)) {
+                return;
+            }
+            // Striping was turned off meanwhile.
+        }
+        lock();
+        try {
+            validateAccount();
+            validateDepositAmount(amount);
+            this.balance = this.balance.add(amount);
+            VERSION.incrementAndGet(this);
+        } finally {
+            unlock();
         }
-        this.balance = this.balance.add(amount);
     }
 
-    public void withdraw(Money amount) {
+    /**
+     * Deposits into one of the stripes of a striped account after running {@code beforeDeposit}
+     * while that stripe is held, e.g. the withdrawal side of a transfer that holds only the source
+     * account's lock. A balance snapshot reading this account waits for the stripe, so both sides
+     * fall on the same side of it.
+     *
+     * @return false, without depositing, if the account is not striped or {@code beforeDeposit} returned false
+     */
+    public boolean depositToStripe(Money amount, BooleanSupplier beforeDeposit) {
+        BalanceStripes currentStripes = stripes;
+        if (currentStripes == null) {
+            return false;
+        }
         validateAccount();
-        if (amount == null || amount.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        validateDepositAmount(amount);
+        return currentStripes.deposit(amount, beforeDeposit);
+    }
+
+    public void withdraw(Money amount) {
+        lock();
+        try {
+            validateAccount();
+            if (amount == null || amount.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
+                throw new IllegalArgumentException("Withdrawal amount must be positive");
+            }
+            consolidateStripes();
+            if (this.balance.isLessThan(amount)) {
+                throw new InsufficientFundsException(
+                    String.format("Insufficient funds. Balance: %s, Requested: %s", balance, amount)
+                );
+            }
+            this.balance = this.balance.subtract(amount);
+            VERSION.incrementAndGet(this);
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Adds a signed amount to the balance without the checks of {@link #deposit} and
+     * {@link #withdraw}. Used to replay changes that were already validated elsewhere,
+     * e.g. by the primary whose journal a read replica applies.
+     */
+    public void adjustBalance(Money delta) {
+        lock();
+        try {
+            consolidateStripes();
+            this.balance = this.balance.add(delta);
+            VERSION.incrementAndGet(this);
+        } finally {
+            unlock();
         }
-        if (this.balance.isLessThan(amount)) {
-            throw new InsufficientFundsException(
-                String.format("Insufficient funds. Balance: %s, Requested: %s", balance, amount)
-            );
+    }
+
+    /**
+     * Acquires this account's lock.
+     *
+     * @return nanoseconds spent waiting for the lock, 0 when it was free
+     */
+    public long lock() {
+        if (lock.tryLock()) {
+            return 0;
+        }
+        AccountLockContentionEvent event = new AccountLockContentionEvent();
+        int queueLength = lock.getQueueLength();
+        long start = System.nanoTime();
+        event.begin();
+        lock.lock();
+        event.end();
+        long waited = System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.accountId = accountId;
+            event.queueLength = queueLength;
+            event.commit();
+        }
+        return waited;
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * Sets the current balance aside for the snapshot with the given epoch, unless that was already
+     * done, so that the change the caller is about to make is left out of the snapshot. Caller holds
+     * the account lock.
+     */
+    public void preserveForSnapshot(long epoch) {
+        if (snapshotEpoch != epoch) {
+            consolidateStripes();
+            snapshotBalance = balance;
+            snapshotEpoch = epoch;
+        }
+    }
+
+    /**
+     * Returns the balance of this account in the snapshot with the given epoch: the value set aside by
+     * {@link #preserveForSnapshot} if a multi-account change has happened since the snapshot started,
+     * otherwise the current balance. Takes the account lock briefly.
+     */
+    public Money readForSnapshot(long epoch) {
+        lock();
+        try {
+            Money value;
+            if (snapshotEpoch == epoch) {
+                value = snapshotBalance;
+            } else {
+                consolidateStripes();
+                value = balance;
+                snapshotEpoch = epoch;
+            }
+            snapshotBalance = null;
+            return value;
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Splits deposits to this account across {@code stripeCount} sub-balances.
+     * Has no effect if the account is already striped.
+     */
+    public void enableStriping(int stripeCount) {
+        if (stripeCount < 2) {
+            throw new IllegalArgumentException("Stripe count must be at least 2");
+        }
+        lock();
+        try {
+            if (stripes == null) {
+                stripes = new BalanceStripes(stripeCount, balance.getCurrency());
+                VERSION.incrementAndGet(this);
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Folds the stripes back into the balance for good, so that every later deposit takes the
+     * account lock, e.g. before the account's state is copied elsewhere under that lock. A deposit
+     * racing with this either lands in a stripe before the final drain or is refused by the
+     * stripes and retried under the lock.
+     */
+    public void disableStriping() {
+        lock();
+        try {
+            BalanceStripes currentStripes = stripes;
+            if (currentStripes != null) {
+                Money pending = currentStripes.close();
+                if (pending.getAmount().signum() != 0) {
+                    this.balance = this.balance.add(pending);
+                }
+                stripes = null;
+                VERSION.incrementAndGet(this);
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    public boolean isStriped() {
+        return stripes != null;
+    }
+
+    /**
+     * Moves whatever has accumulated in the stripes into the main balance. Caller holds the account lock.
+     */
+    private void consolidateStripes() {
+        BalanceStripes currentStripes = stripes;
+        if (currentStripes != null) {
+            Money pending = currentStripes.drain();
+            if (pending.getAmount().signum() != 0) {
+                this.balance = this.balance.add(pending);
+            }
+        }
+    }
+
+    private static void validateDepositAmount(Money amount) {
+        if (amount == null || amount.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
         }
-        this.balance = this.balance.subtract(amount);
     }
 
     public void deactivate() {
         this.active = false;
+        VERSION.incrementAndGet(this);
     }
 
     public void activate() {
         this.active = true;
+        VERSION.incrementAndGet(this);
     }
 
     private void validateAccount() {
@@ -0,0 +1,134 @@
+package com.banking.account.domain;
+
+import com.banking.core.domain.Money;
+
+import java.math.BigDecimal;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Striped sub-balances of a hot {@link Account}.
+ * <p>
+ * Each depositing thread starts at a stripe derived from its id and moves on to the next
+ * stripe if that one is busy, similar to how {@link java.util.concurrent.atomic.LongAdder}
+ * spreads contention. {@link #drain()} locks every stripe, so the total it returns is exact.
+ * After {@link #close()} the stripes refuse deposits, so nothing can land in them once their
+ * total has been taken for the last time.
+ */
+class BalanceStripes {
+    private final Stripe[] stripes;
+    private final Money zero;
+    // Written with every stripe lock held, so a depositor holding any stripe sees it.
+    private boolean closed;
+
+    BalanceStripes(int stripeCount, String currency) {
+        this.zero = new Money(BigDecimal.ZERO, currency);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(zero);
+        }
+    }
+
+    /**
+     * @return false, without depositing, if the stripes are closed
+     */
+    boolean deposit(Money amount) {
+        Stripe stripe = acquire();
+        try {
+            if (closed) {
+                return false;
+            }
+            stripe.pending = stripe.pending.add(amount);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code beforeDeposit} while holding a stripe and deposits only if it returns true.
+     * Neither happens if the stripes are closed.
+     */
+    boolean deposit(Money amount, BooleanSupplier beforeDeposit) {
+        Stripe stripe = acquire();
+        try {
+            if (closed || !beforeDeposit.getAsBoolean()) {
+                return false;
+            }
+            stripe.pending = stripe.pending.add(amount);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe acquire() {
+        int start = (int) (Thread.currentThread().getId() % stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(start + i) % stripes.length];
+            if (stripe.lock.tryLock()) {
+                return stripe;
+            }
+        }
+        Stripe home = stripes[start];
+        home.lock.lock();
+        return home;
+    }
+
+    /**
+     * Returns the sum of all stripes and resets them to zero.
+     */
+    Money drain() {
+        return drain(false, Function.identity());
+    }
+
+    /**
+     * Drains the stripes and passes their sum to {@code whileHeld}, which runs before any stripe is
+     * released, so no deposit can start or finish until it returns.
+     */
+    <T> T drain(Function<Money, T> whileHeld) {
+        return drain(false, whileHeld);
+    }
+
+    /**
+     * Drains the stripes for the last time: deposits attempted afterwards are refused.
+     */
+    Money close() {
+        return drain(true, Function.identity());
+    }
+
+    private <T> T drain(boolean close, Function<Money, T> whileHeld) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            if (close) {
+                closed = true;
+            }
+            Money total = zero;
+            for (Stripe stripe : stripes) {
+                total = total.add(stripe.pending);
+                stripe.pending = zero;
+            }
+            return whileHeld.apply(total);
+        } finally {
+            for (Stripe stripe : stripes) {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    int size() {
+        return stripes.length;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Money pending;
+
+        Stripe(Money zero) {
+            this.pending = zero;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.banking.account.service;
+
+import com.banking.account.domain.Account;
+
+/**
+ * Receives accounts opened through {@link AccountService}, and optionally the other changes
+ * made to accounts there.
+ */
+public interface AccountListener {
+    void onAccountCreated(Account account);
+
+    /**
+     * Called for accounts added with {@link AccountService#importAccount}. Does nothing by default.
+     */
+    default void onAccountImported(Account account) {
+    }
+
+    /**
+     * Called for accounts removed with {@link AccountService#removeAccount}. Does nothing by default.
+     */
+    default void onAccountRemoved(Account account) {
+    }
+
+    /**
+     * Called after an account was activated or deactivated. Does nothing by default.
+     */
+    default void onAccountStatusChanged(Account account) {
+    }
+}
@@ -1,25 +1,109 @@
 package com.banking.account.service;
 
 import com.banking.account.domain.Account;
+import com.banking.account.snapshot.BalanceSnapshot;
 import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
 import com.banking.core.exception.InvalidAccountException;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Service for managing bank accounts.
+ * <p>
+ * {@link #takeSnapshot} produces a consistent image of all balances while writers keep going.
+ * It publishes a new snapshot epoch and then reads every account once, each under its own lock.
+ * Changes to a single account need no coordination: each one simply falls before or after that
+ * account's read. Changes to several accounts at once (transfers) call {@link #preserveForSnapshot}
+ * under their locks before changing anything; if an epoch is active, the accounts' balances are
+ * set aside first, so the snapshot leaves the whole change out instead of seeing half of it.
+ * When no snapshot is running this costs one volatile read per transfer.
  */
 public class AccountService {
+    // Shared by all instances so an account moved between services never sees an epoch twice.
+    private static final AtomicLong SNAPSHOT_EPOCHS = new AtomicLong();
+
     private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final List<AccountListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Supplier<String> accountIdGenerator = () -> UUID.randomUUID().toString();
+    private volatile long activeSnapshotEpoch;
 
     public Account createAccount(String customerId, AccountType accountType, Money initialBalance) {
-        Account account = new Account(customerId, accountType, initialBalance);
+        Account account = new Account(accountIdGenerator.get(), customerId, accountType, initialBalance);
         accounts.put(account.getAccountId(), account);
+        notifyCreated(account);
+        return account;
+    }
+
+    /**
+     * Registers a listener for accounts opened from now on. Imports, removals and status
+     * changes are reported through the listener's optional callbacks.
+     */
+    public void addAccountListener(AccountListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Replaces the generator of IDs for new accounts (random UUIDs by default), e.g. to
+     * only hand out IDs that a sharded deployment routes to this node.
+     */
+    public void setAccountIdGenerator(Supplier<String> accountIdGenerator) {
+        if (accountIdGenerator == null) {
+            throw new IllegalArgumentException("Account ID generator cannot be null");
+        }
+        this.accountIdGenerator = accountIdGenerator;
+    }
+
+    /**
+     * Creates an account with a caller-chosen ID, e.g. one picked to land on a particular shard.
+     */
+    public Account createAccount(String accountId, String customerId, AccountType accountType, Money initialBalance) {
+        Account account = new Account(accountId, customerId, accountType, initialBalance);
+        if (accounts.putIfAbsent(accountId, account) != null) {
+            throw new IllegalArgumentException("Account already exists: " + accountId);
+        }
+        notifyCreated(account);
         return account;
     }
 
+    /**
+     * Adds an existing account, e.g. one migrated from another node.
+     */
+    public void importAccount(Account account) {
+        if (accounts.putIfAbsent(account.getAccountId(), account) != null) {
+            throw new IllegalArgumentException("Account already exists: " + account.getAccountId());
+        }
+        for (AccountListener listener : listeners) {
+            listener.onAccountImported(account);
+        }
+    }
+
+    /**
+     * Removes an account from this service, e.g. after it was migrated to another node.
+     */
+    public Account removeAccount(String accountId) {
+        Account account = accounts.remove(accountId);
+        if (account == null) {
+            throw new InvalidAccountException("Account not found: " + accountId);
+        }
+        for (AccountListener listener : listeners) {
+            listener.onAccountRemoved(account);
+        }
+        return account;
+    }
+
+    public boolean hasAccount(String accountId) {
+        return accounts.containsKey(accountId);
+    }
+
     public Account getAccount(String accountId) {
         Account account = accounts.get(accountId);
         if (account == null) {
@@ -42,19 +126,88 @@ public class AccountService {
         return new ArrayList<>(accounts.values());
     }
 
+    public int getAccountCount() {
+        return accounts.size();
+    }
+
     public void deactivateAccount(String accountId) {
         Account account = getAccount(accountId);
         account.deactivate();
+        notifyStatusChanged(account);
     }
 
     public void activateAccount(String accountId) {
         Account account = getAccount(accountId);
         account.activate();
+        notifyStatusChanged(account);
     }
 
     public Money getBalance(String accountId) {
         Account account = getAccount(accountId);
         return account.getBalance();
     }
-}
 
+    /**
+     * Takes a point-in-time image of every account's balance without pausing writers; each account
+     * lock is held only while its balance is read. Accounts opened or removed while the snapshot is
+     * being taken may or may not be included. Snapshots are taken one at a time.
+     */
+    public synchronized BalanceSnapshot takeSnapshot() {
+        Instant takenAt = Instant.now();
+        long epoch = SNAPSHOT_EPOCHS.incrementAndGet();
+        activeSnapshotEpoch = epoch;
+        try {
+            List<BalanceSnapshot.Entry> entries = new ArrayList<>(accounts.size());
+            for (Account account : accounts.values()) {
+                entries.add(new BalanceSnapshot.Entry(account.getAccountId(), account.getCustomerId(),
+                        account.getAccountType(), account.readForSnapshot(epoch)));
+            }
+            return new BalanceSnapshot(epoch, takenAt, entries);
+        } finally {
+            activeSnapshotEpoch = 0;
+        }
+    }
+
+    /**
+     * Must be called by an operation that changes both accounts, after it has locked both and
+     * before it changes either, so that a snapshot in progress sees all of the change or none of it.
+     */
+    public void preserveForSnapshot(Account first, Account second) {
+        long epoch = activeSnapshotEpoch;
+        if (epoch != 0) {
+            first.preserveForSnapshot(epoch);
+            second.preserveForSnapshot(epoch);
+        }
+    }
+
+    /**
+     * Same as {@link #preserveForSnapshot(Account, Account)} for an operation that changes several accounts.
+     */
+    public void preserveForSnapshot(Collection<Account> accounts) {
+        long epoch = activeSnapshotEpoch;
+        if (epoch != 0) {
+            for (Account account : accounts) {
+                account.preserveForSnapshot(epoch);
+            }
+        }
+    }
+
+    /**
+     * @return whether a snapshot is being taken right now
+     */
+    public boolean isSnapshotInProgress() {
+        return activeSnapshotEpoch != 0;
+    }
+
+    private void notifyCreated(Account account) {
+        for (AccountListener listener : listeners) {
+            listener.onAccountCreated(account);
+        }
+    }
+
+    private void notifyStatusChanged(Account account) {
+        for (AccountListener listener : listeners) {
+            listener.onAccountStatusChanged(account);
+        }
+    }
+}
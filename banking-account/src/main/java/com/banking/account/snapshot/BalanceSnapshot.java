@@ -0,0 +1,241 @@
+package com.banking.account.snapshot;
+
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Immutable point-in-time image of all account balances, ordered by account ID.
+ * <p>
+ * It can be exported as CSV (same columns as the account import, with {@code balance} instead of
+ * {@code initialBalance}) or in a compact binary format that {@link #readBinary} reads back:
+ * a header with magic, version, epoch, time and entry count, one record per account, and a
+ * CRC32 of everything before it.
+ */
+public final class BalanceSnapshot {
+    private static final int MAGIC = 0x42534E50; // "BSNP"
+    private static final int VERSION = 1;
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+
+    private final long epoch;
+    private final Instant takenAt;
+    private final List<Entry> entries;
+
+    public BalanceSnapshot(long epoch, Instant takenAt, List<Entry> entries) {
+        if (takenAt == null) {
+            throw new IllegalArgumentException("Snapshot time cannot be null");
+        }
+        if (entries == null) {
+            throw new IllegalArgumentException("Snapshot entries cannot be null");
+        }
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(Entry::getAccountId));
+        this.epoch = epoch;
+        this.takenAt = takenAt;
+        this.entries = Collections.unmodifiableList(sorted);
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the balance of the account in this snapshot, or null if the account is not in it
+     */
+    public Money getBalance(String accountId) {
+        int low = 0;
+        int high = entries.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = entries.get(mid).accountId.compareTo(accountId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return entries.get(mid).balance;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sum of all balances per currency.
+     */
+    public Map<String, BigDecimal> getTotals() {
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        for (Entry entry : entries) {
+            totals.merge(entry.balance.getCurrency(), entry.balance.getAmount(), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    public void writeCsv(Writer out) throws IOException {
+        out.write("accountId,customerId,accountType,balance,currency\n");
+        StringBuilder line = new StringBuilder(128);
+        for (Entry entry : entries) {
+            line.setLength(0);
+            appendCsvField(line, entry.accountId).append(',');
+            appendCsvField(line, entry.customerId).append(',');
+            line.append(entry.accountType.name()).append(',')
+                    .append(entry.balance.getAmount().toPlainString()).append(',');
+            appendCsvField(line, entry.balance.getCurrency()).append('\n');
+            out.append(line);
+        }
+        out.flush();
+    }
+
+    public void writeBinary(OutputStream out) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(out), new CRC32());
+        DataOutputStream data = new DataOutputStream(checked);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(epoch);
+        data.writeLong(takenAt.getEpochSecond());
+        data.writeInt(takenAt.getNano());
+        data.writeInt(entries.size());
+        for (Entry entry : entries) {
+            data.writeUTF(entry.accountId);
+            data.writeUTF(entry.customerId);
+            data.writeByte(entry.accountType.ordinal());
+            data.writeUTF(entry.balance.getCurrency());
+            BigDecimal amount = entry.balance.getAmount();
+            byte[] unscaled = amount.unscaledValue().toByteArray();
+            if (unscaled.length > 255 || amount.scale() != (short) amount.scale()) {
+                throw new IOException("Balance of account " + entry.accountId + " does not fit the snapshot format");
+            }
+            data.writeShort(amount.scale());
+            data.writeByte(unscaled.length);
+            data.write(unscaled);
+        }
+        data.writeLong(checked.getChecksum().getValue());
+        data.flush();
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeBinary}.
+     *
+     * @throws IOException if the input is not a snapshot, is truncated or does not match its checksum
+     */
+    public static BalanceSnapshot readBinary(InputStream in) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(in, new CRC32());
+        DataInputStream data = new DataInputStream(checked);
+        try {
+            if (data.readInt() != MAGIC) {
+                throw new IOException("Not a balance snapshot");
+            }
+            int version = data.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported balance snapshot version: " + version);
+            }
+            long epoch = data.readLong();
+            Instant takenAt = Instant.ofEpochSecond(data.readLong(), data.readInt());
+            int count = data.readInt();
+            List<Entry> entries = new ArrayList<>(Math.min(count, 1 << 16));
+            for (int i = 0; i < count; i++) {
+                String accountId = data.readUTF();
+                String customerId = data.readUTF();
+                int type = data.readUnsignedByte();
+                if (type >= ACCOUNT_TYPES.length) {
+                    throw new IOException("Unknown account type ordinal: " + type);
+                }
+                String currency = data.readUTF();
+                int scale = data.readShort();
+                byte[] unscaled = new byte[data.readUnsignedByte()];
+                data.readFully(unscaled);
+                entries.add(new Entry(accountId, customerId, ACCOUNT_TYPES[type],
+                        new Money(new BigDecimal(new BigInteger(unscaled), scale), currency)));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (data.readLong() != expected) {
+                throw new IOException("Balance snapshot checksum mismatch");
+            }
+            return new BalanceSnapshot(epoch, takenAt, entries);
+        } catch (EOFException e) {
+            throw new IOException("Balance snapshot is truncated", e);
+        }
+    }
+
+    private static StringBuilder appendCsvField(StringBuilder line, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    /**
+     * One account's balance in the snapshot.
+     */
+    public static final class Entry {
+        private final String accountId;
+        private final String customerId;
+        private final AccountType accountType;
+        private final Money balance;
+
+        public Entry(String accountId, String customerId, AccountType accountType, Money balance) {
+            if (accountId == null || customerId == null || accountType == null || balance == null) {
+                throw new IllegalArgumentException("Snapshot entry fields cannot be null");
+            }
+            this.accountId = accountId;
+            this.customerId = customerId;
+            this.accountType = accountType;
+            this.balance = balance;
+        }
+
+        public String getAccountId() {
+            return accountId;
+        }
+
+        public String getCustomerId() {
+            return customerId;
+        }
+
+        public AccountType getAccountType() {
+            return accountType;
+        }
+
+        public Money getBalance() {
+            return balance;
+        }
+    }
+}
@@ -5,6 +5,12 @@ import com.banking.core.domain.Money;
 import com.banking.core.exception.InsufficientFundsException;
 import com.banking.core.exception.InvalidAccountException;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class AccountTest {
@@ -32,6 +38,22 @@ class AccountTest {
         assertEquals(70.0, account.getBalance().getAmount().doubleValue());
     }
 
+    @Test
+    void testVersionChangesWithState() {
+        Account account = new Account("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        long created = account.getVersion();
+        account.deposit(new Money(50.0, "USD"));
+        long deposited = account.getVersion();
+        assertNotEquals(created, deposited);
+        assertThrows(InsufficientFundsException.class, () -> account.withdraw(new Money(500.0, "USD")));
+        assertEquals(deposited, account.getVersion());
+        account.withdraw(new Money(30.0, "USD"));
+        long withdrawn = account.getVersion();
+        assertNotEquals(deposited, withdrawn);
+        account.deactivate();
+        assertNotEquals(withdrawn, account.getVersion());
+    }
+
     @Test
     void testInsufficientFunds() {
         Account account = new Account("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
@@ -45,5 +67,104 @@ class AccountTest {
         assertFalse(account.isActive());
         assertThrows(InvalidAccountException.class, () -> account.deposit(new Money(50.0, "USD")));
     }
-}
 
+    @Test
+    void testConcurrentDepositsAreNotLost() throws Exception {
+        Account account = new Account("CUST001", AccountType.SAVINGS, new Money(0.0, "USD"));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    account.deposit(new Money(1.0, "USD"));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000.0, account.getBalance().getAmount().doubleValue());
+    }
+
+    @Test
+    void testLockReportsNoWaitWhenUncontended() {
+        Account account = new Account("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        assertEquals(0, account.lock());
+        try {
+            account.deposit(new Money(1.0, "USD"));
+        } finally {
+            account.unlock();
+        }
+        assertEquals(101.0, account.getBalance().getAmount().doubleValue());
+    }
+
+    @Test
+    void testStripedDepositsConsolidateOnWithdraw() throws Exception {
+        Account account = new Account("CUST001", AccountType.CHECKING, new Money(10.0, "USD"));
+        account.enableStriping(4);
+        assertTrue(account.isStriped());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    account.deposit(new Money(1.0, "USD"));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        account.withdraw(new Money(2010.0, "USD"));
+        assertEquals(0.0, account.getBalance().getAmount().doubleValue());
+        assertThrows(InsufficientFundsException.class, () -> account.withdraw(new Money(1.0, "USD")));
+    }
+
+    @Test
+    void testDisableStripingWhileDepositing() throws Exception {
+        Account account = new Account("CUST001", AccountType.CHECKING, new Money(10.0, "USD"));
+        account.enableStriping(4);
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 2000; i++) {
+                    try {
+                        account.deposit(new Money(1.0, "USD"));
+                        accepted.incrementAndGet();
+                    } catch (InvalidAccountException e) {
+                        // refused once the account is deactivated
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        started.await();
+
+        // What a shard migration does before copying the account.
+        account.lock();
+        Money copied;
+        try {
+            account.deactivate();
+            account.disableStriping();
+            copied = account.getBalance();
+        } finally {
+            account.unlock();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(account.isStriped());
+        assertEquals(10.0 + accepted.get(), copied.getAmount().doubleValue());
+        assertEquals(copied.getAmount().doubleValue(), account.getBalance().getAmount().doubleValue());
+    }
+}
@@ -6,6 +6,10 @@ import com.banking.core.domain.Money;
 import com.banking.core.exception.InvalidAccountException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class AccountServiceTest {
@@ -46,5 +50,38 @@ class AccountServiceTest {
         var customerAccounts = accountService.getAccountsByCustomer("CUST001");
         assertEquals(2, customerAccounts.size());
     }
-}
 
+    @Test
+    void testListenerSeesEveryChange() {
+        List<String> events = new ArrayList<>();
+        accountService.addAccountListener(new AccountListener() {
+            @Override
+            public void onAccountCreated(Account account) {
+                events.add("created");
+            }
+
+            @Override
+            public void onAccountImported(Account account) {
+                events.add("imported");
+            }
+
+            @Override
+            public void onAccountRemoved(Account account) {
+                events.add("removed");
+            }
+
+            @Override
+            public void onAccountStatusChanged(Account account) {
+                events.add(account.isActive() ? "activated" : "deactivated");
+            }
+        });
+
+        Account account = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        accountService.deactivateAccount(account.getAccountId());
+        accountService.activateAccount(account.getAccountId());
+        accountService.removeAccount(account.getAccountId());
+        accountService.importAccount(account);
+
+        assertEquals(List.of("created", "deactivated", "activated", "removed", "imported"), events);
+    }
+}
@@ -0,0 +1,107 @@
+package com.banking.account.snapshot;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceSnapshotTest {
+
+    @Test
+    void testSnapshotOfAllAccounts() {
+        AccountService accountService = new AccountService();
+        Account first = accountService.createAccount("ACC-1", "CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        accountService.createAccount("ACC-2", "CUST002", AccountType.CHECKING, new Money(50.0, "USD"));
+        first.enableStriping(4);
+        first.deposit(new Money(25.0, "USD"));
+
+        BalanceSnapshot snapshot = accountService.takeSnapshot();
+        first.withdraw(new Money(10.0, "USD"));
+
+        assertEquals(2, snapshot.size());
+        assertEquals(new Money(125.0, "USD"), snapshot.getBalance("ACC-1"));
+        assertEquals(new Money(50.0, "USD"), snapshot.getBalance("ACC-2"));
+        assertNull(snapshot.getBalance("ACC-3"));
+        assertEquals(0, new BigDecimal("175").compareTo(snapshot.getTotals().get("USD")));
+        assertFalse(accountService.isSnapshotInProgress());
+        assertTrue(accountService.takeSnapshot().getEpoch() > snapshot.getEpoch());
+    }
+
+    @Test
+    void testPreservedBalanceIsUsedOnce() {
+        Account account = new Account("ACC-1", "CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+
+        account.lock();
+        try {
+            account.preserveForSnapshot(7);
+            account.withdraw(new Money(30.0, "USD"));
+            account.preserveForSnapshot(7);
+        } finally {
+            account.unlock();
+        }
+
+        assertEquals(new Money(100.0, "USD"), account.readForSnapshot(7));
+        assertEquals(new Money(70.0, "USD"), account.readForSnapshot(8));
+    }
+
+    @Test
+    void testCsvExport() throws IOException {
+        BalanceSnapshot snapshot = new BalanceSnapshot(3, Instant.now(), Arrays.asList(
+                new BalanceSnapshot.Entry("ACC-2", "Smith, J", AccountType.CHECKING, new Money(new BigDecimal("-5.50"), "EUR")),
+                new BalanceSnapshot.Entry("ACC-1", "CUST001", AccountType.SAVINGS, new Money(new BigDecimal("1E+3"), "USD"))));
+        StringWriter csv = new StringWriter();
+
+        snapshot.writeCsv(csv);
+
+        assertEquals("accountId,customerId,accountType,balance,currency\n"
+                + "ACC-1,CUST001,SAVINGS,1000,USD\n"
+                + "ACC-2,\"Smith, J\",CHECKING,-5.50,EUR\n", csv.toString());
+    }
+
+    @Test
+    void testBinaryRoundTrip() throws IOException {
+        Instant takenAt = Instant.parse("2024-03-31T23:59:59.123456789Z");
+        BalanceSnapshot snapshot = new BalanceSnapshot(42, takenAt, Arrays.asList(
+                new BalanceSnapshot.Entry("ACC-1", "CUST001", AccountType.SAVINGS, new Money(new BigDecimal("12.34"), "USD")),
+                new BalanceSnapshot.Entry("ACC-2", "CUST002", AccountType.CHECKING,
+                        new Money(new BigDecimal("-123456789012345678901234567890.001"), "EUR"))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        snapshot.writeBinary(out);
+        BalanceSnapshot read = BalanceSnapshot.readBinary(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(42, read.getEpoch());
+        assertEquals(takenAt, read.getTakenAt());
+        assertEquals(2, read.size());
+        assertEquals(AccountType.CHECKING, read.getEntries().get(1).getAccountType());
+        assertEquals("CUST002", read.getEntries().get(1).getCustomerId());
+        assertEquals(new Money(new BigDecimal("-123456789012345678901234567890.001"), "EUR"), read.getBalance("ACC-2"));
+        assertEquals(new BigDecimal("12.34"), read.getBalance("ACC-1").getAmount());
+    }
+
+    @Test
+    void testBinaryCorruptionIsDetected() throws IOException {
+        BalanceSnapshot snapshot = new BalanceSnapshot(1, Instant.now(), Arrays.asList(
+                new BalanceSnapshot.Entry("ACC-1", "CUST001", AccountType.SAVINGS, new Money(10.0, "USD"))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeBinary(out);
+        byte[] bytes = out.toByteArray();
+
+        byte[] corrupted = bytes.clone();
+        corrupted[bytes.length - 12] ^= 1;
+        assertThrows(IOException.class, () -> BalanceSnapshot.readBinary(new ByteArrayInputStream(corrupted)));
+        assertThrows(IOException.class,
+                () -> BalanceSnapshot.readBinary(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 3))));
+    }
+}
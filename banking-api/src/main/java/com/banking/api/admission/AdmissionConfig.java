@@ -0,0 +1,50 @@
+package com.banking.api.admission;
+
+import com.banking.api.cluster.ShardClient;
+import com.banking.core.admission.ConcurrencyLimiter;
+import com.banking.core.admission.KeyedRateLimiter;
+import com.banking.core.metrics.MetricsRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers {@link AdmissionControlFilter} ahead of every other API filter. The filter is also a
+ * bean of its own, so the binary gateway can admit its writes against the same limits.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(
+            ObjectMapper objectMapper, ShardClient shardClient, MetricsRegistry metricsRegistry,
+            @Value("${banking.admission.rate-per-key:1000}") double ratePerKey,
+            @Value("${banking.admission.burst-per-key:2000}") int burstPerKey,
+            @Value("${banking.admission.max-keys:100000}") int maxKeys,
+            @Value("${banking.admission.max-concurrent-reads:120}") int maxConcurrentReads,
+            @Value("${banking.admission.max-concurrent-writes:60}") int maxConcurrentWrites,
+            @Value("${banking.admission.target-queue-delay-ms:50}") long targetQueueDelayMillis) {
+        return new AdmissionControlFilter(
+            new KeyedRateLimiter(ratePerKey, burstPerKey, maxKeys),
+            new ConcurrencyLimiter(maxConcurrentReads, targetQueueDelayMillis),
+            new ConcurrencyLimiter(maxConcurrentWrites, targetQueueDelayMillis),
+            objectMapper,
+            shardClient,
+            metricsRegistry
+        );
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(
+            AdmissionControlFilter filter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,226 @@
+package com.banking.api.admission;
+
+import com.banking.api.cluster.CachedBodyRequest;
+import com.banking.api.cluster.ShardClient;
+import com.banking.core.admission.ConcurrencyLimiter;
+import com.banking.core.admission.KeyedRateLimiter;
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.MetricsRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Admission control for the API.
+ * <p>
+ * Each request is first charged to a token bucket keyed by its caller: the account (or
+ * customer) it touches, otherwise the client address. Nothing the client merely claims about
+ * itself picks the bucket. Callers over their rate get {@code 429} with {@code Retry-After}.
+ * Admitted requests then need a slot in the concurrency limit of their endpoint class (reads
+ * or writes); if none frees up within the target queue delay the request is shed with
+ * {@code 503} and {@code Retry-After}. A request that goes asynchronous keeps its slot until the
+ * asynchronous processing completes. Requests forwarded by another member, shown by the
+ * {@linkplain ShardClient#isTrustedForward cluster secret}, were already admitted there and pass
+ * straight through.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Pattern ACCOUNT_PATH = Pattern.compile("^/api/(?:accounts|(?:async/)?transactions/account)/([^/]+)");
+    private static final Pattern CUSTOMER_PATH = Pattern.compile("^/api/accounts/customer/([^/]+)$");
+
+    private final KeyedRateLimiter rateLimiter;
+    private final ConcurrencyLimiter readLimiter;
+    private final ConcurrencyLimiter writeLimiter;
+    private final ObjectMapper objectMapper;
+    private final ShardClient shardClient;
+    private final Counter rateLimited;
+    private final Counter readsShed;
+    private final Counter writesShed;
+
+    public AdmissionControlFilter(KeyedRateLimiter rateLimiter, ConcurrencyLimiter readLimiter,
+                                  ConcurrencyLimiter writeLimiter, ObjectMapper objectMapper,
+                                  ShardClient shardClient, MetricsRegistry metrics) {
+        this.rateLimiter = rateLimiter;
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.objectMapper = objectMapper;
+        this.shardClient = shardClient;
+        String help = "API requests rejected by admission control";
+        this.rateLimited = metrics.counter("banking_admission_rejected_total", help, "reason", "rate_limited");
+        this.readsShed = metrics.counter("banking_admission_rejected_total", help, "reason", "overloaded_read");
+        this.writesShed = metrics.counter("banking_admission_rejected_total", help, "reason", "overloaded_write");
+        metrics.gauge("banking_admission_in_flight", "API requests in progress", readLimiter::getInFlight,
+                "class", "read");
+        metrics.gauge("banking_admission_in_flight", "API requests in progress", writeLimiter::getInFlight,
+                "class", "write");
+        metrics.gauge("banking_admission_rate_limiter_keys", "Callers with an active token bucket",
+                rateLimiter::getKeyCount);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/")
+                || shardClient.isTrustedForward(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = "GET".equals(request.getMethod());
+        // Only small JSON bodies are buffered to find the caller; bulk uploads keep streaming.
+        String contentType = request.getContentType();
+        HttpServletRequest admitted = !read && contentType != null && contentType.contains("json")
+                ? new CachedBodyRequest(request) : request;
+
+        long wait = rateLimiter.tryAcquire(callerKey(admitted, read));
+        if (wait > 0) {
+            rateLimited.increment();
+            reject(response, 429, wait, "Rate limit exceeded");
+            return;
+        }
+
+        ConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        boolean acquired;
+        try {
+            acquired = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted waiting for admission", e);
+        }
+        if (!acquired) {
+            (read ? readsShed : writesShed).increment();
+            reject(response, 503, TimeUnit.SECONDS.toNanos(1), "Server overloaded");
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(admitted, response);
+            if (admitted.isAsyncStarted()) {
+                // Added before this dispatch returns, so it is called even if processing has already finished.
+                admitted.getAsyncContext().addListener(new ReleaseOnCompletion(limiter));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release();
+            }
+        }
+    }
+
+    /**
+     * Admits a write that does not arrive over HTTP, such as a binary gateway request, against
+     * the rate bucket and write slots an API write to the same account would use. Rejections are
+     * counted like those of the API. An admitted write must be followed by {@link #releaseWrite()}.
+     *
+     * @return whether the write was admitted
+     */
+    public boolean admitWrite(String accountId) throws InterruptedException {
+        if (rateLimiter.tryAcquire("account:" + accountId) > 0) {
+            rateLimited.increment();
+            return false;
+        }
+        if (!writeLimiter.acquire()) {
+            writesShed.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void releaseWrite() {
+        writeLimiter.release();
+    }
+
+    private String callerKey(HttpServletRequest request, boolean read) throws IOException {
+        String uri = request.getRequestURI();
+        if (read) {
+            Matcher customer = CUSTOMER_PATH.matcher(uri);
+            if (customer.matches()) {
+                return "customer:" + customer.group(1);
+            }
+            Matcher account = ACCOUNT_PATH.matcher(uri);
+            if (account.find()) {
+                return "account:" + account.group(1);
+            }
+        } else if (request instanceof CachedBodyRequest) {
+            byte[] body = ((CachedBodyRequest) request).getBody();
+            JsonNode json = body.length > 0 ? parse(body) : null;
+            if (json != null) {
+                String accountId = json.path("accountId").asText(json.path("fromAccountId").asText(null));
+                if (accountId != null) {
+                    return "account:" + accountId;
+                }
+                String customer = json.path("customerId").asText(null);
+                if (customer != null) {
+                    return "customer:" + customer;
+                }
+            }
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private JsonNode parse(byte[] body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            // Malformed bodies are rejected by the controller; limit them by address.
+            return null;
+        }
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterNanos, String message)
+            throws IOException {
+        long seconds = Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader("Retry-After", Long.toString(seconds));
+        response.sendError(status, message);
+    }
+
+    /**
+     * Releases the concurrency slot of an asynchronous request once, however it ends.
+     */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+        private final ConcurrencyLimiter limiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(ConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Started again by the same request: keep listening.
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release();
+            }
+        }
+    }
+}
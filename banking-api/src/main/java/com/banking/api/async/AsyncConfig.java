@@ -0,0 +1,45 @@
+package com.banking.api.async;
+
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.async.AsyncTransactionService;
+import com.banking.transaction.async.TransactionExecutors;
+import com.banking.transaction.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executor and service behind the {@code /api/async/transactions} endpoints.
+ * {@code banking.async.executor} is {@code platform}, {@code virtual} (JDK 21+) or {@code auto}
+ * (virtual threads where supported); {@code banking.async.platform-threads} sizes the platform
+ * pool and {@code banking.async.max-in-flight} bounds the operations queued or running.
+ */
+@Configuration
+public class AsyncConfig {
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService asyncTransactionExecutor(@Value("${banking.async.executor:auto}") String kind,
+                                                    @Value("${banking.async.platform-threads:200}") int threads) {
+        ExecutorService executor = TransactionExecutors.create(kind, threads);
+        log.info("Asynchronous transaction executor: {} (virtual threads {})", kind,
+                TransactionExecutors.isVirtualThreadsSupported() ? "available" : "unavailable");
+        return executor;
+    }
+
+    @Bean
+    public AsyncTransactionService asyncTransactionService(TransactionService transactionService,
+                                                           ExecutorService asyncTransactionExecutor,
+                                                           MetricsRegistry metricsRegistry,
+                                                           @Value("${banking.async.max-in-flight:10000}") int maxInFlight) {
+        AsyncTransactionService service =
+                new AsyncTransactionService(transactionService, asyncTransactionExecutor, maxInFlight);
+        metricsRegistry.gauge("banking_async_transactions_in_flight",
+                "Asynchronous transaction operations queued or running", service::getInFlight);
+        return service;
+    }
+}
@@ -0,0 +1,46 @@
+package com.banking.api.audit;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.audit.AuditLog;
+import com.banking.core.audit.OverflowPolicy;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.audit.AuditTrail;
+import com.banking.transaction.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Writes the audit trail of account and transaction changes to {@code banking.audit.directory}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public AuditLog auditLog(MetricsRegistry metricsRegistry,
+                             @Value("${banking.audit.directory:audit}") String directory,
+                             @Value("${banking.audit.buffer-size:65536}") int bufferSize,
+                             @Value("${banking.audit.overflow-policy:block}") String overflowPolicy,
+                             @Value("${banking.audit.max-file-mb:100}") long maxFileMegabytes,
+                             @Value("${banking.audit.sync:false}") boolean sync,
+                             @Value("${banking.audit.append-timeout-ms:1000}") long appendTimeoutMillis)
+            throws IOException {
+        OverflowPolicy policy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT));
+        return new AuditLog(Paths.get(directory), bufferSize, policy, maxFileMegabytes * 1024 * 1024, sync,
+                appendTimeoutMillis, metricsRegistry);
+    }
+
+    @Bean
+    public AuditTrail auditTrail(AuditLog auditLog, AccountService accountService,
+                                 TransactionService transactionService) {
+        AuditTrail trail = new AuditTrail(auditLog);
+        trail.attach(accountService, transactionService);
+        return trail;
+    }
+}
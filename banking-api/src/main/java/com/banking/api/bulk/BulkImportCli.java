@@ -0,0 +1,87 @@
+package com.banking.api.bulk;
+
+import com.banking.api.dto.BulkImportError;
+import com.banking.api.dto.BulkImportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Uploads a CSV file to the bulk-import endpoint of a running server and prints the outcome.
+ * <pre>
+ * java -cp banking-api/target/banking-api-1.0.0.jar \
+ *      -Dloader.main=com.banking.api.bulk.BulkImportCli org.springframework.boot.loader.PropertiesLauncher \
+ *      accounts accounts.csv [--url=http://localhost:8080] [--report=errors.csv]
+ * </pre>
+ * The file is streamed, not loaded into memory. With {@code --report} the rejected rows are
+ * written as a {@code row,message} CSV.
+ */
+public final class BulkImportCli {
+
+    private BulkImportCli() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || !(args[0].equals("accounts") || args[0].equals("transactions"))) {
+            System.err.println("Usage: BulkImportCli accounts|transactions <file.csv> [--url=http://localhost:8080] "
+                    + "[--report=errors.csv]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[1]);
+        String url = "http://localhost:8080";
+        Path report = null;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--url=")) {
+                url = args[i].substring("--url=".length());
+            } else if (args[i].startsWith("--report=")) {
+                report = Paths.get(args[i].substring("--report=".length()));
+            } else {
+                System.err.println("Unknown option: " + args[i]);
+                System.exit(2);
+            }
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/api/import/" + args[0]))
+                .header("Content-Type", "text/csv")
+                .timeout(Duration.ofHours(1))
+                .POST(HttpRequest.BodyPublishers.ofFile(file))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (response.statusCode() != 200) {
+            System.err.println("Import failed: HTTP " + response.statusCode() + " " + response.body());
+            System.exit(1);
+        }
+
+        BulkImportResponse result = new ObjectMapper().readValue(response.body(), BulkImportResponse.class);
+        System.out.printf("Rows read: %d, imported: %d, failed: %d in %d ms (%d rows/s)%n",
+                result.getRowsRead(), result.getImported(), result.getFailed(),
+                result.getElapsedMillis(), result.getRowsPerSecond());
+        if (report != null) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))) {
+                out.println("row,message");
+                for (BulkImportError error : result.getErrors()) {
+                    out.println(error.getRow() + ",\"" + String.valueOf(error.getMessage()).replace("\"", "\"\"") + "\"");
+                }
+            }
+            System.out.println("Error report written to " + report);
+        } else {
+            for (BulkImportError error : result.getErrors()) {
+                System.out.println("Row " + error.getRow() + ": " + error.getMessage());
+            }
+        }
+        if (result.getErrors().size() < result.getFailed()) {
+            System.out.println("(only the first " + result.getErrors().size() + " errors are reported)");
+        }
+    }
+}
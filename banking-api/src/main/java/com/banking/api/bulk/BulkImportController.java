@@ -0,0 +1,73 @@
+package com.banking.api.bulk;
+
+import com.banking.api.dto.BulkImportError;
+import com.banking.api.dto.BulkImportResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/import")
+public class BulkImportController {
+
+    private final BulkImporter bulkImporter;
+
+    @Autowired
+    public BulkImportController(BulkImporter bulkImporter) {
+        this.bulkImporter = bulkImporter;
+    }
+
+    @PostMapping(path = "/accounts", consumes = "text/csv")
+    public ResponseEntity<BulkImportResponse> importAccounts(HttpServletRequest request) throws IOException {
+        try (Reader csv = reader(request)) {
+            return ResponseEntity.ok(toResponse(bulkImporter.importAccounts(csv)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping(path = "/transactions", consumes = "text/csv")
+    public ResponseEntity<BulkImportResponse> importTransactions(HttpServletRequest request) throws IOException {
+        try (Reader csv = reader(request)) {
+            return ResponseEntity.ok(toResponse(bulkImporter.importTransactions(csv)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static Reader reader(HttpServletRequest request) throws IOException {
+        return new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private BulkImportResponse toResponse(BulkImportResult result) {
+        List<BulkImportError> errors = new ArrayList<>(result.getErrors().size());
+        for (BulkImportResult.RowError rowError : result.getErrors()) {
+            BulkImportError error = new BulkImportError();
+            error.setRow(rowError.getRow());
+            error.setMessage(rowError.getMessage());
+            errors.add(error);
+        }
+        BulkImportResponse response = new BulkImportResponse();
+        response.setRowsRead(result.getRowsRead());
+        response.setImported(result.getImported());
+        response.setFailed(result.getFailed());
+        response.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(result.getElapsedNanos()));
+        response.setRowsPerSecond(Math.round(result.getRowsPerSecond()));
+        response.setErrors(errors);
+        return response;
+    }
+}
@@ -0,0 +1,71 @@
+package com.banking.api.bulk;
+
+import java.util.List;
+
+/**
+ * Outcome of one bulk import.
+ */
+public class BulkImportResult {
+
+    /**
+     * A rejected row. Rows are numbered like the records of the file, the header being row 1.
+     */
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final long rowsRead;
+    private final long imported;
+    private final long failed;
+    private final long elapsedNanos;
+    private final List<RowError> errors;
+
+    BulkImportResult(long rowsRead, long imported, long failed, long elapsedNanos, List<RowError> errors) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+        this.errors = errors;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowsRead * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * Rejected rows in row order, at most the importer's error limit; {@link #getFailed()} has the full count.
+     */
+    public List<RowError> getErrors() {
+        return errors;
+    }
+}
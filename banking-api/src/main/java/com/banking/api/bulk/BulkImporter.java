@@ -0,0 +1,386 @@
+package com.banking.api.bulk;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.service.TransactionService;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams accounts or transactions from CSV into the services.
+ * <p>
+ * The calling thread parses the input and hands rows in batches to a number of worker lanes,
+ * which validate and apply them. Account rows are spread over the lanes round-robin.
+ * Transaction rows go to the lane of their (source) account, so the rows of one account are
+ * applied in file order. A withdrawal that depends on an incoming transfer from another
+ * account in the same file may still be applied first. Each lane has a small bounded queue,
+ * so a slow consumer slows down parsing instead of buffering the input.
+ * <p>
+ * Account files have the columns {@code customerId, accountType, initialBalance, currency}
+ * and optionally {@code accountId}. Transaction files have {@code type} (DEPOSIT, WITHDRAWAL
+ * or TRANSFER), {@code accountId}, {@code amount}, {@code currency} and optionally
+ * {@code toAccountId} (required for transfers) and {@code description}. The first record is
+ * the header; columns may appear in any order. A record longer than
+ * {@link CsvReader#DEFAULT_MAX_RECORD_CHARS} characters fails as a row error.
+ * <p>
+ * A row that throws a runtime exception is counted as failed. Anything else a lane throws
+ * stops the import: parsing ends, the other lanes drain their queues, and the import throws.
+ */
+public class BulkImporter {
+    private static final int LANE_QUEUE_CAPACITY = 4;
+
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final int parallelism;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public BulkImporter(AccountService accountService, TransactionService transactionService,
+                        int parallelism, int batchSize, int maxErrors) {
+        if (accountService == null) {
+            throw new IllegalArgumentException("AccountService cannot be null");
+        }
+        if (transactionService == null) {
+            throw new IllegalArgumentException("TransactionService cannot be null");
+        }
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Parallelism and batch size must be positive");
+        }
+        if (maxErrors < 0) {
+            throw new IllegalArgumentException("Maximum reported errors cannot be negative");
+        }
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public BulkImportResult importAccounts(Reader csv) throws IOException {
+        return run(csv, new String[] {"customerId", "accountType", "initialBalance", "currency"},
+                new String[] {"accountId"}, false);
+    }
+
+    public BulkImportResult importTransactions(Reader csv) throws IOException {
+        return run(csv, new String[] {"type", "accountId", "amount", "currency"},
+                new String[] {"toAccountId", "description"}, true);
+    }
+
+    private BulkImportResult run(Reader csv, String[] required, String[] optional, boolean transactions)
+            throws IOException {
+        long start = System.nanoTime();
+        CsvReader reader = new CsvReader(csv);
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        if (reader.isOversized()) {
+            throw new IllegalArgumentException("CSV header is too long");
+        }
+        Columns columns = new Columns(header, required, optional);
+        Import job = new Import(columns, transactions);
+
+        Lane[] lanes = new Lane[parallelism];
+        Batch[] pending = new Batch[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            lanes[i] = new Lane(job, i);
+            pending[i] = new Batch(batchSize);
+        }
+        long rows = 0;
+        int nextLane = 0;
+        try {
+            List<String> record;
+            while (job.failure == null && (record = reader.next()) != null) {
+                rows++;
+                if (reader.isOversized()) {
+                    job.fail(reader.getRecordNumber(), "Record is longer than "
+                            + CsvReader.DEFAULT_MAX_RECORD_CHARS + " characters");
+                    continue;
+                }
+                int lane;
+                if (transactions) {
+                    String accountId = columns.get(record, "accountId");
+                    lane = accountId != null ? Math.floorMod(accountId.hashCode(), parallelism) : 0;
+                } else {
+                    lane = nextLane;
+                }
+                Batch batch = pending[lane];
+                batch.add(reader.getRecordNumber(), record.toArray(new String[0]));
+                if (batch.isFull()) {
+                    lanes[lane].submit(batch);
+                    pending[lane] = new Batch(batchSize);
+                    nextLane = (nextLane + 1) % parallelism;
+                }
+            }
+            for (int i = 0; i < parallelism; i++) {
+                if (pending[i].size > 0) {
+                    lanes[i].submit(pending[i]);
+                }
+            }
+        } finally {
+            for (Lane lane : lanes) {
+                lane.finish();
+            }
+        }
+        for (Lane lane : lanes) {
+            lane.await();
+        }
+        if (job.failure != null) {
+            throw new IllegalStateException("Import failed", job.failure);
+        }
+
+        List<BulkImportResult.RowError> errors = new ArrayList<>(job.errors);
+        errors.sort(Comparator.comparingLong(BulkImportResult.RowError::getRow));
+        return new BulkImportResult(rows, job.imported.get(), job.failed.get(), System.nanoTime() - start, errors);
+    }
+
+    private void apply(Columns columns, String[] row, boolean transaction) {
+        if (transaction) {
+            applyTransaction(columns, row);
+        } else {
+            applyAccount(columns, row);
+        }
+    }
+
+    private void applyAccount(Columns columns, String[] row) {
+        String accountId = columns.get(row, "accountId");
+        String customerId = columns.require(row, "customerId");
+        AccountType type = parseEnum(AccountType.class, columns.require(row, "accountType"), "account type");
+        Money balance = parseMoney(columns.require(row, "initialBalance"), columns.require(row, "currency"));
+        if (balance.getAmount().signum() < 0) {
+            throw new IllegalArgumentException("Initial balance cannot be negative");
+        }
+        if (accountId == null) {
+            accountService.createAccount(customerId, type, balance);
+        } else {
+            accountService.createAccount(accountId, customerId, type, balance);
+        }
+    }
+
+    private void applyTransaction(Columns columns, String[] row) {
+        String type = columns.require(row, "type").toUpperCase(Locale.ROOT);
+        String accountId = columns.require(row, "accountId");
+        Money amount = parseMoney(columns.require(row, "amount"), columns.require(row, "currency"));
+        String description = columns.get(row, "description");
+        switch (type) {
+            case "DEPOSIT":
+                transactionService.deposit(accountId, amount, description);
+                break;
+            case "WITHDRAWAL":
+            case "WITHDRAW":
+                transactionService.withdraw(accountId, amount, description);
+                break;
+            case "TRANSFER":
+                transactionService.transfer(accountId, columns.require(row, "toAccountId"), amount, description);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown transaction type: " + type);
+        }
+    }
+
+    private static Money parseMoney(String amount, String currency) {
+        try {
+            return new Money(new BigDecimal(amount), currency);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amount);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String what) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + what + ": " + value);
+        }
+    }
+
+    /**
+     * Column positions taken from the header.
+     */
+    private static final class Columns {
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        Columns(List<String> header, String[] required, String[] optional) {
+            Map<String, Integer> byName = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                byName.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String name : required) {
+                Integer index = byName.get(name.toLowerCase(Locale.ROOT));
+                if (index == null) {
+                    throw new IllegalArgumentException("Missing CSV column: " + name);
+                }
+                indexes.put(name, index);
+            }
+            for (String name : optional) {
+                Integer index = byName.get(name.toLowerCase(Locale.ROOT));
+                if (index != null) {
+                    indexes.put(name, index);
+                }
+            }
+        }
+
+        String get(List<String> record, String name) {
+            Integer index = indexes.get(name);
+            return index != null && index < record.size() ? emptyToNull(record.get(index)) : null;
+        }
+
+        String get(String[] row, String name) {
+            Integer index = indexes.get(name);
+            return index != null && index < row.length ? emptyToNull(row[index]) : null;
+        }
+
+        String require(String[] row, String name) {
+            String value = get(row, name);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            return value;
+        }
+
+        private static String emptyToNull(String value) {
+            String trimmed = value.trim();
+            return trimmed.isEmpty() ? null : trimmed;
+        }
+    }
+
+    private static final class Batch {
+        private final long[] rowNumbers;
+        private final String[][] rows;
+        private int size;
+
+        Batch(int capacity) {
+            this.rowNumbers = new long[capacity];
+            this.rows = new String[capacity][];
+        }
+
+        void add(long rowNumber, String[] row) {
+            rowNumbers[size] = rowNumber;
+            rows[size] = row;
+            size++;
+        }
+
+        boolean isFull() {
+            return size == rows.length;
+        }
+    }
+
+    /**
+     * State shared by the lanes of one import.
+     */
+    private final class Import {
+        private final Columns columns;
+        private final boolean transactions;
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger errorCount = new AtomicInteger();
+        private final Queue<BulkImportResult.RowError> errors = new ConcurrentLinkedQueue<>();
+        private volatile Throwable failure;
+
+        Import(Columns columns, boolean transactions) {
+            this.columns = columns;
+            this.transactions = transactions;
+        }
+
+        void process(Batch batch) {
+            long ok = 0;
+            for (int i = 0; i < batch.size; i++) {
+                try {
+                    apply(columns, batch.rows[i], transactions);
+                    ok++;
+                } catch (RuntimeException e) {
+                    fail(batch.rowNumbers[i], e.getMessage());
+                }
+            }
+            imported.addAndGet(ok);
+        }
+
+        void fail(long row, String message) {
+            failed.incrementAndGet();
+            if (errorCount.incrementAndGet() <= maxErrors) {
+                errors.add(new BulkImportResult.RowError(row, message));
+            }
+        }
+
+        void abort(Throwable cause) {
+            if (failure == null) {
+                failure = cause;
+            }
+        }
+    }
+
+    /**
+     * A worker thread applying the batches of one partition in order. Once the import has
+     * failed it only takes batches off its queue, so the parser never blocks on a dead lane.
+     */
+    private static final class Lane {
+        private static final Batch END = new Batch(0);
+
+        private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(LANE_QUEUE_CAPACITY);
+        private final Thread thread;
+
+        Lane(Import job, int index) {
+            this.thread = new Thread(() -> {
+                try {
+                    Batch batch;
+                    while ((batch = queue.take()) != END) {
+                        if (job.failure != null) {
+                            continue;
+                        }
+                        try {
+                            job.process(batch);
+                        } catch (Throwable t) {
+                            job.abort(t);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "bulk-import-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void submit(Batch batch) throws IOException {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted during import", e);
+            }
+        }
+
+        void finish() {
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                thread.interrupt();
+            }
+        }
+
+        void await() throws IOException {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted during import", e);
+            }
+        }
+    }
+}
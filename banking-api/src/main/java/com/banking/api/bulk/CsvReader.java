@@ -0,0 +1,152 @@
+package com.banking.api.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 CSV reader. Reads through a fixed buffer, so memory use does not
+ * depend on the input size. Quoted fields may contain commas, line breaks and doubled quotes.
+ * Blank lines are skipped. A record longer than the limit given at construction (typically an
+ * unterminated quote) is read to its end but its content is dropped, and
+ * {@link #isOversized()} reports it, so one bad row cannot grow the reader without bound.
+ * Not thread-safe.
+ */
+final class CsvReader {
+    static final int DEFAULT_MAX_RECORD_CHARS = 64 * 1024;
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> record = new ArrayList<>();
+    private int position;
+    private int limit;
+    private long recordNumber;
+    private int recordChars;
+    // Length of the current field, counted even once its content is being dropped.
+    private int fieldChars;
+    private boolean oversized;
+
+    CsvReader(Reader reader) {
+        this(reader, DEFAULT_MAX_RECORD_CHARS);
+    }
+
+    CsvReader(Reader reader, int maxRecordChars) {
+        if (maxRecordChars < 1) {
+            throw new IllegalArgumentException("Maximum record length must be positive");
+        }
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return its fields, or null at end of input. The list is reused by the next call. It is
+     *         empty if the record was oversized.
+     */
+    List<String> next() throws IOException {
+        record.clear();
+        field.setLength(0);
+        fieldChars = 0;
+        recordChars = 0;
+        oversized = false;
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (!fieldStarted && record.isEmpty() && !oversized) {
+                    return null;
+                }
+                return endRecord();
+            }
+            char c = buffer[position++];
+            if (quoted) {
+                if (c != '"') {
+                    append(c);
+                } else if (peek() == '"') {
+                    append('"');
+                    position++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && fieldChars == 0) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                if (!oversized) {
+                    record.add(field.toString());
+                }
+                field.setLength(0);
+                fieldChars = 0;
+                fieldStarted = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    position++;
+                }
+                if (!fieldStarted && record.isEmpty() && fieldChars == 0 && !oversized) {
+                    continue;
+                }
+                return endRecord();
+            } else {
+                append(c);
+                fieldStarted = true;
+            }
+        }
+    }
+
+    /**
+     * Whether the record last returned by {@link #next()} exceeded the maximum length.
+     */
+    boolean isOversized() {
+        return oversized;
+    }
+
+    /**
+     * Number of the record last returned by {@link #next()}, starting at 1.
+     */
+    long getRecordNumber() {
+        return recordNumber;
+    }
+
+    private void append(char c) {
+        fieldChars++;
+        if (oversized) {
+            return;
+        }
+        if (++recordChars > maxRecordChars) {
+            oversized = true;
+            record.clear();
+            field.setLength(0);
+            return;
+        }
+        field.append(c);
+    }
+
+    private List<String> endRecord() {
+        if (!oversized) {
+            record.add(field.toString());
+        }
+        recordNumber++;
+        return record;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
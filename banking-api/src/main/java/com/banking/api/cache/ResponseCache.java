@@ -0,0 +1,156 @@
+package com.banking.api.cache;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountListener;
+import com.banking.api.dto.AccountResponse;
+import com.banking.api.dto.TransactionResponse;
+import com.banking.core.cache.SerializedCache;
+import com.banking.transaction.domain.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serialized JSON of {@link AccountResponse}s and {@link TransactionResponse}s, ready to write.
+ * <p>
+ * Accounts are cached by ID and {@link Account#getVersion()}, so a changed account misses and is
+ * serialized again; striped accounts change without a new version and are never cached.
+ * Transactions never change and are cached by ID alone. Amounts are written as plain decimals,
+ * with the scale of the stored value.
+ */
+public class ResponseCache implements AccountListener {
+    private static final long TRANSACTION_VERSION = 0;
+
+    private final SerializedCache accounts;
+    private final SerializedCache transactions;
+    private final ObjectWriter accountWriter;
+    private final ObjectWriter transactionWriter;
+
+    public ResponseCache(ObjectMapper objectMapper, SerializedCache accounts, SerializedCache transactions) {
+        this.accounts = accounts;
+        this.transactions = transactions;
+        this.accountWriter = objectMapper.writerFor(AccountResponse.class)
+                .with(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+        this.transactionWriter = objectMapper.writerFor(TransactionResponse.class)
+                .with(JsonGenerator.Feature.WRITE_BIGDECIMAL_AS_PLAIN);
+    }
+
+    public static AccountResponse toResponse(Account account) {
+        AccountResponse response = new AccountResponse();
+        response.setAccountId(account.getAccountId());
+        response.setCustomerId(account.getCustomerId());
+        response.setAccountType(account.getAccountType().name());
+        response.setBalance(account.getBalance().getAmount());
+        response.setCurrency(account.getBalance().getCurrency());
+        response.setActive(account.isActive());
+        return response;
+    }
+
+    public static TransactionResponse toResponse(Transaction transaction) {
+        TransactionResponse response = new TransactionResponse();
+        response.setTransactionId(transaction.getTransactionId());
+        response.setAccountId(transaction.getAccountId());
+        response.setType(transaction.getType().name());
+        response.setAmount(transaction.getAmount().getAmount());
+        response.setCurrency(transaction.getAmount().getCurrency());
+        response.setTimestamp(transaction.getTimestamp().toString());
+        response.setDescription(transaction.getDescription());
+        response.setRelatedAccountId(transaction.getRelatedAccountId());
+        return response;
+    }
+
+    public byte[] account(Account account) {
+        if (account.isStriped()) {
+            return write(accountWriter, toResponse(account));
+        }
+        // Read before the state, so the bytes cached under it are never older than the version.
+        long version = account.getVersion();
+        byte[] json = accounts.get(account.getAccountId(), version);
+        if (json == null) {
+            json = write(accountWriter, toResponse(account));
+            accounts.put(account.getAccountId(), version, json);
+        }
+        return json;
+    }
+
+    public byte[] accounts(List<Account> list) {
+        List<byte[]> elements = new ArrayList<>(list.size());
+        for (Account account : list) {
+            elements.add(account(account));
+        }
+        return array(elements);
+    }
+
+    public byte[] transaction(Transaction transaction) {
+        byte[] json = transactions.get(transaction.getTransactionId(), TRANSACTION_VERSION);
+        if (json == null) {
+            json = write(transactionWriter, toResponse(transaction));
+            transactions.put(transaction.getTransactionId(), TRANSACTION_VERSION, json);
+        }
+        return json;
+    }
+
+    public byte[] transactions(List<Transaction> list) {
+        List<byte[]> elements = new ArrayList<>(list.size());
+        for (Transaction transaction : list) {
+            elements.add(transaction(transaction));
+        }
+        return array(elements);
+    }
+
+    public SerializedCache getAccountCache() {
+        return accounts;
+    }
+
+    public SerializedCache getTransactionCache() {
+        return transactions;
+    }
+
+    @Override
+    public void onAccountCreated(Account account) {
+    }
+
+    /**
+     * An account imported from another node starts its versions afresh.
+     */
+    @Override
+    public void onAccountImported(Account account) {
+        accounts.invalidate(account.getAccountId());
+    }
+
+    @Override
+    public void onAccountRemoved(Account account) {
+        accounts.invalidate(account.getAccountId());
+    }
+
+    private static byte[] array(List<byte[]> elements) {
+        int size = 2 + Math.max(0, elements.size() - 1);
+        for (byte[] element : elements) {
+            size += element.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.write('[');
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(elements.get(i));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private static byte[] write(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
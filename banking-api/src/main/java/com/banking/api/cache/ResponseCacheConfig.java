@@ -0,0 +1,30 @@
+package com.banking.api.cache;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.cache.SerializedCache;
+import com.banking.core.metrics.MetricsRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serialized JSON of accounts and transactions served by the read endpoints, bounded by
+ * {@code banking.response-cache.account-max-mb} and {@code banking.response-cache.transaction-max-mb}.
+ */
+@Configuration
+public class ResponseCacheConfig {
+    private static final long MB = 1024 * 1024;
+
+    @Bean
+    public ResponseCache responseCache(ObjectMapper objectMapper, AccountService accountService,
+                                       MetricsRegistry metricsRegistry,
+                                       @Value("${banking.response-cache.account-max-mb:64}") long accountMaxMb,
+                                       @Value("${banking.response-cache.transaction-max-mb:64}") long transactionMaxMb) {
+        ResponseCache cache = new ResponseCache(objectMapper,
+                new SerializedCache("account", accountMaxMb * MB, metricsRegistry),
+                new SerializedCache("transaction", transactionMaxMb * MB, metricsRegistry));
+        accountService.addAccountListener(cache);
+        return cache;
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.api.capture;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.capture.TrafficCapture;
+import com.banking.transaction.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Captures the operations executed on this node to {@code banking.capture.file} for replay with
+ * {@code TrafficReplay}. The file is completed when the application shuts down.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.capture.enabled", havingValue = "true")
+public class CaptureConfig {
+
+    @Bean(destroyMethod = "close")
+    public TrafficCapture trafficCapture(AccountService accountService, TransactionService transactionService,
+                                         MetricsRegistry metricsRegistry,
+                                         @Value("${banking.capture.file:capture/traffic.bin}") String file,
+                                         @Value("${banking.capture.buffer-size:65536}") int bufferSize)
+            throws IOException {
+        TrafficCapture capture = new TrafficCapture(Paths.get(file), bufferSize, metricsRegistry);
+        capture.attach(accountService, transactionService);
+        return capture;
+    }
+}
@@ -0,0 +1,62 @@
+package com.banking.api.cdc;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.cdc.ChangeFeed;
+import com.banking.transaction.cdc.ChangeLog;
+import com.banking.transaction.cdc.ConsumerOffsets;
+import com.banking.transaction.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Keeps a change-data-capture log of every account and transaction change in
+ * {@code banking.cdc.directory}, with the offsets of its consumers in a {@code consumers}
+ * subdirectory; retention keeps what those consumers have not committed. Off unless {@code banking.cdc.enabled=true}; the directory must then be given
+ * as an absolute path, so the log does not end up wherever the process happened to start.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.cdc.enabled", havingValue = "true")
+public class CdcConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ChangeLog changeLog(MetricsRegistry metricsRegistry,
+                               @Value("${banking.cdc.directory:}") String directory,
+                               @Value("${banking.cdc.buffer-size:65536}") int bufferSize,
+                               @Value("${banking.cdc.segment-mb:64}") long segmentMegabytes,
+                               @Value("${banking.cdc.max-segments:16}") int maxSegments,
+                               @Value("${banking.cdc.sync:false}") boolean sync,
+                               @Value("${banking.cdc.append-timeout-ms:100}") long appendTimeoutMillis,
+                               ConsumerOffsets consumerOffsets) throws IOException {
+        return new ChangeLog(logDirectory(directory), bufferSize, segmentMegabytes * 1024 * 1024, maxSegments, sync,
+                appendTimeoutMillis, consumerOffsets, metricsRegistry);
+    }
+
+    @Bean
+    public ConsumerOffsets consumerOffsets(@Value("${banking.cdc.directory:}") String directory,
+                                           @Value("${banking.cdc.sync:false}") boolean sync) throws IOException {
+        return new ConsumerOffsets(logDirectory(directory).resolve("consumers"), sync);
+    }
+
+    @Bean
+    public ChangeFeed changeFeed(ChangeLog changeLog, AccountService accountService,
+                                 TransactionService transactionService) {
+        ChangeFeed feed = new ChangeFeed(changeLog);
+        feed.attach(accountService, transactionService);
+        return feed;
+    }
+
+    private static Path logDirectory(String directory) {
+        Path path = Paths.get(directory.trim());
+        if (directory.trim().isEmpty() || !path.isAbsolute()) {
+            throw new IllegalArgumentException("banking.cdc.directory must be an absolute path, got '" + directory + "'");
+        }
+        return path;
+    }
+}
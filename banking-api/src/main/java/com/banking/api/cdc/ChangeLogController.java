@@ -0,0 +1,190 @@
+package com.banking.api.cdc;
+
+import com.banking.api.dto.ChangeBatchResponse;
+import com.banking.api.dto.ChangeEventPayload;
+import com.banking.api.dto.ConsumerOffsetResponse;
+import com.banking.transaction.cdc.ChangeEvent;
+import com.banking.transaction.cdc.ChangeLog;
+import com.banking.transaction.cdc.ConsumerOffsets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Serves the change log to downstream consumers. A read with no new events is held open for up
+ * to {@code waitMs}, so a caught-up consumer receives new events as soon as they are written.
+ * Each held read occupies a servlet thread, so at most {@code banking.cdc.max-waiting-reads} are
+ * held at once; a read that would wait beyond that gets {@code 429}.
+ * Consumers either track their own offset and read with {@code from}, or read and commit through
+ * a named consumer whose offset is kept on this node.
+ */
+@RestController
+@RequestMapping("/internal/cdc")
+@ConditionalOnProperty(name = "banking.cdc.enabled", havingValue = "true")
+public class ChangeLogController {
+    private static final int MAX_BATCH = 5000;
+    private static final long MAX_WAIT_MILLIS = 30_000;
+
+    private final ChangeLog changeLog;
+    private final ConsumerOffsets consumerOffsets;
+    private final Semaphore waitingReads;
+
+    public ChangeLogController(ChangeLog changeLog, ConsumerOffsets consumerOffsets,
+                               @Value("${banking.cdc.max-waiting-reads:16}") int maxWaitingReads) {
+        if (maxWaitingReads < 0) {
+            throw new IllegalArgumentException("Max waiting reads cannot be negative");
+        }
+        this.changeLog = changeLog;
+        this.consumerOffsets = consumerOffsets;
+        this.waitingReads = new Semaphore(maxWaitingReads);
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<ChangeBatchResponse> getEvents(@RequestParam(defaultValue = "1") long from,
+                                                         @RequestParam(defaultValue = "500") int max,
+                                                         @RequestParam(defaultValue = "0") long waitMs)
+            throws IOException, InterruptedException {
+        return ResponseEntity.ok(read(from, max, waitMs));
+    }
+
+    /**
+     * Reads from the consumer's committed offset, or from the start of the log if it has none.
+     * Reading does not move the offset; commit the batch's {@code nextOffset} once it is processed.
+     */
+    @GetMapping("/consumers/{consumer}/events")
+    public ResponseEntity<ChangeBatchResponse> getConsumerEvents(@PathVariable String consumer,
+                                                                 @RequestParam(defaultValue = "500") int max,
+                                                                 @RequestParam(defaultValue = "0") long waitMs)
+            throws IOException, InterruptedException {
+        checkConsumer(consumer);
+        long committed = consumerOffsets.get(consumer);
+        return ResponseEntity.ok(read(committed > 0 ? committed : changeLog.getStartOffset(), max, waitMs));
+    }
+
+    @GetMapping("/consumers")
+    public ResponseEntity<List<ConsumerOffsetResponse>> getConsumers() {
+        List<ConsumerOffsetResponse> consumers = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : consumerOffsets.getAll().entrySet()) {
+            consumers.add(toResponse(entry.getKey(), entry.getValue()));
+        }
+        return ResponseEntity.ok(consumers);
+    }
+
+    @GetMapping("/consumers/{consumer}/offset")
+    public ResponseEntity<ConsumerOffsetResponse> getOffset(@PathVariable String consumer) {
+        checkConsumer(consumer);
+        return ResponseEntity.ok(toResponse(consumer, consumerOffsets.get(consumer)));
+    }
+
+    @PutMapping("/consumers/{consumer}/offset")
+    public ResponseEntity<ConsumerOffsetResponse> commitOffset(@PathVariable String consumer,
+                                                               @RequestParam long offset) throws IOException {
+        checkConsumer(consumer);
+        if (offset < 1 || offset > changeLog.getEndOffset()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Offset must be between 1 and the end of the change log (" + changeLog.getEndOffset() + ")");
+        }
+        consumerOffsets.commit(consumer, offset);
+        return ResponseEntity.ok(toResponse(consumer, offset));
+    }
+
+    private ChangeBatchResponse read(long from, int max, long waitMs) throws IOException, InterruptedException {
+        if (from < 1 || max < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Offset and max must be positive");
+        }
+        long start = changeLog.getStartOffset();
+        if (from < start) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Offset " + from + " is before the start of the change log (" + start + ")");
+        }
+        if (changeLog.getFailure() != null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Change log writer failed: " + changeLog.getFailure().getMessage());
+        }
+        int batchSize = Math.min(max, MAX_BATCH);
+        List<ChangeEvent> events;
+        try {
+            events = changeLog.read(from, batchSize, 0);
+            if (events.isEmpty() && waitMs > 0) {
+                if (!waitingReads.tryAcquire()) {
+                    throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                            "Too many change log reads are waiting; retry later or without waitMs");
+                }
+                try {
+                    events = changeLog.read(from, batchSize, Math.min(waitMs, MAX_WAIT_MILLIS));
+                } finally {
+                    waitingReads.release();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // The segment was deleted by retention while it was being read.
+            throw new ResponseStatusException(HttpStatus.GONE, e.getMessage());
+        }
+        List<ChangeEventPayload> payloads = new ArrayList<>(events.size());
+        for (ChangeEvent event : events) {
+            payloads.add(toPayload(event));
+        }
+        ChangeBatchResponse response = new ChangeBatchResponse();
+        response.setNextOffset(events.isEmpty() ? from : events.get(events.size() - 1).getOffset() + 1);
+        response.setEndOffset(changeLog.getEndOffset());
+        response.setEvents(payloads);
+        return response;
+    }
+
+    private ConsumerOffsetResponse toResponse(String consumer, long offset) {
+        long endOffset = changeLog.getEndOffset();
+        long position = offset > 0 ? offset : changeLog.getStartOffset();
+        ConsumerOffsetResponse response = new ConsumerOffsetResponse();
+        response.setConsumer(consumer);
+        response.setOffset(offset);
+        response.setEndOffset(endOffset);
+        response.setLag(Math.max(0, endOffset - position));
+        return response;
+    }
+
+    private static ChangeEventPayload toPayload(ChangeEvent event) {
+        ChangeEventPayload payload = new ChangeEventPayload();
+        payload.setOffset(event.getOffset());
+        payload.setTimestamp(Instant.ofEpochMilli(event.getTimestampMillis()).toString());
+        payload.setType(event.getType().name());
+        payload.setAccountId(event.getAccountId());
+        payload.setTransactionId(event.getTransactionId());
+        payload.setRelatedAccountId(event.getRelatedAccountId());
+        payload.setCustomerId(event.getCustomerId());
+        if (event.getType() == ChangeEvent.Type.EVENTS_LOST) {
+            payload.setLostEvents(event.getLostCount());
+        } else if (event.getType().isAccountEvent()) {
+            payload.setAccountType(event.getKind());
+        } else {
+            payload.setTransactionType(event.getKind());
+        }
+        if (event.getAmount() != null) {
+            payload.setAmount(event.getAmount().getAmount());
+            payload.setCurrency(event.getAmount().getCurrency());
+        }
+        payload.setDescription(event.getDescription());
+        return payload;
+    }
+
+    private static void checkConsumer(String consumer) {
+        if (!ConsumerOffsets.isValidConsumer(consumer)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Consumer names are 1 to 64 letters, digits, '.', '_' or '-'");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.banking.api.cluster;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wires account sharding. With the default settings the node is a cluster of one and
+ * requests are never routed.
+ * <p>
+ * {@code banking.cluster.nodes} lists members as {@code id=url} pairs, e.g.
+ * {@code node1=http://localhost:8081,node2=http://localhost:8082}. A node started with only
+ * itself listed and {@code banking.cluster.seed} set joins the seed's cluster on startup.
+ * Members send each other {@code banking.cluster.secret}, which the receiving side checks before
+ * skipping its own admission control for a forwarded request, and which every call to the internal
+ * cluster and shard endpoints must carry.
+ */
+@Configuration
+public class ClusterConfig {
+
+    @Bean
+    public ClusterMembership clusterMembership(
+            @Value("${banking.cluster.node-id:node1}") String nodeId,
+            @Value("${banking.cluster.nodes:}") String nodes,
+            @Value("${banking.cluster.self-url:http://localhost:${server.port:8080}}") String selfUrl,
+            @Value("${banking.cluster.virtual-nodes:128}") int virtualNodes,
+            AccountService accountService) {
+        Map<String, String> members = parseMembers(nodes);
+        members.putIfAbsent(nodeId, selfUrl);
+        ClusterMembership membership = new ClusterMembership(nodeId, members, virtualNodes);
+        accountService.setAccountIdGenerator(membership::newLocalAccountId);
+        return membership;
+    }
+
+    @Bean
+    public ShardClient shardClient(ClusterMembership membership, ObjectMapper objectMapper,
+                                   @Value("${banking.cluster.secret:}") String secret) {
+        return new ShardClient(membership.getSelfId(), secret.trim(), objectMapper);
+    }
+
+    @Bean
+    public CrossShardTransferCoordinator crossShardTransferCoordinator(AccountService accountService,
+                                                                       TransactionService transactionService,
+                                                                       ClusterMembership membership,
+                                                                       ShardClient shardClient,
+                                                                       MetricsRegistry metricsRegistry,
+            @Value("${banking.cluster.prepared-credit-ttl-ms:600000}") long preparedCreditTtlMillis,
+            @Value("${banking.cluster.max-commit-attempts:60}") int maxCommitAttempts) {
+        return new CrossShardTransferCoordinator(accountService, transactionService, membership, shardClient,
+                metricsRegistry, preparedCreditTtlMillis, maxCommitAttempts);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(AccountService accountService, TransactionService transactionService,
+                                           ClusterMembership membership, ShardClient shardClient) {
+        return new ShardRebalancer(accountService, transactionService, membership, shardClient);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShardRoutingFilter> shardRoutingFilter(ClusterMembership membership,
+                                                                         ShardClient shardClient,
+                                                                         ObjectMapper objectMapper) {
+        FilterRegistrationBean<ShardRoutingFilter> registration =
+                new FilterRegistrationBean<>(new ShardRoutingFilter(membership, shardClient, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClusterSecretFilter> clusterSecretFilter(ShardClient shardClient) {
+        FilterRegistrationBean<ClusterSecretFilter> registration =
+                new FilterRegistrationBean<>(new ClusterSecretFilter(shardClient));
+        registration.addUrlPatterns("/internal/cluster/*", "/internal/shard/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    static Map<String, String> parseMembers(String nodes) {
+        Map<String, String> members = new LinkedHashMap<>();
+        for (String entry : nodes.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected id=url in banking.cluster.nodes but got: " + entry);
+            }
+            members.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return members;
+    }
+}
@@ -0,0 +1,124 @@
+package com.banking.api.cluster;
+
+import com.banking.api.cache.ResponseCache;
+import com.banking.api.dto.ClusterMemberRequest;
+import com.banking.api.dto.ShardAccountPayload;
+import com.banking.api.dto.ShardTransactionPayload;
+import com.banking.api.dto.ShardTransferRequest;
+import com.banking.api.dto.TransactionRequest;
+import com.banking.api.dto.TransactionResponse;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal endpoints used between cluster members. Callers must present the cluster secret
+ * (see {@link ClusterSecretFilter}).
+ */
+@RestController
+@RequestMapping("/internal")
+public class ClusterController {
+    private static final Logger log = LoggerFactory.getLogger(ClusterController.class);
+    static final String MEMBERS_PATH = "/internal/cluster/members";
+
+    private final ClusterMembership membership;
+    private final ShardClient shardClient;
+    private final CrossShardTransferCoordinator coordinator;
+    private final ShardRebalancer rebalancer;
+
+    @Autowired
+    public ClusterController(ClusterMembership membership, ShardClient shardClient,
+                             CrossShardTransferCoordinator coordinator, ShardRebalancer rebalancer) {
+        this.membership = membership;
+        this.shardClient = shardClient;
+        this.coordinator = coordinator;
+        this.rebalancer = rebalancer;
+    }
+
+    @GetMapping("/cluster/members")
+    public ResponseEntity<Map<String, String>> getMembers() {
+        return ResponseEntity.ok(membership.getMembers());
+    }
+
+    /**
+     * A node asks to join. The new member list is pushed to every member, and each one
+     * (this node included) hands over the accounts the newcomer now owns.
+     */
+    @PostMapping("/cluster/members")
+    public ResponseEntity<Map<String, String>> join(@RequestBody ClusterMemberRequest request) {
+        if (membership.addMember(request.getNodeId(), request.getUrl())) {
+            for (Map.Entry<String, String> member : membership.getMembers().entrySet()) {
+                if (member.getKey().equals(membership.getSelfId())) {
+                    continue;
+                }
+                try {
+                    shardClient.send("PUT", member.getValue(), MEMBERS_PATH, membership.getMembers());
+                } catch (IOException e) {
+                    log.warn("Could not send membership to {}: {}", member.getKey(), e.getMessage());
+                }
+            }
+            rebalancer.rebalanceAsync();
+        }
+        return ResponseEntity.ok(membership.getMembers());
+    }
+
+    @PutMapping("/cluster/members")
+    public ResponseEntity<Map<String, String>> syncMembers(@RequestBody Map<String, String> members) {
+        if (membership.mergeMembers(members)) {
+            rebalancer.rebalanceAsync();
+        }
+        return ResponseEntity.ok(membership.getMembers());
+    }
+
+    @PostMapping("/shard/transfer")
+    public ResponseEntity<TransactionResponse> crossShardTransfer(@RequestBody TransactionRequest request) {
+        Transaction transaction = coordinator.transfer(
+            request.getFromAccountId(),
+            request.getToAccountId(),
+            new Money(request.getAmount(), request.getCurrency()),
+            request.getDescription()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(ResponseCache.toResponse(transaction));
+    }
+
+    @PostMapping("/shard/transfers/{transactionId}/prepare")
+    public ResponseEntity<Void> prepare(@PathVariable String transactionId, @RequestBody ShardTransferRequest request) {
+        coordinator.prepare(transactionId, request);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/shard/transfers/{transactionId}/commit")
+    public ResponseEntity<Void> commit(@PathVariable String transactionId, @RequestBody ShardTransactionPayload payload) {
+        coordinator.commit(transactionId, payload);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/shard/transfers/{transactionId}/abort")
+    public ResponseEntity<Void> abort(@PathVariable String transactionId) {
+        coordinator.abort(transactionId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Transfers debited here whose credit the destination node kept refusing.
+     */
+    @GetMapping("/shard/transfers/stuck")
+    public ResponseEntity<List<ShardTransactionPayload>> getStuckTransfers() {
+        return ResponseEntity.ok(coordinator.getStuckTransfers());
+    }
+
+    @PostMapping("/shard/accounts")
+    public ResponseEntity<Void> importAccount(@RequestBody ShardAccountPayload payload) {
+        rebalancer.importAccount(payload);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+}
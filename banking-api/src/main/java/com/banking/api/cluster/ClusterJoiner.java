@@ -0,0 +1,47 @@
+package com.banking.api.cluster;
+
+import com.banking.api.dto.ClusterMemberRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+
+/**
+ * Joins the cluster through {@code banking.cluster.seed} once the application is ready.
+ */
+@Component
+public class ClusterJoiner {
+    private static final Logger log = LoggerFactory.getLogger(ClusterJoiner.class);
+
+    private final ClusterMembership membership;
+    private final ShardClient shardClient;
+    private final String seedUrl;
+
+    public ClusterJoiner(ClusterMembership membership, ShardClient shardClient,
+                         @Value("${banking.cluster.seed:}") String seedUrl) {
+        this.membership = membership;
+        this.shardClient = shardClient;
+        this.seedUrl = seedUrl;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        if (seedUrl.isEmpty()) {
+            return;
+        }
+        ClusterMemberRequest request = new ClusterMemberRequest();
+        request.setNodeId(membership.getSelfId());
+        request.setUrl(membership.urlOf(membership.getSelfId()));
+        try {
+            HttpResponse<byte[]> response = shardClient.send("POST", seedUrl, ClusterController.MEMBERS_PATH, request);
+            log.info("Joined cluster via {}: HTTP {}", seedUrl, response.statusCode());
+        } catch (IOException e) {
+            log.error("Could not join cluster via {}", seedUrl, e);
+        }
+    }
+}
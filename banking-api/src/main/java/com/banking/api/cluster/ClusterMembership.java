@@ -0,0 +1,113 @@
+package com.banking.api.cluster;
+
+import com.banking.core.cluster.ConsistentHashRing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This node's view of the cluster: member URLs and the consistent-hash ring that assigns
+ * account IDs to members. Views are immutable and swapped atomically on membership changes.
+ */
+public class ClusterMembership {
+    private final String selfId;
+    private final int virtualNodes;
+    private final AtomicReference<View> view;
+
+    public ClusterMembership(String selfId, Map<String, String> members, int virtualNodes) {
+        if (selfId == null || selfId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Node ID cannot be null or empty");
+        }
+        if (!members.containsKey(selfId)) {
+            throw new IllegalArgumentException("Cluster members must include this node: " + selfId);
+        }
+        this.selfId = selfId;
+        this.virtualNodes = virtualNodes;
+        this.view = new AtomicReference<>(new View(members, virtualNodes));
+    }
+
+    public String getSelfId() {
+        return selfId;
+    }
+
+    /**
+     * Sharding is only active once there is more than one member.
+     */
+    public boolean isClustered() {
+        return view.get().members.size() > 1;
+    }
+
+    public String ownerOf(String accountId) {
+        return view.get().ring.ownerOf(accountId);
+    }
+
+    public boolean isLocal(String accountId) {
+        return selfId.equals(ownerOf(accountId));
+    }
+
+    public String urlOf(String nodeId) {
+        String url = view.get().members.get(nodeId);
+        if (url == null) {
+            throw new IllegalArgumentException("Unknown cluster member: " + nodeId);
+        }
+        return url;
+    }
+
+    public Map<String, String> getMembers() {
+        return view.get().members;
+    }
+
+    /**
+     * Adds a member. Returns false if it was already known with the same URL.
+     */
+    public boolean addMember(String nodeId, String url) {
+        while (true) {
+            View current = view.get();
+            if (url.equals(current.members.get(nodeId))) {
+                return false;
+            }
+            Map<String, String> members = new LinkedHashMap<>(current.members);
+            members.put(nodeId, url);
+            if (view.compareAndSet(current, new View(members, virtualNodes))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adopts the member list of another node, keeping this node in it. Returns true if anything changed.
+     */
+    public boolean mergeMembers(Map<String, String> members) {
+        boolean changed = false;
+        for (Map.Entry<String, String> member : members.entrySet()) {
+            changed |= addMember(member.getKey(), member.getValue());
+        }
+        return changed;
+    }
+
+    /**
+     * Generates a random account ID that this node owns under the current ring.
+     */
+    public String newLocalAccountId() {
+        ConsistentHashRing ring = view.get().ring;
+        while (true) {
+            String candidate = UUID.randomUUID().toString();
+            if (selfId.equals(ring.ownerOf(candidate))) {
+                return candidate;
+            }
+        }
+    }
+
+    private static final class View {
+        private final Map<String, String> members;
+        private final ConsistentHashRing ring;
+
+        View(Map<String, String> members, int virtualNodes) {
+            this.members = Collections.unmodifiableMap(new LinkedHashMap<>(members));
+            this.ring = new ConsistentHashRing(virtualNodes, members.keySet());
+        }
+    }
+}
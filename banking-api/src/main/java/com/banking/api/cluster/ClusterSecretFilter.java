@@ -0,0 +1,34 @@
+package com.banking.api.cluster;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Lets only cluster members call the internal cluster and shard endpoints: a request must carry
+ * {@code banking.cluster.secret} in {@link ShardClient#SECRET_HEADER}, as every call made through
+ * {@link ShardClient} does. Without a configured secret these endpoints refuse every request.
+ * A cross-shard transfer that the {@link ShardRoutingFilter} forwards internally is a dispatch of
+ * an admitted API request and is not checked again.
+ */
+public class ClusterSecretFilter extends OncePerRequestFilter {
+    private final ShardClient shardClient;
+
+    public ClusterSecretFilter(ShardClient shardClient) {
+        this.shardClient = shardClient;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!shardClient.hasClusterSecret(request)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Cluster secret required");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
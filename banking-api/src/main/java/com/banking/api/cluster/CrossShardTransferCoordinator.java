@@ -0,0 +1,280 @@
+package com.banking.api.cluster;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.api.dto.ShardTransactionPayload;
+import com.banking.api.dto.ShardTransferRequest;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-phase transfers between accounts owned by different nodes.
+ * <p>
+ * The node owning the source account coordinates:
+ * <ol>
+ *   <li>withdraw the amount from the local source account (funds are now held),</li>
+ *   <li>ask the destination owner to <em>prepare</em>: it checks the account and remembers
+ *       the pending credit without applying it,</li>
+ *   <li>on success, record the transfer locally (the commit point) and tell the destination
+ *       to <em>commit</em>, which applies the credit and records the same transaction;
+ *       on failure, refund the source and tell the destination to <em>abort</em>.</li>
+ * </ol>
+ * Commits that cannot be delivered are retried in the background, every
+ * {@link #RETRY_INTERVAL_SECONDS} seconds up to {@code maxCommitAttempts} times; a commit that is
+ * still refused after that is kept as a stuck transfer ({@link #getStuckTransfers()}) for an
+ * operator to resolve, since the source has already been debited. The participant only applies a
+ * commit that matches the credit it prepared, and commit and abort are idempotent there. Prepared
+ * credits whose commit or abort never arrives, e.g. because the coordinator died, are forgotten
+ * after {@code preparedCreditTtlMillis}.
+ */
+public class CrossShardTransferCoordinator {
+    static final String TRANSFERS_PATH = "/internal/shard/transfers/";
+    static final long RETRY_INTERVAL_SECONDS = 5;
+
+    private static final Logger log = LoggerFactory.getLogger(CrossShardTransferCoordinator.class);
+
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final ClusterMembership membership;
+    private final ShardClient shardClient;
+    private final long preparedCreditTtlNanos;
+    private final int maxCommitAttempts;
+    private final Counter expiredCredits;
+
+    /** Coordinator side: committed transfers whose commit has not reached the participant yet. */
+    private final Map<String, PendingCommit> pendingCommits = new ConcurrentHashMap<>();
+    /** Coordinator side: committed transfers whose commit the participant kept refusing. */
+    private final Map<String, PendingCommit> stuckCommits = new ConcurrentHashMap<>();
+    /** Participant side: prepared credits waiting for commit or abort. */
+    private final Map<String, PreparedCredit> preparedCredits = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "shard-commit-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param preparedCreditTtlMillis how long a prepared credit waits for its commit or abort
+     * @param maxCommitAttempts       deliveries of a commit before its transfer is reported as stuck
+     */
+    public CrossShardTransferCoordinator(AccountService accountService, TransactionService transactionService,
+                                         ClusterMembership membership, ShardClient shardClient,
+                                         MetricsRegistry metrics, long preparedCreditTtlMillis,
+                                         int maxCommitAttempts) {
+        if (preparedCreditTtlMillis <= 0) {
+            throw new IllegalArgumentException("Prepared credit TTL must be positive");
+        }
+        if (maxCommitAttempts < 1) {
+            throw new IllegalArgumentException("Max commit attempts must be at least 1");
+        }
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.membership = membership;
+        this.shardClient = shardClient;
+        this.preparedCreditTtlNanos = TimeUnit.MILLISECONDS.toNanos(preparedCreditTtlMillis);
+        this.maxCommitAttempts = maxCommitAttempts;
+        this.expiredCredits = metrics.counter("banking_cluster_prepared_credits_expired_total",
+                "Prepared cross-shard credits forgotten without a commit or abort");
+        metrics.gauge("banking_cluster_pending_commits", "Cross-shard commits waiting to be delivered",
+                pendingCommits::size);
+        metrics.gauge("banking_cluster_stuck_transfers", "Cross-shard transfers whose commit was refused",
+                stuckCommits::size);
+        retryExecutor.scheduleWithFixedDelay(this::runMaintenance, RETRY_INTERVAL_SECONDS, RETRY_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    public Transaction transfer(String fromAccountId, String toAccountId, Money amount, String description) {
+        String transactionId = UUID.randomUUID().toString();
+        String participantUrl = membership.urlOf(membership.ownerOf(toAccountId));
+
+        // Phase 1: hold the funds locally, then ask the destination shard to prepare
+        transactionService.holdRemoteTransfer(fromAccountId, amount);
+        if (!prepareRemote(participantUrl, transactionId, toAccountId, amount)) {
+            transactionService.cancelRemoteTransfer(fromAccountId, amount);
+            sendQuietly(participantUrl, transactionId + "/abort", null);
+            throw new InvalidAccountException("Destination account rejected transfer: " + toAccountId);
+        }
+
+        // Phase 2: recording locally is the commit point; the participant is told afterwards
+        Transaction transaction = new Transaction(transactionId, fromAccountId, TransactionType.TRANSFER, amount,
+                description, toAccountId, LocalDateTime.now());
+        transactionService.completeRemoteTransfer(transaction);
+        PendingCommit commit = new PendingCommit(participantUrl, ShardPayloads.toPayload(transaction));
+        if (!commitRemote(commit)) {
+            pendingCommits.put(transactionId, commit);
+        }
+        return transaction;
+    }
+
+    /**
+     * Participant: validates the destination account and remembers the credit.
+     */
+    public void prepare(String transactionId, ShardTransferRequest request) {
+        Account account = accountService.getAccount(request.getToAccountId());
+        if (!account.isActive()) {
+            throw new InvalidAccountException("Account " + account.getAccountId() + " is not active");
+        }
+        Money amount = new Money(new BigDecimal(request.getAmount()), request.getCurrency());
+        if (!amount.getCurrency().equals(account.getBalance().getCurrency())) {
+            throw new IllegalArgumentException("Currency mismatch for account " + account.getAccountId());
+        }
+        preparedCredits.put(transactionId, new PreparedCredit(account.getAccountId(), amount, System.nanoTime()));
+    }
+
+    /**
+     * Participant: applies the credit and records the transfer under the destination account's lock.
+     * The commit must credit exactly the account and amount that were prepared for its transaction ID.
+     * A repeated commit of a transfer already applied is accepted without crediting it again. The
+     * prepared credit is only forgotten once the credit is applied, so a commit that fails here is
+     * retried by the coordinator.
+     */
+    public void commit(String transactionId, ShardTransactionPayload payload) {
+        Transaction transaction = ShardPayloads.fromPayload(payload);
+        if (!transactionId.equals(transaction.getTransactionId())) {
+            throw new IllegalArgumentException("Commit for " + transactionId + " carries transaction "
+                    + transaction.getTransactionId());
+        }
+        PreparedCredit prepared = preparedCredits.get(transactionId);
+        if (prepared == null) {
+            if (transactionService.hasTransaction(transactionId)) {
+                return;
+            }
+            throw new IllegalArgumentException("No prepared credit for transaction " + transactionId);
+        }
+        Money amount = transaction.getAmount();
+        if (!prepared.accountId.equals(transaction.getRelatedAccountId())
+                || !prepared.amount.getCurrency().equals(amount.getCurrency())
+                || prepared.amount.getAmount().compareTo(amount.getAmount()) != 0) {
+            throw new IllegalArgumentException("Commit for " + transactionId + " does not match the prepared credit of "
+                    + prepared.amount + " to " + prepared.accountId);
+        }
+        transactionService.applyRemoteTransfer(transaction);
+        preparedCredits.remove(transactionId);
+    }
+
+    public void abort(String transactionId) {
+        preparedCredits.remove(transactionId);
+    }
+
+    public int getPendingCommitCount() {
+        return pendingCommits.size();
+    }
+
+    public int getPreparedCreditCount() {
+        return preparedCredits.size();
+    }
+
+    /**
+     * @return committed transfers whose credit the participant refused {@code maxCommitAttempts}
+     * times; their source has been debited but the destination has not been credited
+     */
+    public List<ShardTransactionPayload> getStuckTransfers() {
+        List<ShardTransactionPayload> stuck = new ArrayList<>();
+        for (PendingCommit commit : stuckCommits.values()) {
+            stuck.add(commit.payload);
+        }
+        return stuck;
+    }
+
+    private boolean prepareRemote(String participantUrl, String transactionId, String toAccountId, Money amount) {
+        ShardTransferRequest request = new ShardTransferRequest();
+        request.setToAccountId(toAccountId);
+        request.setAmount(amount.getAmount().toPlainString());
+        request.setCurrency(amount.getCurrency());
+        return sendQuietly(participantUrl, transactionId + "/prepare", request);
+    }
+
+    private boolean commitRemote(PendingCommit commit) {
+        return sendQuietly(commit.participantUrl, commit.payload.getTransactionId() + "/commit", commit.payload);
+    }
+
+    private boolean sendQuietly(String participantUrl, String path, Object payload) {
+        try {
+            HttpResponse<byte[]> response = shardClient.send("POST", participantUrl, TRANSFERS_PATH + path, payload);
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void runMaintenance() {
+        try {
+            retryPendingCommits();
+            expirePreparedCredits(System.nanoTime());
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next run tries again.
+            log.error("Cross-shard transfer maintenance failed", e);
+        }
+    }
+
+    void retryPendingCommits() {
+        for (Map.Entry<String, PendingCommit> entry : pendingCommits.entrySet()) {
+            PendingCommit commit = entry.getValue();
+            if (commitRemote(commit)) {
+                pendingCommits.remove(entry.getKey());
+            } else if (++commit.attempts >= maxCommitAttempts) {
+                pendingCommits.remove(entry.getKey());
+                stuckCommits.put(entry.getKey(), commit);
+                log.error("Cross-shard transfer {} of {} {} to {} is stuck: {} refused its commit {} times",
+                        entry.getKey(), commit.payload.getAmount(), commit.payload.getCurrency(),
+                        commit.payload.getRelatedAccountId(), commit.participantUrl, commit.attempts);
+            }
+        }
+    }
+
+    void expirePreparedCredits(long nowNanos) {
+        for (Map.Entry<String, PreparedCredit> entry : preparedCredits.entrySet()) {
+            PreparedCredit credit = entry.getValue();
+            if (nowNanos - credit.preparedAtNanos >= preparedCreditTtlNanos
+                    && preparedCredits.remove(entry.getKey(), credit)) {
+                expiredCredits.increment();
+                log.warn("Forgot prepared credit {} of {} to {}: no commit or abort arrived", entry.getKey(),
+                        credit.amount, credit.accountId);
+            }
+        }
+    }
+
+    private static final class PendingCommit {
+        private final String participantUrl;
+        private final ShardTransactionPayload payload;
+        // Only touched by the retry thread once the commit is queued.
+        private int attempts = 1;
+
+        PendingCommit(String participantUrl, ShardTransactionPayload payload) {
+            this.participantUrl = participantUrl;
+            this.payload = payload;
+        }
+    }
+
+    private static final class PreparedCredit {
+        private final String accountId;
+        private final Money amount;
+        private final long preparedAtNanos;
+
+        PreparedCredit(String accountId, Money amount, long preparedAtNanos) {
+            this.accountId = accountId;
+            this.amount = amount;
+            this.preparedAtNanos = preparedAtNanos;
+        }
+    }
+}
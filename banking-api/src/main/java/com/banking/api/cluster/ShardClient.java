@@ -0,0 +1,127 @@
+package com.banking.api.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * HTTP client for calls between cluster members.
+ * <p>
+ * Every call carries {@link #FORWARDED_HEADER}, so the receiving node serves it locally
+ * instead of routing it again. With a cluster secret configured, calls also carry it in
+ * {@link #SECRET_HEADER}; only calls that do are {@linkplain #isTrustedForward trusted} to have
+ * been admitted by another member already.
+ */
+public class ShardClient {
+    public static final String FORWARDED_HEADER = "X-Banking-Forwarded-By";
+    public static final String SECRET_HEADER = "X-Banking-Cluster-Secret";
+    private static final Set<String> UNCOPIED_HEADERS = Set.of("connection", "content-length", "date",
+            "keep-alive", "transfer-encoding");
+
+    private final String selfId;
+    private final String secret;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    /**
+     * @param secret shared by all members, or empty to trust no forwarded request
+     */
+    public ShardClient(String selfId, String secret, ObjectMapper objectMapper) {
+        this.selfId = selfId;
+        this.secret = secret;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return whether the request was forwarded by a member holding the cluster secret. The
+     * {@link #FORWARDED_HEADER} alone can be sent by any client.
+     */
+    public boolean isTrustedForward(HttpServletRequest request) {
+        return request.getHeader(FORWARDED_HEADER) != null && hasClusterSecret(request);
+    }
+
+    /**
+     * @return whether the request carries the cluster secret; never true when no secret is configured
+     */
+    public boolean hasClusterSecret(HttpServletRequest request) {
+        String presented = request.getHeader(SECRET_HEADER);
+        return !secret.isEmpty() && presented != null
+                && MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                        presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replays an incoming API request against another member and copies its response back,
+     * including its headers.
+     */
+    public void forward(HttpServletRequest request, byte[] body, String baseUrl, HttpServletResponse response)
+            throws IOException {
+        String query = request.getQueryString();
+        URI target = URI.create(baseUrl + request.getRequestURI() + (query != null ? "?" + query : ""));
+        HttpRequest.Builder builder = identify(HttpRequest.newBuilder(target))
+                .timeout(Duration.ofSeconds(30))
+                .method(request.getMethod(), body.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (request.getContentType() != null) {
+            builder.header("Content-Type", request.getContentType());
+        }
+        HttpResponse<byte[]> remote = send(builder.build());
+        response.setStatus(remote.statusCode());
+        remote.headers().map().forEach((name, values) -> {
+            if (!UNCOPIED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        response.getOutputStream().write(remote.body());
+    }
+
+    public HttpResponse<byte[]> get(String baseUrl, String pathAndQuery) throws IOException {
+        return send(identify(HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery)))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build());
+    }
+
+    /**
+     * Sends {@code payload} as JSON and returns the response, whatever its status.
+     */
+    public HttpResponse<byte[]> send(String method, String baseUrl, String path, Object payload) throws IOException {
+        byte[] json = payload != null ? objectMapper.writeValueAsBytes(payload) : new byte[0];
+        return send(identify(HttpRequest.newBuilder(URI.create(baseUrl + path)))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(json))
+                .build());
+    }
+
+    private HttpRequest.Builder identify(HttpRequest.Builder builder) {
+        builder.header(FORWARDED_HEADER, selfId);
+        if (!secret.isEmpty()) {
+            builder.header(SECRET_HEADER, secret);
+        }
+        return builder;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted calling " + request.uri(), e);
+        }
+    }
+}
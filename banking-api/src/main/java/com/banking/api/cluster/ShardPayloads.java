@@ -0,0 +1,74 @@
+package com.banking.api.cluster;
+
+import com.banking.account.domain.Account;
+import com.banking.api.dto.ShardAccountPayload;
+import com.banking.api.dto.ShardTransactionPayload;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts between domain objects and the full-precision payloads exchanged between shards.
+ */
+public final class ShardPayloads {
+
+    private ShardPayloads() {
+    }
+
+    public static ShardTransactionPayload toPayload(Transaction transaction) {
+        ShardTransactionPayload payload = new ShardTransactionPayload();
+        payload.setTransactionId(transaction.getTransactionId());
+        payload.setAccountId(transaction.getAccountId());
+        payload.setType(transaction.getType().name());
+        payload.setAmount(transaction.getAmount().getAmount().toPlainString());
+        payload.setCurrency(transaction.getAmount().getCurrency());
+        payload.setTimestamp(transaction.getTimestamp().toString());
+        payload.setDescription(transaction.getDescription());
+        payload.setRelatedAccountId(transaction.getRelatedAccountId());
+        return payload;
+    }
+
+    public static Transaction fromPayload(ShardTransactionPayload payload) {
+        return new Transaction(
+            payload.getTransactionId(),
+            payload.getAccountId(),
+            TransactionType.valueOf(payload.getType()),
+            new Money(new BigDecimal(payload.getAmount()), payload.getCurrency()),
+            payload.getDescription(),
+            payload.getRelatedAccountId(),
+            LocalDateTime.parse(payload.getTimestamp())
+        );
+    }
+
+    static ShardAccountPayload toPayload(Account account, boolean active, List<Transaction> history) {
+        ShardAccountPayload payload = new ShardAccountPayload();
+        payload.setAccountId(account.getAccountId());
+        payload.setCustomerId(account.getCustomerId());
+        payload.setAccountType(account.getAccountType().name());
+        payload.setBalance(account.getBalance().getAmount().toPlainString());
+        payload.setCurrency(account.getBalance().getCurrency());
+        payload.setActive(active);
+        List<ShardTransactionPayload> transactions = new ArrayList<>(history.size());
+        for (Transaction transaction : history) {
+            transactions.add(toPayload(transaction));
+        }
+        payload.setTransactions(transactions);
+        return payload;
+    }
+
+    static Account fromPayload(ShardAccountPayload payload) {
+        return new Account(
+            payload.getAccountId(),
+            payload.getCustomerId(),
+            AccountType.valueOf(payload.getAccountType()),
+            new Money(new BigDecimal(payload.getBalance()), payload.getCurrency()),
+            payload.isActive()
+        );
+    }
+}
@@ -0,0 +1,119 @@
+package com.banking.api.cluster;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.api.dto.ShardAccountPayload;
+import com.banking.api.dto.ShardTransactionPayload;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves accounts this node no longer owns to their new owner after a membership change.
+ * <p>
+ * Each account is deactivated under its lock before it is shipped, so operations that
+ * were already waiting on it fail instead of updating a copy that is about to be dropped.
+ * A striped account also has its stripes folded back first, since deposits into stripes
+ * do not take the account lock.
+ * The account is then imported (with its original status and history) on the new owner
+ * and removed here; requests arriving in the meantime are routed to the new owner.
+ */
+public class ShardRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+    static final String IMPORT_PATH = "/internal/shard/accounts";
+
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final ClusterMembership membership;
+    private final ShardClient shardClient;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "shard-rebalancer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShardRebalancer(AccountService accountService, TransactionService transactionService,
+                           ClusterMembership membership, ShardClient shardClient) {
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.membership = membership;
+        this.shardClient = shardClient;
+    }
+
+    public void rebalanceAsync() {
+        executor.execute(this::rebalance);
+    }
+
+    /**
+     * Ships every account owned by another member to it. Returns the number of accounts moved.
+     */
+    public int rebalance() {
+        int moved = 0;
+        for (Account account : accountService.getAllAccounts()) {
+            String owner = membership.ownerOf(account.getAccountId());
+            if (!owner.equals(membership.getSelfId()) && migrate(account, membership.urlOf(owner))) {
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            pruneForeignTransactions();
+            log.info("Moved {} accounts to other shards", moved);
+        }
+        return moved;
+    }
+
+    /**
+     * Participant side of a migration.
+     */
+    public void importAccount(ShardAccountPayload payload) {
+        for (ShardTransactionPayload transaction : payload.getTransactions()) {
+            transactionService.recordTransaction(ShardPayloads.fromPayload(transaction));
+        }
+        if (!accountService.hasAccount(payload.getAccountId())) {
+            accountService.importAccount(ShardPayloads.fromPayload(payload));
+        }
+    }
+
+    private boolean migrate(Account account, String ownerUrl) {
+        account.lock();
+        boolean wasActive = account.isActive();
+        try {
+            account.deactivate();
+            account.disableStriping();
+            List<Transaction> history = transactionService.getTransactionsByAccount(account.getAccountId());
+            ShardAccountPayload payload = ShardPayloads.toPayload(account, wasActive, history);
+            HttpResponse<byte[]> response = shardClient.send("POST", ownerUrl, IMPORT_PATH, payload);
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            accountService.removeAccount(account.getAccountId());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not migrate account {} to {}: {}", account.getAccountId(), ownerUrl, e.getMessage());
+            if (wasActive) {
+                account.activate();
+            }
+            return false;
+        } finally {
+            account.unlock();
+        }
+    }
+
+    private void pruneForeignTransactions() {
+        for (Transaction transaction : transactionService.getAllTransactions()) {
+            boolean local = accountService.hasAccount(transaction.getAccountId())
+                    || (transaction.getRelatedAccountId() != null
+                        && accountService.hasAccount(transaction.getRelatedAccountId()));
+            if (!local) {
+                transactionService.removeTransaction(transaction.getTransactionId());
+            }
+        }
+    }
+}
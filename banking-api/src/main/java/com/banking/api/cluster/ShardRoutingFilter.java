@@ -0,0 +1,237 @@
+package com.banking.api.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Routes API requests to the node that owns the account they touch.
+ * <p>
+ * Single-account reads and writes for a remote account are forwarded to its owner, both under
+ * {@code /api/transactions} and under {@code /api/async/transactions}. Transfers are forwarded
+ * to the owner of the source account; if the destination lives on another node, the source
+ * owner runs the two-phase {@link CrossShardTransferCoordinator}. A netted settlement batch is
+ * forwarded to the node that owns all of its accounts and refused with 400 if its accounts are
+ * owned by more than one node, since netting needs every balance under one node's locks.
+ * Listing endpoints ({@code GET /api/accounts}, {@code GET /api/accounts/customer/{id}}) are
+ * answered by merging the results of every member, and a customer valuation
+ * ({@code GET /api/accounts/customer/{id}/valuation}) by adding up every member's total and
+ * positions. Requests already forwarded by another member are always served locally.
+ */
+public class ShardRoutingFilter extends OncePerRequestFilter {
+    static final String CROSS_SHARD_TRANSFER_PATH = "/internal/shard/transfer";
+
+    private static final String SEARCH_PATH = "/api/transactions/search";
+    private static final String SNAPSHOT_PATH = "/api/accounts/snapshot";
+    private static final Pattern ACCOUNT_PATH = Pattern.compile("^/api/accounts/([^/]+)(/balance)?$");
+    private static final Pattern HISTORY_PATH = Pattern.compile("^/api(?:/async)?/transactions/account/([^/]+)$");
+    private static final Pattern WRITE_PATH = Pattern.compile("^/api(?:/async)?/transactions/.+$");
+    private static final String SETTLEMENT_PATH = "/api/transactions/settlements";
+    private static final Pattern TRANSFER_PATH = Pattern.compile("^/api(?:/async)?/transactions/transfer$");
+    private static final Pattern CUSTOMER_PATH = Pattern.compile("^/api/accounts/customer/[^/]+$");
+    private static final Pattern VALUATION_PATH = Pattern.compile("^/api/accounts/customer/[^/]+/valuation$");
+
+    private final ClusterMembership membership;
+    private final ShardClient shardClient;
+    private final ObjectMapper objectMapper;
+
+    public ShardRoutingFilter(ClusterMembership membership, ShardClient shardClient, ObjectMapper objectMapper) {
+        this.membership = membership;
+        this.shardClient = shardClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !membership.isClustered()
+                || request.getHeader(ShardClient.FORWARDED_HEADER) != null
+                || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        if ("GET".equals(request.getMethod())) {
+            routeRead(uri, request, response, filterChain);
+        } else if ("POST".equals(request.getMethod()) && WRITE_PATH.matcher(uri).matches()) {
+            routeWrite(uri, new CachedBodyRequest(request), response, filterChain);
+        } else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private void routeRead(String uri, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (uri.equals("/api/accounts") || CUSTOMER_PATH.matcher(uri).matches()) {
+            gather(request, response, filterChain, ShardRoutingFilter::concat);
+            return;
+        }
+        if (VALUATION_PATH.matcher(uri).matches()) {
+            gather(request, response, filterChain, ShardRoutingFilter::addValuations);
+            return;
+        }
+        if (uri.equals(SEARCH_PATH)) {
+            String accountId = request.getParameter("accountId");
+            if (accountId == null) {
+                gather(request, response, filterChain, ShardRoutingFilter::concat);
+            } else if (membership.isLocal(accountId)) {
+                filterChain.doFilter(request, response);
+            } else {
+                shardClient.forward(request, new byte[0], membership.urlOf(membership.ownerOf(accountId)), response);
+            }
+            return;
+        }
+        if (uri.equals(SNAPSHOT_PATH)) {
+            // Each node exports the balances of the accounts it owns.
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Matcher account = ACCOUNT_PATH.matcher(uri);
+        Matcher history = HISTORY_PATH.matcher(uri);
+        String accountId = account.matches() ? account.group(1) : history.matches() ? history.group(1) : null;
+        if (accountId == null || membership.isLocal(accountId)) {
+            filterChain.doFilter(request, response);
+        } else {
+            shardClient.forward(request, new byte[0], membership.urlOf(membership.ownerOf(accountId)), response);
+        }
+    }
+
+    private void routeWrite(String uri, CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        JsonNode body = request.getBody().length > 0 ? objectMapper.readTree(request.getBody()) : null;
+        if (body == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (uri.equals(SETTLEMENT_PATH) && body.isArray()) {
+            String owner = settlementOwner(body);
+            if (owner == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                        "A netted settlement must only touch accounts owned by one cluster member");
+            } else if (owner.equals(membership.getSelfId())) {
+                filterChain.doFilter(request, response);
+            } else {
+                shardClient.forward(request, request.getBody(), membership.urlOf(owner), response);
+            }
+            return;
+        }
+        if (TRANSFER_PATH.matcher(uri).matches()) {
+            String from = body.path("fromAccountId").asText(null);
+            String to = body.path("toAccountId").asText(null);
+            if (from == null || to == null) {
+                filterChain.doFilter(request, response);
+            } else if (!membership.isLocal(from)) {
+                shardClient.forward(request, request.getBody(), membership.urlOf(membership.ownerOf(from)), response);
+            } else if (!membership.isLocal(to)) {
+                request.getRequestDispatcher(CROSS_SHARD_TRANSFER_PATH).forward(request, response);
+            } else {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+        String accountId = body.path("accountId").asText(null);
+        if (accountId == null || membership.isLocal(accountId)) {
+            filterChain.doFilter(request, response);
+        } else {
+            shardClient.forward(request, request.getBody(), membership.urlOf(membership.ownerOf(accountId)), response);
+        }
+    }
+
+    /**
+     * Returns the member that owns every account of a settlement batch, or null if they are owned by
+     * more than one. Instructions without account IDs are left for the local node to reject.
+     */
+    String settlementOwner(JsonNode batch) {
+        String owner = membership.getSelfId();
+        boolean seen = false;
+        for (JsonNode instruction : batch) {
+            for (String field : new String[] {"fromAccountId", "toAccountId"}) {
+                String accountId = instruction.path(field).asText(null);
+                if (accountId == null) {
+                    continue;
+                }
+                String accountOwner = membership.ownerOf(accountId);
+                if (seen && !accountOwner.equals(owner)) {
+                    return null;
+                }
+                owner = accountOwner;
+                seen = true;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Serves the request locally and from every other member and combines the JSON results with
+     * {@code merge}, which may modify and return its first argument.
+     */
+    private void gather(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                        BinaryOperator<JsonNode> merge) throws ServletException, IOException {
+        ContentCachingResponseWrapper local = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, local);
+        if (local.getStatus() != HttpServletResponse.SC_OK) {
+            local.copyBodyToResponse();
+            return;
+        }
+        JsonNode merged = objectMapper.readTree(local.getContentAsByteArray());
+        local.resetBuffer();
+
+        String query = request.getQueryString();
+        String pathAndQuery = request.getRequestURI() + (query != null ? "?" + query : "");
+        boolean partial = false;
+        for (Map.Entry<String, String> member : membership.getMembers().entrySet()) {
+            if (member.getKey().equals(membership.getSelfId())) {
+                continue;
+            }
+            try {
+                HttpResponse<byte[]> remote = shardClient.get(member.getValue(), pathAndQuery);
+                if (remote.statusCode() == HttpServletResponse.SC_OK) {
+                    merged = merge.apply(merged, objectMapper.readTree(remote.body()));
+                } else {
+                    partial = true;
+                }
+            } catch (IOException e) {
+                partial = true;
+            }
+        }
+        if (partial) {
+            response.setHeader("X-Banking-Partial-Result", "true");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        byte[] json = objectMapper.writeValueAsBytes(merged);
+        response.setContentLength(json.length);
+        response.getOutputStream().write(json);
+    }
+
+    private static JsonNode concat(JsonNode merged, JsonNode remote) {
+        return ((ArrayNode) merged).addAll((ArrayNode) remote);
+    }
+
+    /**
+     * Adds a member's valuation of the same customer to {@code merged}: totals are summed as decimals
+     * and positions appended.
+     */
+    static JsonNode addValuations(JsonNode merged, JsonNode remote) {
+        ObjectNode valuation = (ObjectNode) merged;
+        valuation.put("totalValue", valuation.path("totalValue").decimalValue()
+                .add(remote.path("totalValue").decimalValue()));
+        ((ArrayNode) valuation.path("accounts")).addAll((ArrayNode) remote.path("accounts"));
+        return valuation;
+    }
+}
@@ -0,0 +1,23 @@
+package com.banking.api.coalesce;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.coalesce.CoalescedReads;
+import com.banking.transaction.service.TransactionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Coalesces concurrent identical history and customer account list requests.
+ */
+@Configuration
+public class CoalescingConfig {
+
+    @Bean
+    public CoalescedReads coalescedReads(AccountService accountService, TransactionService transactionService,
+                                         MetricsRegistry metricsRegistry) {
+        CoalescedReads reads = new CoalescedReads(accountService, transactionService, metricsRegistry);
+        reads.attach();
+        return reads;
+    }
+}
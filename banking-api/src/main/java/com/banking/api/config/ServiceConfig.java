@@ -1,7 +1,16 @@
 package com.banking.api.config;
 
 import com.banking.account.service.AccountService;
+import com.banking.api.bulk.BulkImporter;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.hotspot.HotAccountDetector;
+import com.banking.transaction.search.TransactionSearchIndex;
+import com.banking.transaction.store.HeapTransactionStore;
+import com.banking.transaction.store.SlabTransactionStore;
+import com.banking.transaction.store.TransactionStore;
 import com.banking.transaction.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -9,13 +18,60 @@ import org.springframework.context.annotation.Configuration;
 public class ServiceConfig {
 
     @Bean
-    public AccountService accountService() {
-        return new AccountService();
+    public MetricsRegistry metricsRegistry() {
+        return new MetricsRegistry();
     }
 
     @Bean
-    public TransactionService transactionService(AccountService accountService) {
-        return new TransactionService(accountService);
+    public AccountService accountService(MetricsRegistry metricsRegistry) {
+        AccountService accountService = new AccountService();
+        metricsRegistry.gauge("banking_accounts", "Number of accounts", accountService::getAccountCount);
+        return accountService;
     }
-}
 
+    @Bean
+    public TransactionService transactionService(AccountService accountService, MetricsRegistry metricsRegistry,
+                                                 @Value("${banking.hot-accounts.enabled:true}") boolean hotAccountsEnabled,
+                                                 @Value("${banking.transaction-store:heap}") String storeType) {
+        TransactionStore store;
+        if ("slab".equals(storeType)) {
+            SlabTransactionStore slabStore = new SlabTransactionStore();
+            metricsRegistry.gauge("banking_transaction_store_slab_bytes", "Direct memory held by transaction slabs",
+                    slabStore::getSlabBytes);
+            metricsRegistry.gauge("banking_transaction_store_overflow_bytes",
+                    "Direct memory held by transaction values stored outside their records",
+                    slabStore::getOverflowBytes);
+            store = slabStore;
+        } else if ("heap".equals(storeType)) {
+            store = new HeapTransactionStore();
+        } else {
+            throw new IllegalArgumentException("Unknown banking.transaction-store: " + storeType);
+        }
+        TransactionService transactionService = new TransactionService(accountService, metricsRegistry, store);
+        if (hotAccountsEnabled) {
+            transactionService.setHotAccountDetector(new HotAccountDetector());
+        }
+        return transactionService;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "banking.search.enabled", havingValue = "true")
+    public TransactionSearchIndex transactionSearchIndex(TransactionService transactionService,
+                                                         MetricsRegistry metricsRegistry) {
+        TransactionSearchIndex index = new TransactionSearchIndex(transactionService);
+        metricsRegistry.gauge("banking_search_index_terms", "Distinct terms in the transaction search index",
+                index::getTermCount);
+        metricsRegistry.gauge("banking_search_index_postings_bytes", "Encoded size of the search index postings",
+                index::getPostingsBytes);
+        return index;
+    }
+
+    @Bean
+    public BulkImporter bulkImporter(AccountService accountService, TransactionService transactionService,
+                                     @Value("${banking.bulk-import.parallelism:0}") int parallelism,
+                                     @Value("${banking.bulk-import.batch-size:1000}") int batchSize,
+                                     @Value("${banking.bulk-import.max-errors:10000}") int maxErrors) {
+        int lanes = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new BulkImporter(accountService, transactionService, lanes, batchSize, maxErrors);
+    }
+}
@@ -2,17 +2,31 @@ package com.banking.api.controller;
 
 import com.banking.account.domain.Account;
 import com.banking.account.service.AccountService;
+import com.banking.account.snapshot.BalanceSnapshot;
+import com.banking.api.cache.ResponseCache;
 import com.banking.api.dto.AccountCreateRequest;
 import com.banking.api.dto.AccountResponse;
+import com.banking.api.dto.CustomerValuationResponse;
 import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
+import com.banking.core.fx.FxRateCache;
+import com.banking.core.fx.FxRates;
+import com.banking.transaction.coalesce.CoalescedReads;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -20,10 +34,17 @@ import java.util.stream.Collectors;
 public class AccountController {
 
     private final AccountService accountService;
+    private final FxRateCache fxRateCache;
+    private final ResponseCache responseCache;
+    private final CoalescedReads coalescedReads;
 
     @Autowired
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, FxRateCache fxRateCache, ResponseCache responseCache,
+                             CoalescedReads coalescedReads) {
         this.accountService = accountService;
+        this.fxRateCache = fxRateCache;
+        this.responseCache = responseCache;
+        this.coalescedReads = coalescedReads;
     }
 
     @PostMapping
@@ -33,31 +54,57 @@ public class AccountController {
             AccountType.valueOf(request.getAccountType()),
             new Money(request.getInitialBalance(), request.getCurrency())
         );
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(account));
+        return ResponseEntity.status(HttpStatus.CREATED).body(ResponseCache.toResponse(account));
     }
 
     @GetMapping("/{accountId}")
-    public ResponseEntity<AccountResponse> getAccount(@PathVariable String accountId) {
+    public ResponseEntity<byte[]> getAccount(@PathVariable String accountId) {
         Account account = accountService.getAccount(accountId);
-        return ResponseEntity.ok(toResponse(account));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseCache.account(account));
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<AccountResponse>> getAccountsByCustomer(@PathVariable String customerId) {
-        List<Account> accounts = accountService.getAccountsByCustomer(customerId);
-        List<AccountResponse> responses = accounts.stream()
-            .map(this::toResponse)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<byte[]> getAccountsByCustomer(@PathVariable String customerId) {
+        List<Account> accounts = coalescedReads.getAccountsByCustomer(customerId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseCache.accounts(accounts));
+    }
+
+    /**
+     * Values all of a customer's accounts in one currency, using a single rate table for every account.
+     */
+    @GetMapping("/customer/{customerId}/valuation")
+    public ResponseEntity<CustomerValuationResponse> getCustomerValuation(@PathVariable String customerId,
+                                                                          @RequestParam String currency) {
+        FxRates rates = fxRateCache.current();
+        if (!rates.supports(currency)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No exchange rate for " + currency);
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        List<CustomerValuationResponse.Position> positions = new ArrayList<>();
+        for (Account account : accountService.getAccountsByCustomer(customerId)) {
+            Money balance = account.getBalance();
+            Money value = rates.convert(balance, currency);
+            total = total.add(value.getAmount());
+            CustomerValuationResponse.Position position = new CustomerValuationResponse.Position();
+            position.setAccountId(account.getAccountId());
+            position.setBalance(balance.getAmount());
+            position.setCurrency(balance.getCurrency());
+            position.setValue(value.getAmount());
+            positions.add(position);
+        }
+        CustomerValuationResponse response = new CustomerValuationResponse();
+        response.setCustomerId(customerId);
+        response.setCurrency(currency);
+        response.setTotalValue(total);
+        response.setRatesAsOf(rates.getAsOf().toString());
+        response.setAccounts(positions);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<AccountResponse>> getAllAccounts() {
+    public ResponseEntity<byte[]> getAllAccounts() {
         List<Account> accounts = accountService.getAllAccounts();
-        List<AccountResponse> responses = accounts.stream()
-            .map(this::toResponse)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseCache.accounts(accounts));
     }
 
     @GetMapping("/{accountId}/balance")
@@ -66,14 +113,30 @@ public class AccountController {
         return ResponseEntity.ok(balance);
     }
 
-    private AccountResponse toResponse(Account account) {
-        AccountResponse response = new AccountResponse();
-        response.setAccountId(account.getAccountId());
-        response.setCustomerId(account.getCustomerId());
-        response.setAccountType(account.getAccountType().name());
-        response.setBalance(account.getBalance().getAmount().doubleValue());
-        response.setCurrency(account.getBalance().getCurrency());
-        response.setActive(account.isActive());
-        return response;
+    /**
+     * Consistent point-in-time export of all balances on this node, as CSV or binary
+     * (see {@link BalanceSnapshot}).
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<StreamingResponseBody> getSnapshot(@RequestParam(defaultValue = "csv") String format) {
+        boolean binary;
+        if ("csv".equalsIgnoreCase(format)) {
+            binary = false;
+        } else if ("binary".equalsIgnoreCase(format)) {
+            binary = true;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown snapshot format: " + format);
+        }
+        BalanceSnapshot snapshot = accountService.takeSnapshot();
+        String fileName = "balances-" + snapshot.getTakenAt().getEpochSecond() + "-" + snapshot.getEpoch()
+                + (binary ? ".bin" : ".csv");
+        StreamingResponseBody body = binary ? snapshot::writeBinary : out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            snapshot.writeCsv(writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(binary ? MediaType.APPLICATION_OCTET_STREAM : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
     }
 }
\ No newline at end of file
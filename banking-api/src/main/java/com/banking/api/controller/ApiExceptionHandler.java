@@ -0,0 +1,46 @@
+package com.banking.api.controller;
+
+import com.banking.core.exception.AuditUnavailableException;
+import com.banking.core.exception.InsufficientFundsException;
+import com.banking.core.exception.InvalidAccountException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Gives each refusal of the banking services its own HTTP status, so that callers (and nodes
+ * that forwarded a request, such as the binary gateway) can tell them apart from a failure:
+ * an unknown or inactive account is 404, insufficient funds is 422 and any other rejected
+ * argument is 400. A change that could not be audited is 503: it was made, but the caller is told
+ * the audit trail is not keeping up. Failures the controllers map themselves keep their status.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(InvalidAccountException.class)
+    public ResponseEntity<Map<String, String>> invalidAccount(InvalidAccountException e) {
+        return error(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<Map<String, String>> insufficientFunds(InsufficientFundsException e) {
+        return error(HttpStatus.UNPROCESSABLE_ENTITY, e);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> rejected(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e);
+    }
+
+    @ExceptionHandler(AuditUnavailableException.class)
+    public ResponseEntity<Map<String, String>> auditUnavailable(AuditUnavailableException e) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, e);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, RuntimeException e) {
+        return ResponseEntity.status(status).body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+}
@@ -0,0 +1,99 @@
+package com.banking.api.controller;
+
+import com.banking.api.cache.ResponseCache;
+import com.banking.api.dto.TransactionRequest;
+import com.banking.api.dto.TransactionResponse;
+import com.banking.core.domain.Money;
+import com.banking.core.exception.VelocityLimitExceededException;
+import com.banking.transaction.async.AsyncTransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Same operations as {@link TransactionController}, run through {@link AsyncTransactionService}:
+ * the servlet thread is released while the operation runs and the response is written when it
+ * completes.
+ */
+@RestController
+@RequestMapping("/api/async/transactions")
+public class AsyncTransactionController {
+
+    private final AsyncTransactionService asyncTransactionService;
+
+    @Autowired
+    public AsyncTransactionController(AsyncTransactionService asyncTransactionService) {
+        this.asyncTransactionService = asyncTransactionService;
+    }
+
+    @PostMapping("/deposit")
+    public CompletableFuture<ResponseEntity<TransactionResponse>> deposit(@RequestBody TransactionRequest request) {
+        return mapErrors(asyncTransactionService.depositAsync(
+            request.getAccountId(),
+            new Money(request.getAmount(), request.getCurrency()),
+            request.getDescription()
+        ).thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED)
+            .body(ResponseCache.toResponse(transaction))));
+    }
+
+    @PostMapping("/withdraw")
+    public CompletableFuture<ResponseEntity<TransactionResponse>> withdraw(@RequestBody TransactionRequest request) {
+        return mapErrors(asyncTransactionService.withdrawAsync(
+            request.getAccountId(),
+            new Money(request.getAmount(), request.getCurrency()),
+            request.getDescription()
+        ).thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED)
+            .body(ResponseCache.toResponse(transaction))));
+    }
+
+    @PostMapping("/transfer")
+    public CompletableFuture<ResponseEntity<TransactionResponse>> transfer(@RequestBody TransactionRequest request) {
+        return mapErrors(asyncTransactionService.transferAsync(
+            request.getFromAccountId(),
+            request.getToAccountId(),
+            new Money(request.getAmount(), request.getCurrency()),
+            request.getDescription()
+        ).thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED)
+            .body(ResponseCache.toResponse(transaction))));
+    }
+
+    @GetMapping("/account/{accountId}")
+    public CompletableFuture<ResponseEntity<List<TransactionResponse>>> getTransactionsByAccount(
+            @PathVariable String accountId) {
+        return mapErrors(asyncTransactionService.getTransactionsByAccountAsync(accountId)
+            .thenApply(transactions -> ResponseEntity.ok(transactions.stream()
+                .map(ResponseCache::toResponse)
+                .collect(Collectors.toList()))));
+    }
+
+    /**
+     * Maps the failures that {@link TransactionController} turns into statuses; others reach
+     * Spring unchanged.
+     */
+    private static <T> CompletableFuture<T> mapErrors(CompletableFuture<T> future) {
+        return future.handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof VelocityLimitExceededException) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, cause.getMessage());
+            }
+            if (cause instanceof RejectedExecutionException) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, cause.getMessage());
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CompletionException(cause);
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.banking.api.controller;
+
+import com.banking.core.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    private final MetricsRegistry metricsRegistry;
+
+    @Autowired
+    public MetricsController(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> metrics() throws IOException {
+        StringBuilder body = new StringBuilder(8192);
+        metricsRegistry.writePrometheus(body);
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(body.toString());
+    }
+}
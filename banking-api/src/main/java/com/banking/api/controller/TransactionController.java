@@ -1,15 +1,26 @@
 package com.banking.api.controller;
 
+import com.banking.api.cache.ResponseCache;
 import com.banking.api.dto.TransactionRequest;
 import com.banking.api.dto.TransactionResponse;
 import com.banking.core.domain.Money;
+import com.banking.core.exception.VelocityLimitExceededException;
+import com.banking.transaction.coalesce.CoalescedReads;
 import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.netting.TransferInstruction;
+import com.banking.transaction.search.TransactionSearchIndex;
 import com.banking.transaction.service.TransactionService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -18,10 +29,17 @@ import java.util.stream.Collectors;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final ObjectProvider<TransactionSearchIndex> searchIndex;
+    private final ResponseCache responseCache;
+    private final CoalescedReads coalescedReads;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, ObjectProvider<TransactionSearchIndex> searchIndex,
+                                 ResponseCache responseCache, CoalescedReads coalescedReads) {
         this.transactionService = transactionService;
+        this.searchIndex = searchIndex;
+        this.responseCache = responseCache;
+        this.coalescedReads = coalescedReads;
     }
 
     @PostMapping("/deposit")
@@ -31,56 +49,93 @@ public class TransactionController {
             new Money(request.getAmount(), request.getCurrency()),
             request.getDescription()
         );
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction));
+        return ResponseEntity.status(HttpStatus.CREATED).body(ResponseCache.toResponse(transaction));
     }
 
     @PostMapping("/withdraw")
     public ResponseEntity<TransactionResponse> withdraw(@RequestBody TransactionRequest request) {
-        Transaction transaction = transactionService.withdraw(
-            request.getAccountId(),
-            new Money(request.getAmount(), request.getCurrency()),
-            request.getDescription()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction));
+        Transaction transaction;
+        try {
+            transaction = transactionService.withdraw(
+                request.getAccountId(),
+                new Money(request.getAmount(), request.getCurrency()),
+                request.getDescription()
+            );
+        } catch (VelocityLimitExceededException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(ResponseCache.toResponse(transaction));
     }
 
     @PostMapping("/transfer")
     public ResponseEntity<TransactionResponse> transfer(@RequestBody TransactionRequest request) {
-        Transaction transaction = transactionService.transfer(
-            request.getFromAccountId(),
-            request.getToAccountId(),
-            new Money(request.getAmount(), request.getCurrency()),
-            request.getDescription()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(transaction));
+        Transaction transaction;
+        try {
+            transaction = transactionService.transfer(
+                request.getFromAccountId(),
+                request.getToAccountId(),
+                new Money(request.getAmount(), request.getCurrency()),
+                request.getDescription()
+            );
+        } catch (VelocityLimitExceededException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(ResponseCache.toResponse(transaction));
     }
 
-    @GetMapping("/account/{accountId}")
-    public ResponseEntity<List<TransactionResponse>> getTransactionsByAccount(@PathVariable String accountId) {
-        List<Transaction> transactions = transactionService.getTransactionsByAccount(accountId);
+    @PostMapping("/settlements")
+    public ResponseEntity<List<TransactionResponse>> settleNetted(@RequestBody List<TransactionRequest> requests) {
+        List<TransferInstruction> instructions = new ArrayList<>(requests.size());
+        for (TransactionRequest request : requests) {
+            instructions.add(new TransferInstruction(
+                request.getFromAccountId(),
+                request.getToAccountId(),
+                new Money(request.getAmount(), request.getCurrency()),
+                request.getDescription()
+            ));
+        }
+        List<Transaction> transactions;
+        try {
+            transactions = transactionService.settleNetted(instructions);
+        } catch (VelocityLimitExceededException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        }
         List<TransactionResponse> responses = transactions.stream()
-            .map(this::toResponse)
+            .map(ResponseCache::toResponse)
             .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.status(HttpStatus.CREATED).body(responses);
+    }
+
+    @GetMapping("/account/{accountId}")
+    public ResponseEntity<byte[]> getTransactionsByAccount(@PathVariable String accountId) {
+        List<Transaction> transactions = coalescedReads.getTransactionsByAccount(accountId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseCache.transactions(transactions));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<byte[]> searchTransactions(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int limit) {
+        TransactionSearchIndex index = searchIndex.getIfAvailable();
+        if (index == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction search is not enabled");
+        }
+        List<Transaction> transactions;
+        try {
+            transactions = index.search(q, accountId, from, to, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseCache.transactions(transactions));
     }
 
     @GetMapping("/{transactionId}")
-    public ResponseEntity<TransactionResponse> getTransaction(@PathVariable String transactionId) {
+    public ResponseEntity<byte[]> getTransaction(@PathVariable String transactionId) {
         Transaction transaction = transactionService.getTransaction(transactionId);
-        return ResponseEntity.ok(toResponse(transaction));
-    }
-
-    private TransactionResponse toResponse(Transaction transaction) {
-        TransactionResponse response = new TransactionResponse();
-        response.setTransactionId(transaction.getTransactionId());
-        response.setAccountId(transaction.getAccountId());
-        response.setType(transaction.getType().name());
-        response.setAmount(transaction.getAmount().getAmount().doubleValue());
-        response.setCurrency(transaction.getAmount().getCurrency());
-        response.setTimestamp(transaction.getTimestamp().toString());
-        response.setDescription(transaction.getDescription());
-        response.setRelatedAccountId(transaction.getRelatedAccountId());
-        return response;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseCache.transaction(transaction));
     }
 }
 
@@ -1,10 +1,12 @@
 package com.banking.api.dto;
 
+import java.math.BigDecimal;
+
 public class AccountResponse {
     private String accountId;
     private String customerId;
     private String accountType;
-    private double balance;
+    private BigDecimal balance;
     private String currency;
     private boolean active;
 
@@ -32,11 +34,11 @@ public class AccountResponse {
         this.accountType = accountType;
     }
 
-    public double getBalance() {
+    public BigDecimal getBalance() {
         return balance;
     }
 
-    public void setBalance(double balance) {
+    public void setBalance(BigDecimal balance) {
         this.balance = balance;
     }
 
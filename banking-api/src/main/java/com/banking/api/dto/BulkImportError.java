@@ -0,0 +1,22 @@
+package com.banking.api.dto;
+
+public class BulkImportError {
+    private long row;
+    private String message;
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
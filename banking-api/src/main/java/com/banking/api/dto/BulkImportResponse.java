@@ -0,0 +1,60 @@
+package com.banking.api.dto;
+
+import java.util.List;
+
+public class BulkImportResponse {
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private long rowsPerSecond;
+    private List<BulkImportError> errors;
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<BulkImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BulkImportError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.api.dto;
+
+import java.util.List;
+
+public class ChangeBatchResponse {
+    private long nextOffset;
+    private long endOffset;
+    private List<ChangeEventPayload> events;
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    public void setNextOffset(long nextOffset) {
+        this.nextOffset = nextOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    public void setEndOffset(long endOffset) {
+        this.endOffset = endOffset;
+    }
+
+    public List<ChangeEventPayload> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<ChangeEventPayload> events) {
+        this.events = events;
+    }
+}
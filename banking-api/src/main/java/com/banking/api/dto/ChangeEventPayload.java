@@ -0,0 +1,123 @@
+package com.banking.api.dto;
+
+import java.math.BigDecimal;
+
+public class ChangeEventPayload {
+    private long offset;
+    private String timestamp;
+    private String type;
+    private String accountId;
+    private String transactionId;
+    private String relatedAccountId;
+    private String customerId;
+    private String accountType;
+    private String transactionType;
+    private BigDecimal amount;
+    private String currency;
+    private String description;
+    private Long lostEvents;
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getRelatedAccountId() {
+        return relatedAccountId;
+    }
+
+    public void setRelatedAccountId(String relatedAccountId) {
+        this.relatedAccountId = relatedAccountId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getAccountType() {
+        return accountType;
+    }
+
+    public void setAccountType(String accountType) {
+        this.accountType = accountType;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(String transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Long getLostEvents() {
+        return lostEvents;
+    }
+
+    public void setLostEvents(Long lostEvents) {
+        this.lostEvents = lostEvents;
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.api.dto;
+
+public class ClusterMemberRequest {
+    private String nodeId;
+    private String url;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+}
@@ -0,0 +1,91 @@
+package com.banking.api.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CustomerValuationResponse {
+    private String customerId;
+    private String currency;
+    private BigDecimal totalValue;
+    private String ratesAsOf;
+    private List<Position> accounts;
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public String getRatesAsOf() {
+        return ratesAsOf;
+    }
+
+    public void setRatesAsOf(String ratesAsOf) {
+        this.ratesAsOf = ratesAsOf;
+    }
+
+    public List<Position> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<Position> accounts) {
+        this.accounts = accounts;
+    }
+
+    public static class Position {
+        private String accountId;
+        private BigDecimal balance;
+        private String currency;
+        private BigDecimal value;
+
+        public String getAccountId() {
+            return accountId;
+        }
+
+        public void setAccountId(String accountId) {
+            this.accountId = accountId;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public void setBalance(BigDecimal balance) {
+            this.balance = balance;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+
+        public BigDecimal getValue() {
+            return value;
+        }
+
+        public void setValue(BigDecimal value) {
+            this.value = value;
+        }
+    }
+}
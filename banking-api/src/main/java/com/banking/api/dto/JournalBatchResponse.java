@@ -0,0 +1,42 @@
+package com.banking.api.dto;
+
+import java.util.List;
+
+public class JournalBatchResponse {
+    private String journalId;
+    private long firstPosition;
+    private long lastPosition;
+    private List<JournalEntryPayload> entries;
+
+    public String getJournalId() {
+        return journalId;
+    }
+
+    public void setJournalId(String journalId) {
+        this.journalId = journalId;
+    }
+
+    public long getFirstPosition() {
+        return firstPosition;
+    }
+
+    public void setFirstPosition(long firstPosition) {
+        this.firstPosition = firstPosition;
+    }
+
+    public long getLastPosition() {
+        return lastPosition;
+    }
+
+    public void setLastPosition(long lastPosition) {
+        this.lastPosition = lastPosition;
+    }
+
+    public List<JournalEntryPayload> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<JournalEntryPayload> entries) {
+        this.entries = entries;
+    }
+}
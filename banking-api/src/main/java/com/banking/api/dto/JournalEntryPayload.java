@@ -0,0 +1,94 @@
+package com.banking.api.dto;
+
+public class JournalEntryPayload {
+    private long position;
+    private long appendedAt;
+    private String type;
+    private String accountId;
+    private String customerId;
+    private String accountType;
+    private String openingBalance;
+    private String currency;
+    private boolean active;
+    private ShardTransactionPayload transaction;
+
+    public long getPosition() {
+        return position;
+    }
+
+    public void setPosition(long position) {
+        this.position = position;
+    }
+
+    public long getAppendedAt() {
+        return appendedAt;
+    }
+
+    public void setAppendedAt(long appendedAt) {
+        this.appendedAt = appendedAt;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getAccountType() {
+        return accountType;
+    }
+
+    public void setAccountType(String accountType) {
+        this.accountType = accountType;
+    }
+
+    public String getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public void setOpeningBalance(String openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public ShardTransactionPayload getTransaction() {
+        return transaction;
+    }
+
+    public void setTransaction(ShardTransactionPayload transaction) {
+        this.transaction = transaction;
+    }
+}
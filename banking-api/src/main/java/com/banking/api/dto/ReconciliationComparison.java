@@ -0,0 +1,42 @@
+package com.banking.api.dto;
+
+import java.util.List;
+
+public class ReconciliationComparison {
+    private String peer;
+    private List<Integer> mismatchedLeaves;
+    private List<String> mismatchedAccounts;
+    private long durationMillis;
+
+    public String getPeer() {
+        return peer;
+    }
+
+    public void setPeer(String peer) {
+        this.peer = peer;
+    }
+
+    public List<Integer> getMismatchedLeaves() {
+        return mismatchedLeaves;
+    }
+
+    public void setMismatchedLeaves(List<Integer> mismatchedLeaves) {
+        this.mismatchedLeaves = mismatchedLeaves;
+    }
+
+    public List<String> getMismatchedAccounts() {
+        return mismatchedAccounts;
+    }
+
+    public void setMismatchedAccounts(List<String> mismatchedAccounts) {
+        this.mismatchedAccounts = mismatchedAccounts;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.api.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Expected balance of one account in a reconciliation leaf. The amount is exact, so two nodes
+ * holding the same history compare equal.
+ */
+public class ReconciliationEntry {
+    private String accountId;
+    private BigDecimal amount;
+    private String currency;
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.api.dto;
+
+import java.util.List;
+
+public class ShardAccountPayload {
+    private String accountId;
+    private String customerId;
+    private String accountType;
+    private String balance;
+    private String currency;
+    private boolean active;
+    private List<ShardTransactionPayload> transactions;
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(String accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getAccountType() {
+        return accountType;
+    }
+
+    public void setAccountType(String accountType) {
+        this.accountType = accountType;
+    }
+
+    public String getBalance() {
+        return balance;
+    }
+
+    public void setBalance(String balance) {
+        this.balance = balance;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public List<ShardTransactionPayload> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<ShardTransactionPayload> transactions) {
+        this.transactions = transactions;
+    }
+}
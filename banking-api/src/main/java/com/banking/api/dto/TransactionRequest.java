@@ -1,10 +1,12 @@
 package com.banking.api.dto;
 
+import java.math.BigDecimal;
+
 public class TransactionRequest {
     private String accountId;
     private String fromAccountId;
     private String toAccountId;
-    private double amount;
+    private BigDecimal amount;
     private String currency;
     private String description;
 
@@ -32,11 +34,11 @@ public class TransactionRequest {
         this.toAccountId = toAccountId;
     }
 
-    public double getAmount() {
+    public BigDecimal getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
 
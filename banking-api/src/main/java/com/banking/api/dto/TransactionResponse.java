@@ -1,10 +1,12 @@
 package com.banking.api.dto;
 
+import java.math.BigDecimal;
+
 public class TransactionResponse {
     private String transactionId;
     private String accountId;
     private String type;
-    private double amount;
+    private BigDecimal amount;
     private String currency;
     private String timestamp;
     private String description;
@@ -34,11 +36,11 @@ public class TransactionResponse {
         this.type = type;
     }
 
-    public double getAmount() {
+    public BigDecimal getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
 
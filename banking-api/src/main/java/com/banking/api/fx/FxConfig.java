@@ -0,0 +1,73 @@
+package com.banking.api.fx;
+
+import com.banking.core.fx.FileFxRateSource;
+import com.banking.core.fx.FxRateCache;
+import com.banking.core.fx.FxRateSource;
+import com.banking.core.fx.FxRates;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exchange rates for cross-currency transfers and customer valuations, read from
+ * {@code banking.fx.rates-file} (or the bundled stub table when unset) and reloaded every
+ * {@code banking.fx.refresh-seconds}.
+ */
+@Configuration
+public class FxConfig {
+    private static final Logger log = LoggerFactory.getLogger(FxConfig.class);
+    private static final String STUB_RATES = "/fx-rates.txt";
+
+    @Bean
+    public FxRateCache fxRateCache(MetricsRegistry metricsRegistry, TransactionService transactionService,
+                                   @Value("${banking.fx.rates-file:}") String ratesFile) throws IOException {
+        FxRateSource source = ratesFile.isEmpty() ? FxConfig::loadStubRates : new FileFxRateSource(Paths.get(ratesFile));
+        FxRateCache cache = new FxRateCache(source, metricsRegistry);
+        transactionService.setFxRateCache(cache);
+        return cache;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService fxRefresher(FxRateCache fxRateCache,
+                                                @Value("${banking.fx.refresh-seconds:60}") long refreshSeconds) {
+        ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (refreshSeconds > 0) {
+            refresher.scheduleWithFixedDelay(() -> {
+                try {
+                    fxRateCache.refresh();
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not reload exchange rates, keeping those as of {}: {}",
+                            fxRateCache.current().getAsOf(), e.getMessage());
+                }
+            }, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+        return refresher;
+    }
+
+    private static FxRates loadStubRates() throws IOException {
+        try (InputStream in = FxConfig.class.getResourceAsStream(STUB_RATES)) {
+            if (in == null) {
+                throw new IOException("Missing " + STUB_RATES);
+            }
+            return FxRates.parse(new InputStreamReader(in, StandardCharsets.UTF_8), Instant.now());
+        }
+    }
+}
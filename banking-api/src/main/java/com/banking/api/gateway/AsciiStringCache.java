@@ -0,0 +1,59 @@
+package com.banking.api.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Turns ASCII bytes from a buffer into Strings, returning the same String instance for
+ * bytes seen recently, so decoding a repeated account ID or currency does not allocate.
+ * Direct-mapped: a slot holds the last String that hashed to it. Not thread-safe.
+ */
+final class AsciiStringCache {
+    private final String[] slots;
+    private final int mask;
+
+    AsciiStringCache(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.slots = new String[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the String for {@code length} bytes at {@code offset}, or null if they are not all ASCII.
+     */
+    String get(ByteBuffer buffer, int offset, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(offset + i);
+            if (b < 0) {
+                return null;
+            }
+            hash = 31 * hash + b;
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String cached = slots[slot];
+        if (cached != null && matches(cached, buffer, offset, length)) {
+            return cached;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) buffer.get(offset + i);
+        }
+        String value = new String(chars);
+        slots[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String cached, ByteBuffer buffer, int offset, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != buffer.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
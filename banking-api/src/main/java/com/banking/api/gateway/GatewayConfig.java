@@ -0,0 +1,41 @@
+package com.banking.api.gateway;
+
+import com.banking.api.admission.AdmissionControlFilter;
+import com.banking.api.cluster.ClusterMembership;
+import com.banking.api.cluster.CrossShardTransferCoordinator;
+import com.banking.api.cluster.ShardClient;
+import com.banking.api.replication.ReplicaFollower;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts the binary transaction gateway when {@code banking.gateway.enabled=true}. Its requests
+ * are admitted and routed like those of the HTTP API.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.gateway.enabled", havingValue = "true")
+public class GatewayConfig {
+
+    @Bean
+    public GatewayDispatcher gatewayDispatcher(TransactionService transactionService, ClusterMembership membership,
+                                               ShardClient shardClient, CrossShardTransferCoordinator coordinator,
+                                               ObjectProvider<ReplicaFollower> follower,
+                                               ObjectProvider<AdmissionControlFilter> admission,
+                                               ObjectMapper objectMapper) {
+        return new GatewayDispatcher(transactionService, membership, shardClient, coordinator,
+                follower.getIfAvailable(), admission.getIfAvailable(), objectMapper);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public GatewayServer gatewayServer(GatewayDispatcher gatewayDispatcher,
+                                       @Value("${banking.gateway.port:9090}") int port,
+                                       @Value("${banking.gateway.event-loops:2}") int eventLoops,
+                                       @Value("${banking.gateway.workers:16}") int workers) {
+        return new GatewayServer(gatewayDispatcher, port, eventLoops, workers);
+    }
+}
@@ -0,0 +1,231 @@
+package com.banking.api.gateway;
+
+import com.banking.core.domain.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * One client connection of the {@link GatewayServer}, owned by a single event-loop thread.
+ * <p>
+ * Requests are decoded in place from a reusable direct input buffer, as many as fit in the
+ * output buffer at once, and handed as one batch to a worker, which executes them in order
+ * through the {@link GatewayDispatcher}. The event loop never waits on the operations
+ * themselves. When the batch is back, its responses are gathered in a reusable direct output
+ * buffer and written at once. The connection reads no further requests while a batch is being
+ * executed or while the client does not drain its responses.
+ */
+final class GatewayConnection {
+    private static final Logger log = LoggerFactory.getLogger(GatewayConnection.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_BATCH = BUFFER_SIZE / GatewayProtocol.MAX_RESPONSE_FRAME;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final GatewayDispatcher dispatcher;
+    private final Executor workers;
+    private final Consumer<GatewayConnection> onExecuted;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final AsciiStringCache identifiers = new AsciiStringCache(1024);
+    private final AsciiStringCache descriptions = new AsciiStringCache(256);
+    private final byte[] scratch = new byte[GatewayProtocol.MAX_REQUEST_LENGTH];
+    private List<GatewayRequest> executing;
+    private boolean closed;
+
+    /**
+     * @param onExecuted called on a worker once a batch has been executed; must get the
+     *                   connection's event loop to call {@link #onBatchExecuted()}
+     */
+    GatewayConnection(SocketChannel channel, SelectionKey key, GatewayDispatcher dispatcher, Executor workers,
+                      Consumer<GatewayConnection> onExecuted) {
+        this.channel = channel;
+        this.key = key;
+        this.dispatcher = dispatcher;
+        this.workers = workers;
+        this.onExecuted = onExecuted;
+    }
+
+    void onReady() {
+        try {
+            if (key.isReadable() && channel.read(in) < 0) {
+                close();
+                return;
+            }
+            processAndFlush();
+        } catch (IOException e) {
+            log.debug("Closing gateway connection {}: {}", channel, e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Answers the batch the workers have executed and moves on to the next requests.
+     */
+    void onBatchExecuted() {
+        if (closed) {
+            return;
+        }
+        for (GatewayRequest request : executing) {
+            writeResponse(request.requestId, request.status, request.transactionId);
+        }
+        executing = null;
+        try {
+            processAndFlush();
+        } catch (IOException e) {
+            log.debug("Closing gateway connection {}: {}", channel, e.getMessage());
+            close();
+        }
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Error closing gateway connection", e);
+        }
+    }
+
+    private void processAndFlush() throws IOException {
+        if (executing != null) {
+            return;
+        }
+        flush();
+        if (out.position() > 0) {
+            // Keep reading only while all responses have been written.
+            key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+        in.flip();
+        List<GatewayRequest> batch = decodeFrames();
+        in.compact();
+        if (closed) {
+            return;
+        }
+        if (batch.isEmpty()) {
+            key.interestOps(SelectionKey.OP_READ);
+            return;
+        }
+        executing = batch;
+        key.interestOps(0);
+        try {
+            workers.execute(() -> {
+                for (GatewayRequest request : batch) {
+                    dispatcher.execute(request);
+                }
+                onExecuted.accept(this);
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Gateway is stopping, closing connection {}", channel);
+            close();
+        }
+    }
+
+    /**
+     * Decodes the complete frames in the input buffer, up to as many as the output buffer can answer.
+     */
+    private List<GatewayRequest> decodeFrames() {
+        List<GatewayRequest> batch = new ArrayList<>();
+        while (in.remaining() >= 4 && batch.size() < MAX_BATCH) {
+            int start = in.position();
+            int length = in.getInt(start);
+            if (length < GatewayProtocol.MIN_REQUEST_LENGTH || length > GatewayProtocol.MAX_REQUEST_LENGTH) {
+                log.debug("Invalid frame length {} from {}", length, channel);
+                close();
+                return batch;
+            }
+            if (in.remaining() < 4 + length) {
+                return batch;
+            }
+            batch.add(decode(start + 4, start + 4 + length));
+            in.position(start + 4 + length);
+        }
+        return batch;
+    }
+
+    private GatewayRequest decode(int offset, int end) {
+        byte operation = in.get(offset);
+        long requestId = in.getLong(offset + 1);
+        long unscaledAmount = in.getLong(offset + 9);
+        int scale = in.get(offset + 17);
+        String currency = identifiers.get(in, offset + 18, 3);
+        int p = offset + 21;
+
+        int accountLength = in.get(p++) & 0xFF;
+        if (currency == null || p + accountLength > end || scale < 0 || scale > GatewayProtocol.MAX_SCALE
+                || (operation != GatewayProtocol.OP_DEPOSIT && operation != GatewayProtocol.OP_WITHDRAW
+                        && operation != GatewayProtocol.OP_TRANSFER)) {
+            return GatewayRequest.answered(requestId, GatewayProtocol.STATUS_MALFORMED);
+        }
+        String accountId = identifiers.get(in, p, accountLength);
+        p += accountLength;
+
+        String toAccountId = null;
+        if (operation == GatewayProtocol.OP_TRANSFER) {
+            int toLength = p < end ? in.get(p++) & 0xFF : Integer.MAX_VALUE;
+            if (toLength > end - p) {
+                return GatewayRequest.answered(requestId, GatewayProtocol.STATUS_MALFORMED);
+            }
+            toAccountId = identifiers.get(in, p, toLength);
+            p += toLength;
+        }
+
+        if (p + 2 > end || p + 2 + (in.getShort(p) & 0xFFFF) != end || accountId == null
+                || (operation == GatewayProtocol.OP_TRANSFER && toAccountId == null)) {
+            return GatewayRequest.answered(requestId, GatewayProtocol.STATUS_MALFORMED);
+        }
+        String description = decodeDescription(p + 2, end - p - 2);
+        Money amount = new Money(BigDecimal.valueOf(unscaledAmount, scale), currency);
+        return new GatewayRequest(operation, requestId, amount, accountId, toAccountId, description);
+    }
+
+    private String decodeDescription(int offset, int length) {
+        if (length == 0) {
+            return "";
+        }
+        String ascii = descriptions.get(in, offset, length);
+        if (ascii != null) {
+            return ascii;
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = in.get(offset + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void writeResponse(long requestId, byte status, String transactionId) {
+        int idLength = transactionId != null ? transactionId.length() : 0;
+        out.putInt(8 + 1 + 1 + idLength);
+        out.putLong(requestId);
+        out.put(status);
+        out.put((byte) idLength);
+        for (int i = 0; i < idLength; i++) {
+            out.put((byte) transactionId.charAt(i));
+        }
+    }
+
+    private void flush() throws IOException {
+        if (out.position() == 0) {
+            return;
+        }
+        out.flip();
+        channel.write(out);
+        out.compact();
+    }
+}
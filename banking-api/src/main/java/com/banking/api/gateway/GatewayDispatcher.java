@@ -0,0 +1,185 @@
+package com.banking.api.gateway;
+
+import com.banking.api.admission.AdmissionControlFilter;
+import com.banking.api.cluster.ClusterMembership;
+import com.banking.api.cluster.CrossShardTransferCoordinator;
+import com.banking.api.cluster.ShardClient;
+import com.banking.api.dto.TransactionRequest;
+import com.banking.api.dto.TransactionResponse;
+import com.banking.api.replication.ReplicaFollower;
+import com.banking.core.exception.InsufficientFundsException;
+import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.exception.VelocityLimitExceededException;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+
+/**
+ * Executes gateway requests the way the HTTP API executes the same operations.
+ * <p>
+ * A request is first admitted by the {@link AdmissionControlFilter}, charged to the account it
+ * debits or credits. It then runs where the API would run it: on a replica it is passed to the
+ * primary, in a cluster it is passed to the owner of its (source) account, a transfer to an
+ * account on another member goes through the {@link CrossShardTransferCoordinator}, and anything
+ * else runs against the local {@link TransactionService}. Requests passed to another node carry
+ * their exact amount and take their status from its HTTP response, whose code tells the API's
+ * refusals apart. Executing may block, so it runs on the gateway's workers, never on an event loop.
+ */
+public class GatewayDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(GatewayDispatcher.class);
+
+    private final TransactionService transactionService;
+    private final ClusterMembership membership;
+    private final ShardClient shardClient;
+    private final CrossShardTransferCoordinator coordinator;
+    private final ReplicaFollower follower;
+    private final AdmissionControlFilter admission;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * A dispatcher for a single node without admission control: every request runs locally.
+     */
+    public GatewayDispatcher(TransactionService transactionService) {
+        this(transactionService, null, null, null, null, null, null);
+    }
+
+    /**
+     * @param follower  the replica's follower, or null on a primary or standalone node
+     * @param admission the API's admission control, or null if it is disabled
+     */
+    public GatewayDispatcher(TransactionService transactionService, ClusterMembership membership,
+                             ShardClient shardClient, CrossShardTransferCoordinator coordinator,
+                             ReplicaFollower follower, AdmissionControlFilter admission, ObjectMapper objectMapper) {
+        if (transactionService == null) {
+            throw new IllegalArgumentException("TransactionService cannot be null");
+        }
+        this.transactionService = transactionService;
+        this.membership = membership;
+        this.shardClient = shardClient;
+        this.coordinator = coordinator;
+        this.follower = follower;
+        this.admission = admission;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Executes a request that is not answered yet and completes it with its outcome.
+     */
+    void execute(GatewayRequest request) {
+        if (request.isDone()) {
+            return;
+        }
+        try {
+            if (admission != null && !admission.admitWrite(request.accountId)) {
+                request.complete(GatewayProtocol.STATUS_OVERLOADED, null);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.complete(GatewayProtocol.STATUS_ERROR, null);
+            return;
+        }
+        try {
+            route(request);
+        } finally {
+            if (admission != null) {
+                admission.releaseWrite();
+            }
+        }
+    }
+
+    private void route(GatewayRequest request) {
+        if (follower != null) {
+            forward(request, follower.getPrimaryUrl());
+            return;
+        }
+        if (membership != null && !membership.isLocal(request.accountId)) {
+            forward(request, membership.urlOf(membership.ownerOf(request.accountId)));
+            return;
+        }
+        try {
+            Transaction transaction;
+            if (membership != null && request.operation == GatewayProtocol.OP_TRANSFER
+                    && !membership.isLocal(request.toAccountId)) {
+                transaction = coordinator.transfer(request.accountId, request.toAccountId, request.amount,
+                        request.description);
+            } else {
+                transaction = executeLocally(request);
+            }
+            request.complete(GatewayProtocol.STATUS_OK, transaction.getTransactionId());
+        } catch (InsufficientFundsException e) {
+            request.complete(GatewayProtocol.STATUS_INSUFFICIENT_FUNDS, null);
+        } catch (InvalidAccountException e) {
+            request.complete(GatewayProtocol.STATUS_INVALID_ACCOUNT, null);
+        } catch (VelocityLimitExceededException e) {
+            request.complete(GatewayProtocol.STATUS_REJECTED, null);
+        } catch (IllegalArgumentException e) {
+            request.complete(GatewayProtocol.STATUS_REJECTED, null);
+        } catch (RuntimeException e) {
+            log.error("Gateway request {} failed", request.requestId, e);
+            request.complete(GatewayProtocol.STATUS_ERROR, null);
+        }
+    }
+
+    private Transaction executeLocally(GatewayRequest request) {
+        switch (request.operation) {
+            case GatewayProtocol.OP_DEPOSIT:
+                return transactionService.deposit(request.accountId, request.amount, request.description);
+            case GatewayProtocol.OP_WITHDRAW:
+                return transactionService.withdraw(request.accountId, request.amount, request.description);
+            case GatewayProtocol.OP_TRANSFER:
+                return transactionService.transfer(request.accountId, request.toAccountId, request.amount,
+                        request.description);
+            default:
+                throw new IllegalStateException("Unknown operation " + request.operation);
+        }
+    }
+
+    private void forward(GatewayRequest request, String baseUrl) {
+        TransactionRequest body = new TransactionRequest();
+        String path;
+        if (request.operation == GatewayProtocol.OP_TRANSFER) {
+            path = "/api/transactions/transfer";
+            body.setFromAccountId(request.accountId);
+            body.setToAccountId(request.toAccountId);
+        } else {
+            path = request.operation == GatewayProtocol.OP_DEPOSIT
+                    ? "/api/transactions/deposit" : "/api/transactions/withdraw";
+            body.setAccountId(request.accountId);
+        }
+        body.setAmount(request.amount.getAmount());
+        body.setCurrency(request.amount.getCurrency());
+        body.setDescription(request.description);
+        try {
+            HttpResponse<byte[]> response = shardClient.send("POST", baseUrl, path, body);
+            int code = response.statusCode();
+            if (code / 100 == 2) {
+                TransactionResponse created = objectMapper.readValue(response.body(), TransactionResponse.class);
+                request.complete(GatewayProtocol.STATUS_OK, created.getTransactionId());
+            } else {
+                request.complete(statusOf(code), null);
+            }
+        } catch (IOException e) {
+            log.warn("Could not pass gateway request {} to {}: {}", request.requestId, baseUrl, e.getMessage());
+            request.complete(GatewayProtocol.STATUS_ERROR, null);
+        }
+    }
+
+    private static byte statusOf(int httpStatus) {
+        switch (httpStatus) {
+            case 404:
+                return GatewayProtocol.STATUS_INVALID_ACCOUNT;
+            case 422:
+                return GatewayProtocol.STATUS_INSUFFICIENT_FUNDS;
+            case 503:
+                return GatewayProtocol.STATUS_OVERLOADED;
+            default:
+                return httpStatus / 100 == 4 ? GatewayProtocol.STATUS_REJECTED : GatewayProtocol.STATUS_ERROR;
+        }
+    }
+}
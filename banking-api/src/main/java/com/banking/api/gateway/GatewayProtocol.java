@@ -0,0 +1,53 @@
+package com.banking.api.gateway;
+
+/**
+ * Wire format of the binary transaction gateway. All integers are big-endian.
+ * <p>
+ * Request frame:
+ * <pre>
+ * int    length          bytes that follow this field
+ * byte   operation       {@link #OP_DEPOSIT}, {@link #OP_WITHDRAW} or {@link #OP_TRANSFER}
+ * long   requestId       echoed in the response
+ * long   amountUnscaled  amount = amountUnscaled * 10^-scale
+ * byte   scale           0 to {@link #MAX_SCALE}
+ * byte[3] currency       ASCII, e.g. USD
+ * byte   accountIdLength, then the account ID (ASCII); the source account for transfers
+ * byte   toAccountIdLength, then the destination account ID (transfers only)
+ * short  descriptionLength, then the description (UTF-8)
+ * </pre>
+ * Response frame:
+ * <pre>
+ * int    length          bytes that follow this field
+ * long   requestId
+ * byte   status          {@link #STATUS_OK} or one of the error statuses
+ * byte   transactionIdLength, then the transaction ID (ASCII); 0 unless the status is OK
+ * </pre>
+ * Clients may pipeline any number of requests on one connection. Responses come back in
+ * request order. A frame whose length is out of bounds closes the connection.
+ */
+public final class GatewayProtocol {
+    public static final byte OP_DEPOSIT = 1;
+    public static final byte OP_WITHDRAW = 2;
+    public static final byte OP_TRANSFER = 3;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_INSUFFICIENT_FUNDS = 1;
+    public static final byte STATUS_INVALID_ACCOUNT = 2;
+    public static final byte STATUS_REJECTED = 3;
+    public static final byte STATUS_MALFORMED = 4;
+    public static final byte STATUS_ERROR = 5;
+    /** Refused by admission control; the client should retry later. */
+    public static final byte STATUS_OVERLOADED = 6;
+
+    /** Largest accepted amount scale: the number of decimals a long can carry. */
+    public static final int MAX_SCALE = 18;
+
+    /** Smallest valid request body: fixed fields plus empty account ID and description. */
+    static final int MIN_REQUEST_LENGTH = 1 + 8 + 8 + 1 + 3 + 1 + 2;
+    static final int MAX_REQUEST_LENGTH = 4096;
+    /** Largest response frame, including its length field. */
+    static final int MAX_RESPONSE_FRAME = 4 + 8 + 1 + 1 + 255;
+
+    private GatewayProtocol() {
+    }
+}
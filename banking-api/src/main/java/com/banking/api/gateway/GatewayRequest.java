@@ -0,0 +1,49 @@
+package com.banking.api.gateway;
+
+import com.banking.core.domain.Money;
+
+/**
+ * One decoded gateway request and, once executed, its outcome. Decoded on the event loop,
+ * executed on a worker, and answered on the event loop again.
+ */
+final class GatewayRequest {
+    final byte operation;
+    final long requestId;
+    final Money amount;
+    final String accountId;
+    final String toAccountId;
+    final String description;
+
+    byte status;
+    String transactionId;
+    private boolean done;
+
+    GatewayRequest(byte operation, long requestId, Money amount, String accountId, String toAccountId,
+                   String description) {
+        this.operation = operation;
+        this.requestId = requestId;
+        this.amount = amount;
+        this.accountId = accountId;
+        this.toAccountId = toAccountId;
+        this.description = description;
+    }
+
+    /**
+     * A request that is answered without being executed, e.g. because it is malformed.
+     */
+    static GatewayRequest answered(long requestId, byte status) {
+        GatewayRequest request = new GatewayRequest((byte) 0, requestId, null, null, null, null);
+        request.complete(status, null);
+        return request;
+    }
+
+    void complete(byte status, String transactionId) {
+        this.status = status;
+        this.transactionId = transactionId;
+        this.done = true;
+    }
+
+    boolean isDone() {
+        return done;
+    }
+}
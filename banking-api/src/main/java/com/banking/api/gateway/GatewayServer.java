@@ -0,0 +1,194 @@
+package com.banking.api.gateway;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking TCP listener for high-volume transaction feeds, speaking {@link GatewayProtocol}.
+ * <p>
+ * An acceptor thread hands new connections round-robin to a fixed number of event-loop
+ * threads. Each event loop owns its connections and only moves bytes: the requests it decodes
+ * are executed in batches on a fixed pool of worker threads through a {@link GatewayDispatcher},
+ * which may block on account locks, admission or other nodes without stalling the other
+ * connections of the loop.
+ */
+public class GatewayServer {
+    private static final Logger log = LoggerFactory.getLogger(GatewayServer.class);
+
+    private final GatewayDispatcher dispatcher;
+    private final int port;
+    private final int eventLoopCount;
+    private final int workerCount;
+
+    private ServerSocketChannel serverChannel;
+    private EventLoop[] eventLoops;
+    private ExecutorService workers;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    public GatewayServer(GatewayDispatcher dispatcher, int port, int eventLoopCount, int workerCount) {
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("GatewayDispatcher cannot be null");
+        }
+        if (eventLoopCount < 1 || workerCount < 1) {
+            throw new IllegalArgumentException("Event loop and worker counts must be positive");
+        }
+        this.dispatcher = dispatcher;
+        this.port = port;
+        this.eventLoopCount = eventLoopCount;
+        this.workerCount = workerCount;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        running = true;
+        AtomicInteger workerIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "gateway-worker-" + workerIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        eventLoops = new EventLoop[eventLoopCount];
+        for (int i = 0; i < eventLoopCount; i++) {
+            eventLoops[i] = new EventLoop(Selector.open());
+            Thread thread = new Thread(eventLoops[i], "gateway-loop-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        acceptor = new Thread(this::acceptLoop, "gateway-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Transaction gateway listening on port {}", getPort());
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            log.debug("Error closing gateway listener", e);
+        }
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.selector.wakeup();
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * The bound port, which differs from the configured one when that was 0.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.configureBlocking(false);
+                eventLoops[next].register(channel);
+                next = (next + 1) % eventLoops.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Gateway accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        private final Queue<GatewayConnection> executed = new ConcurrentLinkedQueue<>();
+
+        EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(SocketChannel channel) {
+            pending.add(channel);
+            selector.wakeup();
+        }
+
+        void onExecuted(GatewayConnection connection) {
+            executed.add(connection);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerPending();
+                    GatewayConnection connection;
+                    while ((connection = executed.poll()) != null) {
+                        connection.onBatchExecuted();
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (key.isValid()) {
+                            ((GatewayConnection) key.attachment()).onReady();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Gateway event loop failed", e);
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void registerPending() {
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                try {
+                    SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                    key.attach(new GatewayConnection(channel, key, dispatcher, workers, this::onExecuted));
+                } catch (ClosedChannelException e) {
+                    log.debug("Gateway connection closed before registration");
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                Object connection = key.attachment();
+                if (connection != null) {
+                    ((GatewayConnection) connection).close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.debug("Error closing gateway selector", e);
+            }
+        }
+    }
+}
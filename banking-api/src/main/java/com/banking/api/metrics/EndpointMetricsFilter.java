@@ -0,0 +1,119 @@
+package com.banking.api.metrics;
+
+import com.banking.core.metrics.LatencyHistogram;
+import com.banking.core.metrics.MetricsRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records request latency per API endpoint into {@link MetricsRegistry} histograms.
+ * <p>
+ * Endpoints are identified by HTTP method and the matched handler pattern (e.g.
+ * {@code /api/transactions/account/{accountId}}), so path variables do not create new series.
+ * Histograms are cached per endpoint; after the first request to an endpoint, recording
+ * does not allocate. A request that goes asynchronous (such as {@code /api/async/*}) is
+ * recorded when its asynchronous processing completes, not when the servlet thread returns.
+ */
+@Component
+public class EndpointMetricsFilter extends OncePerRequestFilter {
+    private static final String METRIC_NAME = "banking_http_request_duration_seconds";
+    private static final String METRIC_HELP = "Latency of API requests by endpoint";
+
+    private final MetricsRegistry metricsRegistry;
+    private final Map<String, Map<String, LatencyHistogram>> histogramsByPattern = new ConcurrentHashMap<>();
+
+    public EndpointMetricsFilter(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                LatencyHistogram histogram = histogram(request.getMethod(), pattern.toString());
+                if (request.isAsyncStarted()) {
+                    // Added before this dispatch returns, so it is called even if processing has already finished.
+                    request.getAsyncContext().addListener(new RecordOnCompletion(histogram, start));
+                } else {
+                    histogram.recordSince(start);
+                }
+            }
+        }
+    }
+
+    private LatencyHistogram histogram(String method, String pattern) {
+        Map<String, LatencyHistogram> byMethod = histogramsByPattern.get(pattern);
+        if (byMethod == null) {
+            byMethod = histogramsByPattern.computeIfAbsent(pattern, key -> new ConcurrentHashMap<>());
+        }
+        LatencyHistogram histogram = byMethod.get(method);
+        if (histogram == null) {
+            histogram = byMethod.computeIfAbsent(method,
+                key -> metricsRegistry.histogram(METRIC_NAME, METRIC_HELP, "method", method, "endpoint", pattern));
+        }
+        return histogram;
+    }
+
+    /**
+     * Records the latency of an asynchronous request once, however it ends.
+     */
+    private static final class RecordOnCompletion implements AsyncListener {
+        private final LatencyHistogram histogram;
+        private final long start;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        RecordOnCompletion(LatencyHistogram histogram, long start) {
+            this.histogram = histogram;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            record();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            record();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Started again by the same request: keep listening.
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void record() {
+            if (recorded.compareAndSet(false, true)) {
+                histogram.recordSince(start);
+            }
+        }
+    }
+}
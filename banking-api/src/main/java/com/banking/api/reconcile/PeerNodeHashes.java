@@ -0,0 +1,45 @@
+package com.banking.api.reconcile;
+
+import com.banking.api.cluster.ShardClient;
+import com.banking.api.dto.ReconciliationEntry;
+import com.banking.transaction.reconcile.NodeHashes;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * The ledger digest of another node (a replica, or the primary a replica follows), read through
+ * {@link ReconciliationController}'s internal endpoints.
+ */
+class PeerNodeHashes implements NodeHashes {
+    private final ShardClient shardClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+
+    PeerNodeHashes(ShardClient shardClient, ObjectMapper objectMapper, String baseUrl) {
+        this.shardClient = shardClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public long[] getNodes(int[] indexes) throws IOException {
+        HttpResponse<byte[]> response = shardClient.send("POST", baseUrl, ReconciliationController.NODES_PATH, indexes);
+        return objectMapper.readValue(checked(response), long[].class);
+    }
+
+    List<ReconciliationEntry> getLeafEntries(int leaf) throws IOException {
+        HttpResponse<byte[]> response = shardClient.get(baseUrl, ReconciliationController.LEAVES_PATH + "/" + leaf);
+        return objectMapper.readValue(checked(response), new TypeReference<List<ReconciliationEntry>>() { });
+    }
+
+    private byte[] checked(HttpResponse<byte[]> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Peer " + baseUrl + " returned HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,35 @@
+package com.banking.api.reconcile;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.reconcile.LedgerDigest;
+import com.banking.transaction.reconcile.Reconciler;
+import com.banking.transaction.service.TransactionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps a {@link LedgerDigest} of the transaction history with {@code banking.reconciliation.leaves}
+ * leaves, against which balances are reconciled.
+ */
+@Configuration
+public class ReconciliationConfig {
+
+    @Bean
+    public LedgerDigest ledgerDigest(AccountService accountService, TransactionService transactionService,
+                                     MetricsRegistry metricsRegistry,
+                                     @Value("${banking.reconciliation.leaves:4096}") int leaves) {
+        LedgerDigest digest = new LedgerDigest(leaves);
+        digest.attach(accountService, transactionService);
+        metricsRegistry.gauge("banking_reconciliation_effects", "Transaction effects summarised by the ledger digest",
+                digest::getTransactionEffectCount);
+        return digest;
+    }
+
+    @Bean
+    public Reconciler reconciler(AccountService accountService, TransactionService transactionService,
+                                 LedgerDigest ledgerDigest) {
+        return new Reconciler(accountService, transactionService, ledgerDigest);
+    }
+}
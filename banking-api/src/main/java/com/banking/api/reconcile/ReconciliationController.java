@@ -0,0 +1,136 @@
+package com.banking.api.reconcile;
+
+import com.banking.api.cluster.ShardClient;
+import com.banking.api.dto.ReconciliationComparison;
+import com.banking.api.dto.ReconciliationEntry;
+import com.banking.core.domain.Money;
+import com.banking.transaction.reconcile.LedgerDigest;
+import com.banking.transaction.reconcile.ReconciliationReport;
+import com.banking.transaction.reconcile.Reconciler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles balances against the transaction history, locally or against the digest of another
+ * node holding the same accounts (the primary a replica follows, or one of
+ * {@code banking.reconciliation.peers}).
+ */
+@RestController
+public class ReconciliationController {
+    static final String NODES_PATH = "/internal/reconciliation/nodes";
+    static final String LEAVES_PATH = "/internal/reconciliation/leaves";
+
+    private final Reconciler reconciler;
+    private final LedgerDigest digest;
+    private final ShardClient shardClient;
+    private final ObjectMapper objectMapper;
+    private final Set<String> peers = new LinkedHashSet<>();
+
+    public ReconciliationController(Reconciler reconciler, ShardClient shardClient, ObjectMapper objectMapper,
+                                    @Value("${banking.replication.primary-url:}") String primaryUrl,
+                                    @Value("${banking.reconciliation.peers:}") String configuredPeers) {
+        this.reconciler = reconciler;
+        this.digest = reconciler.getDigest();
+        this.shardClient = shardClient;
+        this.objectMapper = objectMapper;
+        if (!primaryUrl.trim().isEmpty()) {
+            peers.add(primaryUrl.trim());
+        }
+        Arrays.stream(configuredPeers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .forEach(peers::add);
+    }
+
+    @GetMapping("/api/reconciliation")
+    public ResponseEntity<ReconciliationReport> reconcile() {
+        return ResponseEntity.ok(reconciler.reconcile());
+    }
+
+    /**
+     * Diffs this node's digest against the peer's, fetching only the node hashes of differing
+     * subtrees, then the expected balances of the differing leaves.
+     */
+    @GetMapping("/api/reconciliation/compare")
+    public ResponseEntity<ReconciliationComparison> compare(@RequestParam String peer) {
+        if (!peers.contains(peer)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a reconciliation peer: " + peer);
+        }
+        long start = System.nanoTime();
+        PeerNodeHashes remote = new PeerNodeHashes(shardClient, objectMapper, peer);
+        List<Integer> leaves;
+        Set<String> accounts = new TreeSet<>();
+        try {
+            leaves = reconciler.compare(remote);
+            for (int leaf : leaves) {
+                Map<String, Money> local = digest.getLeafEntries(leaf);
+                Map<String, ReconciliationEntry> theirs = new TreeMap<>();
+                for (ReconciliationEntry entry : remote.getLeafEntries(leaf)) {
+                    theirs.put(entry.getAccountId(), entry);
+                }
+                for (Map.Entry<String, Money> entry : local.entrySet()) {
+                    ReconciliationEntry other = theirs.remove(entry.getKey());
+                    if (other == null || !other.getCurrency().equals(entry.getValue().getCurrency())
+                            || other.getAmount().compareTo(entry.getValue().getAmount()) != 0) {
+                        accounts.add(entry.getKey());
+                    }
+                }
+                accounts.addAll(theirs.keySet());
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, e.getMessage());
+        }
+        ReconciliationComparison comparison = new ReconciliationComparison();
+        comparison.setPeer(peer);
+        comparison.setMismatchedLeaves(leaves);
+        comparison.setMismatchedAccounts(new ArrayList<>(accounts));
+        comparison.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        return ResponseEntity.ok(comparison);
+    }
+
+    @PostMapping(NODES_PATH)
+    public ResponseEntity<long[]> getNodes(@RequestBody int[] indexes) {
+        try {
+            return ResponseEntity.ok(digest.tree().getNodes(indexes));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping(LEAVES_PATH + "/{leaf}")
+    public ResponseEntity<List<ReconciliationEntry>> getLeafEntries(@PathVariable int leaf) {
+        if (leaf < 0 || leaf >= digest.getLeafCount()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No leaf " + leaf);
+        }
+        List<ReconciliationEntry> entries = digest.getLeafEntries(leaf).entrySet().stream()
+                .map(entry -> {
+                    ReconciliationEntry payload = new ReconciliationEntry();
+                    payload.setAccountId(entry.getKey());
+                    payload.setAmount(entry.getValue().getAmount());
+                    payload.setCurrency(entry.getValue().getCurrency());
+                    return payload;
+                })
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(entries);
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.api.replication;
+
+import com.banking.api.cluster.ShardPayloads;
+import com.banking.api.dto.JournalEntryPayload;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.journal.JournalEntry;
+
+import java.math.BigDecimal;
+
+/**
+ * Converts journal entries to and from the payloads sent to read replicas.
+ */
+final class JournalPayloads {
+
+    private JournalPayloads() {
+    }
+
+    static JournalEntryPayload toPayload(JournalEntry entry) {
+        JournalEntryPayload payload = new JournalEntryPayload();
+        payload.setPosition(entry.getPosition());
+        payload.setAppendedAt(entry.getAppendedAt());
+        payload.setType(entry.getType().name());
+        payload.setAccountId(entry.getAccountId());
+        switch (entry.getType()) {
+            case ACCOUNT_OPENED:
+            case ACCOUNT_IMPORTED:
+                payload.setCustomerId(entry.getCustomerId());
+                payload.setAccountType(entry.getAccountType().name());
+                payload.setOpeningBalance(entry.getOpeningBalance().getAmount().toPlainString());
+                payload.setCurrency(entry.getOpeningBalance().getCurrency());
+                payload.setActive(entry.isActive());
+                break;
+            case ACCOUNT_STATUS_CHANGED:
+                payload.setActive(entry.isActive());
+                break;
+            case ACCOUNT_REMOVED:
+                break;
+            default:
+                payload.setTransaction(ShardPayloads.toPayload(entry.getTransaction()));
+                break;
+        }
+        return payload;
+    }
+
+    static JournalEntry fromPayload(JournalEntryPayload payload) {
+        JournalEntry.Type type = JournalEntry.Type.valueOf(payload.getType());
+        switch (type) {
+            case ACCOUNT_OPENED:
+                return JournalEntry.accountOpened(
+                    payload.getPosition(),
+                    payload.getAppendedAt(),
+                    payload.getAccountId(),
+                    payload.getCustomerId(),
+                    AccountType.valueOf(payload.getAccountType()),
+                    new Money(new BigDecimal(payload.getOpeningBalance()), payload.getCurrency())
+                );
+            case ACCOUNT_IMPORTED:
+                return JournalEntry.accountImported(
+                    payload.getPosition(),
+                    payload.getAppendedAt(),
+                    payload.getAccountId(),
+                    payload.getCustomerId(),
+                    AccountType.valueOf(payload.getAccountType()),
+                    new Money(new BigDecimal(payload.getOpeningBalance()), payload.getCurrency()),
+                    payload.isActive()
+                );
+            case ACCOUNT_REMOVED:
+                return JournalEntry.accountRemoved(payload.getPosition(), payload.getAppendedAt(), payload.getAccountId());
+            case ACCOUNT_STATUS_CHANGED:
+                return JournalEntry.accountStatusChanged(payload.getPosition(), payload.getAppendedAt(),
+                        payload.getAccountId(), payload.isActive());
+            default:
+                return JournalEntry.transaction(payload.getPosition(), payload.getAppendedAt(), type,
+                        ShardPayloads.fromPayload(payload.getTransaction()));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.banking.api.replication;
+
+import com.banking.transaction.journal.TransactionJournal;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Adds the journal position reached by a write to its response, as {@link #LOG_POSITION_HEADER}.
+ * Passing it back to a replica as {@link ReplicaReadFilter#MIN_LOG_POSITION_HEADER} gives
+ * read-your-writes.
+ */
+public class LogPositionFilter extends OncePerRequestFilter {
+    public static final String LOG_POSITION_HEADER = "X-Log-Position";
+
+    private final TransactionJournal journal;
+
+    public LogPositionFilter(TransactionJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || !request.getRequestURI().startsWith("/api/");
+    }
+
+    /**
+     * Asynchronous writes complete in a later dispatch, which carries the same wrapper.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = response instanceof ContentCachingResponseWrapper
+                ? (ContentCachingResponseWrapper) response : new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        // Read after the write completed, so the position covers it (and possibly later writes).
+        wrapper.setHeader(LOG_POSITION_HEADER, Long.toString(journal.getLastPosition()));
+        wrapper.copyBodyToResponse();
+    }
+}
@@ -0,0 +1,233 @@
+package com.banking.api.replication;
+
+import com.banking.api.dto.JournalBatchResponse;
+import com.banking.api.dto.JournalEntryPayload;
+import com.banking.transaction.journal.JournalReplica;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Streams the primary's journal into the local {@link JournalReplica}.
+ * <p>
+ * A single background thread long-polls the primary for entries after the applied position
+ * and applies them in order. Between batches it records how far behind the primary it is.
+ * Fetching is retried for as long as the primary is unreachable, but an entry that fails to
+ * apply {@link #MAX_APPLY_ATTEMPTS} times in a row stops the follower: retrying it would only
+ * leave the replica further behind. {@link #getFailure()} then reports why.
+ * <p>
+ * The primary keeps only a window of its journal, in memory. When it starts a new journal, e.g.
+ * after a restart with fresh state, the replica drops its own state and replays the new journal
+ * from its start. If the entries the replica needs are no longer kept, because it fell too far
+ * behind or the primary had moved past its first entries before the replica started, the
+ * follower stops as well: the replica can only be rebuilt together with the primary.
+ */
+public class ReplicaFollower {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaFollower.class);
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    static final int MAX_APPLY_ATTEMPTS = 5;
+
+    private final String primaryUrl;
+    private final JournalReplica replica;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long pollWaitMillis;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    private volatile long primaryPosition;
+    private volatile long inSyncAt;
+    private volatile boolean running;
+    private volatile String failure;
+    private String journalId;
+    private long failedPosition;
+    private int failedAttempts;
+    private Thread thread;
+
+    public ReplicaFollower(String primaryUrl, JournalReplica replica, ObjectMapper objectMapper,
+                           int batchSize, long pollWaitMillis) {
+        if (primaryUrl == null || primaryUrl.trim().isEmpty()) {
+            throw new IllegalArgumentException("Primary URL cannot be null or empty");
+        }
+        this.primaryUrl = primaryUrl;
+        this.replica = replica;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.pollWaitMillis = pollWaitMillis;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "replica-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    public String getPrimaryUrl() {
+        return primaryUrl;
+    }
+
+    public long getAppliedPosition() {
+        return replica.getAppliedPosition();
+    }
+
+    /**
+     * Number of journal entries the primary had at the last poll that are not applied yet.
+     */
+    public long getLagEntries() {
+        return Math.max(0, primaryPosition - replica.getAppliedPosition());
+    }
+
+    /**
+     * Milliseconds since this replica last knew it had every entry of the primary; 0 while it
+     * is caught up and still hearing from the primary.
+     */
+    public long getLagMillis() {
+        if (inSyncAt == 0) {
+            return Long.MAX_VALUE;
+        }
+        long sinceInSync = System.currentTimeMillis() - inSyncAt;
+        if (getLagEntries() == 0 && sinceInSync <= pollWaitMillis + RETRY_DELAY_MILLIS) {
+            return 0;
+        }
+        return sinceInSync;
+    }
+
+    /**
+     * @return why replication stopped for good, or null while it is running or was stopped normally
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public boolean awaitPosition(long position, long timeoutMillis) throws InterruptedException {
+        return replica.awaitPosition(position, timeoutMillis);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                poll();
+            } catch (EntryApplyException e) {
+                if (!retryApply(e)) {
+                    return;
+                }
+                sleepBeforeRetry();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Replication from {} failed: {}", primaryUrl, e.getMessage());
+                sleepBeforeRetry();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void poll() throws IOException, InterruptedException {
+        long from = replica.getAppliedPosition() + 1;
+        URI uri = URI.create(primaryUrl + ReplicationController.JOURNAL_PATH
+                + "?from=" + from + "&max=" + batchSize + "&waitMs=" + pollWaitMillis);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(pollWaitMillis + 10_000))
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + uri);
+        }
+        JournalBatchResponse batch = objectMapper.readValue(response.body(), JournalBatchResponse.class);
+        if (!batch.getJournalId().equals(journalId)) {
+            if (journalId != null) {
+                log.warn("{} started a new journal; dropping local state to replay it", primaryUrl);
+                replica.reset();
+            }
+            journalId = batch.getJournalId();
+            primaryPosition = batch.getLastPosition();
+            if (batch.getFirstPosition() > 1) {
+                stopReplication("The primary's journal no longer holds its first entries (it starts at "
+                        + batch.getFirstPosition() + ")");
+                return;
+            }
+            if (from > 1) {
+                // Fetched from a position of the old journal; the next poll starts at 1.
+                return;
+            }
+        } else if (from < batch.getFirstPosition()) {
+            stopReplication("Journal entry " + from + " is no longer kept by the primary (it starts at "
+                    + batch.getFirstPosition() + ")");
+            return;
+        }
+        for (JournalEntryPayload entry : batch.getEntries()) {
+            try {
+                replica.apply(JournalPayloads.fromPayload(entry));
+            } catch (RuntimeException e) {
+                throw new EntryApplyException(entry.getPosition(), e);
+            }
+        }
+        primaryPosition = batch.getLastPosition();
+        if (replica.getAppliedPosition() >= primaryPosition) {
+            inSyncAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return whether to try the entry again
+     */
+    private boolean retryApply(EntryApplyException e) {
+        failedAttempts = e.position == failedPosition ? failedAttempts + 1 : 1;
+        failedPosition = e.position;
+        if (failedAttempts < MAX_APPLY_ATTEMPTS) {
+            log.warn("Could not apply journal entry {} from {} (attempt {} of {}): {}", e.position, primaryUrl,
+                    failedAttempts, MAX_APPLY_ATTEMPTS, e.getCause().getMessage());
+            return true;
+        }
+        failure = "Journal entry " + e.position + " could not be applied: " + e.getCause().getMessage();
+        running = false;
+        log.error("Stopped replication from {}: {}", primaryUrl, failure, e.getCause());
+        return false;
+    }
+
+    private void stopReplication(String reason) {
+        failure = reason;
+        running = false;
+        log.error("Stopped replication from {}: {}", primaryUrl, reason);
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static final class EntryApplyException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final long position;
+
+        EntryApplyException(long position, RuntimeException cause) {
+            super(cause);
+            this.position = position;
+        }
+    }
+}
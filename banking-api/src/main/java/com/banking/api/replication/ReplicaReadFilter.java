@@ -0,0 +1,77 @@
+package com.banking.api.replication;
+
+import com.banking.api.cluster.ShardClient;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Serves API reads from the replica's own state and sends writes to the primary.
+ * <p>
+ * Every locally served read reports the applied journal position and the replication lag.
+ * A read carrying {@link #MIN_LOG_POSITION_HEADER} (the {@link LogPositionFilter#LOG_POSITION_HEADER}
+ * of an earlier write) waits until the replica has applied that position, and is passed to the
+ * primary if it does not get there within the read-your-writes timeout. Once replication has
+ * stopped on an entry it cannot apply, every request is passed to the primary.
+ */
+public class ReplicaReadFilter extends OncePerRequestFilter {
+    public static final String MIN_LOG_POSITION_HEADER = "X-Min-Log-Position";
+    public static final String LAG_HEADER = "X-Replication-Lag";
+    public static final String LAG_MILLIS_HEADER = "X-Replication-Lag-Millis";
+
+    private final ReplicaFollower follower;
+    private final ShardClient shardClient;
+    private final long readYourWritesTimeoutMillis;
+
+    public ReplicaReadFilter(ReplicaFollower follower, ShardClient shardClient, long readYourWritesTimeoutMillis) {
+        this.follower = follower;
+        this.shardClient = shardClient;
+        this.readYourWritesTimeoutMillis = readYourWritesTimeoutMillis;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod()) || follower.getFailure() != null) {
+            shardClient.forward(request, request.getInputStream().readAllBytes(), follower.getPrimaryUrl(), response);
+            return;
+        }
+        String minPosition = request.getHeader(MIN_LOG_POSITION_HEADER);
+        if (minPosition != null) {
+            long position;
+            try {
+                position = Long.parseLong(minPosition.trim());
+            } catch (NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid " + MIN_LOG_POSITION_HEADER);
+                return;
+            }
+            if (!awaitPosition(position)) {
+                shardClient.forward(request, new byte[0], follower.getPrimaryUrl(), response);
+                return;
+            }
+        }
+        long lagMillis = follower.getLagMillis();
+        response.setHeader(LogPositionFilter.LOG_POSITION_HEADER, Long.toString(follower.getAppliedPosition()));
+        response.setHeader(LAG_HEADER, Long.toString(follower.getLagEntries()));
+        response.setHeader(LAG_MILLIS_HEADER, lagMillis == Long.MAX_VALUE ? "unknown" : Long.toString(lagMillis));
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean awaitPosition(long position) throws IOException {
+        try {
+            return follower.awaitPosition(position, readYourWritesTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for log position " + position, e);
+        }
+    }
+}
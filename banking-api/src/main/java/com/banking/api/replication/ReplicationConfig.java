@@ -0,0 +1,90 @@
+package com.banking.api.replication;
+
+import com.banking.account.service.AccountService;
+import com.banking.api.cluster.ShardClient;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.journal.JournalReplica;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Wires journal-shipping replication, selected by {@code banking.replication.role}:
+ * <ul>
+ *   <li>{@code primary} - journals every change and serves the journal to replicas,</li>
+ *   <li>{@code replica} - follows {@code banking.replication.primary-url}, serves reads locally
+ *       and passes writes to the primary.</li>
+ * </ul>
+ * Without the property the node neither keeps a journal nor follows one.
+ */
+@Configuration
+public class ReplicationConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "banking.replication.role", havingValue = "primary")
+    static class PrimaryConfig {
+
+        @Bean
+        public TransactionJournal transactionJournal(AccountService accountService,
+                                                     TransactionService transactionService,
+                                                     MetricsRegistry metricsRegistry,
+                                                     @Value("${banking.replication.journal-max-entries:250000}")
+                                                     int journalMaxEntries) {
+            TransactionJournal journal = new TransactionJournal(journalMaxEntries);
+            journal.attach(accountService, transactionService);
+            metricsRegistry.gauge("banking_replication_journal_position", "Last position in the replication journal",
+                    journal::getLastPosition);
+            metricsRegistry.gauge("banking_replication_journal_first_position",
+                    "Oldest position still kept in the replication journal", journal::getFirstPosition);
+            return journal;
+        }
+
+        @Bean
+        public FilterRegistrationBean<LogPositionFilter> logPositionFilter(TransactionJournal journal) {
+            FilterRegistrationBean<LogPositionFilter> registration =
+                    new FilterRegistrationBean<>(new LogPositionFilter(journal));
+            registration.addUrlPatterns("/api/*");
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+            return registration;
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "banking.replication.role", havingValue = "replica")
+    static class ReplicaConfig {
+
+        @Bean(initMethod = "start", destroyMethod = "stop")
+        public ReplicaFollower replicaFollower(AccountService accountService, TransactionService transactionService,
+                                               ObjectMapper objectMapper, MetricsRegistry metricsRegistry,
+                                               @Value("${banking.replication.primary-url}") String primaryUrl,
+                                               @Value("${banking.replication.batch-size:500}") int batchSize,
+                                               @Value("${banking.replication.poll-wait-ms:5000}") long pollWaitMillis) {
+            JournalReplica replica = new JournalReplica(accountService, transactionService);
+            ReplicaFollower follower = new ReplicaFollower(primaryUrl, replica, objectMapper, batchSize, pollWaitMillis);
+            metricsRegistry.gauge("banking_replication_applied_position", "Last applied position of the primary's journal",
+                    follower::getAppliedPosition);
+            metricsRegistry.gauge("banking_replication_lag_entries", "Journal entries not yet applied",
+                    follower::getLagEntries);
+            metricsRegistry.gauge("banking_replication_failed", "1 if replication stopped on an entry it could not apply",
+                    () -> follower.getFailure() != null ? 1 : 0);
+            return follower;
+        }
+
+        @Bean
+        public FilterRegistrationBean<ReplicaReadFilter> replicaReadFilter(
+                ReplicaFollower follower, ShardClient shardClient,
+                @Value("${banking.replication.read-your-writes-timeout-ms:1000}") long readYourWritesTimeoutMillis) {
+            FilterRegistrationBean<ReplicaReadFilter> registration =
+                    new FilterRegistrationBean<>(new ReplicaReadFilter(follower, shardClient, readYourWritesTimeoutMillis));
+            registration.addUrlPatterns("/api/*");
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.banking.api.replication;
+
+import com.banking.api.dto.JournalBatchResponse;
+import com.banking.api.dto.JournalEntryPayload;
+import com.banking.transaction.journal.JournalEntry;
+import com.banking.transaction.journal.TransactionJournal;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Serves the primary's journal to read replicas. A request with no new entries is held
+ * open for up to {@code waitMs}, so a caught-up replica receives new entries as soon as
+ * they are appended. Every batch names the journal and the positions it still holds, so a
+ * replica can tell that the journal was replaced or that it fell behind what is kept; a
+ * request for a position no longer kept gets an empty batch.
+ */
+@RestController
+@RequestMapping("/internal/replication")
+@ConditionalOnProperty(name = "banking.replication.role", havingValue = "primary")
+public class ReplicationController {
+    static final String JOURNAL_PATH = "/internal/replication/journal";
+
+    private static final int MAX_BATCH = 5000;
+    private static final long MAX_WAIT_MILLIS = 30_000;
+
+    private final TransactionJournal journal;
+
+    public ReplicationController(TransactionJournal journal) {
+        this.journal = journal;
+    }
+
+    @GetMapping("/journal")
+    public ResponseEntity<JournalBatchResponse> getJournal(@RequestParam(defaultValue = "1") long from,
+                                                           @RequestParam(defaultValue = "500") int max,
+                                                           @RequestParam(defaultValue = "0") long waitMs)
+            throws InterruptedException {
+        List<JournalEntry> entries;
+        try {
+            entries = journal.read(from, Math.min(max, MAX_BATCH), Math.min(waitMs, MAX_WAIT_MILLIS));
+        } catch (IllegalArgumentException e) {
+            // Before the first position kept; the batch's firstPosition tells the replica.
+            entries = Collections.emptyList();
+        }
+        List<JournalEntryPayload> payloads = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            payloads.add(JournalPayloads.toPayload(entry));
+        }
+        JournalBatchResponse response = new JournalBatchResponse();
+        response.setJournalId(journal.getJournalId());
+        response.setFirstPosition(journal.getFirstPosition());
+        response.setLastPosition(journal.getLastPosition());
+        response.setEntries(payloads);
+        return ResponseEntity.ok(response);
+    }
+}
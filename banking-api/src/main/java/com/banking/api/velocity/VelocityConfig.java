@@ -0,0 +1,81 @@
+package com.banking.api.velocity;
+
+import com.banking.core.domain.AccountType;
+import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.velocity.VelocityLimit;
+import com.banking.transaction.velocity.VelocityLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Velocity limits on debits, per account type: {@code banking.velocity.max-count} and
+ * {@code banking.velocity.max-amount} list {@code TYPE=limit} pairs, e.g.
+ * {@code CHECKING=50,SAVINGS=5}, counted over a rolling {@code banking.velocity.window-minutes}.
+ * Account types listed in neither are not limited. Idle accounts are swept from the limiter in
+ * the background once per window.
+ */
+@Configuration
+public class VelocityConfig {
+
+    @Bean
+    public VelocityLimiter velocityLimiter(TransactionService transactionService,
+                                           @Value("${banking.velocity.window-minutes:60}") long windowMinutes,
+                                           @Value("${banking.velocity.buckets:60}") int buckets,
+                                           @Value("${banking.velocity.max-count:}") String maxCounts,
+                                           @Value("${banking.velocity.max-amount:}") String maxAmounts) {
+        Map<AccountType, String> counts = parseLimits("banking.velocity.max-count", maxCounts);
+        Map<AccountType, String> amounts = parseLimits("banking.velocity.max-amount", maxAmounts);
+        Map<AccountType, VelocityLimit> limits = new EnumMap<>(AccountType.class);
+        for (AccountType type : AccountType.values()) {
+            if (counts.containsKey(type) || amounts.containsKey(type)) {
+                int maxCount = counts.containsKey(type) ? Integer.parseInt(counts.get(type)) : 0;
+                BigDecimal maxAmount = amounts.containsKey(type) ? new BigDecimal(amounts.get(type)) : null;
+                limits.put(type, new VelocityLimit(Duration.ofMinutes(windowMinutes), buckets, maxCount, maxAmount));
+            }
+        }
+        VelocityLimiter limiter = new VelocityLimiter(limits);
+        if (!limits.isEmpty()) {
+            transactionService.setVelocityLimiter(limiter);
+        }
+        return limiter;
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService velocitySweeper(VelocityLimiter velocityLimiter) {
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "velocity-sweep");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = velocityLimiter.getSweepIntervalNanos();
+        sweeper.scheduleWithFixedDelay(velocityLimiter::sweep, interval, interval, TimeUnit.NANOSECONDS);
+        return sweeper;
+    }
+
+    static Map<AccountType, String> parseLimits(String property, String value) {
+        Map<AccountType, String> limits = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected TYPE=limit in " + property + " but got: " + entry);
+            }
+            AccountType type = AccountType.valueOf(entry.substring(0, separator).trim().toUpperCase(Locale.ROOT));
+            limits.put(type, entry.substring(separator + 1).trim());
+        }
+        return limits;
+    }
+}
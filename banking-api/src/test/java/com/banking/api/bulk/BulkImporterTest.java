@@ -0,0 +1,104 @@
+package com.banking.api.bulk;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private BulkImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        importer = new BulkImporter(accountService, transactionService, 2, 2, 10);
+    }
+
+    @Test
+    void testImportsAccountsAndTransactions() throws IOException {
+        BulkImportResult accounts = importer.importAccounts(new StringReader(
+                "accountId,customerId,accountType,initialBalance,currency\n"
+                        + "ACC-1,CUST001,CHECKING,100.00,USD\n"
+                        + "ACC-2,CUST001,savings,0,USD\n"
+                        + "ACC-3,CUST002,CHECKING,-5,USD\n"));
+        assertEquals(3, accounts.getRowsRead());
+        assertEquals(2, accounts.getImported());
+        assertEquals(1, accounts.getFailed());
+        assertEquals(4, accounts.getErrors().get(0).getRow());
+
+        BulkImportResult transactions = importer.importTransactions(new StringReader(
+                "type,accountId,amount,currency,toAccountId,description\n"
+                        + "DEPOSIT,ACC-1,50,USD,,\"Salary, March\"\n"
+                        + "WITHDRAW,ACC-1,20,USD,,Cash\n"
+                        + "TRANSFER,ACC-1,30,USD,ACC-2,Rent\n"
+                        + "REFUND,ACC-1,1,USD,,\n"));
+        assertEquals(3, transactions.getImported());
+        assertEquals(1, transactions.getFailed());
+        assertEquals("Unknown transaction type: REFUND", transactions.getErrors().get(0).getMessage());
+        assertEquals(0, new BigDecimal("100").compareTo(balanceOf("ACC-1")));
+        assertEquals(0, new BigDecimal("30").compareTo(balanceOf("ACC-2")));
+    }
+
+    @Test
+    void testOversizedRecordFailsOnlyItsRow() throws IOException {
+        StringBuilder csv = new StringBuilder("customerId,accountType,initialBalance,currency\n");
+        csv.append("\"");
+        for (int i = 0; i <= CsvReader.DEFAULT_MAX_RECORD_CHARS; i++) {
+            csv.append('x');
+        }
+        csv.append("\",CHECKING,1,USD\n");
+        csv.append("CUST001,CHECKING,1,USD\n");
+
+        BulkImportResult result = importer.importAccounts(new StringReader(csv.toString()));
+
+        assertEquals(2, result.getRowsRead());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(1, accountService.getAllAccounts().size());
+    }
+
+    @Test
+    void testErrorInLaneFailsTheImport() {
+        accountService.createAccount("ACC-1", "CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        transactionService.addTransactionListener(transaction -> {
+            throw new AssertionError("Listener broke");
+        });
+        StringBuilder csv = new StringBuilder("type,accountId,amount,currency\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append("DEPOSIT,ACC-1,1,USD\n");
+        }
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> importer.importTransactions(new StringReader(csv.toString())));
+        assertTrue(e.getCause() instanceof AssertionError);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new BulkImporter(accountService, transactionService, 1, 1, -1));
+        assertEquals("Maximum reported errors cannot be negative", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> importer.importAccounts(new StringReader("")));
+        assertThrows(IllegalArgumentException.class,
+                () -> importer.importAccounts(new StringReader("customerId,accountType\n")));
+    }
+
+    private BigDecimal balanceOf(String accountId) {
+        Account account = accountService.getAccount(accountId);
+        return account.getBalance().getAmount();
+    }
+}
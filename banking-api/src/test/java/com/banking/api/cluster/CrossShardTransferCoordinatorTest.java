@@ -0,0 +1,128 @@
+package com.banking.api.cluster;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.api.dto.ShardTransactionPayload;
+import com.banking.api.dto.ShardTransferRequest;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossShardTransferCoordinatorTest {
+    private static final long TTL_MILLIS = 60_000;
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private HttpServer participant;
+    private ClusterMembership membership;
+    private CrossShardTransferCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        // Prepares every credit and refuses every commit.
+        participant = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        participant.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("/commit") ? 500 : 200, -1);
+            exchange.close();
+        });
+        participant.start();
+        Map<String, String> members = new LinkedHashMap<>();
+        members.put("node1", "http://localhost:1");
+        members.put("node2", "http://localhost:" + participant.getAddress().getPort());
+        membership = new ClusterMembership("node1", members, 16);
+        ShardClient shardClient = new ShardClient("node1", "secret", new ObjectMapper());
+        coordinator = new CrossShardTransferCoordinator(accountService, transactionService, membership, shardClient,
+                new MetricsRegistry(), TTL_MILLIS, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        participant.stop(0);
+    }
+
+    @Test
+    void testCommitMustMatchPreparedCredit() {
+        Account account = accountService.createAccount("ACC-1", "CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        coordinator.prepare("TX-1", credit("ACC-1", "10.00"));
+
+        assertThrows(IllegalArgumentException.class, () -> coordinator.commit("TX-2", commit("TX-2", "ACC-1", "10.00")));
+        assertThrows(IllegalArgumentException.class, () -> coordinator.commit("TX-1", commit("TX-1", "ACC-1", "20.00")));
+        accountService.createAccount("ACC-2", "CUST002", AccountType.CHECKING, new Money(0.0, "USD"));
+        assertThrows(IllegalArgumentException.class, () -> coordinator.commit("TX-1", commit("TX-1", "ACC-2", "10.00")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(account.getBalance().getAmount()));
+
+        coordinator.commit("TX-1", commit("TX-1", "ACC-1", "10"));
+        coordinator.commit("TX-1", commit("TX-1", "ACC-1", "10"));
+        assertEquals(0, new BigDecimal("10").compareTo(account.getBalance().getAmount()));
+        assertEquals(0, coordinator.getPreparedCreditCount());
+    }
+
+    @Test
+    void testUnclaimedPreparedCreditExpires() {
+        accountService.createAccount("ACC-1", "CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        coordinator.prepare("TX-1", credit("ACC-1", "10.00"));
+
+        coordinator.expirePreparedCredits(System.nanoTime());
+        assertEquals(1, coordinator.getPreparedCreditCount());
+        coordinator.expirePreparedCredits(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS));
+        assertEquals(0, coordinator.getPreparedCreditCount());
+        assertThrows(IllegalArgumentException.class, () -> coordinator.commit("TX-1", commit("TX-1", "ACC-1", "10.00")));
+    }
+
+    @Test
+    void testRefusedCommitBecomesStuck() {
+        String local = accountOwnedBy("node1");
+        String remote = accountOwnedBy("node2");
+        Account source = accountService.createAccount(local, "CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+
+        coordinator.transfer(local, remote, new Money(30.0, "USD"), "Rent");
+        assertEquals(1, coordinator.getPendingCommitCount());
+        coordinator.retryPendingCommits();
+
+        assertEquals(0, coordinator.getPendingCommitCount());
+        assertEquals(1, coordinator.getStuckTransfers().size());
+        assertEquals(remote, coordinator.getStuckTransfers().get(0).getRelatedAccountId());
+        assertEquals(0, new BigDecimal("70").compareTo(source.getBalance().getAmount()));
+    }
+
+    private String accountOwnedBy(String nodeId) {
+        for (int i = 0; ; i++) {
+            if (membership.ownerOf("ACC-" + i).equals(nodeId)) {
+                return "ACC-" + i;
+            }
+        }
+    }
+
+    private static ShardTransferRequest credit(String accountId, String amount) {
+        ShardTransferRequest request = new ShardTransferRequest();
+        request.setToAccountId(accountId);
+        request.setAmount(amount);
+        request.setCurrency("USD");
+        return request;
+    }
+
+    private static ShardTransactionPayload commit(String transactionId, String accountId, String amount) {
+        return ShardPayloads.toPayload(new Transaction(transactionId, "REMOTE", TransactionType.TRANSFER,
+                new Money(new BigDecimal(amount), "USD"), "Transfer", accountId, LocalDateTime.now()));
+    }
+}
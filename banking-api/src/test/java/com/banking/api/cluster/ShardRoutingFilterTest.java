@@ -0,0 +1,68 @@
+package com.banking.api.cluster;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRoutingFilterTest {
+    // Configured like the application's mapper: amounts stay exact decimals.
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    @Test
+    void testValuationsAreSummed() throws Exception {
+        JsonNode local = objectMapper.readTree("{\"customerId\":\"CUST001\",\"currency\":\"EUR\","
+                + "\"totalValue\":10000000000000000.01,\"ratesAsOf\":\"2026-01-01T00:00:00Z\","
+                + "\"accounts\":[{\"accountId\":\"A\",\"value\":10000000000000000.01}]}");
+        JsonNode remote = objectMapper.readTree("{\"customerId\":\"CUST001\",\"currency\":\"EUR\",\"totalValue\":0.2,"
+                + "\"ratesAsOf\":\"2026-01-01T00:00:00Z\",\"accounts\":[{\"accountId\":\"B\",\"value\":0.2}]}");
+        JsonNode empty = objectMapper.readTree("{\"customerId\":\"CUST001\",\"currency\":\"EUR\",\"totalValue\":0,"
+                + "\"ratesAsOf\":\"2026-01-01T00:00:00Z\",\"accounts\":[]}");
+
+        JsonNode merged = ShardRoutingFilter.addValuations(ShardRoutingFilter.addValuations(local, remote), empty);
+
+        assertEquals(0, new BigDecimal("10000000000000000.21").compareTo(merged.get("totalValue").decimalValue()));
+        assertEquals(2, merged.get("accounts").size());
+        assertEquals("B", merged.get("accounts").get(1).get("accountId").asText());
+        assertEquals("EUR", merged.get("currency").asText());
+    }
+
+    @Test
+    void testSettlementRoutedOnlyWhenOneMemberOwnsEveryAccount() throws Exception {
+        Map<String, String> members = new LinkedHashMap<>();
+        members.put("node1", "http://localhost:8081");
+        members.put("node2", "http://localhost:8082");
+        ClusterMembership membership = new ClusterMembership("node1", members, 16);
+        ShardRoutingFilter filter = new ShardRoutingFilter(membership, null, objectMapper);
+        String local = accountOwnedBy(membership, "node1", 0);
+        String otherLocal = accountOwnedBy(membership, "node1", 1);
+        String remote = accountOwnedBy(membership, "node2", 0);
+        String otherRemote = accountOwnedBy(membership, "node2", 1);
+
+        assertEquals("node1", filter.settlementOwner(batch(local, otherLocal)));
+        assertEquals("node2", filter.settlementOwner(batch(remote, otherRemote)));
+        assertNull(filter.settlementOwner(batch(local, remote)));
+        assertNull(filter.settlementOwner(objectMapper.readTree("[{\"fromAccountId\":\"" + remote
+                + "\",\"toAccountId\":\"" + otherRemote + "\"},{\"fromAccountId\":\"" + local + "\"}]")));
+    }
+
+    private JsonNode batch(String from, String to) throws Exception {
+        return objectMapper.readTree("[{\"fromAccountId\":\"" + from + "\",\"toAccountId\":\"" + to
+                + "\",\"amount\":1,\"currency\":\"USD\"}]");
+    }
+
+    private static String accountOwnedBy(ClusterMembership membership, String nodeId, int skip) {
+        for (int i = 0; ; i++) {
+            if (nodeId.equals(membership.ownerOf("ACC-" + i)) && skip-- == 0) {
+                return "ACC-" + i;
+            }
+        }
+    }
+}
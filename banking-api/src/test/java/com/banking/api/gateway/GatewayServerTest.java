@@ -0,0 +1,197 @@
+package com.banking.api.gateway;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.api.cluster.ClusterMembership;
+import com.banking.api.cluster.ShardClient;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayServerTest {
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private GatewayServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        server = new GatewayServer(new GatewayDispatcher(transactionService), 0, 1, 2);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void testPipelinedRequestsAnsweredInOrder() throws IOException {
+        Account checking = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account savings = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(0.0, "USD"));
+        try (Socket socket = connect()) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.write(frame(GatewayProtocol.OP_DEPOSIT, 1, 2550, 2, checking.getAccountId(), null, "Salary"));
+            out.write(frame(GatewayProtocol.OP_WITHDRAW, 2, 500, 0, checking.getAccountId(), null, ""));
+            out.write(frame(GatewayProtocol.OP_TRANSFER, 3, 1000, 1, checking.getAccountId(),
+                    savings.getAccountId(), "Rent"));
+            out.write(frame(GatewayProtocol.OP_DEPOSIT, 4, 1, 0, "missing", null, ""));
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertResponse(in, 1, GatewayProtocol.STATUS_OK);
+            assertResponse(in, 2, GatewayProtocol.STATUS_INSUFFICIENT_FUNDS);
+            assertResponse(in, 3, GatewayProtocol.STATUS_OK);
+            assertResponse(in, 4, GatewayProtocol.STATUS_INVALID_ACCOUNT);
+        }
+        assertEquals(0, new BigDecimal("25.50").compareTo(checking.getBalance().getAmount()));
+        assertEquals(0, new BigDecimal("100").compareTo(savings.getBalance().getAmount()));
+    }
+
+    @Test
+    void testInvalidScaleAndOperationAreMalformed() throws IOException {
+        Account checking = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        try (Socket socket = connect()) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.write(frame(GatewayProtocol.OP_DEPOSIT, 1, 5, -1, checking.getAccountId(), null, ""));
+            out.write(frame(GatewayProtocol.OP_DEPOSIT, 2, 5, GatewayProtocol.MAX_SCALE + 1,
+                    checking.getAccountId(), null, ""));
+            out.write(frame((byte) 9, 3, 5, 0, checking.getAccountId(), null, ""));
+            out.write(frame(GatewayProtocol.OP_DEPOSIT, 4, 5, GatewayProtocol.MAX_SCALE,
+                    checking.getAccountId(), null, ""));
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertResponse(in, 1, GatewayProtocol.STATUS_MALFORMED);
+            assertResponse(in, 2, GatewayProtocol.STATUS_MALFORMED);
+            assertResponse(in, 3, GatewayProtocol.STATUS_MALFORMED);
+            assertResponse(in, 4, GatewayProtocol.STATUS_OK);
+        }
+        assertEquals(1, transactionService.getTransactionCount());
+    }
+
+    @Test
+    void testBlockedRequestDoesNotStallTheEventLoop() throws IOException {
+        Account busy = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account idle = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(100.0, "USD"));
+        try (Socket first = connect(); Socket second = connect()) {
+            busy.lock();
+            try {
+                first.getOutputStream().write(frame(GatewayProtocol.OP_WITHDRAW, 1, 10, 0, busy.getAccountId(), null, ""));
+                second.getOutputStream().write(frame(GatewayProtocol.OP_DEPOSIT, 2, 10, 0, idle.getAccountId(), null, ""));
+
+                // Both connections share the single event loop; the second is answered while the first waits.
+                assertResponse(new DataInputStream(second.getInputStream()), 2, GatewayProtocol.STATUS_OK);
+            } finally {
+                busy.unlock();
+            }
+            assertResponse(new DataInputStream(first.getInputStream()), 1, GatewayProtocol.STATUS_OK);
+        }
+    }
+
+    @Test
+    void testForwardedRequestKeepsExactAmountAndRefusal() throws IOException {
+        // The owner of every forwarded account: refuses withdrawals for lack of funds and deposits as unknown.
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        HttpServer owner = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        owner.createContext("/", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("/withdraw") ? 422 : 404, -1);
+            exchange.close();
+        });
+        owner.start();
+        Map<String, String> members = new LinkedHashMap<>();
+        members.put("node1", "http://localhost:1");
+        members.put("node2", "http://localhost:" + owner.getAddress().getPort());
+        ClusterMembership membership = new ClusterMembership("node1", members, 16);
+        ObjectMapper objectMapper = new ObjectMapper();
+        GatewayServer clustered = new GatewayServer(new GatewayDispatcher(transactionService, membership,
+                new ShardClient("node1", "secret", objectMapper), null, null, null, objectMapper), 0, 1, 2);
+        clustered.start();
+        String remote = "ACC-0";
+        for (int i = 1; !"node2".equals(membership.ownerOf(remote)); i++) {
+            remote = "ACC-" + i;
+        }
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", clustered.getPort()));
+            socket.setSoTimeout(10_000);
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.write(frame(GatewayProtocol.OP_WITHDRAW, 1, 1000000000000000001L, 2, remote, null, ""));
+            out.write(frame(GatewayProtocol.OP_DEPOSIT, 2, 5, 0, remote, null, ""));
+            out.flush();
+
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertResponse(in, 1, GatewayProtocol.STATUS_INSUFFICIENT_FUNDS);
+            assertResponse(in, 2, GatewayProtocol.STATUS_INVALID_ACCOUNT);
+        } finally {
+            clustered.stop();
+            owner.stop(0);
+        }
+        assertTrue(bodies.get(0).contains("\"amount\":10000000000000000.01"), bodies.get(0));
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress("localhost", server.getPort()));
+        socket.setSoTimeout(10_000);
+        return socket;
+    }
+
+    private static void assertResponse(DataInputStream in, long requestId, byte status) throws IOException {
+        int length = in.readInt();
+        assertEquals(requestId, in.readLong());
+        assertEquals(status, in.readByte());
+        int idLength = in.readUnsignedByte();
+        assertEquals(length, 8 + 1 + 1 + idLength);
+        in.skipBytes(idLength);
+        assertEquals(status == GatewayProtocol.STATUS_OK, idLength > 0);
+    }
+
+    private static byte[] frame(byte operation, long requestId, long unscaledAmount, int scale, String accountId,
+                                String toAccountId, String description) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeByte(operation);
+        out.writeLong(requestId);
+        out.writeLong(unscaledAmount);
+        out.writeByte(scale);
+        out.write("USD".getBytes(StandardCharsets.US_ASCII));
+        out.writeByte(accountId.length());
+        out.write(accountId.getBytes(StandardCharsets.US_ASCII));
+        if (operation == GatewayProtocol.OP_TRANSFER) {
+            out.writeByte(toAccountId.length());
+            out.write(toAccountId.getBytes(StandardCharsets.US_ASCII));
+        }
+        byte[] text = description.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(text.length);
+        out.write(text);
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream framed = new DataOutputStream(frame);
+        framed.writeInt(body.size());
+        body.writeTo(framed);
+        return frame.toByteArray();
+    }
+}
@@ -0,0 +1,125 @@
+package com.banking.api.replication;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.api.dto.JournalBatchResponse;
+import com.banking.api.dto.JournalEntryPayload;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.journal.JournalEntry;
+import com.banking.transaction.journal.JournalReplica;
+import com.banking.transaction.journal.TransactionJournal;
+import com.banking.transaction.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaFollowerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile TransactionJournal primaryJournal;
+    private HttpServer primary;
+    private AccountService replicaAccounts;
+    private ReplicaFollower follower;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Serves the current journal the way ReplicationController does.
+        primary = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        primary.createContext(ReplicationController.JOURNAL_PATH, exchange -> {
+            long from = Long.parseLong(exchange.getRequestURI().getQuery().replaceAll(".*from=(\\d+).*", "$1"));
+            TransactionJournal journal = primaryJournal;
+            List<JournalEntry> entries;
+            try {
+                entries = journal.read(from, 100, 0);
+            } catch (IllegalArgumentException | InterruptedException e) {
+                entries = Collections.emptyList();
+            }
+            List<JournalEntryPayload> payloads = new ArrayList<>();
+            for (JournalEntry entry : entries) {
+                payloads.add(JournalPayloads.toPayload(entry));
+            }
+            JournalBatchResponse batch = new JournalBatchResponse();
+            batch.setJournalId(journal.getJournalId());
+            batch.setFirstPosition(journal.getFirstPosition());
+            batch.setLastPosition(journal.getLastPosition());
+            batch.setEntries(payloads);
+            byte[] body = objectMapper.writeValueAsBytes(batch);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        primary.start();
+        replicaAccounts = new AccountService();
+        JournalReplica replica = new JournalReplica(replicaAccounts, new TransactionService(replicaAccounts));
+        follower = new ReplicaFollower("http://localhost:" + primary.getAddress().getPort(), replica, objectMapper,
+                100, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        follower.stop();
+        primary.stop(0);
+    }
+
+    @Test
+    void testReplicaReplaysANewJournalFromItsStart() throws Exception {
+        AccountService accounts = startPrimary(100);
+        Account before = accounts.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        follower.start();
+        assertTrue(follower.awaitPosition(1, 10_000));
+        assertTrue(replicaAccounts.hasAccount(before.getAccountId()));
+
+        // The primary restarts with fresh state and a new journal.
+        accounts = startPrimary(100);
+        Account after = accounts.createAccount("CUST002", AccountType.SAVINGS, new Money(50.0, "USD"));
+        accounts.createAccount("CUST003", AccountType.SAVINGS, new Money(10.0, "USD"));
+
+        await(() -> replicaAccounts.getAccountCount() == 2 && replicaAccounts.hasAccount(after.getAccountId()));
+        assertFalse(replicaAccounts.hasAccount(before.getAccountId()));
+        assertEquals(2, follower.getAppliedPosition());
+        assertNull(follower.getFailure());
+    }
+
+    @Test
+    void testReplicaStopsWhenTheEntriesItNeedsAreGone() throws Exception {
+        AccountService accounts = startPrimary(2);
+        for (int i = 0; i < 3; i++) {
+            accounts.createAccount("CUST00" + i, AccountType.CHECKING, new Money(1.0, "USD"));
+        }
+        follower.start();
+
+        await(() -> follower.getFailure() != null);
+        assertTrue(follower.getFailure().contains("starts at 2"), follower.getFailure());
+        assertEquals(0, replicaAccounts.getAccountCount());
+    }
+
+    private AccountService startPrimary(int maxEntries) {
+        AccountService accounts = new AccountService();
+        TransactionJournal journal = new TransactionJournal(maxEntries);
+        journal.attach(accounts, new TransactionService(accounts));
+        primaryJournal = journal;
+        return accounts;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+}
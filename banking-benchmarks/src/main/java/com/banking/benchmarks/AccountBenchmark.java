@@ -0,0 +1,52 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Account#deposit(Money)} and {@link Account#withdraw(Money)}
+ * on an uncontended account.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class AccountBenchmark {
+
+    private Account account;
+    private Money amount;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = new Account("CUST001", AccountType.CHECKING, new Money(1_000_000_000.0, "USD"));
+        amount = new Money(10.0, "USD");
+    }
+
+    @Benchmark
+    public Money deposit() {
+        account.deposit(amount);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Money withdraw() {
+        account.withdraw(amount);
+        return account.getBalance();
+    }
+
+    /**
+     * Deposit followed by withdrawal, keeping the balance stable across iterations.
+     */
+    @Benchmark
+    public Money depositThenWithdraw() {
+        account.deposit(amount);
+        account.withdraw(amount);
+        return account.getBalance();
+    }
+}
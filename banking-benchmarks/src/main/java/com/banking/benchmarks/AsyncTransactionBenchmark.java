@@ -0,0 +1,124 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.async.AsyncTransactionService;
+import com.banking.transaction.async.TransactionExecutors;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares deposits made through the blocking {@link TransactionService} API on a servlet-sized
+ * pool of {@code servletThreads} against the same deposits made through
+ * {@link AsyncTransactionService}, when every operation waits {@code journalMicros} on a
+ * synchronous listener (standing in for a journal or replica acknowledgement).
+ * <p>
+ * Each invocation issues {@code requests} deposits at once, spread over {@code accountCount}
+ * accounts, and waits for all of them. {@code async-platform} runs them on {@code asyncThreads}
+ * platform threads; {@code async-virtual} on virtual threads, which needs JDK 21 or later.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncTransactionBenchmark {
+
+    @Param({"blocking", "async-platform", "async-virtual"})
+    public String mode;
+
+    @Param({"10000"})
+    public int requests;
+
+    @Param({"1000", "20000"})
+    public int journalMicros;
+
+    @Param({"200"})
+    public int servletThreads;
+
+    @Param({"2000"})
+    public int asyncThreads;
+
+    @Param({"10000"})
+    public int accountCount;
+
+    private TransactionService transactionService;
+    private AsyncTransactionService asyncTransactionService;
+    private ExecutorService executor;
+    private String[] accountIds;
+    private final Money amount = new Money(1.0, "USD");
+
+    /**
+     * Services are rebuilt every iteration so the transaction map does not grow without bound.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        long journalNanos = TimeUnit.MICROSECONDS.toNanos(journalMicros);
+        transactionService.addTransactionListener(transaction -> LockSupport.parkNanos(journalNanos));
+        accountIds = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = accountService.createAccount("CUST" + i, AccountType.CHECKING, new Money(0.0, "USD"));
+            accountIds[i] = account.getAccountId();
+        }
+        switch (mode) {
+            case "blocking":
+                executor = TransactionExecutors.platformThreads(servletThreads);
+                break;
+            case "async-platform":
+                executor = TransactionExecutors.platformThreads(asyncThreads);
+                break;
+            case "async-virtual":
+                executor = TransactionExecutors.virtualThreads();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            // Thread start-up is not what is being measured.
+            ((ThreadPoolExecutor) executor).prestartAllCoreThreads();
+        }
+        asyncTransactionService = new AsyncTransactionService(transactionService, executor, requests);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int deposits() throws InterruptedException, ExecutionException {
+        if ("blocking".equals(mode)) {
+            List<Future<Transaction>> results = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                String accountId = accountIds[i % accountIds.length];
+                results.add(executor.submit(() -> transactionService.deposit(accountId, amount, "Deposit")));
+            }
+            for (Future<Transaction> result : results) {
+                result.get();
+            }
+        } else {
+            CompletableFuture<?>[] results = new CompletableFuture<?>[requests];
+            for (int i = 0; i < requests; i++) {
+                results[i] = asyncTransactionService.depositAsync(accountIds[i % accountIds.length], amount, "Deposit");
+            }
+            CompletableFuture.allOf(results).get();
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,44 @@
+package com.banking.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks uber-jar.
+ * <p>
+ * Runs the selected benchmarks with the GC profiler attached (which reports allocation
+ * rate and bytes allocated per operation as {@code gc.alloc.rate.norm}) and writes the
+ * results as JSON so runs from different releases can be diffed. Any standard JMH
+ * command-line option can be passed; result format and file given there take precedence, e.g.
+ * {@code java -jar target/benchmarks.jar Money -rff target/money.json}.
+ */
+public class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class);
+
+        if (!commandLine.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include("com\\.banking\\.benchmarks\\..*");
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
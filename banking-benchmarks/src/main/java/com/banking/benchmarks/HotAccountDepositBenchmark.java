@@ -0,0 +1,41 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent deposits into a single account, with and without striped balances.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class HotAccountDepositBenchmark {
+
+    @Param({"false", "true"})
+    public boolean striped;
+
+    private Account account;
+    private Money amount;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = new Account("MERCHANT", AccountType.CURRENT, new Money(0.0, "USD"));
+        if (striped) {
+            account.enableStriping(Runtime.getRuntime().availableProcessors());
+        }
+        amount = new Money(1.0, "USD");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void deposit() {
+        account.deposit(amount);
+    }
+}
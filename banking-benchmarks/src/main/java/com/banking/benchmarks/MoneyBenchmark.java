@@ -0,0 +1,55 @@
+package com.banking.benchmarks;
+
+import com.banking.core.domain.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Money} arithmetic and comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private Money hundred;
+    private Money fifty;
+    private BigDecimal rawAmount;
+
+    @Setup
+    public void setUp() {
+        hundred = new Money(100.0, "USD");
+        fifty = new Money(50.25, "USD");
+        rawAmount = new BigDecimal("123.45");
+    }
+
+    @Benchmark
+    public Money add() {
+        return hundred.add(fifty);
+    }
+
+    @Benchmark
+    public Money subtract() {
+        return hundred.subtract(fifty);
+    }
+
+    @Benchmark
+    public boolean isLessThan() {
+        return fifty.isLessThan(hundred);
+    }
+
+    @Benchmark
+    public Money createFromDouble() {
+        return new Money(123.45, "USD");
+    }
+
+    @Benchmark
+    public Money createFromBigDecimal() {
+        return new Money(rawAmount, "USD");
+    }
+}
@@ -0,0 +1,79 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.netting.TransferInstruction;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares settling a batch of transfers with {@link TransactionService#settleNetted} against
+ * applying the same batch one {@link TransactionService#transfer} at a time.
+ * <p>
+ * Each invocation settles one batch of {@code batchSize} transfers among {@code accountCount}
+ * accounts, so the scores are directly comparable per batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class NettingBenchmark {
+
+    @Param({"300"})
+    public int accountCount;
+
+    @Param({"100", "1000", "10000"})
+    public int batchSize;
+
+    private TransactionService transactionService;
+    private List<TransferInstruction> batch;
+
+    /**
+     * Services are rebuilt every iteration so the transaction map does not grow without bound.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        String[] accountIds = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = accountService.createAccount(
+                "CUST" + i, AccountType.CHECKING, new Money(1_000_000_000.0, "USD"));
+            accountIds[i] = account.getAccountId();
+        }
+        Random random = new Random(42);
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            int from = random.nextInt(accountCount);
+            int to = random.nextInt(accountCount - 1);
+            if (to >= from) {
+                to++;
+            }
+            batch.add(new TransferInstruction(accountIds[from], accountIds[to],
+                new Money(1 + random.nextInt(1000), "USD"), "Clearing"));
+        }
+    }
+
+    @Benchmark
+    public int sequential() {
+        for (TransferInstruction instruction : batch) {
+            transactionService.transfer(instruction.getFromAccountId(), instruction.getToAccountId(),
+                instruction.getAmount(), instruction.getDescription());
+        }
+        return batch.size();
+    }
+
+    @Benchmark
+    public int netted() {
+        return transactionService.settleNetted(batch).size();
+    }
+}
@@ -0,0 +1,90 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.reconcile.LedgerDigest;
+import com.banking.transaction.reconcile.Reconciler;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full reconciliation through {@link Reconciler} against recomputing every balance
+ * from the transaction history, on a ledger where one account in {@code accountCount} disagrees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReconciliationBenchmark {
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.00");
+
+    @Param({"10000", "100000"})
+    public int accountCount;
+
+    @Param({"20"})
+    public int transactionsPerAccount;
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private Reconciler reconciler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        LedgerDigest digest = new LedgerDigest(4096);
+        digest.attach(accountService, transactionService);
+        reconciler = new Reconciler(accountService, transactionService, digest);
+        String[] accountIds = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountIds[i] = accountService.createAccount("CUST" + i, AccountType.CHECKING,
+                new Money(OPENING_BALANCE, "USD")).getAccountId();
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < accountCount * transactionsPerAccount / 2; i++) {
+            int from = random.nextInt(accountCount);
+            int to = (from + 1 + random.nextInt(accountCount - 1)) % accountCount;
+            transactionService.transfer(accountIds[from], accountIds[to], new Money(1 + random.nextInt(100), "USD"),
+                "Transfer");
+        }
+        accountService.getAccount(accountIds[accountCount / 2]).adjustBalance(new Money(1.0, "USD"));
+    }
+
+    @Benchmark
+    public int merkle() {
+        return reconciler.reconcile().getMismatches().size();
+    }
+
+    /**
+     * What reconciling takes without the digest: one pass over the whole history summing each
+     * account's transactions, then every balance compared with its sum.
+     */
+    @Benchmark
+    public int fullScan() {
+        Map<String, BigDecimal> expected = new HashMap<>();
+        for (Transaction transaction : transactionService.getAllTransactions()) {
+            BigDecimal amount = transaction.getAmount().getAmount();
+            expected.merge(transaction.getAccountId(), amount.negate(), BigDecimal::add);
+            expected.merge(transaction.getRelatedAccountId(), amount, BigDecimal::add);
+        }
+        int mismatches = 0;
+        for (Account account : accountService.getAllAccounts()) {
+            BigDecimal balance = OPENING_BALANCE.add(expected.getOrDefault(account.getAccountId(), BigDecimal.ZERO));
+            if (balance.compareTo(account.getBalance().getAmount()) != 0) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+}
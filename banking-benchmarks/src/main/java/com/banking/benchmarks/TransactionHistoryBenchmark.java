@@ -0,0 +1,63 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link TransactionService#getTransactionsByAccount} at several history sizes.
+ * <p>
+ * The ledger also holds {@code noiseAccounts} other accounts with the same number of
+ * transactions each. A scan of the whole store pays for them; the account's posting legs do not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionHistoryBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int historySize;
+
+    @Param({"9"})
+    public int noiseAccounts;
+
+    private TransactionService transactionService;
+    private String targetAccountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        Money amount = new Money(1.0, "USD");
+
+        targetAccountId = accountService.createAccount("CUST000", AccountType.SAVINGS, new Money(0.0, "USD"))
+            .getAccountId();
+        String[] others = new String[noiseAccounts];
+        for (int i = 0; i < noiseAccounts; i++) {
+            others[i] = accountService.createAccount("CUST" + (i + 1), AccountType.SAVINGS, new Money(0.0, "USD"))
+                .getAccountId();
+        }
+
+        for (int n = 0; n < historySize; n++) {
+            transactionService.deposit(targetAccountId, amount, "History deposit " + n);
+            for (String other : others) {
+                transactionService.deposit(other, amount, "Noise deposit " + n);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsByAccount() {
+        return transactionService.getTransactionsByAccount(targetAccountId);
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking.benchmarks;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.store.HeapTransactionStore;
+import com.banking.transaction.store.SlabTransactionStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares GC pressure of the heap and slab transaction stores under a sustained write load.
+ * <p>
+ * Each iteration starts from a ledger already holding {@code prefill} transactions, so the
+ * collector has a realistic live set to trace while deposits keep arriving. Read
+ * {@code gc.count} and {@code gc.time} from the GC profiler output alongside throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Xms4g"})
+@State(Scope.Benchmark)
+public class TransactionStoreBenchmark {
+
+    @Param({"heap", "slab"})
+    public String store;
+
+    @Param({"2000000"})
+    public int prefill;
+
+    @Param({"1000"})
+    public int accountCount;
+
+    private TransactionService transactionService;
+    private String[] accountIds;
+    private Money amount;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService, new MetricsRegistry(),
+            "slab".equals(store) ? new SlabTransactionStore() : new HeapTransactionStore());
+        accountIds = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountIds[i] = accountService.createAccount("CUST" + i, AccountType.CHECKING, new Money(0.0, "USD"))
+                .getAccountId();
+        }
+        amount = new Money(1.0, "USD");
+        for (int i = 0; i < prefill; i++) {
+            transactionService.deposit(accountIds[i % accountCount], amount, "Prefill deposit");
+        }
+        System.gc();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transaction deposit() {
+        int account = ThreadLocalRandom.current().nextInt(accountCount);
+        return transactionService.deposit(accountIds[account], amount, "Benchmark deposit");
+    }
+}
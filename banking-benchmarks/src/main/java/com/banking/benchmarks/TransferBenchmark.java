@@ -0,0 +1,78 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link TransactionService#transfer} under contention.
+ * <p>
+ * All benchmark threads share one account pool; a smaller {@code accountCount}
+ * means more threads hit the same accounts at once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+
+    @Param({"2", "16", "1024"})
+    public int accountCount;
+
+    private TransactionService transactionService;
+    private String[] accountIds;
+    private Money amount;
+
+    /**
+     * Services are rebuilt every iteration so the transaction map does not grow without bound.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        accountIds = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = accountService.createAccount(
+                "CUST" + i, AccountType.CHECKING, new Money(1_000_000_000.0, "USD"));
+            accountIds[i] = account.getAccountId();
+        }
+        amount = new Money(1.0, "USD");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction transferSingleThread() {
+        return transferRandomPair();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Transaction transferFourThreads() {
+        return transferRandomPair();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Transaction transferMaxThreads() {
+        return transferRandomPair();
+    }
+
+    private Transaction transferRandomPair() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountCount);
+        int to = random.nextInt(accountCount - 1);
+        if (to >= from) {
+            to++;
+        }
+        return transactionService.transfer(accountIds[from], accountIds[to], amount, "Benchmark transfer");
+    }
+}
@@ -0,0 +1,64 @@
+package com.banking.benchmarks;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.velocity.VelocityLimit;
+import com.banking.transaction.velocity.VelocityLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what {@link VelocityLimiter} adds to a withdrawal: the same withdrawals are made with
+ * no limiter and with count and amount limits high enough that none is refused.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class VelocityLimitBenchmark {
+
+    @Param({"1000"})
+    public int accountCount;
+
+    @Param({"false", "true"})
+    public boolean limited;
+
+    private TransactionService transactionService;
+    private String[] accountIds;
+    private int next;
+    private final Money amount = new Money(1.0, "USD");
+
+    /**
+     * Services are rebuilt every iteration so the transaction map does not grow without bound.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        AccountService accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        if (limited) {
+            transactionService.setVelocityLimiter(new VelocityLimiter(Map.of(AccountType.CHECKING,
+                new VelocityLimit(Duration.ofHours(1), 60, Integer.MAX_VALUE, new BigDecimal("1e15")))));
+        }
+        accountIds = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = accountService.createAccount(
+                "CUST" + i, AccountType.CHECKING, new Money(1_000_000_000.0, "USD"));
+            accountIds[i] = account.getAccountId();
+        }
+    }
+
+    @Benchmark
+    public Object withdraw() {
+        String accountId = accountIds[next++ % accountIds.length];
+        return transactionService.withdraw(accountId, amount, "ATM");
+    }
+}
@@ -0,0 +1,94 @@
+package com.banking.benchmarks.jfr;
+
+import com.banking.core.jfr.AccountLockContentionEvent;
+import com.banking.core.jfr.LedgerOperationEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sample analysis of a JFR recording containing the banking ledger events.
+ * <p>
+ * Prints duration and lock-wait statistics per operation and outcome, followed by the
+ * accounts with the most lock contention. Usage:
+ * {@code java -cp target/benchmarks.jar com.banking.benchmarks.jfr.LedgerRecordingReport recording.jfr [top]}
+ */
+public class LedgerRecordingReport {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: LedgerRecordingReport <recording.jfr> [top-accounts]");
+            System.exit(1);
+        }
+        Path recording = Paths.get(args[0]);
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Map<String, List<RecordedEvent>> operations = new TreeMap<>();
+        Map<String, Long> lockWaitByAccount = new HashMap<>();
+        Map<String, Long> contentionCountByAccount = new HashMap<>();
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                if (type.equals(LedgerOperationEvent.NAME)) {
+                    String key = event.getString("operation") + " " + event.getString("outcome");
+                    operations.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+                    long lockWait = event.getLong("lockWait");
+                    if (lockWait > 0) {
+                        lockWaitByAccount.merge(event.getString("accountId"), lockWait, Long::sum);
+                    }
+                } else if (type.equals(AccountLockContentionEvent.NAME)) {
+                    contentionCountByAccount.merge(event.getString("accountId"), 1L, Long::sum);
+                    lockWaitByAccount.putIfAbsent(event.getString("accountId"), 0L);
+                }
+            }
+        }
+
+        System.out.printf("%-34s %8s %10s %10s %10s %12s %12s%n",
+                "operation / outcome", "count", "p50 ms", "p99 ms", "max ms", "lock avg us", "journal avg us");
+        for (Map.Entry<String, List<RecordedEvent>> entry : operations.entrySet()) {
+            List<RecordedEvent> events = entry.getValue();
+            List<Long> durations = new ArrayList<>(events.size());
+            long lockWait = 0;
+            long journalWait = 0;
+            for (RecordedEvent event : events) {
+                durations.add(event.getDuration().toNanos());
+                lockWait += event.getLong("lockWait");
+                journalWait += event.getLong("journalWait");
+            }
+            Collections.sort(durations);
+            System.out.printf("%-34s %8d %10.3f %10.3f %10.3f %12.1f %12.1f%n",
+                    entry.getKey(),
+                    events.size(),
+                    percentile(durations, 0.50) / 1e6,
+                    percentile(durations, 0.99) / 1e6,
+                    durations.get(durations.size() - 1) / 1e6,
+                    lockWait / 1e3 / events.size(),
+                    journalWait / 1e3 / events.size());
+        }
+
+        System.out.println();
+        System.out.printf("Top %d contended accounts%n", top);
+        System.out.printf("%-38s %14s %12s%n", "account", "lock wait ms", "contentions");
+        lockWaitByAccount.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+                .limit(top)
+                .forEach(e -> System.out.printf("%-38s %14.3f %12d%n",
+                        e.getKey(), e.getValue() / 1e6, contentionCountByAccount.getOrDefault(e.getKey(), 0L)));
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
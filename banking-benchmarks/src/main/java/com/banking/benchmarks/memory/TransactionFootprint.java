@@ -0,0 +1,61 @@
+package com.banking.benchmarks.memory;
+
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.core.intern.StringDictionary;
+import com.banking.transaction.domain.Transaction;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+
+/**
+ * Measures the retained heap of a large number of transactions.
+ * <p>
+ * Every transaction gets freshly built account ID and description strings, as it would when
+ * parsed from a request, drawn from {@code accounts} accounts and {@code descriptions}
+ * distinct descriptions. Amounts and timestamps are shared so the figure reflects the
+ * string fields. Run it once as is and once with the dictionaries disabled to see the saving:
+ * {@code java -Xmx4g -cp target/benchmarks.jar com.banking.benchmarks.memory.TransactionFootprint 10000000}
+ * and the same with {@code -Dbanking.dictionary.identifiers=0 -Dbanking.dictionary.descriptions=0}.
+ */
+public class TransactionFootprint {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int descriptions = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        Money amount = new Money(10.0, "USD");
+        LocalDateTime timestamp = LocalDateTime.now();
+        long before = usedHeap();
+
+        Transaction[] transactions = new Transaction[count];
+        for (int i = 0; i < count; i++) {
+            int account = (int) ((i * 2654435761L) % accounts);
+            transactions[i] = new Transaction(Integer.toString(i), String.format("ACC-%08d", account),
+                    TransactionType.TRANSFER, amount, "Card payment MERCHANT-" + (i % descriptions),
+                    String.format("ACC-%08d", (account + 1) % accounts), timestamp);
+        }
+
+        long retained = usedHeap() - before;
+        System.out.printf("transactions:            %,d%n", count);
+        System.out.printf("identifier dictionary:   %,d / %,d%n",
+                StringDictionary.IDENTIFIERS.size(), StringDictionary.IDENTIFIERS.getCapacity());
+        System.out.printf("description dictionary:  %,d / %,d%n",
+                StringDictionary.DESCRIPTIONS.size(), StringDictionary.DESCRIPTIONS.getCapacity());
+        System.out.printf("retained heap:           %,d MB%n", retained / (1024 * 1024));
+        System.out.printf("bytes per transaction:   %.1f%n", (double) retained / count);
+        if (transactions[count - 1] == null) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
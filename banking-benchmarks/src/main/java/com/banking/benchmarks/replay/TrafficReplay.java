@@ -0,0 +1,59 @@
+package com.banking.benchmarks.replay;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.fx.FileFxRateSource;
+import com.banking.core.fx.FxRateCache;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.capture.CaptureReader;
+import com.banking.transaction.capture.ReplayReport;
+import com.banking.transaction.capture.TrafficReplayer;
+import com.banking.transaction.reconcile.ReconciliationReport;
+import com.banking.transaction.service.TransactionService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Replays a traffic capture (see {@code banking.capture.enabled}) against fresh in-process
+ * services and prints the latency of each kind of operation, so two builds can be compared on
+ * the same production traffic:
+ * {@code java -cp target/benchmarks.jar com.banking.benchmarks.replay.TrafficReplay capture.bin 1}.
+ * The second argument is the speed: 1 replays at the captured rate, 10 at ten times that rate and
+ * 0 (the default) as fast as possible. With a third argument the replay is run that many times,
+ * each on new services, and the first runs serve as warm-up. Cross-currency transfers need the
+ * rate file the node used, given as a fourth argument. Exits with status 1 if the last replay did
+ * not reproduce the captured balances.
+ */
+public class TrafficReplay {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TrafficReplay <capture file> [speed] [runs] [fx rates file]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        double speed = args.length > 1 ? Double.parseDouble(args[1]) : 0;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        Path ratesFile = args.length > 3 ? Paths.get(args[3]) : null;
+
+        ReplayReport report = null;
+        for (int run = 1; run <= runs; run++) {
+            AccountService accountService = new AccountService();
+            TransactionService transactionService = new TransactionService(accountService);
+            if (ratesFile != null) {
+                transactionService.setFxRateCache(new FxRateCache(new FileFxRateSource(ratesFile), new MetricsRegistry()));
+            }
+            try (CaptureReader reader = new CaptureReader(file)) {
+                report = new TrafficReplayer(accountService, transactionService).replay(reader, speed);
+            }
+            System.out.printf("run %d of %d%n%s%n", run, runs, report);
+        }
+        for (ReconciliationReport.Mismatch mismatch : report.getMismatches()) {
+            System.out.println(mismatch);
+        }
+        if (!report.isFaithful()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.core.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests in progress and sheds load when they queue for too long.
+ * <p>
+ * A request that finds no free slot waits up to the target queue delay. If it still gets
+ * none, the queue is over target: it is rejected, and for the following shed interval
+ * requests that would have to queue are rejected at once instead of waiting, which lets
+ * the backlog drain. Requests that find a free slot are always admitted.
+ */
+public class ConcurrencyLimiter {
+    private static final long SHED_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int maxConcurrent;
+    private final long targetQueueDelayNanos;
+    private final Semaphore permits;
+    private volatile long shedUntil;
+
+    public ConcurrencyLimiter(int maxConcurrent, long targetQueueDelayMillis) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Max concurrency must be positive");
+        }
+        if (targetQueueDelayMillis < 0) {
+            throw new IllegalArgumentException("Target queue delay cannot be negative");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.targetQueueDelayNanos = TimeUnit.MILLISECONDS.toNanos(targetQueueDelayMillis);
+        this.permits = new Semaphore(maxConcurrent);
+        this.shedUntil = System.nanoTime();
+    }
+
+    /**
+     * Admits a request. Every successful call must be paired with {@link #release()}.
+     *
+     * @return whether the request was admitted
+     */
+    public boolean acquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (System.nanoTime() - shedUntil < 0) {
+            return false;
+        }
+        if (permits.tryAcquire(targetQueueDelayNanos, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        shedUntil = System.nanoTime() + SHED_INTERVAL_NANOS;
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public boolean isShedding() {
+        return System.nanoTime() - shedUntil < 0;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+}
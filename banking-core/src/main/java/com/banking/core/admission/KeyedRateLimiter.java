@@ -0,0 +1,75 @@
+package com.banking.core.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key rate limits (e.g. per customer) backed by {@link TokenBucket}s.
+ * <p>
+ * The number of buckets is bounded by {@code maxKeys}. When it is reached, buckets that
+ * are full again are dropped, since a fresh bucket behaves exactly the same. If every
+ * bucket is still in use, keys without a bucket share one overflow bucket until room frees up.
+ */
+public class KeyedRateLimiter {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final double tokensPerSecond;
+    private final int burst;
+    private final int maxKeys;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicLong lastSweep;
+
+    public KeyedRateLimiter(double tokensPerSecond, int burst, int maxKeys) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Max keys must be positive");
+        }
+        long now = System.nanoTime();
+        this.tokensPerSecond = tokensPerSecond;
+        this.burst = burst;
+        this.maxKeys = maxKeys;
+        this.overflow = new TokenBucket(tokensPerSecond, burst, now);
+        this.lastSweep = new AtomicLong(now - SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Takes a token for {@code key}.
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until the key may try again
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweep(nowNanos);
+            }
+            bucket = buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(key, k -> new TokenBucket(tokensPerSecond, burst, nowNanos))
+                    : overflow;
+        }
+        return bucket.tryAcquire(nowNanos);
+    }
+
+    /**
+     * Drops idle buckets, at most once per sweep interval.
+     */
+    void sweep(long nowNanos) {
+        long last = lastSweep.get();
+        if (nowNanos - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, nowNanos)) {
+            return;
+        }
+        // A thread that fetched a bucket just before it is dropped may still take a token from it;
+        // that bucket was full, so the key gains at most one extra token.
+        buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos));
+    }
+
+    public int getKeyCount() {
+        return buckets.size();
+    }
+}
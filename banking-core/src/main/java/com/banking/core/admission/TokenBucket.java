@@ -0,0 +1,56 @@
+package com.banking.core.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ * <p>
+ * Implemented as the generic cell rate algorithm: instead of a token count the bucket keeps
+ * a single timestamp, the time at which it would be full again ("theoretical arrival time").
+ * Taking a token pushes that time one emission interval further; the request is refused if
+ * that would put it more than {@code burst} intervals ahead of now. A single CAS per attempt,
+ * no background refill. Times are {@link System#nanoTime()} values.
+ */
+public final class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = emissionIntervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + emissionIntervalNanos;
+            long wait = next - capacityNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket is full, i.e. indistinguishable from a newly created one.
+     */
+    public boolean isIdle(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,134 @@
+package com.banking.core.audit;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Appends audit records to size-rotated files, one line per record followed by the CRC32
+ * of the line, e.g. {@code 2024-01-01T00:00:00Z|ACCOUNT_OPENED|...|9f1c2a3b}.
+ * <p>
+ * A new file named {@code <prefix>-<start time>-<n>.log} is started once the current one
+ * reaches {@code maxFileBytes}; files are never deleted. Not thread-safe.
+ */
+final class AuditFileWriter implements AutoCloseable {
+    private static final DateTimeFormatter FILE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Path directory;
+    private final String prefix;
+    private final long maxFileBytes;
+    private final boolean sync;
+    private final String startTime;
+    private final StringBuilder line = new StringBuilder(256);
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private FileChannel channel;
+    private Path currentFile;
+    private long currentBytes;
+    private int fileIndex;
+
+    AuditFileWriter(Path directory, String prefix, long maxFileBytes, boolean sync) throws IOException {
+        if (maxFileBytes < 1) {
+            throw new IllegalArgumentException("Max file size must be positive");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.prefix = prefix;
+        this.maxFileBytes = maxFileBytes;
+        this.sync = sync;
+        this.startTime = FILE_TIME.format(Instant.now());
+    }
+
+    /**
+     * Writes the records, starting a new file whenever the current one is full, and forces
+     * them to disk if {@code sync} is set. A record is never split across files.
+     */
+    void write(List<AuditRecord> records) throws IOException {
+        if (channel == null) {
+            rotate();
+        }
+        pending.reset();
+        for (AuditRecord record : records) {
+            line.setLength(0);
+            record.appendTo(line);
+            String checksum = checksum(line);
+            byte[] bytes = line.append('|').append(checksum).append('\n').toString().getBytes(StandardCharsets.UTF_8);
+            if (currentBytes + pending.size() >= maxFileBytes) {
+                writePending();
+                rotate();
+            }
+            pending.write(bytes, 0, bytes.length);
+        }
+        writePending();
+        if (sync) {
+            channel.force(false);
+        }
+    }
+
+    Path getCurrentFile() {
+        return currentFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Checks every line of an audit file against its checksum.
+     *
+     * @return the number of records in the file
+     * @throws IOException if the file cannot be read or a line does not match its checksum
+     */
+    static long verify(Path file) throws IOException {
+        long records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                records++;
+                int separator = text.lastIndexOf('|');
+                if (separator < 0 || !text.substring(separator + 1).equals(checksum(text.substring(0, separator)))) {
+                    throw new IOException("Checksum mismatch in " + file + " at line " + records);
+                }
+            }
+        }
+        return records;
+    }
+
+    private void writePending() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(pending.toByteArray());
+        while (bytes.hasRemaining()) {
+            currentBytes += channel.write(bytes);
+        }
+        pending.reset();
+    }
+
+    private void rotate() throws IOException {
+        close();
+        fileIndex++;
+        currentFile = directory.resolve(String.format("%s-%s-%04d.log", prefix, startTime, fileIndex));
+        channel = FileChannel.open(currentFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        currentBytes = channel.size();
+    }
+
+    private static String checksum(CharSequence text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.toString().getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+}
@@ -0,0 +1,315 @@
+package com.banking.core.audit;
+
+import com.banking.core.exception.AuditUnavailableException;
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail written off the request path.
+ * <p>
+ * {@link #append} puts the record into a bounded {@link AuditRingBuffer} and returns; a
+ * dedicated writer thread drains the buffer in batches into rotating, checksummed files
+ * (see {@link #verify}). When the buffer is full the {@link OverflowPolicy} decides whether
+ * the caller waits, the record is dropped and counted, or it is spilled synchronously to a
+ * separate file. A caller waits at most the append timeout; a record that still does not fit
+ * fails its append with {@link AuditUnavailableException}.
+ * <p>
+ * A batch that fails to write is retried {@link #MAX_WRITE_ATTEMPTS} times. After that, or on
+ * any other error, the writer stops for good: {@link #getFailure()} reports why, the records it
+ * held are counted as dropped and {@link #flush} fails. Later records are handled as if the
+ * buffer were full, except that {@code BLOCK} fails them at once. After {@link #close} a failed
+ * batch, and anything still queued behind it, is dropped and counted without retrying.
+ */
+public class AuditLog implements AutoCloseable {
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long RETRY_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    static final int MAX_WRITE_ATTEMPTS = 50;
+
+    private final AuditRingBuffer<AuditRecord> buffer;
+    private final OverflowPolicy policy;
+    private final AuditFileWriter files;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final boolean sync;
+    private final long appendTimeoutNanos;
+    private final Thread writer;
+    private final AtomicLong appended = new AtomicLong();
+    // Appends between their check of closed and their offer; the writer waits for them before its last drain.
+    private final AtomicInteger appending = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter writeErrors;
+    private AuditFileWriter spillFiles;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    /**
+     * @param directory    where audit files are written, created if missing
+     * @param capacity     ring buffer size, a power of two
+     * @param policy       what to do when the buffer is full
+     * @param maxFileBytes size at which a new audit file is started
+     * @param sync         force every batch to disk before taking the next one
+     * @param appendTimeoutMillis how long {@link #append} waits for room under {@code BLOCK}
+     */
+    public AuditLog(Path directory, int capacity, OverflowPolicy policy, long maxFileBytes, boolean sync,
+                    long appendTimeoutMillis, MetricsRegistry metrics) throws IOException {
+        if (policy == null) {
+            throw new IllegalArgumentException("Overflow policy cannot be null");
+        }
+        if (appendTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Append timeout cannot be negative");
+        }
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.policy = policy;
+        this.files = new AuditFileWriter(directory, "audit", maxFileBytes, sync);
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.sync = sync;
+        this.appendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(appendTimeoutMillis);
+        this.dropped = metrics.counter("banking_audit_dropped_total", "Audit records dropped because the buffer was full");
+        this.spilled = metrics.counter("banking_audit_spilled_total", "Audit records spilled because the buffer was full");
+        this.writeErrors = metrics.counter("banking_audit_write_errors_total", "Failed audit batch writes");
+        metrics.gauge("banking_audit_pending", "Audit records waiting for the writer", buffer::size);
+        metrics.gauge("banking_audit_records_written", "Audit records written", written::get);
+        metrics.gauge("banking_audit_writer_failed", "1 if the audit writer stopped after an error",
+                () -> failure != null ? 1 : 0);
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+    }
+
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues a record for writing. Records appended after {@link #close} are dropped.
+     *
+     * @throws AuditUnavailableException under {@code BLOCK}, if the buffer stays full for the append
+     *                                   timeout or the writer failed
+     */
+    public void append(AuditRecord record) {
+        appending.incrementAndGet();
+        try {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            if (failure == null && buffer.offer(record)) {
+                appended.incrementAndGet();
+                return;
+            }
+            switch (policy) {
+                case BLOCK:
+                    block(record);
+                    break;
+                case DROP:
+                    dropped.increment();
+                    break;
+                case SPILL:
+                    spill(record);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown overflow policy: " + policy);
+            }
+        } finally {
+            appending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Blocks until every record appended before this call has been written.
+     *
+     * @throws IllegalStateException if the writer is not running
+     */
+    public void flush() throws InterruptedException {
+        long target = appended.get();
+        while (written.get() < target) {
+            if (failure != null) {
+                throw new IllegalStateException("Audit writer failed", failure);
+            }
+            if (!writer.isAlive()) {
+                throw new IllegalStateException("Audit writer is not running");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Stops accepting records, writes what is queued and closes the files. Records that cannot be
+     * written any more are counted as dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        // The writer gives up on its first failed write once closed, so it finishes promptly; an
+        // interrupt is kept for the caller rather than closing the files under the writer.
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        files.close();
+        synchronized (this) {
+            if (spillFiles != null) {
+                spillFiles.close();
+            }
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * @return the error that stopped the writer, or null while it is running
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Checks every record of an audit or spill file against its checksum.
+     *
+     * @return the number of records in the file
+     * @throws IOException if the file cannot be read or a record does not match its checksum
+     */
+    public static long verify(Path file) throws IOException {
+        return AuditFileWriter.verify(file);
+    }
+
+    /**
+     * Waits for room in the buffer, up to the append timeout.
+     */
+    private void block(AuditRecord record) {
+        long deadline = System.nanoTime() + appendTimeoutNanos;
+        while (true) {
+            Throwable failed = failure;
+            if (failed != null) {
+                dropped.increment();
+                throw new AuditUnavailableException("Audit writer failed", failed);
+            }
+            if (buffer.offer(record)) {
+                appended.incrementAndGet();
+                return;
+            }
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                dropped.increment();
+                throw new AuditUnavailableException("Audit buffer stayed full for "
+                        + TimeUnit.NANOSECONDS.toMillis(appendTimeoutNanos) + " ms");
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditRecord> batch = new ArrayList<>(MAX_BATCH);
+        int attempts = 0;
+        try {
+            while (true) {
+                if (batch.isEmpty() && buffer.drainTo(batch, MAX_BATCH) == 0) {
+                    // Once no append is between its check of closed and its offer, nothing more can arrive.
+                    if (closed && appending.get() == 0 && buffer.drainTo(batch, MAX_BATCH) == 0) {
+                        return;
+                    }
+                    if (batch.isEmpty()) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                        continue;
+                    }
+                }
+                try {
+                    files.write(batch);
+                    written.addAndGet(batch.size());
+                    batch.clear();
+                    attempts = 0;
+                } catch (IOException e) {
+                    writeErrors.increment();
+                    if (closed) {
+                        dropQueued(batch);
+                        return;
+                    }
+                    if (++attempts >= MAX_WRITE_ATTEMPTS) {
+                        throw e;
+                    }
+                    LockSupport.parkNanos(RETRY_PARK_NANOS);
+                }
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            // Set before draining, so appends stop adding to the buffer.
+            failure = e;
+            dropQueued(batch);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    /**
+     * Counts a batch that will not be written as dropped, along with everything still queued and
+     * any append still in progress.
+     */
+    private void dropQueued(List<AuditRecord> batch) {
+        dropped.add(batch.size());
+        batch.clear();
+        while (true) {
+            boolean idle = appending.get() == 0;
+            int drained = buffer.drainTo(batch, MAX_BATCH);
+            dropped.add(drained);
+            batch.clear();
+            if (idle && drained == 0) {
+                return;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private synchronized void spill(AuditRecord record) {
+        try {
+            if (spillFiles == null) {
+                spillFiles = new AuditFileWriter(directory, "audit-spill", maxFileBytes, sync);
+            }
+            spillFiles.write(Collections.singletonList(record));
+            spilled.increment();
+        } catch (IOException e) {
+            writeErrors.increment();
+            dropped.increment();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.banking.core.audit;
+
+import com.banking.core.domain.Money;
+
+import java.time.Instant;
+
+/**
+ * One entry of the audit trail: what happened, when, and to which account or transaction.
+ * <p>
+ * Records only hold references to immutable values, so creating one on the request path
+ * is a single small allocation; the text form is built by the writer thread.
+ */
+public final class AuditRecord {
+    private final long timestampMillis;
+    private final String action;
+    private final String subjectId;
+    private final String accountId;
+    private final String relatedAccountId;
+    private final Money amount;
+    private final String detail;
+
+    /**
+     * @param action           what happened, e.g. {@code ACCOUNT_OPENED}
+     * @param subjectId        the ID of the changed account or transaction
+     * @param accountId        the account affected, may equal {@code subjectId}
+     * @param relatedAccountId the other account of a transfer, or null
+     * @param amount           the amount moved or the resulting balance, or null
+     * @param detail           free text, or null
+     */
+    public AuditRecord(long timestampMillis, String action, String subjectId, String accountId,
+                       String relatedAccountId, Money amount, String detail) {
+        if (action == null || action.isEmpty()) {
+            throw new IllegalArgumentException("Action cannot be null or empty");
+        }
+        this.timestampMillis = timestampMillis;
+        this.action = action;
+        this.subjectId = subjectId;
+        this.accountId = accountId;
+        this.relatedAccountId = relatedAccountId;
+        this.amount = amount;
+        this.detail = detail;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getSubjectId() {
+        return subjectId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getRelatedAccountId() {
+        return relatedAccountId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * Appends the record as {@code |}-separated fields without a line terminator. Separators,
+     * backslashes and line breaks inside fields are escaped with a backslash; null is empty.
+     */
+    void appendTo(StringBuilder line) {
+        line.append(Instant.ofEpochMilli(timestampMillis)).append('|').append(action);
+        appendField(line, subjectId);
+        appendField(line, accountId);
+        appendField(line, relatedAccountId);
+        appendField(line, amount != null ? amount.getAmount().toPlainString() : null);
+        appendField(line, amount != null ? amount.getCurrency() : null);
+        appendField(line, detail);
+    }
+
+    private static void appendField(StringBuilder line, String value) {
+        line.append('|');
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '|':
+                case '\\':
+                    line.append('\\').append(c);
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                default:
+                    line.append(c);
+            }
+        }
+    }
+}
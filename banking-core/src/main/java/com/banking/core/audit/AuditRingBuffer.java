@@ -0,0 +1,88 @@
+package com.banking.core.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer.
+ * <p>
+ * Each slot carries a sequence number telling whose turn it is: a producer claims the slot
+ * at the tail with one CAS when the slot's sequence equals the tail position, stores the
+ * element and advances the sequence to hand the slot to the consumer; the consumer hands it
+ * back one lap later. No locks, and no allocation per element.
+ * <p>
+ * Elements offered by one thread, or by threads that take turns under a common lock, are
+ * drained in the order they were offered.
+ */
+public final class AuditRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two of at least 2");
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element unless the buffer is full. Safe to call from any thread.
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code maxElements} elements into {@code target}. Consumer thread only.
+     *
+     * @return the number of elements moved
+     */
+    public int drainTo(List<E> target, int maxElements) {
+        long position = head;
+        int drained = 0;
+        while (drained < maxElements) {
+            int slot = (int) position & mask;
+            if (sequences.get(slot) != position + 1) {
+                break;
+            }
+            target.add(elements.get(slot));
+            elements.lazySet(slot, null);
+            sequences.lazySet(slot, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.core.audit;
+
+/**
+ * What {@link AuditLog#append} does when the ring buffer is full.
+ */
+public enum OverflowPolicy {
+    /** Wait for the writer to make room. Nothing is lost; the caller absorbs the delay. */
+    BLOCK,
+    /** Discard the record and count it. */
+    DROP,
+    /** Write the record synchronously to a spill file next to the audit files. */
+    SPILL
+}
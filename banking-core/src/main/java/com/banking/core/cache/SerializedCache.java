@@ -0,0 +1,154 @@
+package com.banking.core.cache;
+
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.MetricsRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU cache of serialized representations, e.g. ready-to-write JSON responses, keyed
+ * by entity ID and version.
+ * <p>
+ * Each key holds one version: {@link #get} misses unless the cached version is the one asked
+ * for, and {@link #put} replaces whatever version was cached. Versions therefore need not be
+ * ordered, only to change when the entity does. The cache is split into segments with their own
+ * lock and an equal share of {@code maxBytes}; each evicts its least recently used entries when
+ * over its share. Cached arrays are shared with callers, who must not modify them.
+ */
+public class SerializedCache {
+    private static final int SEGMENTS = 16;
+    /** Rough heap cost of an entry besides its bytes and key: map node, entry object and array header. */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long segmentMaxBytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * @param name label of this cache's metrics
+     */
+    public SerializedCache(String name, long maxBytes, MetricsRegistry metrics) {
+        if (maxBytes < SEGMENTS) {
+            throw new IllegalArgumentException("Max bytes must be at least " + SEGMENTS);
+        }
+        this.segmentMaxBytes = maxBytes / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+        String help = "Serialized response cache lookups, by result";
+        this.hits = metrics.counter("banking_response_cache_requests_total", help, "cache", name, "result", "hit");
+        this.misses = metrics.counter("banking_response_cache_requests_total", help, "cache", name, "result", "miss");
+        this.evictions = metrics.counter("banking_response_cache_evictions_total",
+                "Entries evicted from the serialized response cache", "cache", name);
+        metrics.gauge("banking_response_cache_bytes", "Estimated heap held by the serialized response cache",
+                this::getSizeBytes, "cache", name);
+    }
+
+    /**
+     * @return the cached bytes of {@code version} of the entity, or null
+     */
+    public byte[] get(String key, long version) {
+        Segment segment = segmentFor(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.entries.get(key);
+        }
+        if (entry == null || entry.version != version) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.bytes;
+    }
+
+    /**
+     * Caches {@code bytes} as {@code version} of the entity, unless they alone exceed a segment's
+     * share of the cache.
+     */
+    public void put(String key, long version, byte[] bytes) {
+        long cost = costOf(key, bytes);
+        if (cost > segmentMaxBytes) {
+            return;
+        }
+        Segment segment = segmentFor(key);
+        int evicted = 0;
+        synchronized (segment) {
+            Entry previous = segment.entries.put(key, new Entry(version, bytes, cost));
+            segment.bytes += cost - (previous != null ? previous.cost : 0);
+            Iterator<Entry> eldest = segment.entries.values().iterator();
+            while (segment.bytes > segmentMaxBytes && eldest.hasNext()) {
+                Entry entry = eldest.next();
+                eldest.remove();
+                segment.bytes -= entry.cost;
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            evictions.add(evicted);
+        }
+    }
+
+    public void invalidate(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry previous = segment.entries.remove(key);
+            if (previous != null) {
+                segment.bytes -= previous.cost;
+            }
+        }
+    }
+
+    /**
+     * @return the estimated heap held by the cached entries
+     */
+    public long getSizeBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                total += segment.bytes;
+            }
+        }
+        return total;
+    }
+
+    public int getEntryCount() {
+        int total = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                total += segment.entries.size();
+            }
+        }
+        return total;
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static long costOf(String key, byte[] bytes) {
+        return ENTRY_OVERHEAD + 2L * key.length() + bytes.length;
+    }
+
+    private static final class Segment {
+        // Access order, so iteration starts at the least recently used entry.
+        final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        long bytes;
+    }
+
+    private static final class Entry {
+        final long version;
+        final byte[] bytes;
+        final long cost;
+
+        Entry(long version, byte[] bytes, long cost) {
+            this.version = version;
+            this.bytes = bytes;
+            this.cost = cost;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.banking.core.cache;
+
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.MetricsRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical queries: while a query for a key is running, callers asking for
+ * the same key wait for it and share its result (or exception) instead of running it again.
+ * Nothing is kept once the query completes, so this is not a cache.
+ * <p>
+ * A write that changes what a query would return calls {@link #invalidate}; callers arriving
+ * after that start a new query, while those already waiting still get the running one's result,
+ * which may or may not include the write, as it would without coalescing. Results are shared
+ * between callers, so they should be immutable.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final Counter computed;
+    private final Counter shared;
+    private final Counter savedMicros;
+
+    /**
+     * @param name label of this instance's metrics
+     */
+    public SingleFlight(String name, MetricsRegistry metrics) {
+        String help = "Coalesced read queries, by whether they ran or shared a running one";
+        this.computed = metrics.counter("banking_coalesced_reads_total", help, "query", name, "result", "computed");
+        this.shared = metrics.counter("banking_coalesced_reads_total", help, "query", name, "result", "shared");
+        this.savedMicros = metrics.counter("banking_coalesced_saved_microseconds_total",
+                "Query time saved by sharing running queries", "query", name);
+    }
+
+    public V execute(K key, Supplier<V> query) {
+        Flight<V> flight = new Flight<>();
+        Flight<V> running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            shared.increment();
+            return running.await(savedMicros);
+        }
+        computed.increment();
+        long start = System.nanoTime();
+        try {
+            V result = query.get();
+            flight.durationNanos = System.nanoTime() - start;
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.durationNanos = System.nanoTime() - start;
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Makes callers arriving from now on run a new query for the key.
+     */
+    public void invalidate(K key) {
+        flights.remove(key);
+    }
+
+    public long getComputedCount() {
+        return computed.get();
+    }
+
+    public long getSharedCount() {
+        return shared.get();
+    }
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        // Written before the result is completed, so visible to every caller that saw the result.
+        long durationNanos;
+
+        V await(Counter savedMicros) {
+            try {
+                V value = result.join();
+                savedMicros.add(durationNanos / 1000);
+                return value;
+            } catch (CompletionException e) {
+                savedMicros.add(durationNanos / 1000);
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
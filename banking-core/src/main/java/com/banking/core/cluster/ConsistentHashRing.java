@@ -0,0 +1,97 @@
+package com.banking.core.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring that maps keys (account IDs) to node IDs.
+ * <p>
+ * Each node is placed on the ring at {@code virtualNodes} points, which evens out the
+ * share of keys per node and means that adding or removing a node only moves the keys
+ * between it and its ring neighbours (about {@code 1/n} of all keys). Membership
+ * changes return a new ring, so a ring can be shared between threads without locking.
+ */
+public final class ConsistentHashRing {
+    private final int virtualNodes;
+    private final NavigableMap<Long, String> ring;
+    private final Set<String> nodes;
+
+    public ConsistentHashRing(int virtualNodes) {
+        this(virtualNodes, Collections.emptySet());
+    }
+
+    public ConsistentHashRing(int virtualNodes, Set<String> nodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+        this.nodes = Collections.unmodifiableSet(new TreeSet<>(nodes));
+        TreeMap<Long, String> points = new TreeMap<>();
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // Ties between nodes are broken by name so every member builds the same ring
+                points.merge(hash(node + "#" + i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        this.ring = Collections.unmodifiableNavigableMap(points);
+    }
+
+    public ConsistentHashRing withNode(String node) {
+        if (nodes.contains(node)) {
+            return this;
+        }
+        Set<String> updated = new TreeSet<>(nodes);
+        updated.add(node);
+        return new ConsistentHashRing(virtualNodes, updated);
+    }
+
+    public ConsistentHashRing withoutNode(String node) {
+        if (!nodes.contains(node)) {
+            return this;
+        }
+        Set<String> updated = new TreeSet<>(nodes);
+        updated.remove(node);
+        return new ConsistentHashRing(virtualNodes, updated);
+    }
+
+    /**
+     * Returns the node that owns {@code key}: the first ring point at or after the key's hash.
+     */
+    public String ownerOf(String key) {
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("Hash ring has no nodes");
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, followed by a finalizer to spread similar keys.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -7,6 +7,10 @@ public enum TransactionType {
     DEPOSIT,
     WITHDRAWAL,
     TRANSFER,
-    INTEREST_CREDIT
+    INTEREST_CREDIT,
+    /** Debit leg of a cross-currency transfer, in the source account's currency. */
+    FX_TRANSFER_OUT,
+    /** Credit leg of a cross-currency transfer, in the destination account's currency. */
+    FX_TRANSFER_IN
 }
 
@@ -0,0 +1,15 @@
+package com.banking.core.exception;
+
+/**
+ * Exception thrown when a change cannot be queued for the audit trail, because the audit buffer
+ * stayed full or the audit writer failed. The change it describes has already been made.
+ */
+public class AuditUnavailableException extends RuntimeException {
+    public AuditUnavailableException(String message) {
+        super(message);
+    }
+
+    public AuditUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.banking.core.exception;
+
+/**
+ * Exception thrown when a debit would take an account over its velocity limit, the number or
+ * total amount of debits allowed in a rolling window.
+ */
+public class VelocityLimitExceededException extends RuntimeException {
+    public VelocityLimitExceededException(String message) {
+        super(message);
+    }
+}
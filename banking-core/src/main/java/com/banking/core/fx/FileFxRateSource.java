@@ -0,0 +1,33 @@
+package com.banking.core.fx;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a rate table in the {@link FxRates#parse} format from a local file. The file's
+ * modification time becomes the rates' {@code asOf}.
+ */
+public class FileFxRateSource implements FxRateSource {
+    private final Path file;
+
+    public FileFxRateSource(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("Rate file cannot be null");
+        }
+        this.file = file;
+    }
+
+    @Override
+    public FxRates load() throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return FxRates.parse(reader, Files.getLastModifiedTime(file).toInstant());
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,53 @@
+package com.banking.core.fx;
+
+import com.banking.core.domain.Money;
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.MetricsRegistry;
+
+import java.io.IOException;
+
+/**
+ * Holds the current {@link FxRates} table. Readers take the table with one volatile read and never
+ * lock; {@link #refresh} loads a complete new table from the source and publishes it in one write,
+ * so a reader sees either the old or the new table, never a mix. A caller that needs several
+ * rates to agree (e.g. both legs of a transfer) should take {@link #current} once and use that.
+ */
+public class FxRateCache {
+    private final FxRateSource source;
+    private final Counter refreshFailures;
+    private volatile FxRates rates;
+
+    /**
+     * Loads the initial table, so a cache always has rates.
+     */
+    public FxRateCache(FxRateSource source, MetricsRegistry metrics) throws IOException {
+        if (source == null) {
+            throw new IllegalArgumentException("Rate source cannot be null");
+        }
+        this.source = source;
+        this.rates = source.load();
+        this.refreshFailures = metrics.counter("banking_fx_refresh_failures_total", "Failed exchange rate reloads");
+        metrics.gauge("banking_fx_rates_age_seconds", "Age of the exchange rate table in use",
+                () -> Math.max(0, (System.currentTimeMillis() - rates.getAsOf().toEpochMilli()) / 1000));
+    }
+
+    public FxRates current() {
+        return rates;
+    }
+
+    /**
+     * Replaces the table with a fresh one from the source. On failure the current table stays in use.
+     */
+    public void refresh() throws IOException {
+        try {
+            rates = source.load();
+        } catch (IOException | RuntimeException e) {
+            refreshFailures.increment();
+            throw e;
+        }
+    }
+
+    public Money convert(Money amount, String targetCurrency) {
+        return rates.convert(amount, targetCurrency);
+    }
+}
@@ -0,0 +1,11 @@
+package com.banking.core.fx;
+
+import java.io.IOException;
+
+/**
+ * Where {@link FxRateCache} gets its rates from, e.g. a {@link FileFxRateSource} or a fixed stub table.
+ */
+public interface FxRateSource {
+
+    FxRates load() throws IOException;
+}
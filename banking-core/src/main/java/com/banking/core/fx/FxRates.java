@@ -0,0 +1,238 @@
+package com.banking.core.fx;
+
+import com.banking.core.domain.Money;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable table of exchange rates, published as a whole by {@link FxRateCache}.
+ * <p>
+ * Rates are given per unit of a base currency. At construction every cross rate is computed once
+ * and kept as a fixed-point {@code long} with {@link #RATE_SCALE} decimals, so {@link #convert} is a
+ * table lookup, one 64-bit multiplication and a half-even rounding to the target currency's minor
+ * units. Amounts too large for 64-bit arithmetic fall back to {@link BigDecimal}, with the same result.
+ */
+public final class FxRates {
+    public static final int RATE_SCALE = 10;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final String baseCurrency;
+    private final Instant asOf;
+    private final Map<String, Integer> indexes;
+    private final int[] fractionDigits;
+    private final long[][] crossRates;
+
+    private FxRates(String baseCurrency, Instant asOf, Map<String, Integer> indexes, int[] fractionDigits,
+                    long[][] crossRates) {
+        this.baseCurrency = baseCurrency;
+        this.asOf = asOf;
+        this.indexes = indexes;
+        this.fractionDigits = fractionDigits;
+        this.crossRates = crossRates;
+    }
+
+    /**
+     * @param ratesPerBase units of each currency that one unit of {@code baseCurrency} buys; the base
+     *                     currency itself may be omitted
+     */
+    public static FxRates of(String baseCurrency, Map<String, BigDecimal> ratesPerBase, Instant asOf) {
+        if (baseCurrency == null || baseCurrency.trim().isEmpty()) {
+            throw new IllegalArgumentException("Base currency cannot be null or empty");
+        }
+        if (ratesPerBase == null) {
+            throw new IllegalArgumentException("Rates cannot be null");
+        }
+        if (asOf == null) {
+            throw new IllegalArgumentException("Rate time cannot be null");
+        }
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put(baseCurrency, BigDecimal.ONE);
+        for (Map.Entry<String, BigDecimal> entry : ratesPerBase.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().signum() <= 0) {
+                throw new IllegalArgumentException("Rate for " + entry.getKey() + " must be positive");
+            }
+            if (!entry.getKey().equals(baseCurrency)) {
+                rates.put(entry.getKey(), entry.getValue());
+            } else if (entry.getValue().compareTo(BigDecimal.ONE) != 0) {
+                throw new IllegalArgumentException("Rate of the base currency must be 1");
+            }
+        }
+
+        int count = rates.size();
+        Map<String, Integer> indexes = new HashMap<>();
+        BigDecimal[] values = new BigDecimal[count];
+        int[] fractionDigits = new int[count];
+        for (Map.Entry<String, BigDecimal> entry : rates.entrySet()) {
+            int index = indexes.size();
+            indexes.put(entry.getKey(), index);
+            values[index] = entry.getValue();
+            fractionDigits[index] = fractionDigitsOf(entry.getKey());
+        }
+        long[][] crossRates = new long[count][count];
+        for (int from = 0; from < count; from++) {
+            for (int to = 0; to < count; to++) {
+                BigDecimal cross = values[to].divide(values[from], RATE_SCALE, RoundingMode.HALF_EVEN);
+                if (cross.signum() == 0) {
+                    throw new IllegalArgumentException("Rate from " + currencyAt(indexes, from) + " to "
+                            + currencyAt(indexes, to) + " is below the fixed-point resolution");
+                }
+                try {
+                    crossRates[from][to] = cross.unscaledValue().longValueExact();
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("Rate from " + currencyAt(indexes, from) + " to "
+                            + currencyAt(indexes, to) + " is too large", e);
+                }
+            }
+        }
+        return new FxRates(baseCurrency, asOf, Collections.unmodifiableMap(indexes), fractionDigits, crossRates);
+    }
+
+    /**
+     * Reads a rate table: a {@code base=<currency>} line followed by {@code <currency>=<rate>} lines,
+     * each rate being the units of that currency one unit of the base buys. Blank lines and lines
+     * starting with {@code #} are ignored.
+     */
+    public static FxRates parse(Reader reader, Instant asOf) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String base = null;
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int separator = line.indexOf('=');
+            if (separator <= 0) {
+                throw new IOException("Line " + number + " of the rate table is not <currency>=<rate>: " + line);
+            }
+            String key = line.substring(0, separator).trim();
+            String value = line.substring(separator + 1).trim();
+            if (key.equals("base")) {
+                base = value;
+                continue;
+            }
+            try {
+                rates.put(key, new BigDecimal(value));
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + number + " of the rate table has an invalid rate: " + line, e);
+            }
+        }
+        if (base == null) {
+            throw new IOException("Rate table has no base=<currency> line");
+        }
+        try {
+            return of(base, rates, asOf);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid rate table: " + e.getMessage(), e);
+        }
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public Set<String> getCurrencies() {
+        return indexes.keySet();
+    }
+
+    public boolean supports(String currency) {
+        return indexes.containsKey(currency);
+    }
+
+    /**
+     * @return units of {@code to} that one unit of {@code from} buys
+     */
+    public BigDecimal getRate(String from, String to) {
+        return BigDecimal.valueOf(crossRates[indexOf(from)][indexOf(to)], RATE_SCALE);
+    }
+
+    /**
+     * Converts an amount into the target currency, rounded half-even to that currency's minor units.
+     *
+     * @throws IllegalArgumentException if either currency is not in the table
+     */
+    public Money convert(Money amount, String targetCurrency) {
+        String sourceCurrency = amount.getCurrency();
+        if (sourceCurrency.equals(targetCurrency)) {
+            return amount;
+        }
+        int target = indexOf(targetCurrency);
+        long rate = crossRates[indexOf(sourceCurrency)][target];
+        int targetScale = fractionDigits[target];
+        BigDecimal value = amount.getAmount();
+        int drop = value.scale() + RATE_SCALE - targetScale;
+        if (value.precision() <= 18 && drop >= 0 && drop < POWERS_OF_TEN.length) {
+            long unscaled = value.unscaledValue().longValue();
+            long high = Math.multiplyHigh(unscaled, rate);
+            long product = unscaled * rate;
+            if ((high == 0 && product >= 0) || (high == -1 && product < 0)) {
+                return new Money(BigDecimal.valueOf(divideHalfEven(product, POWERS_OF_TEN[drop]), targetScale),
+                        targetCurrency);
+            }
+        }
+        BigDecimal converted = value.multiply(BigDecimal.valueOf(rate, RATE_SCALE))
+                .setScale(targetScale, RoundingMode.HALF_EVEN);
+        return new Money(converted, targetCurrency);
+    }
+
+    static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        long twice = remainder * 2;
+        if (twice > divisor || (twice == divisor && (quotient & 1) != 0)) {
+            quotient += dividend < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    private int indexOf(String currency) {
+        Integer index = indexes.get(currency);
+        if (index == null) {
+            throw new IllegalArgumentException("No exchange rate for " + currency);
+        }
+        return index;
+    }
+
+    private static int fractionDigitsOf(String currency) {
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits >= 0 ? digits : 2;
+        } catch (IllegalArgumentException e) {
+            return 2;
+        }
+    }
+
+    private static String currencyAt(Map<String, Integer> indexes, int index) {
+        for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+            if (entry.getValue() == index) {
+                return entry.getKey();
+            }
+        }
+        return "?";
+    }
+}
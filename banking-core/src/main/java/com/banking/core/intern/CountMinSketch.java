@@ -0,0 +1,85 @@
+package com.banking.core.intern;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent count-min sketch over string keys.
+ * <p>
+ * Estimates never under-count; with {@code width} counters per row the over-count is at
+ * most {@code 2 * total / width} with high probability. Row indexes are derived from two
+ * mixed hashes of {@link String#hashCode()} (Kirsch-Mitzenmacher double hashing), so
+ * adding a key does not allocate.
+ */
+public class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param depth number of hash rows
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Depth and width must be positive");
+        }
+        this.depth = depth;
+        int rounded = 1;
+        while (rounded < width) {
+            rounded <<= 1;
+        }
+        this.width = rounded;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(depth * this.width);
+    }
+
+    /**
+     * Adds {@code count} occurrences of {@code key} and returns its new estimated count.
+     */
+    public long add(String key, long count) {
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & mask);
+            estimate = Math.min(estimate, counters.addAndGet(index, count));
+        }
+        return estimate;
+    }
+
+    public long estimate(String key) {
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + ((h1 + row * h2) & mask)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter so old traffic gradually stops counting.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            long value;
+            do {
+                value = counters.get(i);
+            } while (value != 0 && !counters.compareAndSet(i, value, value >>> 1));
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,169 @@
+package com.banking.core.intern;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, concurrent dictionary of strings.
+ * <p>
+ * Each distinct string admitted gets a dense int ID and one canonical instance, so values
+ * that repeat across many objects (account IDs, customer IDs, common descriptions) are
+ * stored once. Once {@code capacity} strings are admitted, or for strings longer than
+ * {@code maxLength}, lookups leave the value as it is: {@link #intern} returns its argument
+ * and {@link #idOf} returns {@link #NO_ID}. Entries are never evicted, so IDs stay valid for
+ * the lifetime of the dictionary. A capacity of 0 disables the dictionary.
+ * <p>
+ * With a {@code minOccurrences} above 1, a string is only admitted once a {@link CountMinSketch}
+ * estimates it has been looked up that many times, so values that never repeat do not use up
+ * the capacity that later, repeating values need. The sketch is halved periodically, so it
+ * follows recent lookups. The ID table grows in pages as strings are admitted, and the sketch
+ * is allocated on the first lookup that needs it, so an idle dictionary holds almost nothing.
+ */
+public final class StringDictionary {
+    public static final int NO_ID = -1;
+
+    /** Account and customer IDs. */
+    public static final StringDictionary IDENTIFIERS =
+            new StringDictionary(Integer.getInteger("banking.dictionary.identifiers", 2_000_000), 64,
+                    Integer.getInteger("banking.dictionary.min-occurrences", 2));
+
+    /** Transaction descriptions. Long descriptions rarely repeat, so only short ones are kept. */
+    public static final StringDictionary DESCRIPTIONS =
+            new StringDictionary(Integer.getInteger("banking.dictionary.descriptions", 1_000_000), 64,
+                    Integer.getInteger("banking.dictionary.min-occurrences", 2));
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int MAX_SKETCH_WIDTH = 1 << 16;
+    // Lookups counted per sketch counter before the sketch is halved.
+    private static final int DECAY_FACTOR = 8;
+
+    private final int capacity;
+    private final int maxLength;
+    private final int minOccurrences;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<AtomicReferenceArray<String>> pages;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicLong sightings = new AtomicLong();
+    private volatile CountMinSketch sketch;
+
+    public StringDictionary(int capacity, int maxLength) {
+        this(capacity, maxLength, 1);
+    }
+
+    /**
+     * @param minOccurrences lookups of a string needed before it is admitted; 1 admits on first sight
+     */
+    public StringDictionary(int capacity, int maxLength, int minOccurrences) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("Max length cannot be negative");
+        }
+        if (minOccurrences < 1) {
+            throw new IllegalArgumentException("Min occurrences must be positive");
+        }
+        this.capacity = capacity;
+        this.maxLength = maxLength;
+        this.minOccurrences = minOccurrences;
+        this.pages = new AtomicReferenceArray<>((capacity + PAGE_SIZE - 1) >>> PAGE_SHIFT);
+    }
+
+    /**
+     * Returns the canonical instance equal to {@code value}, admitting it if there is room.
+     * Returns {@code value} itself if it is null or cannot be admitted.
+     */
+    public String intern(String value) {
+        int id = idOf(value);
+        return id != NO_ID ? valueOf(id) : value;
+    }
+
+    /**
+     * Returns the ID of {@code value}, admitting it if there is room, or {@link #NO_ID}
+     * if it is null or cannot be admitted.
+     */
+    public int idOf(String value) {
+        if (value == null) {
+            return NO_ID;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (value.length() > maxLength || nextId.get() >= capacity || !admit(value)) {
+            return NO_ID;
+        }
+        id = ids.computeIfAbsent(value, v -> {
+            int next = nextId.getAndIncrement();
+            if (next >= capacity) {
+                return null;
+            }
+            page(next >>> PAGE_SHIFT).set(next & (PAGE_SIZE - 1), v);
+            return next;
+        });
+        return id != null ? id : NO_ID;
+    }
+
+    /**
+     * Returns the string with the given ID.
+     *
+     * @throws IllegalArgumentException if no string has that ID
+     */
+    public String valueOf(int id) {
+        AtomicReferenceArray<String> page = id >= 0 && id < capacity ? pages.get(id >>> PAGE_SHIFT) : null;
+        String value = page != null ? page.get(id & (PAGE_SIZE - 1)) : null;
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown dictionary ID: " + id);
+        }
+        return value;
+    }
+
+    public int size() {
+        return Math.min(nextId.get(), capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private boolean admit(String value) {
+        if (minOccurrences == 1) {
+            return true;
+        }
+        CountMinSketch counts = sketch();
+        long seen = counts.add(value, 1);
+        if (sightings.incrementAndGet() % ((long) DECAY_FACTOR * counts.getWidth()) == 0) {
+            counts.decay();
+        }
+        return seen >= minOccurrences;
+    }
+
+    private CountMinSketch sketch() {
+        CountMinSketch counts = sketch;
+        if (counts == null) {
+            synchronized (this) {
+                counts = sketch;
+                if (counts == null) {
+                    counts = new CountMinSketch(SKETCH_DEPTH, Math.max(1024, Math.min(capacity, MAX_SKETCH_WIDTH)));
+                    sketch = counts;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private AtomicReferenceArray<String> page(int index) {
+        AtomicReferenceArray<String> page = pages.get(index);
+        if (page == null) {
+            int size = Math.min(PAGE_SIZE, capacity - (index << PAGE_SHIFT));
+            pages.compareAndSet(index, null, new AtomicReferenceArray<>(size));
+            page = pages.get(index);
+        }
+        return page;
+    }
+}
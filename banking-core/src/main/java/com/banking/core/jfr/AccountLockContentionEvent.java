@@ -0,0 +1,32 @@
+package com.banking.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event emitted when a thread had to wait for an account lock.
+ * <p>
+ * Only created on the contended path, so uncontended lock acquisition never touches JFR.
+ * The event duration is the time spent waiting.
+ */
+@Name(AccountLockContentionEvent.NAME)
+@Label("Account Lock Contention")
+@Description("Thread blocked acquiring an account lock")
+@Category({"Banking", "Ledger"})
+@Threshold("100 us")
+@StackTrace(true)
+public class AccountLockContentionEvent extends Event {
+    public static final String NAME = "com.banking.AccountLockContention";
+
+    @Label("Account ID")
+    public String accountId;
+
+    @Label("Queue Length")
+    @Description("Estimated number of threads waiting for the lock when this thread started waiting")
+    public int queueLength;
+}
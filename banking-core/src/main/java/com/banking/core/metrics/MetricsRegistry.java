@@ -0,0 +1,136 @@
+package com.banking.core.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of named counters, gauges and latency histograms.
+ * <p>
+ * Metrics are looked up (or created) once, typically at construction time, and the
+ * returned instances are recorded into directly so the hot path never touches the
+ * registry. {@link #writePrometheus(Appendable)} renders everything in the Prometheus
+ * text exposition format; histograms are exported as summaries in seconds.
+ * <p>
+ * Labels are passed as alternating name/value pairs, e.g. {@code "operation", "deposit"}.
+ */
+public class MetricsRegistry {
+    static final double[] EXPORTED_QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).metrics
+                .computeIfAbsent(renderLabels(labels), key -> new Counter());
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.SUMMARY).metrics
+                .computeIfAbsent(renderLabels(labels), key -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a gauge whose value is read from {@code supplier} at export time.
+     * Registering the same name and labels again replaces the supplier.
+     */
+    public void gauge(String name, String help, LongSupplier supplier, String... labels) {
+        family(name, help, Type.GAUGE).metrics.put(renderLabels(labels), supplier);
+    }
+
+    public void writePrometheus(Appendable out) throws IOException {
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type.exposedName).append('\n');
+            for (Map.Entry<String, Object> metric : family.metrics.entrySet()) {
+                writeMetric(out, name, family.type, metric.getKey(), metric.getValue());
+            }
+        }
+    }
+
+    private void writeMetric(Appendable out, String name, Type type, String labels, Object metric) throws IOException {
+        switch (type) {
+            case COUNTER:
+                writeSample(out, name, labels, Long.toString(((Counter) metric).get()));
+                break;
+            case GAUGE:
+                writeSample(out, name, labels, Long.toString(((LongSupplier) metric).getAsLong()));
+                break;
+            case SUMMARY:
+                LatencyHistogram.Snapshot snapshot = ((LatencyHistogram) metric).snapshot();
+                for (double quantile : EXPORTED_QUANTILES) {
+                    String quantileLabel = "quantile=\"" + quantile + "\"";
+                    String withQuantile = labels.isEmpty()
+                            ? "{" + quantileLabel + "}"
+                            : labels.substring(0, labels.length() - 1) + "," + quantileLabel + "}";
+                    writeSample(out, name, withQuantile, seconds(snapshot.getValueAtQuantile(quantile)));
+                }
+                writeSample(out, name + "_sum", labels, seconds(snapshot.getSum()));
+                writeSample(out, name + "_count", labels, Long.toString(snapshot.getCount()));
+                break;
+            default:
+                throw new IllegalStateException("Unknown metric type: " + type);
+        }
+    }
+
+    private static void writeSample(Appendable out, String name, String labels, String value) throws IOException {
+        out.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1_000_000_000.0);
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type);
+        }
+        return family;
+    }
+
+    static String renderLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"")
+              .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+              .append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        SUMMARY("summary");
+
+        private final String exposedName;
+
+        Type(String exposedName) {
+            this.exposedName = exposedName;
+        }
+    }
+
+    private static class Family {
+        private final String help;
+        private final Type type;
+        private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+        Family(String help, Type type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
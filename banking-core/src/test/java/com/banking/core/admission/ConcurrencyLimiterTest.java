@@ -0,0 +1,39 @@
+package com.banking.core.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    @Test
+    void testAdmitsUpToLimit() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 0);
+
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.acquire());
+        assertEquals(2, limiter.getInFlight());
+        assertFalse(limiter.acquire());
+
+        limiter.release();
+        assertTrue(limiter.acquire());
+    }
+
+    @Test
+    void testShedsAfterQueueDelayExceeded() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 20);
+        assertTrue(limiter.acquire());
+
+        long start = System.nanoTime();
+        assertFalse(limiter.acquire());
+        assertTrue(System.nanoTime() - start >= 20_000_000L);
+        assertTrue(limiter.isShedding());
+
+        start = System.nanoTime();
+        assertFalse(limiter.acquire());
+        assertTrue(System.nanoTime() - start < 20_000_000L);
+
+        limiter.release();
+        assertTrue(limiter.acquire());
+    }
+}
@@ -0,0 +1,47 @@
+package com.banking.core.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testKeysAreLimitedIndependently() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 2, 100);
+        long now = System.nanoTime();
+
+        assertEquals(0, limiter.tryAcquire("CUST001", now));
+        assertEquals(0, limiter.tryAcquire("CUST001", now));
+        assertTrue(limiter.tryAcquire("CUST001", now) > 0);
+        assertEquals(0, limiter.tryAcquire("CUST002", now));
+    }
+
+    @Test
+    void testIdleKeysEvictedAtCapacity() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(10, 1, 3);
+        long now = System.nanoTime();
+        limiter.tryAcquire("a", now);
+        limiter.tryAcquire("b", now);
+        limiter.tryAcquire("c", now);
+        assertEquals(3, limiter.getKeyCount());
+
+        long later = now + SECOND;
+        assertEquals(0, limiter.tryAcquire("d", later));
+        assertEquals(1, limiter.getKeyCount());
+    }
+
+    @Test
+    void testBusyKeysShareOverflowBucket() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 2);
+        long now = System.nanoTime();
+        limiter.tryAcquire("a", now);
+        limiter.tryAcquire("b", now);
+
+        assertEquals(0, limiter.tryAcquire("c", now + SECOND / 2));
+        assertTrue(limiter.tryAcquire("d", now + SECOND / 2) > 0);
+        assertEquals(2, limiter.getKeyCount());
+    }
+}
@@ -0,0 +1,47 @@
+package com.banking.core.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBurstThenRefill() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        long wait = bucket.tryAcquire(0);
+        assertEquals(SECOND / 10, wait);
+
+        assertEquals(0, bucket.tryAcquire(wait));
+        assertTrue(bucket.tryAcquire(wait) > 0);
+    }
+
+    @Test
+    void testIdleOnceRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        assertTrue(bucket.isIdle(0));
+
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        assertFalse(bucket.isIdle(SECOND / 10));
+        assertTrue(bucket.isIdle(2 * SECOND / 10));
+    }
+
+    @Test
+    void testLongIdleDoesNotExceedBurst() {
+        TokenBucket bucket = new TokenBucket(100, 3, 0);
+        long later = 60 * SECOND;
+
+        int admitted = 0;
+        while (bucket.tryAcquire(later) == 0) {
+            admitted++;
+        }
+        assertEquals(3, admitted);
+    }
+}
@@ -0,0 +1,184 @@
+package com.banking.core.audit;
+
+import com.banking.core.domain.Money;
+import com.banking.core.exception.AuditUnavailableException;
+import com.banking.core.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @Test
+    void testWritesRotatingChecksummedFiles() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog log = new AuditLog(directory, 1024, OverflowPolicy.BLOCK, 2048, false, 1000, new MetricsRegistry());
+        log.start();
+        for (int i = 0; i < 100; i++) {
+            log.append(record("Payment | ref " + i + "\nsecond line"));
+        }
+        log.flush();
+        log.close();
+
+        List<Path> files = auditFiles(directory, "audit-2");
+        assertTrue(files.size() > 1, "files were rotated");
+        long records = 0;
+        for (Path file : files) {
+            records += AuditLog.verify(file);
+        }
+        assertEquals(100, records);
+        assertEquals(100, log.getWrittenCount());
+        String first = Files.readAllLines(files.get(0), StandardCharsets.UTF_8).get(0);
+        assertTrue(first.contains("|TRANSFER|tx-1|ACC-1|ACC-2|12.50|USD|Payment \\| ref 0\\nsecond line|"), first);
+    }
+
+    @Test
+    void testVerifyDetectsTampering() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog log = new AuditLog(directory, 16, OverflowPolicy.BLOCK, 1 << 20, true, 1000, new MetricsRegistry());
+        log.start();
+        log.append(record("Rent"));
+        log.append(record("Rent"));
+        log.close();
+
+        Path file = auditFiles(directory, "audit-2").get(0);
+        assertEquals(2, AuditLog.verify(file));
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, text.replaceFirst("12.50", "99.50").getBytes(StandardCharsets.UTF_8));
+        IOException e = assertThrows(IOException.class, () -> AuditLog.verify(file));
+        assertTrue(e.getMessage().endsWith("line 1"));
+    }
+
+    @Test
+    void testDropPolicyCountsOverflow() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog log = new AuditLog(directory, 4, OverflowPolicy.DROP, 1 << 20, false, 1000, new MetricsRegistry());
+        for (int i = 0; i < 10; i++) {
+            log.append(record("Rent"));
+        }
+        assertEquals(6, log.getDroppedCount());
+        assertEquals(4, log.getPendingCount());
+
+        log.start();
+        log.flush();
+        log.close();
+        assertEquals(4, log.getWrittenCount());
+    }
+
+    @Test
+    void testSpillPolicyWritesOverflowToSpillFile() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog log = new AuditLog(directory, 4, OverflowPolicy.SPILL, 1 << 20, false, 1000, new MetricsRegistry());
+        for (int i = 0; i < 10; i++) {
+            log.append(record("Rent"));
+        }
+        assertEquals(6, log.getSpilledCount());
+        assertEquals(0, log.getDroppedCount());
+
+        log.start();
+        log.close();
+        assertEquals(6, AuditLog.verify(auditFiles(directory, "audit-spill-").get(0)));
+        assertEquals(4, AuditLog.verify(auditFiles(directory, "audit-2").get(0)));
+    }
+
+    @Test
+    void testEveryRecordIsWrittenOrDroppedAcrossClose() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog log = new AuditLog(directory, 16, OverflowPolicy.BLOCK, 1 << 20, false, 1000, new MetricsRegistry());
+        log.start();
+        Thread[] appenders = new Thread[4];
+        for (int t = 0; t < appenders.length; t++) {
+            appenders[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    log.append(record("Rent"));
+                }
+            });
+            appenders[t].start();
+        }
+        Thread.sleep(5);
+        log.close();
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+
+        assertEquals(8000, log.getWrittenCount() + log.getDroppedCount());
+        assertEquals(0, log.getPendingCount());
+    }
+
+    @Test
+    void testFailedWriteAfterCloseIsCountedAsDropped() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog log = new AuditLog(directory, 16, OverflowPolicy.BLOCK, 1 << 20, false, 1000, new MetricsRegistry());
+        for (int i = 0; i < 3; i++) {
+            log.append(record("Rent"));
+        }
+        Files.delete(directory);
+
+        log.start();
+        log.close();
+        assertEquals(0, log.getWrittenCount());
+        assertEquals(3, log.getDroppedCount());
+    }
+
+    @Test
+    void testBlockedAppendGivesUpAfterTheTimeout() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog log = new AuditLog(directory, 4, OverflowPolicy.BLOCK, 1 << 20, false, 20, new MetricsRegistry());
+        for (int i = 0; i < 4; i++) {
+            log.append(record("Rent"));
+        }
+
+        AuditUnavailableException e = assertThrows(AuditUnavailableException.class, () -> log.append(record("Rent")));
+        assertEquals("Audit buffer stayed full for 20 ms", e.getMessage());
+        assertEquals(1, log.getDroppedCount());
+        log.start();
+        log.close();
+        assertEquals(4, log.getWrittenCount());
+    }
+
+    @Test
+    void testWriterFailureFailsBlockingAppends() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog log = new AuditLog(directory, 16, OverflowPolicy.BLOCK, 1 << 20, false, 1000, new MetricsRegistry());
+        log.start();
+        log.append(record("Rent"));
+        log.flush();
+        Money unreadable = new Money(BigDecimal.ONE, "USD") {
+            @Override
+            public BigDecimal getAmount() {
+                throw new IllegalStateException("Unreadable amount");
+            }
+        };
+        log.append(new AuditRecord(0, "DEPOSIT", "tx-2", "ACC-1", null, unreadable, null));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, log::flush);
+        assertEquals("Unreadable amount", e.getCause().getMessage());
+        assertSame(e.getCause(), log.getFailure());
+        AuditUnavailableException refused = assertThrows(AuditUnavailableException.class,
+                () -> log.append(record("Rent")));
+        assertSame(log.getFailure(), refused.getCause());
+        assertEquals(1, log.getWrittenCount());
+        assertEquals(2, log.getDroppedCount());
+        log.close();
+    }
+
+    private static AuditRecord record(String detail) {
+        return new AuditRecord(0, "TRANSFER", "tx-1", "ACC-1", "ACC-2", new Money(new BigDecimal("12.50"), "USD"),
+                detail);
+    }
+
+    private static List<Path> auditFiles(Path directory, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(prefix)).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.banking.core.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void testBoundedAndFifoAcrossWraparound() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(round * 4 + i));
+            }
+            assertFalse(buffer.offer(-1));
+            assertEquals(4, buffer.size());
+            assertEquals(3, buffer.drainTo(drained, 3));
+            assertEquals(1, buffer.drainTo(drained, 10));
+        }
+
+        for (int i = 0; i < 12; i++) {
+            assertEquals(Integer.valueOf(i), drained.get(i));
+        }
+        assertEquals(0, buffer.size());
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer<Integer>(6));
+    }
+
+    @Test
+    void testConcurrentProducers() throws InterruptedException {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(64);
+        Thread[] producers = new Thread[4];
+        for (int p = 0; p < producers.length; p++) {
+            int base = p * 10_000;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    while (!buffer.offer(base + i)) {
+                        LockSupport.parkNanos(10_000);
+                    }
+                }
+            });
+            producers[p].start();
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        while (drained.size() < 40_000) {
+            if (buffer.drainTo(drained, 16) == 0) {
+                LockSupport.parkNanos(10_000);
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        Set<Integer> distinct = new HashSet<>(drained);
+        assertEquals(40_000, distinct.size());
+        int[] last = {-1, -1, -1, -1};
+        for (int value : drained) {
+            assertTrue(value > last[value / 10_000], "per-producer order is kept");
+            last[value / 10_000] = value;
+        }
+    }
+}
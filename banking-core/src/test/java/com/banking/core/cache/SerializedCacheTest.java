@@ -0,0 +1,52 @@
+package com.banking.core.cache;
+
+import com.banking.core.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedCacheTest {
+
+    @Test
+    void testHitsOnlyTheCachedVersion() {
+        SerializedCache cache = new SerializedCache("test", 1 << 20, new MetricsRegistry());
+        byte[] first = "{\"balance\":100.10}".getBytes(StandardCharsets.UTF_8);
+        cache.put("ACC-1", 1, first);
+        assertSame(first, cache.get("ACC-1", 1));
+        assertNull(cache.get("ACC-1", 2));
+        assertNull(cache.get("ACC-2", 1));
+
+        byte[] second = "{\"balance\":90.10}".getBytes(StandardCharsets.UTF_8);
+        cache.put("ACC-1", 2, second);
+        assertSame(second, cache.get("ACC-1", 2));
+        assertNull(cache.get("ACC-1", 1));
+        assertEquals(1, cache.getEntryCount());
+
+        cache.invalidate("ACC-1");
+        assertNull(cache.get("ACC-1", 2));
+        assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedWhenOverSize() {
+        // 16 segments of 1000 bytes: a segment holds at most four 150-byte values with their overhead.
+        SerializedCache cache = new SerializedCache("test", 16_000, new MetricsRegistry());
+        byte[] value = new byte[150];
+        int keys = 200;
+        for (int i = 0; i < keys; i++) {
+            cache.put("ACC-" + i, 0, value);
+            // Keeps ACC-0 recently used.
+            assertNotNull(cache.get("ACC-0", 0));
+        }
+        assertTrue(cache.getSizeBytes() <= 16_000);
+        assertTrue(cache.getEntryCount() < keys);
+        assertNotNull(cache.get("ACC-0", 0));
+        assertNotNull(cache.get("ACC-" + (keys - 1), 0));
+        assertNull(cache.get("ACC-1", 0));
+
+        cache.put("BIG", 0, new byte[2000]);
+        assertNull(cache.get("BIG", 0));
+    }
+}
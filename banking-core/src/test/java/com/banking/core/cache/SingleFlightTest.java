@@ -0,0 +1,116 @@
+package com.banking.core.cache;
+
+import com.banking.core.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallersShareOneQuery() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", new MetricsRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("ACC-1", () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "history-" + runs.get();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executor.submit(() -> flight.execute("ACC-1", () -> "history-" + runs.incrementAndGet())));
+            }
+            while (flight.getSharedCount() < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals("history-1", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("history-1", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, runs.get());
+            assertEquals(1, flight.getComputedCount());
+
+            // Nothing is kept once the query completed.
+            assertEquals("history-2", flight.execute("ACC-1", () -> "history-" + runs.incrementAndGet()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidateStartsANewQueryForLaterCallers() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", new MetricsRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> before = executor.submit(() -> flight.execute("ACC-1", () -> {
+                started.countDown();
+                await(release);
+                return "before write";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            flight.invalidate("ACC-1");
+            assertEquals("after write", flight.execute("ACC-1", () -> "after write"));
+            release.countDown();
+            assertEquals("before write", before.get(5, TimeUnit.SECONDS));
+            assertEquals(2, flight.getComputedCount());
+            assertEquals(0, flight.getSharedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsSharedAndNotKept() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>("test", new MetricsRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("ACC-1", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("store unavailable");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> flight.execute("ACC-1", () -> "unused"));
+            while (flight.getSharedCount() < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<String> caller : List.of(leader, follower)) {
+                Exception e = assertThrows(Exception.class, () -> caller.get(5, TimeUnit.SECONDS));
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            assertEquals("recovered", flight.execute("ACC-1", () -> "recovered"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
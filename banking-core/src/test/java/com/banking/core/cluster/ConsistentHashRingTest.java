@@ -0,0 +1,53 @@
+package com.banking.core.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    @Test
+    void testKeysSpreadAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(128, new HashSet<>(Arrays.asList("node1", "node2", "node3")));
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(ring.ownerOf(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > 7_000 && count < 13_000, "unbalanced: " + counts);
+        }
+    }
+
+    @Test
+    void testAddingNodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(128, new HashSet<>(Arrays.asList("node1", "node2", "node3")));
+        ConsistentHashRing after = before.withNode("node4");
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String key = "ACC" + i;
+            String oldOwner = before.ownerOf(key);
+            String newOwner = after.ownerOf(key);
+            if (!oldOwner.equals(newOwner)) {
+                assertEquals("node4", newOwner);
+                moved++;
+            }
+        }
+        assertTrue(moved > 1_500 && moved < 3_500, "moved " + moved);
+    }
+
+    @Test
+    void testMembershipChangesReturnNewRing() {
+        ConsistentHashRing ring = new ConsistentHashRing(16).withNode("a");
+        assertSame(ring, ring.withNode("a"));
+        assertEquals("a", ring.ownerOf("anything"));
+        assertTrue(ring.withoutNode("a").getNodes().isEmpty());
+        assertThrows(IllegalStateException.class, () -> ring.withoutNode("a").ownerOf("anything"));
+    }
+}
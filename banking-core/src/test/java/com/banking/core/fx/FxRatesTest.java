@@ -0,0 +1,96 @@
+package com.banking.core.fx;
+
+import com.banking.core.domain.Money;
+import com.banking.core.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxRatesTest {
+
+    private static FxRates rates() throws IOException {
+        return FxRates.parse(new StringReader("# test rates\nbase=USD\nEUR=0.92\nJPY=151.50\n\nGBP = 0.79\n"),
+                Instant.EPOCH);
+    }
+
+    @Test
+    void testConvertRoundsToMinorUnits() throws IOException {
+        FxRates rates = rates();
+
+        assertEquals(new Money(new BigDecimal("92.00"), "EUR"), rates.convert(new Money(new BigDecimal("100.00"), "USD"), "EUR"));
+        assertEquals(new Money(new BigDecimal("15150"), "JPY"), rates.convert(new Money(new BigDecimal("100"), "USD"), "JPY"));
+        // 10 EUR = 10 / 0.92 USD = 10.869565... USD
+        assertEquals(new Money(new BigDecimal("10.87"), "USD"), rates.convert(new Money(new BigDecimal("10"), "EUR"), "USD"));
+        // Cross rate through the base: 1 EUR = 0.79 / 0.92 GBP
+        assertEquals(new BigDecimal("0.8586956522"), rates.getRate("EUR", "GBP"));
+        assertEquals(new Money(new BigDecimal("-8.59"), "GBP"), rates.convert(new Money(new BigDecimal("-10"), "EUR"), "GBP"));
+        Money same = new Money(1.0, "USD");
+        assertSame(same, rates.convert(same, "USD"));
+        assertThrows(IllegalArgumentException.class, () -> rates.convert(same, "CHF"));
+    }
+
+    @Test
+    void testFixedPointMatchesBigDecimal() throws IOException {
+        FxRates rates = rates();
+        BigDecimal huge = new BigDecimal("123456789012345678901234.5678");
+        Money converted = rates.convert(new Money(huge, "USD"), "EUR");
+        assertEquals(huge.multiply(new BigDecimal("0.92")).setScale(2, java.math.RoundingMode.HALF_EVEN),
+                converted.getAmount());
+
+        for (long cents = -100_000; cents <= 100_000; cents += 37) {
+            BigDecimal amount = BigDecimal.valueOf(cents, 2);
+            BigDecimal expected = amount.multiply(rates.getRate("EUR", "GBP")).setScale(2, java.math.RoundingMode.HALF_EVEN);
+            assertEquals(expected, rates.convert(new Money(amount, "EUR"), "GBP").getAmount());
+        }
+    }
+
+    @Test
+    void testDivideHalfEven() {
+        assertEquals(2, FxRates.divideHalfEven(25, 10));
+        assertEquals(4, FxRates.divideHalfEven(35, 10));
+        assertEquals(-2, FxRates.divideHalfEven(-25, 10));
+        assertEquals(-3, FxRates.divideHalfEven(-26, 10));
+        assertEquals(3, FxRates.divideHalfEven(26, 10));
+    }
+
+    @Test
+    void testInvalidTables() {
+        assertThrows(IOException.class, () -> FxRates.parse(new StringReader("EUR=0.92\n"), Instant.EPOCH));
+        assertThrows(IOException.class, () -> FxRates.parse(new StringReader("base=USD\nEUR=abc\n"), Instant.EPOCH));
+        assertThrows(IOException.class, () -> FxRates.parse(new StringReader("base=USD\nEUR=-1\n"), Instant.EPOCH));
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put("USD", new BigDecimal("2"));
+        assertThrows(IllegalArgumentException.class, () -> FxRates.of("USD", rates, Instant.EPOCH));
+    }
+
+    @Test
+    void testCacheSwapsWholeTables() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        FxRateCache cache = new FxRateCache(() -> {
+            if (loads.incrementAndGet() == 3) {
+                throw new IOException("source down");
+            }
+            Map<String, BigDecimal> table = new LinkedHashMap<>();
+            table.put("EUR", BigDecimal.valueOf(loads.get()));
+            return FxRates.of("USD", table, Instant.now());
+        }, new MetricsRegistry());
+        FxRates first = cache.current();
+
+        cache.refresh();
+        assertNotSame(first, cache.current());
+        assertEquals(new Money(new BigDecimal("2.00"), "EUR"), cache.convert(new Money(new BigDecimal("1.00"), "USD"), "EUR"));
+        assertEquals(new Money(new BigDecimal("1.00"), "EUR"), first.convert(new Money(new BigDecimal("1.00"), "USD"), "EUR"));
+
+        FxRates second = cache.current();
+        assertThrows(IOException.class, cache::refresh);
+        assertSame(second, cache.current());
+    }
+}
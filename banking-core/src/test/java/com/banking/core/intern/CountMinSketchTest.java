@@ -0,0 +1,28 @@
+package com.banking.core.intern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void testSketchNeverUnderCounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("ACC" + (i % 100), 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sketch.estimate("ACC" + i) >= 10);
+        }
+        assertEquals(256, sketch.getWidth());
+    }
+
+    @Test
+    void testSketchDecayHalvesCounts() {
+        CountMinSketch sketch = new CountMinSketch(2, 1024);
+        sketch.add("HOT", 100);
+        sketch.decay();
+        assertEquals(50, sketch.estimate("HOT"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.banking.core.intern;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringDictionaryTest {
+
+    @Test
+    void testInternReturnsCanonicalInstance() {
+        StringDictionary dictionary = new StringDictionary(10, 16);
+        String first = new String("CUST001");
+        String second = new String("CUST001");
+
+        assertSame(first, dictionary.intern(first));
+        assertSame(first, dictionary.intern(second));
+        assertEquals(1, dictionary.size());
+        assertNull(dictionary.intern(null));
+    }
+
+    @Test
+    void testIdsAreDenseAndStable() {
+        StringDictionary dictionary = new StringDictionary(10, 16);
+
+        assertEquals(0, dictionary.idOf("a"));
+        assertEquals(1, dictionary.idOf("b"));
+        assertEquals(0, dictionary.idOf(new String("a")));
+        assertEquals("b", dictionary.valueOf(1));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.valueOf(2));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.valueOf(-1));
+    }
+
+    @Test
+    void testBoundedByCapacityAndLength() {
+        StringDictionary dictionary = new StringDictionary(2, 4);
+        String tooLong = new String("abcde");
+        String third = new String("c");
+
+        assertSame(tooLong, dictionary.intern(tooLong));
+        assertEquals(StringDictionary.NO_ID, dictionary.idOf(tooLong));
+        dictionary.idOf("a");
+        dictionary.idOf("b");
+        assertSame(third, dictionary.intern(third));
+        assertEquals(StringDictionary.NO_ID, dictionary.idOf(third));
+        assertEquals(1, dictionary.idOf("b"));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void testAdmitsOnlyRepeatingValues() {
+        StringDictionary dictionary = new StringDictionary(2, 16, 2);
+        String once = new String("one-off");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(StringDictionary.NO_ID, dictionary.idOf("ref-" + i));
+        }
+        assertSame(once, dictionary.intern(once));
+        assertEquals(0, dictionary.size());
+
+        String first = new String("Salary");
+        assertSame(first, dictionary.intern(first));
+        String second = new String("Salary");
+        assertSame(second, dictionary.intern(second));
+        assertSame(second, dictionary.intern(first));
+        assertEquals(0, dictionary.idOf("Salary"));
+        assertEquals(1, dictionary.size());
+        assertThrows(IllegalArgumentException.class, () -> new StringDictionary(2, 16, 0));
+    }
+
+    @Test
+    void testIdsAcrossPages() {
+        StringDictionary dictionary = new StringDictionary(10_000, 16);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, dictionary.idOf("ACC-" + i));
+        }
+        assertEquals("ACC-4096", dictionary.valueOf(4096));
+        assertEquals("ACC-9999", dictionary.valueOf(9999));
+        assertEquals(StringDictionary.NO_ID, dictionary.idOf("ACC-10000"));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.valueOf(10_000));
+    }
+
+    @Test
+    void testDisabled() {
+        StringDictionary dictionary = new StringDictionary(0, 16);
+        String value = new String("a");
+
+        assertSame(value, dictionary.intern(value));
+        assertEquals(0, dictionary.size());
+    }
+
+    @Test
+    void testConcurrentInternAgreesOnOneInstance() throws InterruptedException {
+        StringDictionary dictionary = new StringDictionary(1000, 16);
+        String[][] seen = new String[4][100];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    seen[thread][i] = dictionary.intern(new String("ACC-" + i));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < 100; i++) {
+            for (int t = 1; t < threads.length; t++) {
+                assertSame(seen[0][i], seen[t][i]);
+            }
+        }
+        assertEquals(100, dictionary.size());
+    }
+}
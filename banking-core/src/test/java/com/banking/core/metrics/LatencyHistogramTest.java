@@ -0,0 +1,43 @@
+package com.banking.core.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketBoundsCoverValue() {
+        long[] values = {0, 1, 63, 64, 65, 127, 128, 1_000, 123_456_789, LatencyHistogram.MAX_TRACKABLE_NANOS};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueIn(index) >= value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueIn(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    void testQuantilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(5_000_000, snapshot.getValueAtQuantile(0.5), 5_000_000 * 0.035);
+        assertEquals(9_900_000, snapshot.getValueAtQuantile(0.99), 9_900_000 * 0.035);
+        assertEquals(10_000_000, snapshot.getValueAtQuantile(1.0));
+        assertEquals(10_000_000, snapshot.getMax());
+    }
+
+    @Test
+    void testNegativeAndHugeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2, histogram.getCount());
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_NANOS, histogram.getMax());
+        assertEquals(0, histogram.snapshot().getValueAtQuantile(0.5));
+    }
+}
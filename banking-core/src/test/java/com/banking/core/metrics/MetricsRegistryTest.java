@@ -0,0 +1,43 @@
+package com.banking.core.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testSameNameAndLabelsReturnSameMetric() {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter first = registry.counter("failures_total", "Failures", "reason", "a");
+        Counter second = registry.counter("failures_total", "Failures", "reason", "a");
+        Counter other = registry.counter("failures_total", "Failures", "reason", "b");
+        assertSame(first, second);
+        assertNotSame(first, other);
+    }
+
+    @Test
+    void testTypeConflictRejected() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("ops", "Ops");
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("ops", "Ops"));
+    }
+
+    @Test
+    void testPrometheusOutput() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("failures_total", "Failures", "reason", "insufficient_funds").add(3);
+        registry.gauge("accounts", "Accounts", () -> 42);
+        registry.histogram("duration_seconds", "Duration", "operation", "deposit").record(2_000_000_000L);
+
+        StringBuilder out = new StringBuilder();
+        registry.writePrometheus(out);
+        String text = out.toString();
+
+        assertTrue(text.contains("# TYPE failures_total counter\n"));
+        assertTrue(text.contains("failures_total{reason=\"insufficient_funds\"} 3\n"));
+        assertTrue(text.contains("# TYPE accounts gauge\naccounts 42\n"));
+        assertTrue(text.contains("# TYPE duration_seconds summary\n"));
+        assertTrue(text.contains("duration_seconds{operation=\"deposit\",quantile=\"0.99\"} 2.0\n"));
+        assertTrue(text.contains("duration_seconds_count{operation=\"deposit\"} 1\n"));
+    }
+}
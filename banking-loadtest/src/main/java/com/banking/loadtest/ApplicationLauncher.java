@@ -0,0 +1,76 @@
+package com.banking.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the packaged {@code banking-api} application in a child JVM and waits until it serves requests.
+ */
+public class ApplicationLauncher implements AutoCloseable {
+    private final Process process;
+    private final Path logFile;
+
+    private ApplicationLauncher(Process process, Path logFile) {
+        this.process = process;
+        this.logFile = logFile;
+    }
+
+    public static ApplicationLauncher start(Path appJar, int port) throws IOException {
+        if (!Files.isRegularFile(appJar)) {
+            throw new IllegalStateException("Application jar not found: " + appJar
+                    + " (build banking-api first or pass --target)");
+        }
+        Path logFile = Files.createTempFile("banking-api-loadtest", ".log");
+        String javaBin = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(javaBin, "-jar", appJar.toString(), "--server.port=" + port)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        return new ApplicationLauncher(process, logFile);
+    }
+
+    public void awaitReady(String baseUrl, Duration timeout) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts"))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue()
+                        + ", see " + logFile);
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("Application did not become ready within " + timeout + ", see " + logFile);
+    }
+
+    public File getLogFile() {
+        return logFile.toFile();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.banking.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-loop load generator.
+ * <p>
+ * Requests are issued on a fixed schedule derived from the configured rate, independently
+ * of how fast responses come back. Each request carries its intended start time so the
+ * recorded latency includes any time it spent waiting behind a slow server.
+ */
+public class LoadGenerator {
+    private static final Pattern ACCOUNT_ID = Pattern.compile("\"accountId\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String CURRENCY = "USD";
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final ExecutorService callbackExecutor;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicLong customerSequence = new AtomicLong();
+    private final Semaphore inFlight;
+    private String[] accountIds;
+
+    public LoadGenerator(LoadTestConfig config) {
+        this.config = config;
+        this.callbackExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        this.client = HttpClient.newBuilder()
+                .executor(callbackExecutor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.inFlight = new Semaphore(config.getMaxInFlight());
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+
+    /**
+     * Creates the account pool the workload draws from. Accounts get a large opening balance
+     * so withdrawals and transfers rarely fail for lack of funds.
+     */
+    public void seedAccounts() {
+        List<CompletableFuture<String>> pending = new ArrayList<>();
+        for (int i = 0; i < config.getAccounts(); i++) {
+            pending.add(client.sendAsync(createAccountRequest(1_000_000_000.0), HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        if (response.statusCode() / 100 != 2) {
+                            throw new IllegalStateException("Account seeding failed with HTTP " + response.statusCode());
+                        }
+                        Matcher matcher = ACCOUNT_ID.matcher(response.body());
+                        if (!matcher.find()) {
+                            throw new IllegalStateException("No accountId in response: " + response.body());
+                        }
+                        return matcher.group(1);
+                    }));
+        }
+        accountIds = new String[pending.size()];
+        for (int i = 0; i < accountIds.length; i++) {
+            accountIds[i] = pending.get(i).join();
+        }
+    }
+
+    /**
+     * Runs warmup followed by the measured phase and returns the per-endpoint statistics.
+     * Only requests whose intended start falls in the measured phase are recorded.
+     */
+    public Map<Operation, EndpointStats> run() throws InterruptedException {
+        if (accountIds == null) {
+            throw new IllegalStateException("seedAccounts() must be called before run()");
+        }
+        Random random = new Random(config.getSeed());
+        ZipfianGenerator accounts = new ZipfianGenerator(accountIds.length, config.getZipfTheta());
+        WorkloadMix mix = config.getMix();
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRatePerSecond();
+        long start = System.nanoTime();
+        long measureFrom = start + config.getWarmup().toNanos();
+        long end = measureFrom + config.getDuration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * intervalNanos);
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = mix.next(random);
+            HttpRequest request = buildRequest(operation, accounts, random);
+            boolean measured = intendedStart >= measureFrom;
+            // Blocking here when saturated is fine: the delay is charged to the request through its intended start.
+            inFlight.acquire();
+            send(operation, request, intendedStart, measured);
+        }
+
+        inFlight.tryAcquire(config.getMaxInFlight(), 30, TimeUnit.SECONDS);
+        callbackExecutor.shutdown();
+        return stats;
+    }
+
+    private void send(Operation operation, HttpRequest request, long intendedStart, boolean measured) {
+        long actualStart = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long now = System.nanoTime();
+                    inFlight.release();
+                    if (measured) {
+                        boolean success = error == null && response.statusCode() / 100 == 2;
+                        stats.get(operation).record(intendedStart, actualStart, now, success);
+                    }
+                });
+    }
+
+    private HttpRequest buildRequest(Operation operation, ZipfianGenerator accounts, Random random) {
+        String amount = String.valueOf(1 + random.nextInt(100));
+        switch (operation) {
+            case CREATE_ACCOUNT:
+                return createAccountRequest(1000.0);
+            case DEPOSIT:
+                return post("/api/transactions/deposit", String.format(Locale.ROOT,
+                        "{\"accountId\":\"%s\",\"amount\":%s,\"currency\":\"%s\",\"description\":\"Load test deposit\"}",
+                        pick(accounts, random), amount, CURRENCY));
+            case WITHDRAW:
+                return post("/api/transactions/withdraw", String.format(Locale.ROOT,
+                        "{\"accountId\":\"%s\",\"amount\":%s,\"currency\":\"%s\",\"description\":\"Load test withdrawal\"}",
+                        pick(accounts, random), amount, CURRENCY));
+            case TRANSFER:
+                String from = pick(accounts, random);
+                String to = pick(accounts, random);
+                while (to.equals(from)) {
+                    to = pick(accounts, random);
+                }
+                return post("/api/transactions/transfer", String.format(Locale.ROOT,
+                        "{\"fromAccountId\":\"%s\",\"toAccountId\":\"%s\",\"amount\":%s,\"currency\":\"%s\",\"description\":\"Load test transfer\"}",
+                        from, to, amount, CURRENCY));
+            case HISTORY:
+                return HttpRequest.newBuilder(URI.create(config.getBaseUrl() + "/api/transactions/account/" + pick(accounts, random)))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    private HttpRequest createAccountRequest(double initialBalance) {
+        return post("/api/accounts", String.format(Locale.ROOT,
+                "{\"customerId\":\"LOAD%d\",\"accountType\":\"CHECKING\",\"initialBalance\":%.2f,\"currency\":\"%s\"}",
+                customerSequence.incrementAndGet(), initialBalance, CURRENCY));
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(config.getBaseUrl() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private String pick(ZipfianGenerator accounts, Random random) {
+        return accountIds[accounts.next(random)];
+    }
+}
@@ -0,0 +1,144 @@
+package com.banking.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Load test settings, parsed from {@code --name=value} command-line arguments.
+ */
+public class LoadTestConfig {
+    static final String DEFAULT_MIX = "create:1,deposit:30,withdraw:20,transfer:20,history:29";
+
+    private String targetUrl;
+    private Path appJar = Paths.get("banking-api/target/banking-api-1.0.0.jar");
+    private int port = 18080;
+    private double ratePerSecond = 500;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration startupTimeout = Duration.ofSeconds(120);
+    private int accounts = 1000;
+    private double zipfTheta = 0.99;
+    private WorkloadMix mix = WorkloadMix.parse(DEFAULT_MIX);
+    private int maxInFlight = 4096;
+    private long seed = 42L;
+
+    public static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "target":
+                    config.targetUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "app-jar":
+                    config.appJar = Paths.get(value);
+                    break;
+                case "port":
+                    config.port = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    config.ratePerSecond = Double.parseDouble(value);
+                    break;
+                case "warmup":
+                    config.warmup = Duration.ofSeconds(Long.parseLong(value));
+                    break;
+                case "duration":
+                    config.duration = Duration.ofSeconds(Long.parseLong(value));
+                    break;
+                case "startup-timeout":
+                    config.startupTimeout = Duration.ofSeconds(Long.parseLong(value));
+                    break;
+                case "accounts":
+                    config.accounts = Integer.parseInt(value);
+                    break;
+                case "zipf":
+                    config.zipfTheta = Double.parseDouble(value);
+                    break;
+                case "mix":
+                    config.mix = WorkloadMix.parse(value);
+                    break;
+                case "max-in-flight":
+                    config.maxInFlight = Integer.parseInt(value);
+                    break;
+                case "seed":
+                    config.seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        if (config.ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (config.accounts < 2) {
+            throw new IllegalArgumentException("At least two accounts are needed for transfers");
+        }
+        return config;
+    }
+
+    /**
+     * Whether the generator should boot the application itself rather than use {@code --target}.
+     */
+    public boolean isLaunchApplication() {
+        return targetUrl == null;
+    }
+
+    public String getBaseUrl() {
+        return targetUrl != null ? targetUrl : "http://localhost:" + port;
+    }
+
+    public Path getAppJar() {
+        return appJar;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getStartupTimeout() {
+        return startupTimeout;
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    public double getZipfTheta() {
+        return zipfTheta;
+    }
+
+    public WorkloadMix getMix() {
+        return mix;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("target=%s rate=%.0f/s warmup=%ds duration=%ds accounts=%d zipf=%.2f mix=%s",
+                getBaseUrl(), ratePerSecond, warmup.getSeconds(), duration.getSeconds(), accounts, zipfTheta, mix);
+    }
+}
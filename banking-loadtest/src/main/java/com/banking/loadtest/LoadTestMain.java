@@ -0,0 +1,38 @@
+package com.banking.loadtest;
+
+import java.util.Map;
+
+/**
+ * Command-line entry point.
+ * <p>
+ * Without {@code --target} the packaged {@code banking-api} jar is started on {@code --port}
+ * and stopped again when the run finishes. Example:
+ * {@code java -jar banking-loadtest/target/loadtest.jar --rate=2000 --duration=120 --zipf=1.1}
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        System.out.println("Load test: " + config);
+
+        ApplicationLauncher launcher = null;
+        try {
+            if (config.isLaunchApplication()) {
+                launcher = ApplicationLauncher.start(config.getAppJar(), config.getPort());
+                System.out.println("Starting " + config.getAppJar() + ", log at " + launcher.getLogFile());
+                launcher.awaitReady(config.getBaseUrl(), config.getStartupTimeout());
+            }
+
+            LoadGenerator generator = new LoadGenerator(config);
+            generator.seedAccounts();
+            System.out.println("Seeded " + config.getAccounts() + " accounts, running...");
+
+            Map<Operation, EndpointStats> stats = generator.run();
+            new LoadTestReport(stats, config.getDuration().toMillis() / 1000.0).print(System.out);
+        } finally {
+            if (launcher != null) {
+                launcher.close();
+            }
+        }
+    }
+}
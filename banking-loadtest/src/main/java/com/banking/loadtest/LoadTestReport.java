@@ -0,0 +1,46 @@
+package com.banking.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * Prints throughput and latency percentiles per endpoint.
+ */
+public class LoadTestReport {
+    private final Map<Operation, EndpointStats> stats;
+    private final double measuredSeconds;
+
+    public LoadTestReport(Map<Operation, EndpointStats> stats, double measuredSeconds) {
+        this.stats = stats;
+        this.measuredSeconds = measuredSeconds;
+    }
+
+    public void print(PrintStream out) {
+        out.println("Response time is measured from the intended send time (coordinated-omission corrected).");
+        out.println("Latencies in milliseconds; 'svc p99' is the uncorrected service time for comparison.");
+        out.printf("%-36s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "ops/s", "p50", "p99", "p999", "max", "svc p99");
+        for (EndpointStats endpoint : stats.values()) {
+            if (endpoint.getCount() == 0) {
+                continue;
+            }
+            Histogram response = endpoint.getResponseTime();
+            out.printf("%-36s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.getOperation().getEndpoint(),
+                    endpoint.getCount(),
+                    endpoint.getErrors(),
+                    endpoint.getCount() / measuredSeconds,
+                    millis(response.getValueAtPercentile(50.0)),
+                    millis(response.getValueAtPercentile(99.0)),
+                    millis(response.getValueAtPercentile(99.9)),
+                    millis(response.getMaxValue()),
+                    millis(endpoint.getServiceTime().getValueAtPercentile(99.0)));
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.loadtest;
+
+/**
+ * Endpoints exercised by the load generator.
+ */
+public enum Operation {
+    CREATE_ACCOUNT("create", "POST /api/accounts"),
+    DEPOSIT("deposit", "POST /api/transactions/deposit"),
+    WITHDRAW("withdraw", "POST /api/transactions/withdraw"),
+    TRANSFER("transfer", "POST /api/transactions/transfer"),
+    HISTORY("history", "GET /api/transactions/account/{id}");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,71 @@
+package com.banking.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted choice between {@link Operation}s, parsed from a spec such as
+ * {@code create:1,deposit:30,withdraw:20,transfer:20,history:29}.
+ */
+public class WorkloadMix {
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public WorkloadMix(Map<Operation, Integer> weights) {
+        operations = new Operation[weights.size()];
+        cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Weight cannot be negative: " + entry.getKey());
+            }
+            total += entry.getValue();
+            operations[i] = entry.getKey();
+            cumulativeWeights[i] = total;
+            i++;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Workload mix must have at least one positive weight");
+        }
+        this.totalWeight = total;
+    }
+
+    public static WorkloadMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] keyValue = part.trim().split(":");
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            weights.put(Operation.fromKey(keyValue[0].trim()), Integer.parseInt(keyValue[1].trim()));
+        }
+        return new WorkloadMix(weights);
+    }
+
+    public Operation next(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(operations[i].getKey()).append(':').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.banking.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws item ranks in {@code [0, itemCount)} following a Zipf distribution, so that rank 0
+ * is the hottest account. A {@code theta} of 0 is uniform; 0.99 is the usual "hot set" skew.
+ * <p>
+ * The cumulative distribution is precomputed once, so each draw is a binary search.
+ */
+public class ZipfianGenerator {
+    private final double[] cumulative;
+
+    public ZipfianGenerator(int itemCount, double theta) {
+        if (itemCount <= 0) {
+            throw new IllegalArgumentException("Item count must be positive");
+        }
+        if (theta < 0) {
+            throw new IllegalArgumentException("Theta cannot be negative");
+        }
+        cumulative = new double[itemCount];
+        double sum = 0;
+        for (int rank = 0; rank < itemCount; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, theta);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < itemCount; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    public int getItemCount() {
+        return cumulative.length;
+    }
+
+    public int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1);
+    }
+
+    /**
+     * Probability of drawing the given rank.
+     */
+    public double probability(int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+}
@@ -0,0 +1,48 @@
+package com.banking.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipfianGeneratorTest {
+
+    @Test
+    void testDrawsStayInRange() {
+        ZipfianGenerator generator = new ZipfianGenerator(100, 0.99);
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            int rank = generator.next(random);
+            assertTrue(rank >= 0 && rank < 100);
+        }
+    }
+
+    @Test
+    void testLowRanksAreHottest() {
+        ZipfianGenerator generator = new ZipfianGenerator(1000, 0.99);
+        Random random = new Random(7);
+        int[] counts = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            counts[generator.next(random)]++;
+        }
+        assertTrue(counts[0] > counts[10]);
+        assertTrue(counts[10] > counts[500]);
+        assertEquals(generator.probability(0), counts[0] / 100_000.0, 0.01);
+    }
+
+    @Test
+    void testZeroThetaIsUniform() {
+        ZipfianGenerator generator = new ZipfianGenerator(4, 0.0);
+        for (int rank = 0; rank < 4; rank++) {
+            assertEquals(0.25, generator.probability(rank), 1e-9);
+        }
+    }
+
+    @Test
+    void testWorkloadMixParsing() {
+        WorkloadMix mix = WorkloadMix.parse("deposit:1,history:3");
+        assertEquals("deposit:1,history:3", mix.toString());
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("bogus:1"));
+    }
+}
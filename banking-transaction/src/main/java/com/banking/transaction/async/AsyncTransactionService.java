@@ -0,0 +1,101 @@
+package com.banking.transaction.async;
+
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link TransactionService} operations on an executor and returns their results as
+ * {@link CompletableFuture}s, so a caller such as a servlet thread is not held for the duration of
+ * an operation, e.g. one that waits on a synchronous journal or replica listener.
+ * <p>
+ * The operations themselves are unchanged: they still block the executor's thread, which is
+ * cheap with virtual threads (see {@link TransactionExecutors}). At most {@code maxInFlight}
+ * operations are queued or running at once; beyond that the returned future fails at once with a
+ * {@link RejectedExecutionException}. Other failures, e.g. insufficient funds, complete the future
+ * exceptionally with the same exception the blocking method would have thrown.
+ */
+public class AsyncTransactionService {
+    private final TransactionService transactionService;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final Semaphore permits;
+
+    public AsyncTransactionService(TransactionService transactionService, Executor executor, int maxInFlight) {
+        if (transactionService == null) {
+            throw new IllegalArgumentException("TransactionService cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in flight must be positive");
+        }
+        this.transactionService = transactionService;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    public CompletableFuture<Transaction> depositAsync(String accountId, Money amount, String description) {
+        return submit(() -> transactionService.deposit(accountId, amount, description));
+    }
+
+    public CompletableFuture<Transaction> withdrawAsync(String accountId, Money amount, String description) {
+        return submit(() -> transactionService.withdraw(accountId, amount, description));
+    }
+
+    public CompletableFuture<Transaction> transferAsync(String fromAccountId, String toAccountId, Money amount,
+                                                        String description) {
+        return submit(() -> transactionService.transfer(fromAccountId, toAccountId, amount, description));
+    }
+
+    public CompletableFuture<List<Transaction>> getTransactionsByAccountAsync(String accountId) {
+        return submit(() -> transactionService.getTransactionsByAccount(accountId));
+    }
+
+    /**
+     * @return the number of operations queued or running
+     */
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Too many asynchronous transaction operations in flight: " + maxInFlight));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                T value;
+                try {
+                    value = operation.get();
+                } catch (Throwable e) {
+                    // Released before completing, so the slot is free once the caller sees the outcome.
+                    permits.release();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                permits.release();
+                result.complete(value);
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.banking.transaction.async;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for {@link AsyncTransactionService}.
+ * <p>
+ * Virtual threads need JDK 21 or later, while the project is built for Java 11, so
+ * {@link #virtualThreads()} looks up {@code Executors.newVirtualThreadPerTaskExecutor} at run time.
+ */
+public final class TransactionExecutors {
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+    public static final String AUTO = "auto";
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadFactory();
+
+    private TransactionExecutors() {
+    }
+
+    /**
+     * @return whether this JVM can run tasks on virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * @param kind    {@link #PLATFORM}, {@link #VIRTUAL}, or {@link #AUTO} for virtual threads where
+     *                supported and platform threads otherwise
+     * @param threads pool size for platform threads; ignored for virtual threads
+     */
+    public static ExecutorService create(String kind, int threads) {
+        switch (kind.toLowerCase(Locale.ROOT)) {
+            case PLATFORM:
+                return platformThreads(threads);
+            case VIRTUAL:
+                return virtualThreads();
+            case AUTO:
+                return isVirtualThreadsSupported() ? virtualThreads() : platformThreads(threads);
+            default:
+                throw new IllegalArgumentException("Unknown executor kind: " + kind);
+        }
+    }
+
+    /**
+     * A fixed pool of daemon threads named {@code txn-async-N}, with an unbounded queue; callers
+     * bound the work in flight themselves.
+     */
+    public static ExecutorService platformThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "txn-async-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * An executor that starts a new virtual thread per task.
+     *
+     * @throws IllegalStateException if this JVM has no virtual threads
+     */
+    public static ExecutorService virtualThreads() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads need JDK 21 or later, running on "
+                    + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    private static Method findVirtualThreadFactory() {
+        try {
+            Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // Preview builds of JDK 19 and 20 have the method but throw unless preview is enabled.
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.banking.transaction.audit;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountListener;
+import com.banking.account.service.AccountService;
+import com.banking.core.audit.AuditLog;
+import com.banking.core.audit.AuditRecord;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionListener;
+import com.banking.transaction.service.TransactionService;
+
+/**
+ * Feeds every account and transaction change made through the services into an {@link AuditLog}.
+ * <p>
+ * The callbacks run on the request path, partly under account locks, so they only build an
+ * {@link AuditRecord} from values already at hand and queue it. Transactions executed here are
+ * audited under their type (e.g. {@code TRANSFER}); transactions executed elsewhere and stored
+ * here get a {@code _STORED} suffix. An {@link com.banking.core.exception.AuditUnavailableException}
+ * from the log is passed on to the caller of the service.
+ */
+public class AuditTrail implements AccountListener, TransactionListener {
+    private static final String[] EXECUTED = new String[TransactionType.values().length];
+    private static final String[] STORED = new String[TransactionType.values().length];
+
+    static {
+        for (TransactionType type : TransactionType.values()) {
+            EXECUTED[type.ordinal()] = type.name();
+            STORED[type.ordinal()] = type.name() + "_STORED";
+        }
+    }
+
+    private final AuditLog auditLog;
+
+    public AuditTrail(AuditLog auditLog) {
+        if (auditLog == null) {
+            throw new IllegalArgumentException("AuditLog cannot be null");
+        }
+        this.auditLog = auditLog;
+    }
+
+    /**
+     * Starts auditing the changes made through the given services.
+     */
+    public void attach(AccountService accountService, TransactionService transactionService) {
+        accountService.addAccountListener(this);
+        transactionService.addTransactionListener(this);
+    }
+
+    @Override
+    public void onAccountCreated(Account account) {
+        auditAccount("ACCOUNT_OPENED", account, account.getCustomerId() + " " + account.getAccountType());
+    }
+
+    @Override
+    public void onAccountImported(Account account) {
+        auditAccount("ACCOUNT_IMPORTED", account, account.getCustomerId() + " " + account.getAccountType());
+    }
+
+    @Override
+    public void onAccountRemoved(Account account) {
+        auditAccount("ACCOUNT_REMOVED", account, null);
+    }
+
+    @Override
+    public void onAccountStatusChanged(Account account) {
+        auditAccount(account.isActive() ? "ACCOUNT_ACTIVATED" : "ACCOUNT_DEACTIVATED", account, null);
+    }
+
+    @Override
+    public void onTransaction(Transaction transaction) {
+        auditTransaction(EXECUTED[transaction.getType().ordinal()], transaction);
+    }
+
+    @Override
+    public void onTransactionStored(Transaction transaction) {
+        auditTransaction(STORED[transaction.getType().ordinal()], transaction);
+    }
+
+    private void auditAccount(String action, Account account, String detail) {
+        auditLog.append(new AuditRecord(System.currentTimeMillis(), action, account.getAccountId(),
+                account.getAccountId(), null, account.getBalance(), detail));
+    }
+
+    private void auditTransaction(String action, Transaction transaction) {
+        auditLog.append(new AuditRecord(System.currentTimeMillis(), action, transaction.getTransactionId(),
+                transaction.getAccountId(), transaction.getRelatedAccountId(), transaction.getAmount(),
+                transaction.getDescription()));
+    }
+}
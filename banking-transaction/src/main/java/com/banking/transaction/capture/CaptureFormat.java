@@ -0,0 +1,133 @@
+package com.banking.transaction.capture;
+
+import com.banking.core.domain.Money;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encoding shared by {@link CaptureWriter} and {@link CaptureReader}.
+ * <p>
+ * A file is a header ({@link #MAGIC}, {@link #VERSION}, capture start in epoch milliseconds)
+ * followed by records: a tag byte (kind ordinal + 1, or {@link #END_TAG}), the nanoseconds since
+ * the previous record as a varint, and the kind's fields. Strings go through a dictionary: the
+ * first occurrence is written in full and later ones as a varint index, so account IDs,
+ * currencies and recurring descriptions cost a byte or two after the first time. Amounts are a
+ * currency, a zigzag varint scale and the unscaled value's two's-complement bytes, so they are
+ * exact. The end record carries the final balance of every account.
+ */
+final class CaptureFormat {
+    static final int MAGIC = 0x42434150; // "BCAP"
+    static final int VERSION = 1;
+    static final int END_TAG = 0xFF;
+    /** Strings beyond this many distinct ones are written in full every time. */
+    static final int MAX_DICTIONARY = 1 << 16;
+
+    private CaptureFormat() {
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Writing side of the string dictionary. Index 0 is null; {@code size + 1} announces a new
+     * string, added to the dictionary while it has room.
+     */
+    static final class StringsOut {
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        void write(DataOutput out, String value) throws IOException {
+            if (value == null) {
+                writeVarLong(out, 0);
+                return;
+            }
+            Integer index = indexes.get(value);
+            if (index != null) {
+                writeVarLong(out, index);
+                return;
+            }
+            writeVarLong(out, indexes.size() + 1);
+            out.writeUTF(value);
+            if (indexes.size() < MAX_DICTIONARY) {
+                indexes.put(value, indexes.size() + 1);
+            }
+        }
+
+        void writeMoney(DataOutput out, Money money) throws IOException {
+            write(out, money.getCurrency());
+            BigDecimal amount = money.getAmount();
+            int scale = amount.scale();
+            writeVarLong(out, (scale << 1) ^ (scale >> 31));
+            byte[] unscaled = amount.unscaledValue().toByteArray();
+            writeVarLong(out, unscaled.length);
+            out.write(unscaled);
+        }
+    }
+
+    static final class StringsIn {
+        private final List<String> values = new ArrayList<>();
+
+        String read(DataInput in) throws IOException {
+            int index = readVarInt(in);
+            if (index == 0) {
+                return null;
+            }
+            if (index <= values.size()) {
+                return values.get(index - 1);
+            }
+            if (index != values.size() + 1) {
+                throw new IOException("Unknown string index " + index);
+            }
+            String value = in.readUTF();
+            if (values.size() < MAX_DICTIONARY) {
+                values.add(value);
+            }
+            return value;
+        }
+
+        Money readMoney(DataInput in) throws IOException {
+            String currency = read(in);
+            int zigzag = readVarInt(in);
+            int scale = (zigzag >>> 1) ^ -(zigzag & 1);
+            int length = readVarInt(in);
+            if (length < 1 || length > 64) {
+                throw new IOException("Bad amount length " + length);
+            }
+            byte[] unscaled = new byte[length];
+            in.readFully(unscaled);
+            return new Money(new BigDecimal(new BigInteger(unscaled), scale), currency);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.banking.transaction.capture;
+
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a capture file written by {@link TrafficCapture}, one operation at a time.
+ * <p>
+ * A file cut short, e.g. because the process was killed while capturing, reads up to its last
+ * complete operation and then has no {@linkplain #getFinalBalances() final balances}.
+ */
+public class CaptureReader implements Closeable {
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+    private static final CapturedOperation.Kind[] KINDS = CapturedOperation.Kind.values();
+
+    private final DataInputStream in;
+    private final long startEpochMillis;
+    private final CaptureFormat.StringsIn strings = new CaptureFormat.StringsIn();
+    private long offsetNanos;
+    private boolean finished;
+    private long droppedCount;
+    private Map<String, Money> finalBalances;
+
+    public CaptureReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        try {
+            if (in.readInt() != CaptureFormat.MAGIC) {
+                throw new IOException("Not a capture file: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != CaptureFormat.VERSION) {
+                throw new IOException("Unsupported capture version " + version + ": " + file);
+            }
+            this.startEpochMillis = in.readLong();
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return when the capture started, in epoch milliseconds
+     */
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * @return the next operation, or null at the end of the capture
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public CapturedOperation next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int tag;
+        try {
+            tag = in.readUnsignedByte();
+        } catch (EOFException e) {
+            finished = true;
+            return null;
+        }
+        try {
+            if (tag == CaptureFormat.END_TAG) {
+                readEnd();
+                return null;
+            }
+            if (tag < 1 || tag > KINDS.length) {
+                throw new IOException("Unknown record tag " + tag);
+            }
+            return readOperation(KINDS[tag - 1]);
+        } catch (EOFException e) {
+            finished = true;
+            return null;
+        }
+    }
+
+    /**
+     * @return the balance of every account when the capture stopped, or null if the end of the
+     * capture was not reached or the capture was not closed properly
+     */
+    public Map<String, Money> getFinalBalances() {
+        return finalBalances;
+    }
+
+    /**
+     * @return operations that happened during the capture but are not in it, because its buffer was
+     * full; known once the end of the capture was read
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private CapturedOperation readOperation(CapturedOperation.Kind kind) throws IOException {
+        offsetNanos += CaptureFormat.readVarLong(in);
+        String accountId = strings.read(in);
+        switch (kind) {
+            case OPEN_ACCOUNT: {
+                String customerId = strings.read(in);
+                int type = in.readUnsignedByte();
+                if (type >= ACCOUNT_TYPES.length) {
+                    throw new IOException("Unknown account type " + type);
+                }
+                return CapturedOperation.openAccount(offsetNanos, accountId, customerId, ACCOUNT_TYPES[type],
+                        strings.readMoney(in));
+            }
+            case TRANSFER: {
+                String relatedAccountId = strings.read(in);
+                Money amount = strings.readMoney(in);
+                return CapturedOperation.transaction(offsetNanos, kind, accountId, relatedAccountId, amount,
+                        strings.read(in));
+            }
+            case DEPOSIT:
+            case WITHDRAW: {
+                Money amount = strings.readMoney(in);
+                return CapturedOperation.transaction(offsetNanos, kind, accountId, null, amount, strings.read(in));
+            }
+            case REMOVE_ACCOUNT:
+                return CapturedOperation.removeAccount(offsetNanos, accountId);
+            default:
+                throw new IOException("Unknown operation kind " + kind);
+        }
+    }
+
+    private void readEnd() throws IOException {
+        long dropped = CaptureFormat.readVarLong(in);
+        int count = CaptureFormat.readVarInt(in);
+        Map<String, Money> balances = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String accountId = strings.read(in);
+            balances.put(accountId, strings.readMoney(in));
+        }
+        droppedCount = dropped;
+        finalBalances = Collections.unmodifiableMap(balances);
+        finished = true;
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.transaction.capture;
+
+import com.banking.core.domain.Money;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Writes a capture file (see {@link CaptureFormat}). Not thread-safe.
+ */
+class CaptureWriter implements Closeable {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final CaptureFormat.StringsOut strings = new CaptureFormat.StringsOut();
+    private long lastOffsetNanos;
+
+    CaptureWriter(Path file, long startEpochMillis) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_BYTES));
+        out.writeInt(CaptureFormat.MAGIC);
+        out.writeByte(CaptureFormat.VERSION);
+        out.writeLong(startEpochMillis);
+    }
+
+    void write(CapturedOperation operation) throws IOException {
+        out.writeByte(operation.getKind().ordinal() + 1);
+        // Operations from different threads can reach the writer slightly out of time order.
+        long offset = Math.max(lastOffsetNanos, operation.getOffsetNanos());
+        CaptureFormat.writeVarLong(out, offset - lastOffsetNanos);
+        lastOffsetNanos = offset;
+        strings.write(out, operation.getAccountId());
+        switch (operation.getKind()) {
+            case OPEN_ACCOUNT:
+                strings.write(out, operation.getCustomerId());
+                out.writeByte(operation.getAccountType().ordinal());
+                strings.writeMoney(out, operation.getAmount());
+                break;
+            case TRANSFER:
+                strings.write(out, operation.getRelatedAccountId());
+                strings.writeMoney(out, operation.getAmount());
+                strings.write(out, operation.getDescription());
+                break;
+            case DEPOSIT:
+            case WITHDRAW:
+                strings.writeMoney(out, operation.getAmount());
+                strings.write(out, operation.getDescription());
+                break;
+            case REMOVE_ACCOUNT:
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation kind: " + operation.getKind());
+        }
+    }
+
+    /**
+     * Writes the end record: how many operations were not captured, and the balance of every
+     * account when the capture stopped.
+     */
+    void writeEnd(long droppedCount, Map<String, Money> finalBalances) throws IOException {
+        out.writeByte(CaptureFormat.END_TAG);
+        CaptureFormat.writeVarLong(out, droppedCount);
+        CaptureFormat.writeVarLong(out, finalBalances.size());
+        for (Map.Entry<String, Money> entry : finalBalances.entrySet()) {
+            strings.write(out, entry.getKey());
+            strings.writeMoney(out, entry.getValue());
+        }
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
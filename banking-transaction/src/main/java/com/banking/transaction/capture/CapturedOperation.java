@@ -0,0 +1,109 @@
+package com.banking.transaction.capture;
+
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+
+/**
+ * One operation of a traffic capture, as the services executed it.
+ */
+public final class CapturedOperation {
+
+    public enum Kind {
+        /** An account opened (or imported) here, with its balance at that moment. */
+        OPEN_ACCOUNT,
+        DEPOSIT,
+        WITHDRAW,
+        /** A transfer; cross-currency transfers carry the amount debited from the source. */
+        TRANSFER,
+        /** An account removed from this node, e.g. migrated to another one. */
+        REMOVE_ACCOUNT
+    }
+
+    private final long offsetNanos;
+    private final Kind kind;
+    private final String accountId;
+    private final String relatedAccountId;
+    private final String customerId;
+    private final AccountType accountType;
+    private final Money amount;
+    private final String description;
+
+    private CapturedOperation(long offsetNanos, Kind kind, String accountId, String relatedAccountId,
+                              String customerId, AccountType accountType, Money amount, String description) {
+        this.offsetNanos = offsetNanos;
+        this.kind = kind;
+        this.accountId = accountId;
+        this.relatedAccountId = relatedAccountId;
+        this.customerId = customerId;
+        this.accountType = accountType;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public static CapturedOperation openAccount(long offsetNanos, String accountId, String customerId,
+                                                AccountType accountType, Money balance) {
+        return new CapturedOperation(offsetNanos, Kind.OPEN_ACCOUNT, accountId, null, customerId, accountType,
+                balance, null);
+    }
+
+    public static CapturedOperation removeAccount(long offsetNanos, String accountId) {
+        return new CapturedOperation(offsetNanos, Kind.REMOVE_ACCOUNT, accountId, null, null, null, null, null);
+    }
+
+    /**
+     * @param relatedAccountId the destination of a transfer, null otherwise
+     */
+    public static CapturedOperation transaction(long offsetNanos, Kind kind, String accountId,
+                                                String relatedAccountId, Money amount, String description) {
+        if (kind != Kind.DEPOSIT && kind != Kind.WITHDRAW && kind != Kind.TRANSFER) {
+            throw new IllegalArgumentException("Not a transaction kind: " + kind);
+        }
+        return new CapturedOperation(offsetNanos, kind, accountId, relatedAccountId, null, null, amount,
+                description);
+    }
+
+    /**
+     * @return nanoseconds from the start of the capture to this operation
+     */
+    public long getOffsetNanos() {
+        return offsetNanos;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getRelatedAccountId() {
+        return relatedAccountId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public AccountType getAccountType() {
+        return accountType;
+    }
+
+    /**
+     * @return the amount moved, or the balance of an opened account
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return "CapturedOperation{" + kind + " at " + offsetNanos + "ns, accountId='" + accountId + "'"
+                + (relatedAccountId != null ? ", relatedAccountId='" + relatedAccountId + "'" : "")
+                + (amount != null ? ", amount=" + amount : "") + "}";
+    }
+}
@@ -0,0 +1,122 @@
+package com.banking.transaction.capture;
+
+import com.banking.core.metrics.LatencyHistogram;
+import com.banking.transaction.reconcile.ReconciliationReport;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of {@link TrafficReplayer#replay}.
+ */
+public final class ReplayReport {
+    private final long operationCount;
+    private final Map<String, Long> failures;
+    private final Map<CapturedOperation.Kind, LatencyHistogram.Snapshot> latencies;
+    private final long durationNanos;
+    private final long maxLagNanos;
+    private final boolean complete;
+    private final long droppedCount;
+    private final List<ReconciliationReport.Mismatch> mismatches;
+
+    public ReplayReport(long operationCount, Map<String, Long> failures,
+                        Map<CapturedOperation.Kind, LatencyHistogram> latencies, long durationNanos, long maxLagNanos,
+                        boolean complete, long droppedCount, List<ReconciliationReport.Mismatch> mismatches) {
+        this.operationCount = operationCount;
+        this.failures = Collections.unmodifiableMap(failures);
+        Map<CapturedOperation.Kind, LatencyHistogram.Snapshot> snapshots = new EnumMap<>(CapturedOperation.Kind.class);
+        latencies.forEach((kind, histogram) -> snapshots.put(kind, histogram.snapshot()));
+        this.latencies = Collections.unmodifiableMap(snapshots);
+        this.durationNanos = durationNanos;
+        this.maxLagNanos = maxLagNanos;
+        this.complete = complete;
+        this.droppedCount = droppedCount;
+        this.mismatches = Collections.unmodifiableList(mismatches);
+    }
+
+    public long getOperationCount() {
+        return operationCount;
+    }
+
+    /**
+     * @return the number of operations that failed on replay, by exception type
+     */
+    public Map<String, Long> getFailures() {
+        return failures;
+    }
+
+    public long getFailureCount() {
+        return failures.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public Map<CapturedOperation.Kind, LatencyHistogram.Snapshot> getLatencies() {
+        return latencies;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public double getOperationsPerSecond() {
+        return durationNanos == 0 ? 0 : operationCount * 1e9 / durationNanos;
+    }
+
+    /**
+     * @return how far behind its captured time the most delayed operation was issued; 0 when
+     * replaying as fast as possible
+     */
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    /**
+     * @return whether the capture was closed properly, so its final balances were checked
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return operations the capture dropped; a capture with drops is not expected to replay to
+     * the same balances
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public List<ReconciliationReport.Mismatch> getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * @return whether every operation succeeded and the balances match the captured ones
+     */
+    public boolean isFaithful() {
+        return complete && failures.isEmpty() && mismatches.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("operations: %,d in %.2f s (%,.0f/s), failed: %,d %s%n", operationCount,
+                durationNanos / 1e9, getOperationsPerSecond(), getFailureCount(), failures));
+        latencies.forEach((kind, snapshot) -> text.append(String.format(
+                "%-15s count %,10d  p50 %8.1f us  p99 %8.1f us  p99.9 %8.1f us  max %8.1f us%n", kind,
+                snapshot.getCount(), snapshot.getValueAtQuantile(0.5, TimeUnit.MICROSECONDS),
+                snapshot.getValueAtQuantile(0.99, TimeUnit.MICROSECONDS),
+                snapshot.getValueAtQuantile(0.999, TimeUnit.MICROSECONDS), snapshot.getMax() / 1e3)));
+        if (maxLagNanos > 0) {
+            text.append(String.format("max lag: %.1f ms%n", maxLagNanos / 1e6));
+        }
+        if (!complete) {
+            text.append("capture incomplete: final balances not checked").append(System.lineSeparator());
+        } else {
+            text.append(String.format("balance mismatches: %,d, dropped in capture: %,d%n", mismatches.size(),
+                    droppedCount));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package com.banking.transaction.capture;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountListener;
+import com.banking.account.service.AccountService;
+import com.banking.core.audit.AuditRingBuffer;
+import com.banking.core.domain.Money;
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionListener;
+import com.banking.transaction.service.TransactionService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records the operations executed on this node to a file, with their timing, so the same
+ * traffic can be replayed later by a {@link TrafficReplayer}, e.g. against a new build to
+ * compare its latencies.
+ * <p>
+ * Operations are captured from the service listeners, so only operations that succeeded are
+ * recorded, in the order they were applied to each account: the listeners run while the account
+ * is locked, or for a deposit into a striped account while its stripe is held. The listeners put each operation
+ * into an {@link AuditRingBuffer} and return; a writer thread encodes them into the file. When
+ * the buffer is full the operation is dropped and counted rather than slowing the request down,
+ * so a capture with drops will not replay to the same balances. {@link #close} writes the
+ * balance of every account last, for the replay to be checked against.
+ * <p>
+ * Accounts that exist when the capture is {@linkplain #attach attached} are recorded as opened
+ * with their balance at that moment; attach before traffic starts for an exact replay.
+ * Transfers settled by netting are recorded, and replayed, as individual transfers.
+ */
+public class TrafficCapture implements AccountListener, TransactionListener, AutoCloseable {
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AuditRingBuffer<CapturedOperation> buffer;
+    private final CaptureWriter writer;
+    private final Path file;
+    private final long startNanos = System.nanoTime();
+    private final Thread writerThread;
+    private final Counter captured;
+    private final Counter dropped;
+    // Captures between their check of closed and their offer; the writer waits for them before its last drain.
+    private final AtomicInteger capturing = new AtomicInteger();
+    private volatile AccountService accountService;
+    private volatile boolean closed;
+    private volatile IOException writeError;
+
+    /**
+     * @param file     where the capture is written, replaced if it exists
+     * @param capacity buffer size, a power of two
+     */
+    public TrafficCapture(Path file, int capacity, MetricsRegistry metrics) throws IOException {
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.writer = new CaptureWriter(file, System.currentTimeMillis());
+        this.file = file;
+        String help = "Operations seen by the traffic capture";
+        this.captured = metrics.counter("banking_capture_operations_total", help, "result", "captured");
+        this.dropped = metrics.counter("banking_capture_operations_total", help, "result", "dropped");
+        metrics.gauge("banking_capture_pending", "Captured operations waiting for the writer", buffer::size);
+        this.writerThread = new Thread(this::writeLoop, "capture-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Records the accounts that exist now, then starts capturing the changes made through the given
+     * services.
+     */
+    public void attach(AccountService accountService, TransactionService transactionService) {
+        this.accountService = accountService;
+        for (Account account : accountService.getAllAccounts()) {
+            onAccountImported(account);
+        }
+        accountService.addAccountListener(this);
+        transactionService.addTransactionListener(this);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void onAccountCreated(Account account) {
+        capture(CapturedOperation.openAccount(offset(), account.getAccountId(), account.getCustomerId(),
+                account.getAccountType(), account.getBalance()));
+    }
+
+    @Override
+    public void onAccountImported(Account account) {
+        onAccountCreated(account);
+    }
+
+    @Override
+    public void onAccountRemoved(Account account) {
+        capture(CapturedOperation.removeAccount(offset(), account.getAccountId()));
+    }
+
+    @Override
+    public void onTransaction(Transaction transaction) {
+        CapturedOperation.Kind kind;
+        switch (transaction.getType()) {
+            case DEPOSIT:
+            case INTEREST_CREDIT:
+                kind = CapturedOperation.Kind.DEPOSIT;
+                break;
+            case WITHDRAWAL:
+                kind = CapturedOperation.Kind.WITHDRAW;
+                break;
+            case TRANSFER:
+            case FX_TRANSFER_OUT:
+                kind = CapturedOperation.Kind.TRANSFER;
+                break;
+            default:
+                // The credit leg of a cross-currency transfer is replayed by its debit leg.
+                return;
+        }
+        capture(CapturedOperation.transaction(offset(), kind, transaction.getAccountId(),
+                transaction.getRelatedAccountId(), transaction.getAmount(), transaction.getDescription()));
+    }
+
+    public long getCapturedCount() {
+        return captured.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops capturing, writes what is queued and the final balance of every account, and closes
+     * the file.
+     *
+     * @throws IOException if the capture could not be written; the file is then incomplete
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writerThread);
+        // The writer finishes promptly once closed; an interrupt is kept for the caller rather
+        // than leaving the writer running against a file that is about to be closed.
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (writeError == null) {
+                Map<String, Money> balances = new LinkedHashMap<>();
+                AccountService accounts = accountService;
+                if (accounts != null) {
+                    for (Account account : accounts.getAllAccounts()) {
+                        balances.put(account.getAccountId(), account.getBalance());
+                    }
+                }
+                writer.writeEnd(dropped.get(), balances);
+            }
+        } finally {
+            writer.close();
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    private long offset() {
+        return System.nanoTime() - startNanos;
+    }
+
+    private void capture(CapturedOperation operation) {
+        capturing.incrementAndGet();
+        try {
+            if (!closed && writeError == null && buffer.offer(operation)) {
+                captured.increment();
+            } else {
+                dropped.increment();
+            }
+        } finally {
+            capturing.decrementAndGet();
+        }
+    }
+
+    private void writeLoop() {
+        List<CapturedOperation> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (true) {
+                if (buffer.drainTo(batch, MAX_BATCH) == 0) {
+                    // Once no capture is between its check of closed and its offer, nothing more can arrive.
+                    if (closed && capturing.get() == 0 && buffer.drainTo(batch, MAX_BATCH) == 0) {
+                        return;
+                    }
+                    if (batch.isEmpty()) {
+                        writer.flush();
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                        continue;
+                    }
+                }
+                for (CapturedOperation operation : batch) {
+                    writer.write(operation);
+                }
+                batch.clear();
+            }
+        } catch (IOException e) {
+            writeError = e;
+        }
+    }
+}
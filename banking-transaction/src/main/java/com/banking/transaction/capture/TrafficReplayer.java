@@ -0,0 +1,126 @@
+package com.banking.transaction.capture;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.Money;
+import com.banking.core.metrics.LatencyHistogram;
+import com.banking.transaction.reconcile.ReconciliationReport;
+import com.banking.transaction.service.TransactionService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a capture written by {@link TrafficCapture} against a set of services, one operation
+ * at a time in capture order, and reports the latency of each kind of operation.
+ * <p>
+ * Accounts are opened with their captured IDs, so the services should start empty. With a
+ * {@code speed} of 1 operations are issued at their captured times, with 10 at ten times that
+ * rate, and with 0 as fast as they complete. Replaying in a single thread makes the outcome
+ * deterministic: when the capture is complete, the balances after the replay must equal the
+ * captured final balances, and any difference is reported as a mismatch. Cross-currency
+ * transfers replay to the same balances only with the same exchange rates.
+ */
+public class TrafficReplayer {
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+
+    public TrafficReplayer(AccountService accountService, TransactionService transactionService) {
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+    }
+
+    /**
+     * @param speed multiple of the captured rate to replay at, or 0 for as fast as possible
+     */
+    public ReplayReport replay(CaptureReader reader, double speed) throws IOException {
+        if (speed < 0 || Double.isNaN(speed) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Speed must be a finite number of at least 0");
+        }
+        Map<CapturedOperation.Kind, LatencyHistogram> latencies = new EnumMap<>(CapturedOperation.Kind.class);
+        Map<String, Long> failures = new TreeMap<>();
+        long operations = 0;
+        long maxLagNanos = 0;
+        long start = System.nanoTime();
+        CapturedOperation operation;
+        while ((operation = reader.next()) != null) {
+            if (speed > 0) {
+                long due = start + (long) (operation.getOffsetNanos() / speed);
+                long wait = due - System.nanoTime();
+                while (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    wait = due - System.nanoTime();
+                }
+                maxLagNanos = Math.max(maxLagNanos, -wait);
+            }
+            long issued = System.nanoTime();
+            try {
+                apply(operation);
+            } catch (RuntimeException e) {
+                failures.merge(e.getClass().getSimpleName(), 1L, Long::sum);
+            }
+            latencies.computeIfAbsent(operation.getKind(), kind -> new LatencyHistogram()).recordSince(issued);
+            operations++;
+        }
+        long durationNanos = System.nanoTime() - start;
+
+        Map<String, Money> expected = reader.getFinalBalances();
+        List<ReconciliationReport.Mismatch> mismatches = new ArrayList<>();
+        if (expected != null) {
+            for (Map.Entry<String, Money> entry : expected.entrySet()) {
+                Money balance = accountService.hasAccount(entry.getKey())
+                        ? accountService.getAccount(entry.getKey()).getBalance() : null;
+                if (!sameBalance(balance, entry.getValue())) {
+                    mismatches.add(new ReconciliationReport.Mismatch(entry.getKey(), balance, entry.getValue()));
+                }
+            }
+            for (Account account : accountService.getAllAccounts()) {
+                if (!expected.containsKey(account.getAccountId())) {
+                    mismatches.add(new ReconciliationReport.Mismatch(account.getAccountId(), account.getBalance(),
+                            null));
+                }
+            }
+        }
+        return new ReplayReport(operations, failures, latencies, durationNanos, maxLagNanos, expected != null,
+                reader.getDroppedCount(), mismatches);
+    }
+
+    private void apply(CapturedOperation operation) {
+        switch (operation.getKind()) {
+            case OPEN_ACCOUNT:
+                accountService.createAccount(operation.getAccountId(), operation.getCustomerId(),
+                        operation.getAccountType(), operation.getAmount());
+                break;
+            case DEPOSIT:
+                transactionService.deposit(operation.getAccountId(), operation.getAmount(), operation.getDescription());
+                break;
+            case WITHDRAW:
+                transactionService.withdraw(operation.getAccountId(), operation.getAmount(),
+                        operation.getDescription());
+                break;
+            case TRANSFER:
+                transactionService.transfer(operation.getAccountId(), operation.getRelatedAccountId(),
+                        operation.getAmount(), operation.getDescription());
+                break;
+            case REMOVE_ACCOUNT:
+                accountService.removeAccount(operation.getAccountId());
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation kind: " + operation.getKind());
+        }
+    }
+
+    private static boolean sameBalance(Money balance, Money expected) {
+        if (balance == null || expected == null) {
+            return balance == expected;
+        }
+        return Objects.equals(balance.getCurrency(), expected.getCurrency())
+                && balance.getAmount().compareTo(expected.getAmount()) == 0;
+    }
+}
@@ -0,0 +1,167 @@
+package com.banking.transaction.cdc;
+
+import com.banking.account.domain.Account;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+
+/**
+ * One change in the {@link ChangeLog}: something that happened to an account or a transaction.
+ * <p>
+ * Account events carry the account's customer, type and balance at the time of the change.
+ * Transaction events carry the transaction as recorded on its account, so a transfer is one
+ * event on the source account naming the destination as the related account.
+ */
+public final class ChangeEvent {
+
+    public enum Type {
+        ACCOUNT_OPENED,
+        /** An existing account moved here, e.g. from another shard. */
+        ACCOUNT_IMPORTED,
+        /** An account moved away from this node, e.g. to another shard. */
+        ACCOUNT_REMOVED,
+        ACCOUNT_ACTIVATED,
+        ACCOUNT_DEACTIVATED,
+        /** A transaction executed on this node. */
+        TRANSACTION,
+        /** A transaction executed elsewhere and stored here, e.g. a leg of a cross-shard transfer. */
+        TRANSACTION_STORED,
+        /** A transaction dropped from this node, e.g. moved to another shard with its account. */
+        TRANSACTION_REMOVED,
+        /**
+         * Changes that were not logged, placed at or shortly after where they would have been.
+         * It names no account; {@link #getLostCount()} tells how many changes are missing, and a
+         * consumer that needs every change has to resynchronize from the source.
+         */
+        EVENTS_LOST;
+
+        public boolean isAccountEvent() {
+            return ordinal() <= ACCOUNT_DEACTIVATED.ordinal();
+        }
+    }
+
+    private final long offset;
+    private final long timestampMillis;
+    private final Type type;
+    private final String accountId;
+    private final String transactionId;
+    private final String relatedAccountId;
+    private final String customerId;
+    private final String kind;
+    private final Money amount;
+    private final String description;
+
+    /**
+     * @param offset           position in the log, or 0 for an event not appended yet
+     * @param accountId        the account, null only for {@link Type#EVENTS_LOST}
+     * @param transactionId    the transaction, null for account events
+     * @param relatedAccountId the other account of a transfer, or null
+     * @param customerId       the account's customer for account events, otherwise null
+     * @param kind             the account type of account events, the transaction type of transaction events,
+     *                         the number of lost changes for {@link Type#EVENTS_LOST}
+     * @param amount           the balance for account events, the amount for transaction events
+     */
+    public ChangeEvent(long offset, long timestampMillis, Type type, String accountId, String transactionId,
+                       String relatedAccountId, String customerId, String kind, Money amount, String description) {
+        if (type == null) {
+            throw new IllegalArgumentException("Event type cannot be null");
+        }
+        if (accountId == null && type != Type.EVENTS_LOST) {
+            throw new IllegalArgumentException("Account ID cannot be null");
+        }
+        this.offset = offset;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.accountId = accountId;
+        this.transactionId = transactionId;
+        this.relatedAccountId = relatedAccountId;
+        this.customerId = customerId;
+        this.kind = kind;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public static ChangeEvent of(Type type, Account account) {
+        return new ChangeEvent(0, System.currentTimeMillis(), type, account.getAccountId(), null, null,
+                account.getCustomerId(), account.getAccountType().name(), account.getBalance(), null);
+    }
+
+    public static ChangeEvent of(Type type, Transaction transaction) {
+        return new ChangeEvent(0, System.currentTimeMillis(), type, transaction.getAccountId(),
+                transaction.getTransactionId(), transaction.getRelatedAccountId(), null,
+                transaction.getType().name(), transaction.getAmount(), transaction.getDescription());
+    }
+
+    /**
+     * A marker for {@code count} changes that could not be logged.
+     */
+    public static ChangeEvent lost(long count, String reason) {
+        return new ChangeEvent(0, System.currentTimeMillis(), Type.EVENTS_LOST, null, null, null, null,
+                Long.toString(count), null, count + " changes were not logged: " + reason);
+    }
+
+    /**
+     * Position in the log, starting at 1 and increasing by 1 per event.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Wall-clock time (epoch milliseconds) of the change.
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getRelatedAccountId() {
+        return relatedAccountId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * @return the account type of account events, the transaction type of transaction events
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the number of changes an {@link Type#EVENTS_LOST} marker stands for, 0 for other events
+     */
+    public long getLostCount() {
+        return type == Type.EVENTS_LOST ? Long.parseLong(kind) : 0;
+    }
+
+    /**
+     * @return the balance for account events, the amount for transaction events
+     */
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" + offset + " " + type + " " + kind + ", accountId='" + accountId + "'"
+                + (transactionId != null ? ", transactionId='" + transactionId + "'" : "")
+                + (amount != null ? ", amount=" + amount : "") + "}";
+    }
+}
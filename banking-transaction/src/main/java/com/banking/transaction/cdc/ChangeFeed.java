@@ -0,0 +1,69 @@
+package com.banking.transaction.cdc;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountListener;
+import com.banking.account.service.AccountService;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionListener;
+import com.banking.transaction.service.TransactionService;
+
+/**
+ * Appends every account and transaction change made through the services to a {@link ChangeLog}.
+ * <p>
+ * The callbacks run on the request path, partly under account locks, so they only build a
+ * {@link ChangeEvent} from values already at hand and queue it.
+ */
+public class ChangeFeed implements AccountListener, TransactionListener {
+    private final ChangeLog changeLog;
+
+    public ChangeFeed(ChangeLog changeLog) {
+        if (changeLog == null) {
+            throw new IllegalArgumentException("ChangeLog cannot be null");
+        }
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Starts feeding the changes made through the given services into the log.
+     */
+    public void attach(AccountService accountService, TransactionService transactionService) {
+        accountService.addAccountListener(this);
+        transactionService.addTransactionListener(this);
+    }
+
+    @Override
+    public void onAccountCreated(Account account) {
+        changeLog.append(ChangeEvent.of(ChangeEvent.Type.ACCOUNT_OPENED, account));
+    }
+
+    @Override
+    public void onAccountImported(Account account) {
+        changeLog.append(ChangeEvent.of(ChangeEvent.Type.ACCOUNT_IMPORTED, account));
+    }
+
+    @Override
+    public void onAccountRemoved(Account account) {
+        changeLog.append(ChangeEvent.of(ChangeEvent.Type.ACCOUNT_REMOVED, account));
+    }
+
+    @Override
+    public void onAccountStatusChanged(Account account) {
+        changeLog.append(ChangeEvent.of(
+                account.isActive() ? ChangeEvent.Type.ACCOUNT_ACTIVATED : ChangeEvent.Type.ACCOUNT_DEACTIVATED, account));
+    }
+
+    @Override
+    public void onTransaction(Transaction transaction) {
+        changeLog.append(ChangeEvent.of(ChangeEvent.Type.TRANSACTION, transaction));
+    }
+
+    @Override
+    public void onTransactionStored(Transaction transaction) {
+        changeLog.append(ChangeEvent.of(ChangeEvent.Type.TRANSACTION_STORED, transaction));
+    }
+
+    @Override
+    public void onTransactionRemoved(Transaction transaction) {
+        changeLog.append(ChangeEvent.of(ChangeEvent.Type.TRANSACTION_REMOVED, transaction));
+    }
+}
@@ -0,0 +1,457 @@
+package com.banking.transaction.cdc;
+
+import com.banking.core.audit.AuditRingBuffer;
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Durable, ordered log of account and transaction changes for downstream consumers, stored as
+ * segment files in a local directory.
+ * <p>
+ * {@link #append} queues an event in a bounded {@link AuditRingBuffer} and returns. While the buffer
+ * is full it waits up to the append timeout and then drops the event, so a stalled disk slows the
+ * request path down by a bounded amount. Dropped events are counted, and the writer logs an
+ * {@link ChangeEvent.Type#EVENTS_LOST} marker with its own offset in their place, so consumers see
+ * the loss in the stream instead of a gapless log that is missing changes. A writer thread drains
+ * the buffer in batches, gives each event the next offset and writes the batch to the active
+ * segment with one call; a new segment is started once the active one reaches
+ * {@code maxSegmentBytes}. Events appended under an account's lock, as the service listeners are,
+ * keep their order per account.
+ * <p>
+ * Retention deletes the oldest segments beyond {@code maxSegments}, but never one holding events a
+ * consumer in {@link ConsumerOffsets} has not committed yet: a consumer that stops committing keeps
+ * the log growing until it resumes or its offset file is removed. A reader that asks for an offset
+ * already deleted is told where the log now starts.
+ * <p>
+ * Consumers {@linkplain #read read} by offset, waiting for new events if they are caught up. The
+ * segment holding an offset is found by its name and the position within it from a sparse index,
+ * so a read costs the same at any depth of the log. On startup only the last segment is scanned,
+ * to find the next offset and cut off an event torn by a crash.
+ * <p>
+ * A batch that fails to write is retried {@link #MAX_WRITE_ATTEMPTS} times. After that, or on any
+ * other error, the writer stops for good: {@link #getFailure()} reports why, the events it held
+ * and every later one are counted as dropped, and {@link #flush} fails.
+ */
+public class ChangeLog implements AutoCloseable {
+    private static final int MAX_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long RETRY_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    static final int MAX_WRITE_ATTEMPTS = 50;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+    private final boolean sync;
+    private final long appendTimeoutNanos;
+    private final ConsumerOffsets consumers;
+    private final AuditRingBuffer<ChangeEvent> buffer;
+    private final ConcurrentSkipListMap<Long, ChangeLogSegment> segments = new ConcurrentSkipListMap<>();
+    private final ChangeLogBuffer pending = new ChangeLogBuffer(64 * 1024);
+    private final Object appendedMonitor = new Object();
+    private final AtomicLong appended = new AtomicLong();
+    // Appends between their check of closed and their offer; the writer waits for them before its last drain.
+    private final AtomicInteger appending = new AtomicInteger();
+    // Events dropped on a full buffer that the writer has not logged a marker for yet.
+    private final AtomicLong unmarkedLoss = new AtomicLong();
+    private final Thread writer;
+    private final Counter written;
+    private final Counter droppedClosed;
+    private final Counter droppedFull;
+    private final Counter droppedFailed;
+    private final Counter writeErrors;
+    private ChangeLogSegment active;
+    private volatile long endOffset;
+    private volatile long writtenCount;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    /**
+     * A log whose retention does not wait for consumers.
+     */
+    public ChangeLog(Path directory, int capacity, long maxSegmentBytes, int maxSegments, boolean sync,
+                     long appendTimeoutMillis, MetricsRegistry metrics) throws IOException {
+        this(directory, capacity, maxSegmentBytes, maxSegments, sync, appendTimeoutMillis, null, metrics);
+    }
+
+    /**
+     * @param directory       where segment files are kept, created if missing
+     * @param capacity        buffer size, a power of two
+     * @param maxSegmentBytes size at which a new segment is started
+     * @param maxSegments     segments kept, the oldest deleted first; 0 keeps all
+     * @param sync            force every batch to disk before taking the next one
+     * @param appendTimeoutMillis how long {@link #append} waits while the buffer is full
+     * @param consumers       committed consumer offsets that hold back retention, or null
+     */
+    public ChangeLog(Path directory, int capacity, long maxSegmentBytes, int maxSegments, boolean sync,
+                     long appendTimeoutMillis, ConsumerOffsets consumers, MetricsRegistry metrics) throws IOException {
+        if (maxSegmentBytes < 1) {
+            throw new IllegalArgumentException("Max segment size must be positive");
+        }
+        if (maxSegments < 0) {
+            throw new IllegalArgumentException("Max segments cannot be negative");
+        }
+        if (appendTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Append timeout cannot be negative");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = maxSegments;
+        this.sync = sync;
+        this.appendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(appendTimeoutMillis);
+        this.consumers = consumers;
+        this.buffer = new AuditRingBuffer<>(capacity);
+        openSegments();
+        this.written = metrics.counter("banking_cdc_events_written_total", "Change events written to the log");
+        String droppedHelp = "Change events not written to the log";
+        this.droppedClosed = metrics.counter("banking_cdc_dropped_total", droppedHelp, "reason", "closed");
+        this.droppedFull = metrics.counter("banking_cdc_dropped_total", droppedHelp, "reason", "buffer_full");
+        this.droppedFailed = metrics.counter("banking_cdc_dropped_total", droppedHelp, "reason", "writer_failed");
+        this.writeErrors = metrics.counter("banking_cdc_write_errors_total", "Failed change log batch writes");
+        metrics.gauge("banking_cdc_pending", "Change events waiting for the writer", buffer::size);
+        metrics.gauge("banking_cdc_end_offset", "Offset the next change event will get", () -> endOffset);
+        metrics.gauge("banking_cdc_segments", "Change log segment files", segments::size);
+        metrics.gauge("banking_cdc_segments_held", "Segments beyond max-segments kept for consumers",
+                () -> maxSegments > 0 ? Math.max(0, segments.size() - maxSegments) : 0);
+        metrics.gauge("banking_cdc_writer_failed", "1 if the change log writer stopped on an error",
+                () -> failure != null ? 1 : 0);
+        this.writer = new Thread(this::writeLoop, "cdc-writer");
+        writer.setDaemon(true);
+    }
+
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues an event, waiting up to the append timeout while the buffer is full. Events that do
+     * not fit in time are dropped, counted and marked in the log; events appended after
+     * {@link #close} or after the writer failed are dropped and counted.
+     */
+    public void append(ChangeEvent event) {
+        appending.incrementAndGet();
+        try {
+            if (closed) {
+                droppedClosed.increment();
+                return;
+            }
+            if (failure != null) {
+                droppedFailed.increment();
+                return;
+            }
+            if (!buffer.offer(event)) {
+                long deadline = System.nanoTime() + appendTimeoutNanos;
+                do {
+                    if (closed) {
+                        droppedClosed.increment();
+                        return;
+                    }
+                    if (failure != null) {
+                        droppedFailed.increment();
+                        return;
+                    }
+                    if (System.nanoTime() - deadline >= 0) {
+                        droppedFull.increment();
+                        unmarkedLoss.incrementAndGet();
+                        return;
+                    }
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                } while (!buffer.offer(event));
+            }
+            appended.incrementAndGet();
+        } finally {
+            appending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns up to {@code maxEvents} events starting at {@code fromOffset}, waiting up to
+     * {@code waitMillis} for one to be written if there are none yet.
+     *
+     * @throws IllegalArgumentException if {@code fromOffset} is before the {@linkplain #getStartOffset()
+     *                                  start} of the log
+     */
+    public List<ChangeEvent> read(long fromOffset, int maxEvents, long waitMillis)
+            throws IOException, InterruptedException {
+        if (fromOffset < 1) {
+            throw new IllegalArgumentException("Change log offsets start at 1");
+        }
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException("Max events must be positive");
+        }
+        if (endOffset <= fromOffset && waitMillis > 0) {
+            long deadline = System.currentTimeMillis() + waitMillis;
+            synchronized (appendedMonitor) {
+                long remaining = waitMillis;
+                while (endOffset <= fromOffset && remaining > 0 && !closed) {
+                    appendedMonitor.wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+            }
+        }
+        long end = endOffset;
+        if (end <= fromOffset) {
+            checkRetained(fromOffset);
+            return Collections.emptyList();
+        }
+        List<ChangeEvent> events = new ArrayList<>(Math.min(maxEvents, (int) Math.min(end - fromOffset, MAX_BATCH)));
+        Map.Entry<Long, ChangeLogSegment> entry = segments.floorEntry(fromOffset);
+        if (entry == null) {
+            checkRetained(fromOffset);
+        }
+        try {
+            for (ChangeLogSegment segment : segments.tailMap(entry.getKey()).values()) {
+                long from = fromOffset + events.size();
+                if (events.size() >= maxEvents || segment.getBaseOffset() >= end) {
+                    break;
+                }
+                segment.read(from, end, maxEvents, events);
+            }
+        } catch (NoSuchFileException e) {
+            // Deleted by retention while being read.
+            checkRetained(fromOffset + events.size());
+            throw e;
+        }
+        return events;
+    }
+
+    /**
+     * @return the offset of the oldest event still kept
+     */
+    public long getStartOffset() {
+        Map.Entry<Long, ChangeLogSegment> first = segments.firstEntry();
+        return first != null ? first.getKey() : endOffset;
+    }
+
+    /**
+     * @return the offset the next event will get; every event before it can be read
+     */
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedClosed.get() + droppedFull.get() + droppedFailed.get();
+    }
+
+    /**
+     * @return the error that stopped the writer, or null while it is running
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Blocks until every event appended before this call has been written.
+     *
+     * @throws IllegalStateException if the writer is not running
+     */
+    public void flush() throws InterruptedException {
+        long target = appended.get();
+        while (writtenCount < target) {
+            if (failure != null) {
+                throw new IllegalStateException("Change log writer failed", failure);
+            }
+            if (!writer.isAlive()) {
+                throw new IllegalStateException("Change log writer is not running");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Stops accepting events, writes what is queued and closes the active segment. If interrupted
+     * while waiting for the writer, returns with the interrupt status set and the segment open.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (writer.isAlive()) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        synchronized (appendedMonitor) {
+            appendedMonitor.notifyAll();
+        }
+        if (active != null) {
+            active.seal();
+        }
+    }
+
+    private void checkRetained(long offset) {
+        long start = getStartOffset();
+        if (offset < start) {
+            throw new IllegalArgumentException("Offset " + offset + " is before the start of the change log (" + start
+                    + ")");
+        }
+    }
+
+    private void openSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(ChangeLogSegment::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+        for (int i = 0; i < files.size(); i++) {
+            ChangeLogSegment segment = i == files.size() - 1
+                    ? ChangeLogSegment.recover(files.get(i)) : ChangeLogSegment.open(files.get(i));
+            segments.put(segment.getBaseOffset(), segment);
+            active = segment;
+        }
+        endOffset = active != null ? active.getNextOffset() : 1;
+    }
+
+    private void writeLoop() {
+        List<ChangeEvent> batch = new ArrayList<>(MAX_BATCH);
+        int attempts = 0;
+        try {
+            while (true) {
+                if (batch.isEmpty()) {
+                    buffer.drainTo(batch, MAX_BATCH);
+                    // Dropped events came after those that filled the buffer, so the marker goes after them.
+                    long lost = unmarkedLoss.getAndSet(0);
+                    if (lost > 0) {
+                        batch.add(ChangeEvent.lost(lost, "change buffer full"));
+                    }
+                }
+                if (batch.isEmpty()) {
+                    // Once no append is between its check of closed and its offer, nothing more can arrive.
+                    if (closed && appending.get() == 0 && buffer.drainTo(batch, MAX_BATCH) == 0
+                            && unmarkedLoss.get() == 0) {
+                        return;
+                    }
+                    if (batch.isEmpty()) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                        continue;
+                    }
+                }
+                try {
+                    writeBatch(batch);
+                    attempts = 0;
+                } catch (IOException e) {
+                    writeErrors.increment();
+                    if (++attempts >= MAX_WRITE_ATTEMPTS) {
+                        throw e;
+                    }
+                    LockSupport.parkNanos(RETRY_PARK_NANOS);
+                }
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            fail(e, batch);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    /**
+     * Stops the log for good after the writer failed. What was still queued is counted as dropped;
+     * appends already waiting for room give up.
+     */
+    private void fail(Throwable e, List<ChangeEvent> batch) {
+        // A marker in the batch stands for events already counted as dropped.
+        batch.removeIf(event -> event.getType() == ChangeEvent.Type.EVENTS_LOST);
+        droppedFailed.add(batch.size());
+        batch.clear();
+        failure = e;
+        while (true) {
+            boolean idle = appending.get() == 0;
+            int drained = buffer.drainTo(batch, MAX_BATCH);
+            droppedFailed.add(drained);
+            batch.clear();
+            if (idle && drained == 0) {
+                break;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        synchronized (appendedMonitor) {
+            appendedMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the batch, one call per segment it lands in. Events are removed from the batch as they
+     * are written, so a failed write is retried with the rest.
+     */
+    private void writeBatch(List<ChangeEvent> batch) throws IOException {
+        while (!batch.isEmpty()) {
+            if (active == null || active.getSize() >= maxSegmentBytes) {
+                roll();
+            }
+            ChangeLogSegment segment = active;
+            long firstOffset = segment.getNextOffset();
+            long position = segment.getSize();
+            pending.reset();
+            int count = 0;
+            int markers = 0;
+            while (count < batch.size() && (count == 0 || position + pending.size() < maxSegmentBytes)) {
+                ChangeEvent event = batch.get(count);
+                segment.encode(event, segment.getNextOffset(), position + pending.size(), pending);
+                if (event.getType() == ChangeEvent.Type.EVENTS_LOST) {
+                    markers++;
+                }
+                count++;
+            }
+            segment.write(pending, firstOffset, sync);
+            batch.subList(0, count).clear();
+            // Markers are not appended events, so they do not count towards what flush waits for.
+            written.add(count - markers);
+            writtenCount += count - markers;
+            endOffset = segment.getNextOffset();
+            synchronized (appendedMonitor) {
+                appendedMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        long baseOffset = endOffset;
+        if (active != null) {
+            active.seal();
+        }
+        active = ChangeLogSegment.create(directory, baseOffset);
+        segments.put(baseOffset, active);
+        while (maxSegments > 0 && segments.size() > maxSegments) {
+            long nextBaseOffset = segments.higherKey(segments.firstKey());
+            if (consumers != null && consumers.getLowest() < nextBaseOffset) {
+                // A consumer has not committed past the oldest segment yet.
+                break;
+            }
+            segments.pollFirstEntry().getValue().delete();
+        }
+    }
+}
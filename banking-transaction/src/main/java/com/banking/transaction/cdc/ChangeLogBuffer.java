@@ -0,0 +1,59 @@
+package com.banking.transaction.cdc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Reusable buffer the change log writer encodes a batch of events into before writing it with
+ * one call. Writer thread only.
+ */
+final class ChangeLogBuffer extends ByteArrayOutputStream {
+    private final DataOutputStream data = new DataOutputStream(this);
+    private final CRC32 crc = new CRC32();
+
+    ChangeLogBuffer(int initialBytes) {
+        super(initialBytes);
+    }
+
+    DataOutput data() {
+        return data;
+    }
+
+    /**
+     * Starts an event: reserves room for its length and checksum.
+     *
+     * @return where the event starts, to pass to {@link #finishEvent}
+     */
+    int startEvent() {
+        int start = count;
+        for (int i = 0; i < 8; i++) {
+            write(0);
+        }
+        return start;
+    }
+
+    /**
+     * Fills in the length and checksum of the event started at {@code start}.
+     */
+    void finishEvent(int start) {
+        int length = count - start - 8;
+        crc.reset();
+        crc.update(buf, start + 8, length);
+        putInt(start, length);
+        putInt(start + 4, (int) crc.getValue());
+    }
+
+    ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    private void putInt(int index, int value) {
+        buf[index] = (byte) (value >>> 24);
+        buf[index + 1] = (byte) (value >>> 16);
+        buf[index + 2] = (byte) (value >>> 8);
+        buf[index + 3] = (byte) value;
+    }
+}
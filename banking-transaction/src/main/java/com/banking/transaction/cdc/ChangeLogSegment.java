@@ -0,0 +1,366 @@
+package com.banking.transaction.cdc;
+
+import com.banking.core.domain.Money;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * One file of a {@link ChangeLog}, named after the offset of its first event, e.g.
+ * {@code 00000000000000000001.cdc}.
+ * <p>
+ * Each event is stored as its length, the CRC32 of its bytes and the bytes. A sparse index of
+ * (offset, file position) pairs, one every {@link #INDEX_INTERVAL_BYTES}, lets a read start close to
+ * the requested offset instead of at the beginning of the file. The index is kept in memory: the
+ * active segment builds it as it is written, older segments on their first read.
+ * <p>
+ * Every event fits in {@link #MAX_EVENT_BYTES}, which readers rely on to tell a corrupt length from
+ * a real one: when an event is encoded its description is cut to {@link #MAX_DESCRIPTION_BYTES} and
+ * each other text field to {@link #MAX_FIELD_BYTES}, at a character boundary.
+ */
+final class ChangeLogSegment {
+    static final String SUFFIX = ".cdc";
+    static final int INDEX_INTERVAL_BYTES = 4096;
+    private static final int HEADER_BYTES = 8;
+    static final int MAX_EVENT_BYTES = 1 << 20;
+    static final int MAX_DESCRIPTION_BYTES = 256 * 1024;
+    static final int MAX_FIELD_BYTES = 64 * 1024;
+    private static final ChangeEvent.Type[] TYPES = ChangeEvent.Type.values();
+
+    private final long baseOffset;
+    private final Path file;
+    private FileChannel channel;
+    private volatile long size;
+    private long nextOffset;
+    private long[] indexOffsets = new long[16];
+    private long[] indexPositions = new long[16];
+    private int indexSize;
+    private long lastIndexedPosition = -INDEX_INTERVAL_BYTES;
+    private boolean indexed;
+
+    private ChangeLogSegment(long baseOffset, Path file, long size, boolean indexed) {
+        this.baseOffset = baseOffset;
+        this.file = file;
+        this.size = size;
+        this.nextOffset = baseOffset;
+        this.indexed = indexed;
+    }
+
+    static ChangeLogSegment create(Path directory, long baseOffset) throws IOException {
+        ChangeLogSegment segment = new ChangeLogSegment(baseOffset, directory.resolve(fileName(baseOffset)), 0, true);
+        segment.channel = FileChannel.open(segment.file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return segment;
+    }
+
+    /**
+     * Opens a segment that is no longer written to. Its index is built on first read.
+     */
+    static ChangeLogSegment open(Path file) throws IOException {
+        return new ChangeLogSegment(baseOffsetOf(file), file, Files.size(file), false);
+    }
+
+    /**
+     * Opens the last segment for writing: scans it, cuts off an event that was only partly written
+     * when the process stopped, and builds its index.
+     */
+    static ChangeLogSegment recover(Path file) throws IOException {
+        ChangeLogSegment segment = new ChangeLogSegment(baseOffsetOf(file), file, Files.size(file), false);
+        long valid = segment.buildIndex();
+        segment.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        if (valid < segment.size) {
+            segment.channel.truncate(valid);
+            segment.size = valid;
+        }
+        segment.channel.position(valid);
+        return segment;
+    }
+
+    static boolean isSegmentFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(SUFFIX) && name.length() == 20 + SUFFIX.length();
+    }
+
+    static long baseOffsetOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, SUFFIX);
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the offset the next event appended to this segment gets
+     */
+    long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * Encodes an event with the given offset into {@code out}, which will be written at
+     * {@code position} of this segment. Writer thread only.
+     */
+    void encode(ChangeEvent event, long offset, long position, ChangeLogBuffer out) throws IOException {
+        int start = out.startEvent();
+        DataOutput data = out.data();
+        data.writeLong(offset);
+        data.writeLong(event.getTimestampMillis());
+        data.writeByte(event.getType().ordinal());
+        // 17 fixed bytes, 8 length prefixes, 7 fields and the description stay well under MAX_EVENT_BYTES.
+        writeString(data, event.getAccountId(), MAX_FIELD_BYTES);
+        writeString(data, event.getTransactionId(), MAX_FIELD_BYTES);
+        writeString(data, event.getRelatedAccountId(), MAX_FIELD_BYTES);
+        writeString(data, event.getCustomerId(), MAX_FIELD_BYTES);
+        writeString(data, event.getKind(), MAX_FIELD_BYTES);
+        Money amount = event.getAmount();
+        writeString(data, amount != null ? amount.getAmount().toPlainString() : null, MAX_FIELD_BYTES);
+        writeString(data, amount != null ? amount.getCurrency() : null, MAX_FIELD_BYTES);
+        writeString(data, event.getDescription(), MAX_DESCRIPTION_BYTES);
+        out.finishEvent(start);
+        if (position - lastIndexedPosition >= INDEX_INTERVAL_BYTES) {
+            synchronized (this) {
+                addIndexEntry(offset, position);
+            }
+            lastIndexedPosition = position;
+        }
+        nextOffset = offset + 1;
+    }
+
+    /**
+     * Writes encoded events to the end of the file. If the write fails the file is cut back, so the
+     * same events can be written again. Writer thread only.
+     */
+    void write(ChangeLogBuffer pending, long firstOffset, boolean sync) throws IOException {
+        long start = size;
+        try {
+            ByteBuffer bytes = pending.toByteBuffer();
+            long written = start;
+            while (bytes.hasRemaining()) {
+                written += channel.write(bytes, written);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+            size = written;
+        } catch (IOException e) {
+            nextOffset = firstOffset;
+            synchronized (this) {
+                while (indexSize > 0 && indexPositions[indexSize - 1] >= start) {
+                    indexSize--;
+                }
+                lastIndexedPosition = indexSize > 0 ? indexPositions[indexSize - 1] : -INDEX_INTERVAL_BYTES;
+            }
+            try {
+                channel.truncate(start);
+            } catch (IOException ignored) {
+                // The events are written again from the same position.
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops writing to this segment.
+     */
+    void seal() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    void delete() throws IOException {
+        seal();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Adds the events from {@code fromOffset} up to, not including, {@code endOffset} to
+     * {@code target}, until it holds {@code maxEvents}.
+     */
+    void read(long fromOffset, long endOffset, int maxEvents, List<ChangeEvent> target) throws IOException {
+        long limit = size;
+        long position;
+        synchronized (this) {
+            if (!indexed) {
+                buildIndex();
+            }
+            int entry = Arrays.binarySearch(indexOffsets, 0, indexSize, fromOffset);
+            if (entry < 0) {
+                entry = -entry - 2;
+            }
+            position = entry >= 0 ? indexPositions[entry] : 0;
+        }
+        try (FileChannel reader = FileChannel.open(file, StandardOpenOption.READ)) {
+            reader.position(position);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(reader), 16 * 1024));
+            while (position < limit && target.size() < maxEvents) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                byte[] bytes = readEvent(in, length, checksum, position);
+                position += HEADER_BYTES + length;
+                DataInputStream data = new DataInputStream(new ByteArrayInputStream(bytes));
+                long offset = data.readLong();
+                if (offset >= endOffset) {
+                    return;
+                }
+                if (offset >= fromOffset) {
+                    target.add(decode(offset, data));
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the file, indexing it and counting its events.
+     *
+     * @return the length of the part of the file that holds complete, intact events
+     */
+    private synchronized long buildIndex() throws IOException {
+        indexSize = 0;
+        lastIndexedPosition = -INDEX_INTERVAL_BYTES;
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            while (position < size) {
+                long offset;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    byte[] bytes = readEvent(in, length, checksum, position);
+                    offset = new DataInputStream(new ByteArrayInputStream(bytes)).readLong();
+                    if (offset != nextOffset) {
+                        break;
+                    }
+                    if (position - lastIndexedPosition >= INDEX_INTERVAL_BYTES) {
+                        addIndexEntry(offset, position);
+                        lastIndexedPosition = position;
+                    }
+                    position += HEADER_BYTES + length;
+                } catch (EOFException | CorruptEventException e) {
+                    break;
+                }
+                nextOffset = offset + 1;
+            }
+        }
+        indexed = true;
+        return position;
+    }
+
+    private void addIndexEntry(long offset, long position) {
+        if (indexSize == indexOffsets.length) {
+            indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+            indexPositions = Arrays.copyOf(indexPositions, indexSize * 2);
+        }
+        indexOffsets[indexSize] = offset;
+        indexPositions[indexSize] = position;
+        indexSize++;
+    }
+
+    private byte[] readEvent(DataInputStream in, int length, int checksum, long position) throws IOException {
+        if (length < 17 || length > MAX_EVENT_BYTES) {
+            throw new CorruptEventException("Bad event length " + length + " at " + position + " in " + file);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        if ((int) crc.getValue() != checksum) {
+            throw new CorruptEventException("Checksum mismatch at " + position + " in " + file);
+        }
+        return bytes;
+    }
+
+    private static ChangeEvent decode(long offset, DataInput data) throws IOException {
+        long timestampMillis = data.readLong();
+        int type = data.readUnsignedByte();
+        if (type >= TYPES.length) {
+            throw new IOException("Unknown event type " + type);
+        }
+        String accountId = readString(data);
+        String transactionId = readString(data);
+        String relatedAccountId = readString(data);
+        String customerId = readString(data);
+        String kind = readString(data);
+        String amount = readString(data);
+        String currency = readString(data);
+        String description = readString(data);
+        return new ChangeEvent(offset, timestampMillis, TYPES[type], accountId, transactionId, relatedAccountId,
+                customerId, kind, amount != null ? new Money(new BigDecimal(amount), currency) : null, description);
+    }
+
+    /**
+     * Writes at most {@code maxBytes} of the UTF-8 encoding of {@code value}, cut before the first
+     * character that does not fit.
+     */
+    private static void writeString(DataOutput out, String value, int maxBytes) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        if (length > maxBytes) {
+            length = maxBytes;
+            // Back up over continuation bytes to the start of the character that is cut.
+            while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+                length--;
+            }
+        }
+        out.writeInt(length);
+        out.write(bytes, 0, length);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_EVENT_BYTES) {
+            throw new IOException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * An event whose length or checksum is wrong, e.g. one that was being written when the
+     * process stopped.
+     */
+    static final class CorruptEventException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CorruptEventException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.banking.transaction.cdc;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Positions of the consumers of a {@link ChangeLog}, each kept in its own file
+ * {@code <consumer>.offset} holding the offset of the next event the consumer will read.
+ * <p>
+ * A commit writes a temporary file and renames it over the old one, so a crash leaves either the
+ * old or the new offset, never a torn one. Consumers commit after processing a batch and so see
+ * each event at least once.
+ */
+public class ConsumerOffsets {
+    private static final String SUFFIX = ".offset";
+    private static final Pattern CONSUMER_NAME = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final Path directory;
+    private final boolean sync;
+    private final ConcurrentHashMap<String, Long> offsets = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory where offset files are kept, created if missing; existing ones are loaded
+     * @param sync      force every commit to disk before it returns
+     */
+    public ConsumerOffsets(Path directory, boolean sync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.sync = sync;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SUFFIX))
+                    .collect(Collectors.toList())) {
+                String name = file.getFileName().toString();
+                String text = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).trim();
+                try {
+                    offsets.put(name.substring(0, name.length() - SUFFIX.length()), Long.parseLong(text));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Bad consumer offset in " + file + ": " + text, e);
+                }
+            }
+        }
+    }
+
+    public static boolean isValidConsumer(String consumer) {
+        return consumer != null && CONSUMER_NAME.matcher(consumer).matches();
+    }
+
+    /**
+     * @return the committed offset of a consumer, or 0 if it never committed one
+     */
+    public long get(String consumer) {
+        checkConsumer(consumer);
+        return offsets.getOrDefault(consumer, 0L);
+    }
+
+    /**
+     * @return every consumer with its committed offset, by name
+     */
+    public Map<String, Long> getAll() {
+        return new TreeMap<>(offsets);
+    }
+
+    /**
+     * @return the lowest committed offset of any consumer, or {@link Long#MAX_VALUE} if none committed
+     */
+    public long getLowest() {
+        long lowest = Long.MAX_VALUE;
+        for (long offset : offsets.values()) {
+            lowest = Math.min(lowest, offset);
+        }
+        return lowest;
+    }
+
+    /**
+     * Durably records the offset of the next event a consumer will read.
+     */
+    public synchronized void commit(String consumer, long offset) throws IOException {
+        checkConsumer(consumer);
+        if (offset < 1) {
+            throw new IllegalArgumentException("Change log offsets start at 1");
+        }
+        Path file = directory.resolve(consumer + SUFFIX);
+        Path temporary = directory.resolve(consumer + SUFFIX + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(StandardCharsets.US_ASCII.encode(Long.toString(offset) + "\n"));
+            if (sync) {
+                channel.force(false);
+            }
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        offsets.put(consumer, offset);
+    }
+
+    private static void checkConsumer(String consumer) {
+        if (!isValidConsumer(consumer)) {
+            throw new IllegalArgumentException("Consumer names are 1 to 64 letters, digits, '.', '_' or '-'");
+        }
+    }
+}
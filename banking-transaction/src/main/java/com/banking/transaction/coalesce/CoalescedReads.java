@@ -0,0 +1,106 @@
+package com.banking.transaction.coalesce;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountListener;
+import com.banking.account.service.AccountService;
+import com.banking.core.cache.SingleFlight;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionListener;
+import com.banking.transaction.service.TransactionService;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Account history and customer account lists with concurrent identical queries coalesced (see
+ * {@link SingleFlight}), e.g. when many statements for the same account are requested at once.
+ * <p>
+ * A transaction recorded, stored or removed invalidates the history queries of the accounts it
+ * touches, and an account opened, imported or removed invalidates its customer's list, so a
+ * caller that arrives after a write never shares a query that started before it. The returned
+ * lists are shared and unmodifiable.
+ */
+public class CoalescedReads implements TransactionListener, AccountListener {
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final SingleFlight<String, List<Transaction>> histories;
+    private final SingleFlight<String, List<Account>> customerAccounts;
+
+    public CoalescedReads(AccountService accountService, TransactionService transactionService,
+                          MetricsRegistry metrics) {
+        if (accountService == null) {
+            throw new IllegalArgumentException("AccountService cannot be null");
+        }
+        if (transactionService == null) {
+            throw new IllegalArgumentException("TransactionService cannot be null");
+        }
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.histories = new SingleFlight<>("account_history", metrics);
+        this.customerAccounts = new SingleFlight<>("customer_accounts", metrics);
+    }
+
+    /**
+     * Starts invalidating on writes to the services. Must happen before the reads are used.
+     */
+    public void attach() {
+        accountService.addAccountListener(this);
+        transactionService.addTransactionListener(this);
+    }
+
+    public List<Transaction> getTransactionsByAccount(String accountId) {
+        return histories.execute(accountId,
+                () -> Collections.unmodifiableList(transactionService.getTransactionsByAccount(accountId)));
+    }
+
+    public List<Account> getAccountsByCustomer(String customerId) {
+        return customerAccounts.execute(customerId,
+                () -> Collections.unmodifiableList(accountService.getAccountsByCustomer(customerId)));
+    }
+
+    public SingleFlight<String, List<Transaction>> getHistories() {
+        return histories;
+    }
+
+    public SingleFlight<String, List<Account>> getCustomerAccounts() {
+        return customerAccounts;
+    }
+
+    @Override
+    public void onTransaction(Transaction transaction) {
+        invalidate(transaction);
+    }
+
+    @Override
+    public void onTransactionStored(Transaction transaction) {
+        invalidate(transaction);
+    }
+
+    @Override
+    public void onTransactionRemoved(Transaction transaction) {
+        invalidate(transaction);
+    }
+
+    @Override
+    public void onAccountCreated(Account account) {
+        customerAccounts.invalidate(account.getCustomerId());
+    }
+
+    @Override
+    public void onAccountImported(Account account) {
+        customerAccounts.invalidate(account.getCustomerId());
+    }
+
+    @Override
+    public void onAccountRemoved(Account account) {
+        customerAccounts.invalidate(account.getCustomerId());
+    }
+
+    private void invalidate(Transaction transaction) {
+        histories.invalidate(transaction.getAccountId());
+        if (transaction.getRelatedAccountId() != null) {
+            histories.invalidate(transaction.getRelatedAccountId());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.banking.transaction.domain;
 
 import com.banking.core.domain.Money;
 import com.banking.core.domain.TransactionType;
+import com.banking.core.intern.StringDictionary;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -9,6 +10,9 @@ import java.util.UUID;
 
 /**
  * Represents a banking transaction.
+ * <p>
+ * Account IDs and descriptions are canonicalized through the shared {@link StringDictionary}
+ * instances, so millions of transactions against the same accounts share their strings.
  */
 public class Transaction {
     private final String transactionId;
@@ -31,16 +35,45 @@ public class Transaction {
         }
         
         this.transactionId = UUID.randomUUID().toString();
-        this.accountId = accountId;
+        this.accountId = StringDictionary.IDENTIFIERS.intern(accountId);
         this.type = type;
         this.amount = amount;
         this.timestamp = LocalDateTime.now();
-        this.description = description != null ? description : "";
+        this.description = description != null ? StringDictionary.DESCRIPTIONS.intern(description) : "";
     }
 
     public Transaction(String accountId, TransactionType type, Money amount, String description, String relatedAccountId) {
         this(accountId, type, amount, description);
-        this.relatedAccountId = relatedAccountId;
+        this.relatedAccountId = StringDictionary.IDENTIFIERS.intern(relatedAccountId);
+    }
+
+    /**
+     * Recreates a transaction recorded elsewhere (another node or a log), keeping its ID and timestamp.
+     */
+    public Transaction(String transactionId, String accountId, TransactionType type, Money amount, String description,
+                       String relatedAccountId, LocalDateTime timestamp) {
+        if (transactionId == null || transactionId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Transaction ID cannot be null or empty");
+        }
+        if (accountId == null || accountId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account ID cannot be null or empty");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Transaction type cannot be null");
+        }
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount cannot be null");
+        }
+        if (timestamp == null) {
+            throw new IllegalArgumentException("Timestamp cannot be null");
+        }
+        this.transactionId = transactionId;
+        this.accountId = StringDictionary.IDENTIFIERS.intern(accountId);
+        this.type = type;
+        this.amount = amount;
+        this.timestamp = timestamp;
+        this.description = description != null ? StringDictionary.DESCRIPTIONS.intern(description) : "";
+        this.relatedAccountId = StringDictionary.IDENTIFIERS.intern(relatedAccountId);
     }
 
     public String getTransactionId() {
@@ -0,0 +1,201 @@
+package com.banking.transaction.hotspot;
+
+import com.banking.core.intern.CountMinSketch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Detects accounts that receive a disproportionate share of ledger traffic.
+ * <p>
+ * Every recorded event goes into a {@link CountMinSketch}; the sketch and the event total
+ * are halved once the total reaches {@code windowSize}, so the estimates follow recent
+ * traffic. An account becomes hot when its estimated count is at least {@code hotShare}
+ * of the total (after {@code minSamples} events). The {@code topK} heaviest accounts seen
+ * are tracked for reporting. Once hot, an account stays hot.
+ * <p>
+ * Only one in {@code sampleRate} events is looked at, and accounts that are already hot
+ * are skipped, so the detector's own shared counters do not become the next contention point.
+ * {@code minSamples} and {@code windowSize} count sampled events.
+ */
+public class HotAccountDetector {
+    public static final int DEFAULT_TOP_K = 16;
+    public static final double DEFAULT_HOT_SHARE = 0.05;
+    public static final long DEFAULT_MIN_SAMPLES = 10_000;
+    public static final long DEFAULT_WINDOW_SIZE = 1_000_000;
+    public static final int DEFAULT_SAMPLE_RATE = 8;
+
+    private final CountMinSketch sketch = new CountMinSketch(4, 4096);
+    private final int topK;
+    private final double hotShare;
+    private final long minSamples;
+    private final long windowSize;
+    private final int stripeCount;
+    private final int sampleMask;
+
+    private final AtomicLong total = new AtomicLong();
+    private final ReentrantLock decayLock = new ReentrantLock();
+    private final Set<String> hotAccounts = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> heavyHitters = new HashMap<>();
+
+    public HotAccountDetector() {
+        this(DEFAULT_TOP_K, DEFAULT_HOT_SHARE, DEFAULT_MIN_SAMPLES, DEFAULT_WINDOW_SIZE,
+                DEFAULT_SAMPLE_RATE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param topK        number of heavy hitters to track for reporting
+     * @param hotShare    fraction of all events an account needs to become hot
+     * @param minSamples  events to observe before anything can become hot
+     * @param windowSize  event total at which counts are halved
+     * @param sampleRate  look at one in this many events; rounded up to a power of two
+     * @param stripeCount sub-balances to give a hot account
+     */
+    public HotAccountDetector(int topK, double hotShare, long minSamples, long windowSize,
+                              int sampleRate, int stripeCount) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("Top-K must be positive");
+        }
+        if (hotShare <= 0 || hotShare > 1) {
+            throw new IllegalArgumentException("Hot share must be in (0, 1]");
+        }
+        if (windowSize < 2 || minSamples > windowSize) {
+            throw new IllegalArgumentException("Window size must be at least 2 and not smaller than min samples");
+        }
+        this.topK = topK;
+        this.hotShare = hotShare;
+        this.minSamples = minSamples;
+        this.windowSize = windowSize;
+        this.stripeCount = Math.max(2, stripeCount);
+        int rate = 1;
+        while (rate < sampleRate) {
+            rate <<= 1;
+        }
+        this.sampleMask = rate - 1;
+    }
+
+    /**
+     * Records one event for {@code accountId}.
+     *
+     * @return true exactly once per account, when it first becomes hot
+     */
+    public boolean record(String accountId) {
+        if ((sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0)
+                || hotAccounts.contains(accountId)) {
+            return false;
+        }
+        long estimate = sketch.add(accountId, 1);
+        long seen = total.incrementAndGet();
+        if (seen >= windowSize) {
+            decay();
+        }
+        if (estimate * 2L * topK >= seen) {
+            trackHeavyHitter(accountId, estimate);
+        }
+        if (seen < minSamples || estimate < hotShare * seen) {
+            return false;
+        }
+        return hotAccounts.add(accountId);
+    }
+
+    public boolean isHot(String accountId) {
+        return hotAccounts.contains(accountId);
+    }
+
+    public int getHotAccountCount() {
+        return hotAccounts.size();
+    }
+
+    public int getStripeCount() {
+        return stripeCount;
+    }
+
+    /**
+     * Heaviest accounts by estimated recent event count, largest first.
+     */
+    public List<HeavyHitter> getTopK() {
+        List<HeavyHitter> result = new ArrayList<>();
+        synchronized (heavyHitters) {
+            for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+                result.add(new HeavyHitter(entry.getKey(), entry.getValue()));
+            }
+        }
+        result.sort(Comparator.comparingLong(HeavyHitter::getEstimatedCount).reversed());
+        return Collections.unmodifiableList(result);
+    }
+
+    private void trackHeavyHitter(String accountId, long estimate) {
+        synchronized (heavyHitters) {
+            if (heavyHitters.size() < topK || heavyHitters.containsKey(accountId)) {
+                heavyHitters.put(accountId, estimate);
+                return;
+            }
+            String smallest = null;
+            long smallestCount = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+                if (entry.getValue() < smallestCount) {
+                    smallest = entry.getKey();
+                    smallestCount = entry.getValue();
+                }
+            }
+            if (estimate > smallestCount) {
+                heavyHitters.remove(smallest);
+                heavyHitters.put(accountId, estimate);
+            }
+        }
+    }
+
+    private void decay() {
+        if (!decayLock.tryLock()) {
+            return;
+        }
+        try {
+            long current = total.get();
+            if (current < windowSize) {
+                return;
+            }
+            sketch.decay();
+            total.addAndGet(-(current - current / 2));
+            synchronized (heavyHitters) {
+                heavyHitters.replaceAll((account, count) -> count / 2);
+            }
+        } finally {
+            decayLock.unlock();
+        }
+    }
+
+    /**
+     * An account and its estimated recent event count.
+     */
+    public static class HeavyHitter {
+        private final String accountId;
+        private final long estimatedCount;
+
+        public HeavyHitter(String accountId, long estimatedCount) {
+            this.accountId = accountId;
+            this.estimatedCount = estimatedCount;
+        }
+
+        public String getAccountId() {
+            return accountId;
+        }
+
+        public long getEstimatedCount() {
+            return estimatedCount;
+        }
+
+        @Override
+        public String toString() {
+            return accountId + "=" + estimatedCount;
+        }
+    }
+}
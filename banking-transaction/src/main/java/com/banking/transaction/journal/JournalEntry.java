@@ -0,0 +1,136 @@
+package com.banking.transaction.journal;
+
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+
+/**
+ * One change in the {@link TransactionJournal}: an account being opened, imported, removed, activated
+ * or deactivated, or a transaction being recorded, stored or removed.
+ */
+public final class JournalEntry {
+
+    public enum Type {
+        ACCOUNT_OPENED,
+        ACCOUNT_IMPORTED,
+        ACCOUNT_REMOVED,
+        ACCOUNT_STATUS_CHANGED,
+        /** A transaction executed on the primary; applying it changes balances. */
+        TRANSACTION,
+        /** A transaction executed elsewhere and only stored on the primary, e.g. migrated history. */
+        TRANSACTION_STORED,
+        TRANSACTION_REMOVED;
+
+        public boolean isAccountEntry() {
+            return this == ACCOUNT_OPENED || this == ACCOUNT_IMPORTED || this == ACCOUNT_REMOVED
+                    || this == ACCOUNT_STATUS_CHANGED;
+        }
+    }
+
+    private final long position;
+    private final long appendedAt;
+    private final Type type;
+    private final String accountId;
+    private final String customerId;
+    private final AccountType accountType;
+    private final Money openingBalance;
+    private final boolean active;
+    private final Transaction transaction;
+
+    private JournalEntry(long position, long appendedAt, Type type, String accountId, String customerId,
+                         AccountType accountType, Money openingBalance, boolean active, Transaction transaction) {
+        this.position = position;
+        this.appendedAt = appendedAt;
+        this.type = type;
+        this.accountId = accountId;
+        this.customerId = customerId;
+        this.accountType = accountType;
+        this.openingBalance = openingBalance;
+        this.active = active;
+        this.transaction = transaction;
+    }
+
+    public static JournalEntry accountOpened(long position, long appendedAt, String accountId, String customerId,
+                                             AccountType accountType, Money openingBalance) {
+        return new JournalEntry(position, appendedAt, Type.ACCOUNT_OPENED, accountId, customerId, accountType,
+                openingBalance, true, null);
+    }
+
+    public static JournalEntry accountImported(long position, long appendedAt, String accountId, String customerId,
+                                               AccountType accountType, Money balance, boolean active) {
+        return new JournalEntry(position, appendedAt, Type.ACCOUNT_IMPORTED, accountId, customerId, accountType,
+                balance, active, null);
+    }
+
+    public static JournalEntry accountRemoved(long position, long appendedAt, String accountId) {
+        return new JournalEntry(position, appendedAt, Type.ACCOUNT_REMOVED, accountId, null, null, null, false, null);
+    }
+
+    public static JournalEntry accountStatusChanged(long position, long appendedAt, String accountId, boolean active) {
+        return new JournalEntry(position, appendedAt, Type.ACCOUNT_STATUS_CHANGED, accountId, null, null, null,
+                active, null);
+    }
+
+    public static JournalEntry transaction(long position, long appendedAt, Transaction transaction) {
+        return transaction(position, appendedAt, Type.TRANSACTION, transaction);
+    }
+
+    /**
+     * @param type {@link Type#TRANSACTION}, {@link Type#TRANSACTION_STORED} or {@link Type#TRANSACTION_REMOVED}
+     */
+    public static JournalEntry transaction(long position, long appendedAt, Type type, Transaction transaction) {
+        if (type.isAccountEntry()) {
+            throw new IllegalArgumentException("Not a transaction entry: " + type);
+        }
+        return new JournalEntry(position, appendedAt, type, transaction.getAccountId(), null, null, null, false,
+                transaction);
+    }
+
+    /**
+     * Position in the journal, starting at 1 and increasing by 1 per entry.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Wall-clock time (epoch milliseconds) at which the entry was appended on the primary.
+     */
+    public long getAppendedAt() {
+        return appendedAt;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public AccountType getAccountType() {
+        return accountType;
+    }
+
+    /**
+     * Balance of an opened or imported account when it was added.
+     */
+    public Money getOpeningBalance() {
+        return openingBalance;
+    }
+
+    /**
+     * Status of an imported account, or the new status of an account that was activated or deactivated.
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+}
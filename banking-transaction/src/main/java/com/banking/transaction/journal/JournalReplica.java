@@ -0,0 +1,115 @@
+package com.banking.transaction.journal;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+
+/**
+ * Applies a primary's {@link TransactionJournal} to local services and tracks how far it got.
+ * <p>
+ * Entries must be applied in journal order; entries at or below the applied position are ignored,
+ * so a batch that was fetched twice can safely be applied again.
+ */
+public class JournalReplica {
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private long appliedPosition;
+
+    public JournalReplica(AccountService accountService, TransactionService transactionService) {
+        if (accountService == null) {
+            throw new IllegalArgumentException("AccountService cannot be null");
+        }
+        if (transactionService == null) {
+            throw new IllegalArgumentException("TransactionService cannot be null");
+        }
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+    }
+
+    public void apply(JournalEntry entry) {
+        synchronized (this) {
+            if (entry.getPosition() <= appliedPosition) {
+                return;
+            }
+            if (entry.getPosition() != appliedPosition + 1) {
+                throw new IllegalStateException("Journal gap: expected position " + (appliedPosition + 1)
+                        + " but got " + entry.getPosition());
+            }
+            switch (entry.getType()) {
+                case ACCOUNT_OPENED:
+                    if (!accountService.hasAccount(entry.getAccountId())) {
+                        accountService.importAccount(new Account(entry.getAccountId(), entry.getCustomerId(),
+                                entry.getAccountType(), entry.getOpeningBalance()));
+                    }
+                    break;
+                case ACCOUNT_IMPORTED:
+                    if (!accountService.hasAccount(entry.getAccountId())) {
+                        accountService.importAccount(new Account(entry.getAccountId(), entry.getCustomerId(),
+                                entry.getAccountType(), entry.getOpeningBalance(), entry.isActive()));
+                    }
+                    break;
+                case ACCOUNT_REMOVED:
+                    if (accountService.hasAccount(entry.getAccountId())) {
+                        accountService.removeAccount(entry.getAccountId());
+                    }
+                    break;
+                case ACCOUNT_STATUS_CHANGED:
+                    if (entry.isActive()) {
+                        accountService.activateAccount(entry.getAccountId());
+                    } else {
+                        accountService.deactivateAccount(entry.getAccountId());
+                    }
+                    break;
+                case TRANSACTION:
+                    transactionService.applyTransaction(entry.getTransaction());
+                    break;
+                case TRANSACTION_STORED:
+                    transactionService.recordTransaction(entry.getTransaction());
+                    break;
+                case TRANSACTION_REMOVED:
+                    transactionService.removeTransaction(entry.getTransaction().getTransactionId());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported journal entry: " + entry.getType());
+            }
+            appliedPosition = entry.getPosition();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Drops every local account and transaction and goes back to position 0, so that a new
+     * journal of the primary, e.g. after it restarted, can be applied from its start.
+     */
+    public synchronized void reset() {
+        for (Transaction transaction : transactionService.getAllTransactions()) {
+            transactionService.removeTransaction(transaction.getTransactionId());
+        }
+        for (Account account : accountService.getAllAccounts()) {
+            if (accountService.hasAccount(account.getAccountId())) {
+                accountService.removeAccount(account.getAccountId());
+            }
+        }
+        appliedPosition = 0;
+    }
+
+    public synchronized long getAppliedPosition() {
+        return appliedPosition;
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} until the entry at {@code position} has been applied.
+     *
+     * @return whether it has been applied
+     */
+    public synchronized boolean awaitPosition(long position, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (appliedPosition < position && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+        return appliedPosition >= position;
+    }
+}
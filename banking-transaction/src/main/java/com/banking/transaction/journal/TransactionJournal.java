@@ -0,0 +1,200 @@
+package com.banking.transaction.journal;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountListener;
+import com.banking.account.service.AccountService;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionListener;
+import com.banking.transaction.service.TransactionService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Ordered log of every change to the accounts and transactions of this node, which read
+ * replicas fetch and apply with a {@link JournalReplica}: accounts opened, imported, removed,
+ * activated and deactivated, and transactions executed, stored and removed.
+ * <p>
+ * Transactions are appended while the locks of their accounts are held, so the entries of
+ * any one account appear in the order they were applied. Appending takes a position from a
+ * counter and stores the entry in a ring of the last {@code maxEntries} entries, without a lock
+ * shared by all writers; readers waiting for new entries are woken only when there are any.
+ * <p>
+ * Only that window is kept, in memory: an older position can no longer be read, and a new
+ * journal, e.g. after a restart, starts again at position 1 under a new {@linkplain #getJournalId()
+ * ID}. A replica that sees the ID change starts over from the new journal; one that needs a
+ * position the window has moved past cannot catch up from the journal.
+ */
+public class TransactionJournal implements AccountListener, TransactionListener {
+    private final String journalId = UUID.randomUUID().toString();
+    private final int maxEntries;
+    private final AtomicReferenceArray<JournalEntry> entries;
+    private final AtomicLong lastPosition = new AtomicLong();
+    private final AtomicInteger waitingReaders = new AtomicInteger();
+    private final Object appendedMonitor = new Object();
+
+    /**
+     * @param maxEntries how many of the most recent entries are kept
+     */
+    public TransactionJournal(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new AtomicReferenceArray<>(maxEntries);
+    }
+
+    /**
+     * Starts journaling the changes made through the given services.
+     */
+    public void attach(AccountService accountService, TransactionService transactionService) {
+        accountService.addAccountListener(this);
+        transactionService.addTransactionListener(this);
+    }
+
+    @Override
+    public void onAccountCreated(Account account) {
+        append(position -> JournalEntry.accountOpened(position, System.currentTimeMillis(), account.getAccountId(),
+                account.getCustomerId(), account.getAccountType(), account.getOpeningBalance()));
+    }
+
+    @Override
+    public void onAccountImported(Account account) {
+        append(position -> JournalEntry.accountImported(position, System.currentTimeMillis(), account.getAccountId(),
+                account.getCustomerId(), account.getAccountType(), account.getOpeningBalance(), account.isActive()));
+    }
+
+    @Override
+    public void onAccountRemoved(Account account) {
+        append(position -> JournalEntry.accountRemoved(position, System.currentTimeMillis(), account.getAccountId()));
+    }
+
+    @Override
+    public void onAccountStatusChanged(Account account) {
+        append(position -> JournalEntry.accountStatusChanged(position, System.currentTimeMillis(),
+                account.getAccountId(), account.isActive()));
+    }
+
+    @Override
+    public void onTransaction(Transaction transaction) {
+        append(position -> JournalEntry.transaction(position, System.currentTimeMillis(), transaction));
+    }
+
+    @Override
+    public void onTransactionStored(Transaction transaction) {
+        append(position -> JournalEntry.transaction(position, System.currentTimeMillis(),
+                JournalEntry.Type.TRANSACTION_STORED, transaction));
+    }
+
+    @Override
+    public void onTransactionRemoved(Transaction transaction) {
+        append(position -> JournalEntry.transaction(position, System.currentTimeMillis(),
+                JournalEntry.Type.TRANSACTION_REMOVED, transaction));
+    }
+
+    private void append(LongFunction<JournalEntry> factory) {
+        long position = lastPosition.incrementAndGet();
+        JournalEntry entry = factory.apply(position);
+        int index = indexOf(position);
+        JournalEntry current;
+        do {
+            current = entries.get(index);
+            if (current != null && current.getPosition() > position) {
+                // The window has already moved past this entry.
+                return;
+            }
+        } while (!entries.compareAndSet(index, current, entry));
+        if (waitingReaders.get() > 0) {
+            synchronized (appendedMonitor) {
+                appendedMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return the ID of this journal; positions of journals with different IDs are unrelated
+     */
+    public String getJournalId() {
+        return journalId;
+    }
+
+    public long getLastPosition() {
+        return lastPosition.get();
+    }
+
+    /**
+     * @return the oldest position that can still be read
+     */
+    public long getFirstPosition() {
+        return Math.max(1, lastPosition.get() - maxEntries + 1);
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns up to {@code maxEntries} entries starting at {@code fromPosition}, waiting up to
+     * {@code waitMillis} for one to be appended if there are none yet.
+     *
+     * @throws IllegalArgumentException if {@code fromPosition} is before the {@linkplain #getFirstPosition()
+     *                                  first} position still kept
+     */
+    public List<JournalEntry> read(long fromPosition, int maxEntries, long waitMillis)
+            throws InterruptedException {
+        if (fromPosition < 1) {
+            throw new IllegalArgumentException("Journal positions start at 1");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        if (!isAppended(fromPosition) && waitMillis > 0) {
+            long deadline = System.currentTimeMillis() + waitMillis;
+            synchronized (appendedMonitor) {
+                // Registered before checking, so an append after the check sees the reader and wakes it.
+                waitingReaders.incrementAndGet();
+                try {
+                    long remaining = waitMillis;
+                    while (!isAppended(fromPosition) && remaining > 0) {
+                        appendedMonitor.wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } finally {
+                    waitingReaders.decrementAndGet();
+                }
+            }
+        }
+        List<JournalEntry> batch = new ArrayList<>();
+        for (long position = fromPosition; batch.size() < maxEntries; position++) {
+            JournalEntry entry = entries.get(indexOf(position));
+            if (entry == null || entry.getPosition() < position) {
+                // Not appended yet; later entries wait for it so the batch has no gaps.
+                break;
+            }
+            if (entry.getPosition() > position) {
+                if (batch.isEmpty()) {
+                    throw new IllegalArgumentException("Position " + position + " is before the start of the journal ("
+                            + getFirstPosition() + ")");
+                }
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch.isEmpty() ? Collections.emptyList() : batch;
+    }
+
+    private boolean isAppended(long position) {
+        JournalEntry entry = entries.get(indexOf(position));
+        return entry != null && entry.getPosition() >= position;
+    }
+
+    private int indexOf(long position) {
+        return (int) ((position - 1) % maxEntries);
+    }
+}
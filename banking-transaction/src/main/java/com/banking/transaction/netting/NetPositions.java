@@ -0,0 +1,122 @@
+package com.banking.transaction.netting;
+
+import com.banking.core.domain.Money;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Net balance change per account of a batch of transfers: what the account receives minus what
+ * it sends, along with how many transfers it sends and their total. Computed in one pass over the batch; accounts are ordered by ID, which is also the
+ * order in which {@code TransactionService} locks them.
+ */
+public final class NetPositions {
+    private final String[] accountIds;
+    private final Money[] nets;
+    private final int[] debitCounts;
+    private final Money[] debited;
+
+    private NetPositions(String[] accountIds, Money[] nets, int[] debitCounts, Money[] debited) {
+        this.accountIds = accountIds;
+        this.nets = nets;
+        this.debitCounts = debitCounts;
+        this.debited = debited;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the batch is empty or an account appears with two currencies
+     */
+    public static NetPositions of(List<TransferInstruction> instructions) {
+        if (instructions == null || instructions.isEmpty()) {
+            throw new IllegalArgumentException("Settlement batch cannot be empty");
+        }
+        Map<String, Position> positions = new HashMap<>();
+        for (TransferInstruction instruction : instructions) {
+            Money amount = instruction.getAmount();
+            position(positions, instruction.getFromAccountId(), amount.getCurrency()).debit(amount.getAmount());
+            position(positions, instruction.getToAccountId(), amount.getCurrency()).add(amount.getAmount());
+        }
+        String[] accountIds = positions.keySet().toArray(new String[0]);
+        Arrays.sort(accountIds);
+        Money[] nets = new Money[accountIds.length];
+        int[] debitCounts = new int[accountIds.length];
+        Money[] debited = new Money[accountIds.length];
+        for (int i = 0; i < accountIds.length; i++) {
+            Position position = positions.get(accountIds[i]);
+            nets[i] = new Money(position.net, position.currency);
+            debitCounts[i] = position.debitCount;
+            debited[i] = new Money(position.debited, position.currency);
+        }
+        return new NetPositions(accountIds, nets, debitCounts, debited);
+    }
+
+    private static Position position(Map<String, Position> positions, String accountId, String currency) {
+        Position position = positions.get(accountId);
+        if (position == null) {
+            position = new Position(currency);
+            positions.put(accountId, position);
+        } else if (!position.currency.equals(currency)) {
+            throw new IllegalArgumentException("Account " + accountId + " has transfers in " + position.currency
+                    + " and " + currency);
+        }
+        return position;
+    }
+
+    public int size() {
+        return accountIds.length;
+    }
+
+    public String getAccountId(int index) {
+        return accountIds[index];
+    }
+
+    public Money getNet(int index) {
+        return nets[index];
+    }
+
+    /**
+     * @return how many transfers of the batch the account sends
+     */
+    public int getDebitCount(int index) {
+        return debitCounts[index];
+    }
+
+    /**
+     * @return the total the account sends, before netting
+     */
+    public Money getDebited(int index) {
+        return debited[index];
+    }
+
+    /**
+     * @return the net change of the account, or null if the batch does not involve it
+     */
+    public Money getNet(String accountId) {
+        int index = Arrays.binarySearch(accountIds, accountId);
+        return index >= 0 ? nets[index] : null;
+    }
+
+    private static final class Position {
+        private final String currency;
+        private BigDecimal net = BigDecimal.ZERO;
+        private BigDecimal debited = BigDecimal.ZERO;
+        private int debitCount;
+
+        Position(String currency) {
+            this.currency = currency;
+        }
+
+        void add(BigDecimal amount) {
+            net = net.add(amount);
+        }
+
+        void debit(BigDecimal amount) {
+            net = net.subtract(amount);
+            debited = debited.add(amount);
+            debitCount++;
+        }
+    }
+}
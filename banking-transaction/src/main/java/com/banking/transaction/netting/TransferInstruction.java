@@ -0,0 +1,47 @@
+package com.banking.transaction.netting;
+
+import com.banking.core.domain.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * One transfer of a settlement batch, see {@link com.banking.transaction.service.TransactionService#settleNetted}.
+ */
+public final class TransferInstruction {
+    private final String fromAccountId;
+    private final String toAccountId;
+    private final Money amount;
+    private final String description;
+
+    public TransferInstruction(String fromAccountId, String toAccountId, Money amount, String description) {
+        if (fromAccountId == null || fromAccountId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Source account ID cannot be null or empty");
+        }
+        if (toAccountId == null || toAccountId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Destination account ID cannot be null or empty");
+        }
+        if (amount == null || amount.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public String getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public String getToAccountId() {
+        return toAccountId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,195 @@
+package com.banking.transaction.posting;
+
+import com.banking.core.domain.Money;
+import com.banking.transaction.store.SlabTransactionStore;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The legs posted to one customer account, in posting order, with the running total per currency.
+ * <p>
+ * Legs are kept in parallel primitive arrays rather than as {@link Posting} objects: the
+ * transaction ID as the two longs of its UUID, the amount as an unscaled long with its scale, and
+ * the currency as an index into the list's own small table of currencies. IDs that are not
+ * canonical UUIDs and amounts beyond 63 bits are kept as objects in side arrays that are only
+ * allocated once a leg needs them. Callers synchronize on the list.
+ */
+final class LegList {
+    private final String accountId;
+    private long[] idHighs = new long[4];
+    private long[] idLows = new long[4];
+    private long[] unscaledAmounts = new long[4];
+    private byte[] scales = new byte[4];
+    private short[] currencyRefs = new short[4];
+    private String[] otherIds;
+    private BigDecimal[] otherAmounts;
+    private int size;
+    private String[] currencies = new String[1];
+    private BigDecimal[] totals = new BigDecimal[1];
+    private int currencyCount;
+
+    LegList(String accountId) {
+        this.accountId = accountId;
+    }
+
+    void append(String transactionId, BigDecimal amount, String currency) {
+        if (size == idHighs.length) {
+            grow(size * 2);
+        }
+        if (SlabTransactionStore.isUuid(transactionId)) {
+            idHighs[size] = SlabTransactionStore.uuidHigh(transactionId);
+            idLows[size] = SlabTransactionStore.uuidLow(transactionId);
+        } else {
+            if (otherIds == null) {
+                otherIds = new String[idHighs.length];
+            }
+            otherIds[size] = transactionId;
+        }
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() < 64 && amount.scale() >= Byte.MIN_VALUE && amount.scale() <= Byte.MAX_VALUE) {
+            unscaledAmounts[size] = unscaled.longValue();
+            scales[size] = (byte) amount.scale();
+        } else {
+            if (otherAmounts == null) {
+                otherAmounts = new BigDecimal[idHighs.length];
+            }
+            otherAmounts[size] = amount;
+        }
+        int ref = currencyRef(currency);
+        currencyRefs[size] = (short) ref;
+        size++;
+        totals[ref] = totals[ref].add(amount);
+    }
+
+    /**
+     * Removes every leg of the transaction.
+     */
+    void remove(String transactionId) {
+        boolean uuid = SlabTransactionStore.isUuid(transactionId);
+        long high = uuid ? SlabTransactionStore.uuidHigh(transactionId) : 0;
+        long low = uuid ? SlabTransactionStore.uuidLow(transactionId) : 0;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            String otherId = otherIds != null ? otherIds[i] : null;
+            boolean match = uuid ? otherId == null && idHighs[i] == high && idLows[i] == low
+                    : transactionId.equals(otherId);
+            if (match) {
+                int ref = currencyRefs[i];
+                totals[ref] = totals[ref].subtract(amount(i));
+            } else {
+                move(i, kept);
+                kept++;
+            }
+        }
+        if (otherIds != null) {
+            Arrays.fill(otherIds, kept, size, null);
+        }
+        if (otherAmounts != null) {
+            Arrays.fill(otherAmounts, kept, size, null);
+        }
+        size = kept;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String getTransactionId(int index) {
+        if (otherIds != null && otherIds[index] != null) {
+            return otherIds[index];
+        }
+        return new UUID(idHighs[index], idLows[index]).toString();
+    }
+
+    /**
+     * Whether two legs belong to the same transaction, without rebuilding either ID.
+     */
+    boolean isSameTransaction(int a, int b) {
+        String otherA = otherIds != null ? otherIds[a] : null;
+        String otherB = otherIds != null ? otherIds[b] : null;
+        if (otherA != null || otherB != null) {
+            return otherA != null && otherA.equals(otherB);
+        }
+        return idHighs[a] == idHighs[b] && idLows[a] == idLows[b];
+    }
+
+    List<Posting> toPostings() {
+        List<Posting> postings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            postings.add(new Posting(getTransactionId(i), accountId, new Money(amount(i), currencies[currencyRefs[i]])));
+        }
+        return postings;
+    }
+
+    Map<String, BigDecimal> getTotals() {
+        Map<String, BigDecimal> byCurrency = new HashMap<>(currencyCount * 2);
+        for (int i = 0; i < currencyCount; i++) {
+            byCurrency.put(currencies[i], totals[i]);
+        }
+        return byCurrency;
+    }
+
+    private BigDecimal amount(int index) {
+        if (otherAmounts != null && otherAmounts[index] != null) {
+            return otherAmounts[index];
+        }
+        return BigDecimal.valueOf(unscaledAmounts[index], scales[index]);
+    }
+
+    private int currencyRef(String currency) {
+        for (int i = 0; i < currencyCount; i++) {
+            if (currencies[i].equals(currency)) {
+                return i;
+            }
+        }
+        if (currencyCount == Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many currencies posted to account " + accountId);
+        }
+        if (currencyCount == currencies.length) {
+            currencies = Arrays.copyOf(currencies, currencyCount * 2);
+            totals = Arrays.copyOf(totals, currencyCount * 2);
+        }
+        currencies[currencyCount] = currency;
+        totals[currencyCount] = BigDecimal.ZERO;
+        return currencyCount++;
+    }
+
+    private void move(int from, int to) {
+        idHighs[to] = idHighs[from];
+        idLows[to] = idLows[from];
+        unscaledAmounts[to] = unscaledAmounts[from];
+        scales[to] = scales[from];
+        currencyRefs[to] = currencyRefs[from];
+        if (otherIds != null) {
+            otherIds[to] = otherIds[from];
+        }
+        if (otherAmounts != null) {
+            otherAmounts[to] = otherAmounts[from];
+        }
+    }
+
+    private void grow(int capacity) {
+        idHighs = Arrays.copyOf(idHighs, capacity);
+        idLows = Arrays.copyOf(idLows, capacity);
+        unscaledAmounts = Arrays.copyOf(unscaledAmounts, capacity);
+        scales = Arrays.copyOf(scales, capacity);
+        currencyRefs = Arrays.copyOf(currencyRefs, capacity);
+        if (otherIds != null) {
+            otherIds = Arrays.copyOf(otherIds, capacity);
+        }
+        if (otherAmounts != null) {
+            otherAmounts = Arrays.copyOf(otherAmounts, capacity);
+        }
+    }
+}
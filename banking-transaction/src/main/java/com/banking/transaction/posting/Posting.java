@@ -0,0 +1,50 @@
+package com.banking.transaction.posting;
+
+import com.banking.core.domain.Money;
+
+/**
+ * One leg of a posted transaction: a signed change to one account. Positive amounts credit the
+ * account (its balance goes up), negative amounts debit it. The legs of a transaction sum to zero
+ * in each currency.
+ */
+public final class Posting {
+    private final String transactionId;
+    private final String accountId;
+    private final Money amount;
+
+    public Posting(String transactionId, String accountId, Money amount) {
+        if (transactionId == null || transactionId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Transaction ID cannot be null or empty");
+        }
+        if (accountId == null || accountId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Account ID cannot be null or empty");
+        }
+        if (amount == null) {
+            throw new IllegalArgumentException("Amount cannot be null");
+        }
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.amount = amount;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public boolean isDebit() {
+        return amount.getAmount().signum() < 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Posting{transactionId='" + transactionId + "', accountId='" + accountId + "', amount=" + amount + "}";
+    }
+}
@@ -0,0 +1,255 @@
+package com.banking.transaction.posting;
+
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Double-entry view of the recorded transactions.
+ * <p>
+ * Every transaction is posted as balanced legs (see {@link #legsOf}): a transfer debits the
+ * source and credits the destination; deposits, withdrawals and interest are balanced against the
+ * internal {@link #CLEARING_ACCOUNT}, and each leg of a cross-currency transfer against the
+ * internal {@link #SUSPENSE_ACCOUNT} in that leg's currency. Customer accounts keep their legs in
+ * posting order, so an account's history is a scan of its own legs. Internal accounts, which
+ * take a leg of almost every transaction, keep only running totals, striped so that concurrent
+ * postings do not contend on them.
+ * <p>
+ * Because each posting sums to zero per currency, so do all accounts together;
+ * {@link #getImbalances()} checks that from the running totals without reading any legs.
+ */
+public class PostingEngine {
+    public static final String CLEARING_ACCOUNT = "#CLEARING";
+    public static final String SUSPENSE_ACCOUNT = "#SUSPENSE";
+
+    private final ConcurrentHashMap<String, LegList> legLists = new ConcurrentHashMap<>();
+    private final Map<String, InternalAccount> internalAccounts = Map.of(
+            CLEARING_ACCOUNT, new InternalAccount(),
+            SUSPENSE_ACCOUNT, new InternalAccount());
+
+    /**
+     * @return the balanced legs of a transaction, the transaction's own account first
+     */
+    public static List<Posting> legsOf(Transaction transaction) {
+        String transactionId = transaction.getTransactionId();
+        String accountId = transaction.getAccountId();
+        Money amount = transaction.getAmount();
+        Money negated = new Money(amount.getAmount().negate(), amount.getCurrency());
+        switch (transaction.getType()) {
+            case DEPOSIT:
+            case INTEREST_CREDIT:
+                return Arrays.asList(new Posting(transactionId, accountId, amount),
+                        new Posting(transactionId, CLEARING_ACCOUNT, negated));
+            case WITHDRAWAL:
+                return Arrays.asList(new Posting(transactionId, accountId, negated),
+                        new Posting(transactionId, CLEARING_ACCOUNT, amount));
+            case TRANSFER:
+                return Arrays.asList(new Posting(transactionId, accountId, negated),
+                        new Posting(transactionId, transaction.getRelatedAccountId(), amount));
+            case FX_TRANSFER_OUT:
+                return Arrays.asList(new Posting(transactionId, accountId, negated),
+                        new Posting(transactionId, SUSPENSE_ACCOUNT, amount));
+            case FX_TRANSFER_IN:
+                return Arrays.asList(new Posting(transactionId, accountId, amount),
+                        new Posting(transactionId, SUSPENSE_ACCOUNT, negated));
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type: " + transaction.getType());
+        }
+    }
+
+    public static boolean isInternalAccount(String accountId) {
+        return CLEARING_ACCOUNT.equals(accountId) || SUSPENSE_ACCOUNT.equals(accountId);
+    }
+
+    public void post(Transaction transaction) {
+        for (Posting leg : legsOf(transaction)) {
+            Money amount = leg.getAmount();
+            InternalAccount internal = internalAccounts.get(leg.getAccountId());
+            if (internal != null) {
+                internal.add(amount.getCurrency(), amount.getAmount());
+            } else {
+                legLists.compute(leg.getAccountId(), (accountId, legs) -> {
+                    LegList list = legs != null ? legs : new LegList(accountId);
+                    synchronized (list) {
+                        list.append(leg.getTransactionId(), amount.getAmount(), amount.getCurrency());
+                    }
+                    return list;
+                });
+            }
+        }
+    }
+
+    /**
+     * Posts a batch: the legs are grouped by account first, so each customer account is updated
+     * once with all its legs in batch order, and each internal account once per currency.
+     */
+    public void postAll(List<Transaction> batch) {
+        Map<String, List<Posting>> byAccount = new LinkedHashMap<>();
+        Map<String, Map<String, BigDecimal>> internalTotals = new HashMap<>();
+        for (Transaction transaction : batch) {
+            for (Posting leg : legsOf(transaction)) {
+                if (internalAccounts.containsKey(leg.getAccountId())) {
+                    internalTotals.computeIfAbsent(leg.getAccountId(), id -> new HashMap<>())
+                            .merge(leg.getAmount().getCurrency(), leg.getAmount().getAmount(), BigDecimal::add);
+                } else {
+                    byAccount.computeIfAbsent(leg.getAccountId(), id -> new ArrayList<>()).add(leg);
+                }
+            }
+        }
+        for (Map.Entry<String, List<Posting>> entry : byAccount.entrySet()) {
+            legLists.compute(entry.getKey(), (accountId, legs) -> {
+                LegList list = legs != null ? legs : new LegList(accountId);
+                synchronized (list) {
+                    for (Posting leg : entry.getValue()) {
+                        list.append(leg.getTransactionId(), leg.getAmount().getAmount(), leg.getAmount().getCurrency());
+                    }
+                }
+                return list;
+            });
+        }
+        internalTotals.forEach((accountId, totals) ->
+                totals.forEach(internalAccounts.get(accountId)::add));
+    }
+
+    /**
+     * Removes the legs of a transaction that is no longer stored, e.g. one that moved to another
+     * shard with its accounts.
+     */
+    public void unpost(Transaction transaction) {
+        for (Posting leg : legsOf(transaction)) {
+            InternalAccount internal = internalAccounts.get(leg.getAccountId());
+            if (internal != null) {
+                internal.add(leg.getAmount().getCurrency(), leg.getAmount().getAmount().negate());
+            } else {
+                legLists.computeIfPresent(leg.getAccountId(), (accountId, list) -> {
+                    synchronized (list) {
+                        list.remove(leg.getTransactionId());
+                        return list.isEmpty() ? null : list;
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * @return the legs posted to a customer account, oldest first
+     */
+    public List<Posting> getPostings(String accountId) {
+        LegList list = legLists.get(accountId);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        synchronized (list) {
+            return list.toPostings();
+        }
+    }
+
+    /**
+     * @return the IDs of the transactions with a leg on a customer account, newest first, each once
+     */
+    public List<String> getTransactionIds(String accountId) {
+        LegList list = legLists.get(accountId);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        List<String> transactionIds;
+        synchronized (list) {
+            transactionIds = new ArrayList<>(list.size());
+            for (int i = list.size() - 1; i >= 0; i--) {
+                // Both legs of a transfer to the same account are adjacent.
+                if (i == list.size() - 1 || !list.isSameTransaction(i, i + 1)) {
+                    transactionIds.add(list.getTransactionId(i));
+                }
+            }
+        }
+        return transactionIds;
+    }
+
+    /**
+     * @return the sum of the legs posted to an account, per currency; for a customer account this is
+     * its balance change since it was opened
+     */
+    public Map<String, BigDecimal> getPostedTotals(String accountId) {
+        InternalAccount internal = internalAccounts.get(accountId);
+        if (internal != null) {
+            return internal.getTotals();
+        }
+        LegList list = legLists.get(accountId);
+        if (list == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (list) {
+            return new TreeMap<>(list.getTotals());
+        }
+    }
+
+    /**
+     * Sums the running totals of all accounts per currency. Every posting is balanced, so the result
+     * is empty unless legs were lost or altered. Postings made while the totals are read can show as
+     * a transient imbalance.
+     *
+     * @return the currencies whose legs do not sum to zero, with the difference
+     */
+    public Map<String, BigDecimal> getImbalances() {
+        Map<String, BigDecimal> sums = new TreeMap<>();
+        for (LegList list : legLists.values()) {
+            synchronized (list) {
+                list.getTotals().forEach((currency, total) -> sums.merge(currency, total, BigDecimal::add));
+            }
+        }
+        for (InternalAccount internal : internalAccounts.values()) {
+            internal.getTotals().forEach((currency, total) -> sums.merge(currency, total, BigDecimal::add));
+        }
+        sums.values().removeIf(sum -> sum.signum() == 0);
+        return sums;
+    }
+
+    /**
+     * @return the number of customer accounts with posted legs
+     */
+    public int getAccountCount() {
+        return legLists.size();
+    }
+
+    /**
+     * Running totals per currency of an internal account, spread over stripes picked by thread.
+     */
+    private static final class InternalAccount {
+        private static final int STRIPES = 16;
+
+        private final List<Map<String, BigDecimal>> stripes = new ArrayList<>(STRIPES);
+
+        InternalAccount() {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.add(new HashMap<>(4));
+            }
+        }
+
+        void add(String currency, BigDecimal amount) {
+            Map<String, BigDecimal> stripe = stripes.get((int) Thread.currentThread().getId() & (STRIPES - 1));
+            synchronized (stripe) {
+                stripe.merge(currency, amount, BigDecimal::add);
+            }
+        }
+
+        Map<String, BigDecimal> getTotals() {
+            Map<String, BigDecimal> totals = new TreeMap<>();
+            for (Map<String, BigDecimal> stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.forEach((currency, total) -> totals.merge(currency, total, BigDecimal::add));
+                }
+            }
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.banking.transaction.reconcile;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountListener;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.Money;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionListener;
+import com.banking.transaction.service.TransactionService;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running digest of what every account's balance should be according to its history.
+ * <p>
+ * For each account it keeps the opening balance (the balance when the account was opened or
+ * imported) and the signed sum of the effects of every transaction stored for it since, updated as
+ * {@link TransactionService} stores or removes transactions. Effects on accounts that are not open
+ * here, such as the remote side of a cross-shard transfer or history migrated ahead of its account,
+ * are not kept: the opening balance already includes anything stored before the account opens.
+ * Accounts are spread over a power-of-two number of leaves by a hash of their ID.
+ * Each leaf keeps the sum of the hashes of its accounts' expected balances (see {@link #entryHash}),
+ * which can be updated in constant time when one account changes, plus per-currency totals.
+ * {@link #tree()} arranges the leaves as a {@link MerkleTree}.
+ * <p>
+ * Callbacks run on the request path, under the account locks, and only touch one leaf lock.
+ */
+public class LedgerDigest implements TransactionListener, AccountListener {
+    private final Leaf[] leaves;
+    private final int mask;
+
+    /**
+     * @param leafCount number of leaves, a power of two
+     */
+    public LedgerDigest(int leafCount) {
+        if (leafCount <= 0 || Integer.bitCount(leafCount) != 1) {
+            throw new IllegalArgumentException("Leaf count must be a power of two");
+        }
+        this.leaves = new Leaf[leafCount];
+        for (int i = 0; i < leafCount; i++) {
+            leaves[i] = new Leaf();
+        }
+        this.mask = leafCount - 1;
+    }
+
+    /**
+     * Starts following the given services. Accounts and transactions that already exist are not counted,
+     * so this should happen before the services are used.
+     */
+    public void attach(AccountService accountService, TransactionService transactionService) {
+        accountService.addAccountListener(this);
+        transactionService.addTransactionListener(this);
+    }
+
+    public int getLeafCount() {
+        return leaves.length;
+    }
+
+    public int leafOf(String accountId) {
+        return (int) MerkleTree.mix(hash64(accountId)) & mask;
+    }
+
+    /**
+     * @return the balance the account should have according to its history, or null for an account
+     * that was never opened or imported here (or has been removed)
+     */
+    public Money getExpectedBalance(String accountId) {
+        Leaf leaf = leaves[leafOf(accountId)];
+        synchronized (leaf) {
+            Entry entry = leaf.entries.get(accountId);
+            return entry != null ? entry.expected() : null;
+        }
+    }
+
+    /**
+     * @return the expected balances of the accounts in one leaf
+     */
+    public Map<String, Money> getLeafEntries(int leaf) {
+        Leaf target = leaves[leaf];
+        Map<String, Money> expected = new TreeMap<>();
+        synchronized (target) {
+            for (Map.Entry<String, Entry> entry : target.entries.entrySet()) {
+                expected.put(entry.getKey(), entry.getValue().expected());
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * @return the sum of all expected balances, per currency
+     */
+    public Map<String, BigDecimal> getTotals() {
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        for (Leaf leaf : leaves) {
+            synchronized (leaf) {
+                leaf.totals.forEach((currency, total) -> totals.merge(currency, total, BigDecimal::add));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * @return the number of transaction effects applied so far, less those removed
+     */
+    public long getTransactionEffectCount() {
+        long count = 0;
+        for (Leaf leaf : leaves) {
+            synchronized (leaf) {
+                count += leaf.effects;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the current leaf hashes arranged as a Merkle tree
+     */
+    public MerkleTree tree() {
+        long[] hashes = new long[leaves.length];
+        for (int i = 0; i < leaves.length; i++) {
+            Leaf leaf = leaves[i];
+            synchronized (leaf) {
+                hashes[i] = leaf.hash;
+            }
+        }
+        return MerkleTree.fromLeaves(hashes);
+    }
+
+    @Override
+    public void onAccountCreated(Account account) {
+        open(account);
+    }
+
+    @Override
+    public void onAccountImported(Account account) {
+        open(account);
+    }
+
+    @Override
+    public void onAccountRemoved(Account account) {
+        Leaf leaf = leaves[leafOf(account.getAccountId())];
+        synchronized (leaf) {
+            Entry entry = leaf.entries.remove(account.getAccountId());
+            if (entry != null) {
+                leaf.remove(entry);
+            }
+        }
+    }
+
+    @Override
+    public void onTransaction(Transaction transaction) {
+        applyEffects(transaction, false);
+    }
+
+    @Override
+    public void onTransactionStored(Transaction transaction) {
+        applyEffects(transaction, false);
+    }
+
+    @Override
+    public void onTransactionRemoved(Transaction transaction) {
+        applyEffects(transaction, true);
+    }
+
+    private void open(Account account) {
+        String accountId = account.getAccountId();
+        Money balance = account.getBalance();
+        Leaf leaf = leaves[leafOf(accountId)];
+        synchronized (leaf) {
+            Entry entry = leaf.entries.get(accountId);
+            if (entry != null) {
+                leaf.remove(entry);
+            }
+            entry = new Entry(accountId, balance);
+            leaf.entries.put(accountId, entry);
+            leaf.add(entry);
+        }
+    }
+
+    private void applyEffects(Transaction transaction, boolean undo) {
+        BigDecimal amount = undo ? transaction.getAmount().getAmount().negate() : transaction.getAmount().getAmount();
+        switch (transaction.getType()) {
+            case DEPOSIT:
+            case INTEREST_CREDIT:
+            case FX_TRANSFER_IN:
+                apply(transaction.getAccountId(), amount);
+                break;
+            case WITHDRAWAL:
+            case FX_TRANSFER_OUT:
+                apply(transaction.getAccountId(), amount.negate());
+                break;
+            case TRANSFER:
+                apply(transaction.getAccountId(), amount.negate());
+                apply(transaction.getRelatedAccountId(), amount);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void apply(String accountId, BigDecimal delta) {
+        Leaf leaf = leaves[leafOf(accountId)];
+        synchronized (leaf) {
+            Entry entry = leaf.entries.get(accountId);
+            if (entry == null) {
+                return;
+            }
+            leaf.remove(entry);
+            entry.history = entry.history.add(delta);
+            leaf.add(entry);
+            leaf.effects++;
+        }
+    }
+
+    /**
+     * Order-independent hash of one account's balance. Amounts that differ only in trailing zeros hash
+     * the same, so the hash of a balance and of the same value summed from history agree.
+     */
+    public static long entryHash(String accountId, Money balance) {
+        BigDecimal amount = balance.getAmount();
+        BigDecimal normalized = amount.signum() == 0 ? BigDecimal.ZERO : amount.stripTrailingZeros();
+        long unscaled = normalized.unscaledValue().bitLength() < 64
+                ? normalized.unscaledValue().longValue()
+                : hash64(normalized.unscaledValue().toString());
+        long hash = MerkleTree.mix(hash64(accountId) ^ Long.rotateLeft(hash64(balance.getCurrency()), 17));
+        hash = MerkleTree.mix(hash + unscaled * 0x9E3779B97F4A7C15L);
+        return MerkleTree.mix(hash ^ normalized.scale());
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters of a string.
+     */
+    static long hash64(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static final class Leaf {
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final Map<String, BigDecimal> totals = new HashMap<>();
+        private long hash;
+        private long effects;
+
+        void add(Entry entry) {
+            Money expected = entry.expected();
+            entry.hash = entryHash(entry.accountId, expected);
+            hash += entry.hash;
+            totals.merge(expected.getCurrency(), expected.getAmount(), BigDecimal::add);
+        }
+
+        void remove(Entry entry) {
+            hash -= entry.hash;
+            totals.merge(entry.opening.getCurrency(), entry.expected().getAmount().negate(), BigDecimal::add);
+        }
+    }
+
+    private static final class Entry {
+        private final String accountId;
+        private final Money opening;
+        private BigDecimal history = BigDecimal.ZERO;
+        private long hash;
+
+        Entry(String accountId, Money opening) {
+            this.accountId = accountId;
+            this.opening = opening;
+        }
+
+        Money expected() {
+            return new Money(opening.getAmount().add(history), opening.getCurrency());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.banking.transaction.reconcile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable binary hash tree over a power-of-two number of leaf hashes.
+ * <p>
+ * Nodes are numbered as in a binary heap: the root is 1, the children of node {@code n} are
+ * {@code 2n} and {@code 2n + 1}, and leaf {@code i} is node {@code leafCount + i}. {@link #diff}
+ * walks two trees from the root level by level and only descends into nodes whose hashes differ,
+ * so comparing trees that mostly agree touches a few nodes per mismatched leaf. The other tree
+ * may be remote: it is only asked for the hashes of the nodes being compared.
+ */
+public final class MerkleTree implements NodeHashes {
+    private final int leafCount;
+    private final long[] nodes;
+
+    private MerkleTree(int leafCount, long[] nodes) {
+        this.leafCount = leafCount;
+        this.nodes = nodes;
+    }
+
+    public static MerkleTree fromLeaves(long[] leaves) {
+        int leafCount = leaves.length;
+        if (leafCount == 0 || Integer.bitCount(leafCount) != 1) {
+            throw new IllegalArgumentException("Leaf count must be a power of two");
+        }
+        long[] nodes = new long[2 * leafCount];
+        System.arraycopy(leaves, 0, nodes, leafCount, leafCount);
+        for (int node = leafCount - 1; node >= 1; node--) {
+            nodes[node] = combine(nodes[2 * node], nodes[2 * node + 1]);
+        }
+        return new MerkleTree(leafCount, nodes);
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    public long getRoot() {
+        return nodes[1];
+    }
+
+    public long getNode(int index) {
+        if (index < 1 || index >= nodes.length) {
+            throw new IllegalArgumentException("No node " + index + " in a tree of " + leafCount + " leaves");
+        }
+        return nodes[index];
+    }
+
+    public long getLeaf(int leaf) {
+        return getNode(leafCount + leaf);
+    }
+
+    @Override
+    public long[] getNodes(int[] indexes) {
+        long[] hashes = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            hashes[i] = getNode(indexes[i]);
+        }
+        return hashes;
+    }
+
+    /**
+     * @param other a tree with the same number of leaves
+     * @return the leaves, in ascending order, whose hashes differ between this tree and {@code other}
+     */
+    public List<Integer> diff(NodeHashes other) throws IOException {
+        List<Integer> mismatched = new ArrayList<>();
+        int[] level = {1};
+        while (level.length > 0) {
+            long[] theirs = other.getNodes(level);
+            if (theirs.length != level.length) {
+                throw new IOException("Expected " + level.length + " node hashes, got " + theirs.length);
+            }
+            int differing = 0;
+            for (int i = 0; i < level.length; i++) {
+                if (nodes[level[i]] != theirs[i]) {
+                    level[differing++] = level[i];
+                }
+            }
+            if (differing == 0) {
+                break;
+            }
+            if (level[0] >= leafCount) {
+                for (int i = 0; i < differing; i++) {
+                    mismatched.add(level[i] - leafCount);
+                }
+                break;
+            }
+            int[] next = new int[differing * 2];
+            for (int i = 0; i < differing; i++) {
+                next[2 * i] = 2 * level[i];
+                next[2 * i + 1] = 2 * level[i] + 1;
+            }
+            level = next;
+        }
+        return mismatched;
+    }
+
+    static long combine(long left, long right) {
+        return mix(left * 0x9E3779B97F4A7C15L + Long.rotateLeft(right, 31) + 0x632BE59BD9B4E019L);
+    }
+
+    /**
+     * 64-bit finalizer of SplitMix64.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,14 @@
+package com.banking.transaction.reconcile;
+
+import java.io.IOException;
+
+/**
+ * Source of the node hashes of a {@link MerkleTree}, numbered as in {@link MerkleTree}. The tree
+ * may be local or on another node; {@link MerkleTree#diff} only asks for the nodes it compares.
+ */
+public interface NodeHashes {
+    /**
+     * @return the hashes of the given nodes, in the same order
+     */
+    long[] getNodes(int[] indexes) throws IOException;
+}
@@ -0,0 +1,143 @@
+package com.banking.transaction.reconcile;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.account.snapshot.BalanceSnapshot;
+import com.banking.core.domain.Money;
+import com.banking.transaction.service.TransactionService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Checks account balances against the history summarised by a {@link LedgerDigest}.
+ * <p>
+ * {@link #reconcile()} hashes every balance into the digest's leaves in parallel, builds a
+ * {@link MerkleTree} from them and diffs it against the digest's tree. Only the accounts of leaves
+ * that differ are then compared one by one, each with nothing able to change it (see
+ * {@link Account#readQuiesced}) so that a transfer or deposit in progress is seen either wholly or
+ * not at all. Accounts with a cross-shard transfer on hold are skipped: their balance is ahead of
+ * their history until the transfer completes or is cancelled.
+ */
+public class Reconciler {
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final LedgerDigest digest;
+
+    public Reconciler(AccountService accountService, TransactionService transactionService, LedgerDigest digest) {
+        this.accountService = accountService;
+        this.transactionService = transactionService;
+        this.digest = digest;
+    }
+
+    public LedgerDigest getDigest() {
+        return digest;
+    }
+
+    public ReconciliationReport reconcile() {
+        long start = System.nanoTime();
+        List<Account> accounts = accountService.getAllAccounts();
+        AtomicLongArray leafHashes = new AtomicLongArray(digest.getLeafCount());
+        accounts.parallelStream().forEach(account -> leafHashes.addAndGet(digest.leafOf(account.getAccountId()),
+                LedgerDigest.entryHash(account.getAccountId(), account.getBalance())));
+        long[] hashes = new long[leafHashes.length()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = leafHashes.get(i);
+        }
+
+        List<Integer> mismatchedLeaves = diff(MerkleTree.fromLeaves(hashes), digest.tree());
+        Set<Integer> leavesToRecheck = new HashSet<>(mismatchedLeaves);
+        Map<Integer, List<Account>> accountsByLeaf = leavesToRecheck.isEmpty() ? Map.of() : accounts.stream()
+                .filter(account -> leavesToRecheck.contains(digest.leafOf(account.getAccountId())))
+                .collect(Collectors.groupingBy(account -> digest.leafOf(account.getAccountId())));
+        List<List<ReconciliationReport.Mismatch>> perLeaf = mismatchedLeaves.parallelStream()
+                .map(leaf -> recheckLeaf(leaf, accountsByLeaf.getOrDefault(leaf, List.of())))
+                .collect(Collectors.toList());
+
+        int rechecked = 0;
+        List<ReconciliationReport.Mismatch> mismatches = new ArrayList<>();
+        for (int i = 0; i < perLeaf.size(); i++) {
+            rechecked += accountsByLeaf.getOrDefault(mismatchedLeaves.get(i), List.of()).size();
+            mismatches.addAll(perLeaf.get(i));
+        }
+        mismatches.sort(Comparator.comparing(ReconciliationReport.Mismatch::getAccountId));
+        return new ReconciliationReport(hashes.length, accounts.size(), mismatchedLeaves, rechecked, mismatches,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * @return the leaves whose hashes differ between this node's digest and {@code peer}, e.g. the
+     * digest of a replica fetched over HTTP
+     */
+    public List<Integer> compare(NodeHashes peer) throws IOException {
+        return digest.tree().diff(peer);
+    }
+
+    /**
+     * @return a tree of the balances in a snapshot, with the same leaves as this reconciler's digest,
+     * so two snapshots (or a snapshot and a digest) can be diffed
+     */
+    public MerkleTree tree(BalanceSnapshot snapshot) {
+        long[] hashes = new long[digest.getLeafCount()];
+        for (BalanceSnapshot.Entry entry : snapshot.getEntries()) {
+            hashes[digest.leafOf(entry.getAccountId())] += LedgerDigest.entryHash(entry.getAccountId(), entry.getBalance());
+        }
+        return MerkleTree.fromLeaves(hashes);
+    }
+
+    private static List<Integer> diff(MerkleTree balances, MerkleTree history) {
+        try {
+            return balances.diff(history);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<ReconciliationReport.Mismatch> recheckLeaf(int leaf, List<Account> accounts) {
+        List<ReconciliationReport.Mismatch> mismatches = new ArrayList<>();
+        TreeSet<String> unseen = new TreeSet<>(digest.getLeafEntries(leaf).keySet());
+        for (Account account : accounts) {
+            unseen.remove(account.getAccountId());
+            ReconciliationReport.Mismatch mismatch = recheck(account);
+            if (mismatch != null) {
+                mismatches.add(mismatch);
+            }
+        }
+        for (String accountId : unseen) {
+            Money expected = digest.getExpectedBalance(accountId);
+            if (expected != null && !accountService.hasAccount(accountId)) {
+                mismatches.add(new ReconciliationReport.Mismatch(accountId, null, expected));
+            }
+        }
+        return mismatches;
+    }
+
+    private ReconciliationReport.Mismatch recheck(Account account) {
+        String accountId = account.getAccountId();
+        return account.readQuiesced(balance -> {
+            if (transactionService.hasPendingRemoteTransfer(accountId)) {
+                return null;
+            }
+            Money expected = digest.getExpectedBalance(accountId);
+            return sameBalance(balance, expected) ? null : new ReconciliationReport.Mismatch(accountId, balance, expected);
+        });
+    }
+
+    static boolean sameBalance(Money balance, Money expected) {
+        if (balance == null || expected == null) {
+            return balance == expected;
+        }
+        return Objects.equals(balance.getCurrency(), expected.getCurrency())
+                && balance.getAmount().compareTo(expected.getAmount()) == 0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.banking.transaction.reconcile;
+
+import com.banking.core.domain.Money;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of {@link Reconciler#reconcile()}.
+ */
+public final class ReconciliationReport {
+    private final int leafCount;
+    private final int accountCount;
+    private final List<Integer> mismatchedLeaves;
+    private final int accountsRechecked;
+    private final List<Mismatch> mismatches;
+    private final long durationNanos;
+
+    public ReconciliationReport(int leafCount, int accountCount, List<Integer> mismatchedLeaves,
+                                int accountsRechecked, List<Mismatch> mismatches, long durationNanos) {
+        this.leafCount = leafCount;
+        this.accountCount = accountCount;
+        this.mismatchedLeaves = Collections.unmodifiableList(mismatchedLeaves);
+        this.accountsRechecked = accountsRechecked;
+        this.mismatches = Collections.unmodifiableList(mismatches);
+        this.durationNanos = durationNanos;
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    /**
+     * @return leaves whose hashes differed on the first pass; some may have been in-flight updates
+     * that agreed when their accounts were rechecked
+     */
+    public List<Integer> getMismatchedLeaves() {
+        return mismatchedLeaves;
+    }
+
+    public int getAccountsRechecked() {
+        return accountsRechecked;
+    }
+
+    public List<Mismatch> getMismatches() {
+        return mismatches;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public boolean isConsistent() {
+        return mismatches.isEmpty();
+    }
+
+    /**
+     * An account whose balance does not match its history. Either side is null when the account
+     * exists on one side only.
+     */
+    public static final class Mismatch {
+        private final String accountId;
+        private final Money balance;
+        private final Money expected;
+
+        public Mismatch(String accountId, Money balance, Money expected) {
+            this.accountId = accountId;
+            this.balance = balance;
+            this.expected = expected;
+        }
+
+        public String getAccountId() {
+            return accountId;
+        }
+
+        public Money getBalance() {
+            return balance;
+        }
+
+        public Money getExpected() {
+            return expected;
+        }
+
+        @Override
+        public String toString() {
+            return "Mismatch{accountId='" + accountId + "', balance=" + balance + ", expected=" + expected + "}";
+        }
+    }
+}
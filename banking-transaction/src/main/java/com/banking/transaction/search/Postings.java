@@ -0,0 +1,65 @@
+package com.banking.transaction.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted document IDs of one term, stored as variable-length encoded gaps: a term that
+ * occurs in consecutive transactions costs one byte per occurrence.
+ */
+final class Postings {
+    private byte[] data = new byte[4];
+    private int length;
+    private int count;
+    private int lastDocument = -1;
+
+    /**
+     * Appends a document. IDs must be added in increasing order; repeating the last one is a no-op.
+     *
+     * @return the number of bytes the postings grew by
+     */
+    int add(int document) {
+        if (document == lastDocument) {
+            return 0;
+        }
+        int start = length;
+        int gap = document - lastDocument;
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((gap & ~0x7F) != 0) {
+            data[length++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        data[length++] = (byte) gap;
+        lastDocument = document;
+        count++;
+        return length - start;
+    }
+
+    int[] toArray() {
+        int[] documents = new int[count];
+        int document = -1;
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            document += gap;
+            documents[i] = document;
+        }
+        return documents;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int byteSize() {
+        return length;
+    }
+}
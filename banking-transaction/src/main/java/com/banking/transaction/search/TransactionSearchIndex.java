@@ -0,0 +1,433 @@
+package com.banking.transaction.search;
+
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionListener;
+import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.store.LongPairIndex;
+import com.banking.transaction.store.SlabTransactionStore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over transaction descriptions.
+ * <p>
+ * Descriptions are split into lower-case letter/digit tokens. Each token maps to the
+ * {@link Postings} of the transactions containing it; the accounts of a transaction are
+ * indexed as extra terms, so account-scoped searches are intersections too.
+ * <p>
+ * Recorded transactions are queued by the {@link TransactionListener} callbacks and indexed
+ * by a background thread, so recording a transaction only costs an enqueue and results
+ * trail recording by a few milliseconds.
+ * <p>
+ * The index does not keep the transactions themselves. A document is the transaction ID (the
+ * two longs of its UUID where possible) and its timestamp in primitive arrays; results are
+ * read back from the service, so transactions removed from it are never returned. Removals
+ * are also queued: the removed document is cleared, and once most documents are cleared the
+ * postings are rebuilt from the remaining ones.
+ */
+public class TransactionSearchIndex implements TransactionListener, AutoCloseable {
+    public static final int MAX_RESULTS = 1000;
+
+    /** Account terms start with a character that never appears in description tokens. */
+    private static final String ACCOUNT_TERM = "\u0000";
+    private static final int MIN_REBUILD_DOCUMENTS = 1024;
+
+    private final TransactionService transactionService;
+    private final BlockingQueue<Update> pending = new LinkedBlockingQueue<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TreeMap<String, Postings> terms = new TreeMap<>();
+    // Documents, by number; a cleared document has no ID.
+    private long[] idHighs = new long[1024];
+    private long[] idLows = new long[1024];
+    private String[] otherIds;
+    private long[] epochNanos = new long[1024];
+    private BitSet cleared = new BitSet();
+    private int documentCount;
+    private int clearedCount;
+    private LongPairIndex uuidDocuments = new LongPairIndex();
+    private Map<String, Integer> otherDocuments = new HashMap<>();
+    // Written by the indexer only, under the write lock.
+    private volatile long postingsBytes;
+    private final Thread indexer;
+
+    /**
+     * Creates the index, indexes the service's existing transactions and keeps up with new ones.
+     */
+    public TransactionSearchIndex(TransactionService transactionService) {
+        if (transactionService == null) {
+            throw new IllegalArgumentException("TransactionService cannot be null");
+        }
+        this.transactionService = transactionService;
+        transactionService.addTransactionListener(this);
+        List<Transaction> existing = transactionService.getAllTransactions();
+        existing.sort(Comparator.comparing(Transaction::getTimestamp));
+        existing.forEach(transaction -> enqueue(transaction, false));
+        this.indexer = new Thread(this::indexLoop, "transaction-search-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    @Override
+    public void onTransaction(Transaction transaction) {
+        enqueue(transaction, false);
+    }
+
+    @Override
+    public void onTransactionStored(Transaction transaction) {
+        enqueue(transaction, false);
+    }
+
+    @Override
+    public void onTransactionRemoved(Transaction transaction) {
+        enqueue(transaction, true);
+    }
+
+    /**
+     * Finds transactions whose description contains every term of {@code query}, newest first.
+     * A term ending in {@code *} matches any token with that prefix.
+     *
+     * @param query      search terms; may be blank if {@code accountId} is given
+     * @param accountId  only transactions from or to this account, or null
+     * @param from       only transactions at or after this time, or null
+     * @param to         only transactions before this time, or null
+     * @param limit      maximum number of results, at most {@link #MAX_RESULTS}
+     */
+    public List<Transaction> search(String query, String accountId, LocalDateTime from, LocalDateTime to, int limit) {
+        List<String> queryTerms = new ArrayList<>();
+        if (query != null) {
+            for (String term : query.trim().split("\\s+")) {
+                boolean prefix = term.endsWith("*");
+                List<String> tokens = tokenize(prefix ? term.substring(0, term.length() - 1) : term);
+                for (int i = 0; i < tokens.size(); i++) {
+                    queryTerms.add(prefix && i == tokens.size() - 1 ? tokens.get(i) + "*" : tokens.get(i));
+                }
+            }
+        }
+        if (accountId != null) {
+            queryTerms.add(ACCOUNT_TERM + accountId);
+        }
+        if (queryTerms.isEmpty()) {
+            throw new IllegalArgumentException("Search needs a query or an account");
+        }
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        long fromNanos = from != null ? epochNanos(from) : Long.MIN_VALUE;
+        long toNanos = to != null ? epochNanos(to) : Long.MAX_VALUE;
+
+        List<Transaction> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int[] matches = null;
+            for (String term : queryTerms) {
+                int[] documentIds = term.endsWith("*") && !term.startsWith(ACCOUNT_TERM)
+                        ? prefixMatches(term.substring(0, term.length() - 1))
+                        : exactMatches(term);
+                matches = matches == null ? documentIds : intersect(matches, documentIds);
+                if (matches.length == 0) {
+                    return results;
+                }
+            }
+            for (int i = matches.length - 1; i >= 0 && results.size() < max; i--) {
+                int document = matches[i];
+                if (cleared.get(document) || epochNanos[document] < fromNanos
+                        || (to != null && epochNanos[document] >= toNanos)) {
+                    continue;
+                }
+                Transaction transaction = lookup(transactionId(document));
+                if (transaction != null) {
+                    results.add(transaction);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        results.sort(Comparator.comparing(Transaction::getTimestamp).reversed());
+        return results;
+    }
+
+    /**
+     * Blocks until every transaction recorded before this call has been indexed.
+     */
+    public void flush() throws InterruptedException {
+        long target = enqueued.get();
+        synchronized (indexed) {
+            while (indexed.get() < target) {
+                indexed.wait(100);
+            }
+        }
+    }
+
+    /**
+     * Number of indexed transactions that have not been removed.
+     */
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documentCount - clearedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes used by the encoded postings of all terms.
+     */
+    public long getPostingsBytes() {
+        return postingsBytes;
+    }
+
+    @Override
+    public void close() {
+        indexer.interrupt();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void enqueue(Transaction transaction, boolean removal) {
+        enqueued.incrementAndGet();
+        pending.add(new Update(transaction, removal));
+    }
+
+    private void indexLoop() {
+        List<Update> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(pending.take());
+                pending.drainTo(batch, 4095);
+                lock.writeLock().lock();
+                try {
+                    for (Update update : batch) {
+                        if (update.removal) {
+                            clear(update.transaction.getTransactionId());
+                        } else {
+                            index(update.transaction);
+                        }
+                    }
+                    if (clearedCount >= MIN_REBUILD_DOCUMENTS && clearedCount * 2 > documentCount) {
+                        rebuild();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                synchronized (indexed) {
+                    indexed.addAndGet(batch.size());
+                    indexed.notifyAll();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void index(Transaction transaction) {
+        String transactionId = transaction.getTransactionId();
+        int existing = documentOf(transactionId);
+        if (existing != LongPairIndex.ABSENT && !cleared.get(existing)) {
+            return;
+        }
+        if (documentCount == idHighs.length) {
+            int capacity = documentCount * 2;
+            idHighs = Arrays.copyOf(idHighs, capacity);
+            idLows = Arrays.copyOf(idLows, capacity);
+            epochNanos = Arrays.copyOf(epochNanos, capacity);
+            if (otherIds != null) {
+                otherIds = Arrays.copyOf(otherIds, capacity);
+            }
+        }
+        int document = documentCount++;
+        if (SlabTransactionStore.isUuid(transactionId)) {
+            idHighs[document] = SlabTransactionStore.uuidHigh(transactionId);
+            idLows[document] = SlabTransactionStore.uuidLow(transactionId);
+            uuidDocuments.compute(idHighs[document], idLows[document], current -> document);
+        } else {
+            if (otherIds == null) {
+                otherIds = new String[idHighs.length];
+            }
+            otherIds[document] = transactionId;
+            otherDocuments.put(transactionId, document);
+        }
+        epochNanos[document] = epochNanos(transaction.getTimestamp());
+        long added = 0;
+        for (String token : tokenize(transaction.getDescription())) {
+            added += terms.computeIfAbsent(token, t -> new Postings()).add(document);
+        }
+        added += terms.computeIfAbsent(ACCOUNT_TERM + transaction.getAccountId(), t -> new Postings()).add(document);
+        if (transaction.getRelatedAccountId() != null) {
+            added += terms.computeIfAbsent(ACCOUNT_TERM + transaction.getRelatedAccountId(), t -> new Postings())
+                    .add(document);
+        }
+        postingsBytes += added;
+    }
+
+    private void clear(String transactionId) {
+        int document = documentOf(transactionId);
+        if (document == LongPairIndex.ABSENT || cleared.get(document)) {
+            return;
+        }
+        cleared.set(document);
+        clearedCount++;
+        if (otherIds != null && otherIds[document] != null) {
+            otherDocuments.remove(otherIds[document]);
+            otherIds[document] = null;
+        }
+    }
+
+    /**
+     * Re-indexes the documents that have not been cleared, from the service's copy of each.
+     */
+    private void rebuild() {
+        List<Transaction> live = new ArrayList<>(documentCount - clearedCount);
+        for (int document = 0; document < documentCount; document++) {
+            if (!cleared.get(document)) {
+                Transaction transaction = lookup(transactionId(document));
+                if (transaction != null) {
+                    live.add(transaction);
+                }
+            }
+        }
+        terms = new TreeMap<>();
+        idHighs = new long[Math.max(1024, live.size())];
+        idLows = new long[idHighs.length];
+        epochNanos = new long[idHighs.length];
+        otherIds = null;
+        cleared = new BitSet();
+        documentCount = 0;
+        clearedCount = 0;
+        uuidDocuments = new LongPairIndex();
+        otherDocuments = new HashMap<>();
+        postingsBytes = 0;
+        live.forEach(this::index);
+    }
+
+    private int documentOf(String transactionId) {
+        if (SlabTransactionStore.isUuid(transactionId)) {
+            return uuidDocuments.get(SlabTransactionStore.uuidHigh(transactionId),
+                    SlabTransactionStore.uuidLow(transactionId));
+        }
+        Integer document = otherDocuments.get(transactionId);
+        return document != null ? document : LongPairIndex.ABSENT;
+    }
+
+    private String transactionId(int document) {
+        if (otherIds != null && otherIds[document] != null) {
+            return otherIds[document];
+        }
+        return new UUID(idHighs[document], idLows[document]).toString();
+    }
+
+    private Transaction lookup(String transactionId) {
+        try {
+            return transactionService.getTransaction(transactionId);
+        } catch (IllegalArgumentException removed) {
+            return null;
+        }
+    }
+
+    /** Clamped, so the dates a query may name beyond the year 2262 still compare correctly. */
+    private static long epochNanos(LocalDateTime timestamp) {
+        try {
+            return SlabTransactionStore.toEpochNanos(timestamp);
+        } catch (ArithmeticException e) {
+            return timestamp.getYear() < 1970 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private int[] exactMatches(String term) {
+        Postings postings = terms.get(term);
+        return postings != null ? postings.toArray() : new int[0];
+    }
+
+    private int[] prefixMatches(String prefix) {
+        Map<String, Postings> matching = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (matching.size() == 1) {
+            return matching.values().iterator().next().toArray();
+        }
+        int total = 0;
+        for (Postings postings : matching.values()) {
+            total += postings.size();
+        }
+        int[] union = new int[total];
+        int length = 0;
+        for (Postings postings : matching.values()) {
+            int[] documentIds = postings.toArray();
+            System.arraycopy(documentIds, 0, union, length, documentIds.length);
+            length += documentIds.length;
+        }
+        Arrays.sort(union);
+        int distinct = 0;
+        for (int i = 0; i < union.length; i++) {
+            if (i == 0 || union[i] != union[i - 1]) {
+                union[distinct++] = union[i];
+            }
+        }
+        return Arrays.copyOf(union, distinct);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int length = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[length++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private static final class Update {
+        private final Transaction transaction;
+        private final boolean removal;
+
+        Update(Transaction transaction, boolean removal) {
+            this.transaction = transaction;
+            this.removal = removal;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.domain.Transaction;
+
+/**
+ * Receives every transaction recorded by {@link TransactionService}.
+ * <p>
+ * Called on the thread that performed the operation while it still holds the locks of the
+ * accounts involved, so implementations must be quick and must not call back into the services.
+ */
+public interface TransactionListener {
+    void onTransaction(Transaction transaction);
+
+    /**
+     * Called for transactions executed elsewhere and stored here with
+     * {@link TransactionService#recordTransaction} or {@link TransactionService#applyTransaction},
+     * e.g. on another shard or on the primary a replica follows. Does nothing by default.
+     */
+    default void onTransactionStored(Transaction transaction) {
+    }
+
+    /**
+     * Called after {@link TransactionService#removeTransaction} dropped a transaction, e.g. one that
+     * moved to another shard with its account. Does nothing by default.
+     */
+    default void onTransactionRemoved(Transaction transaction) {
+    }
+}
@@ -5,70 +5,473 @@ import com.banking.account.service.AccountService;
 import com.banking.core.domain.Money;
 import com.banking.core.domain.TransactionType;
 import com.banking.core.exception.InsufficientFundsException;
+import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.exception.VelocityLimitExceededException;
+import com.banking.core.fx.FxRateCache;
+import com.banking.core.fx.FxRates;
+import com.banking.core.jfr.LedgerOperationEvent;
+import com.banking.core.metrics.Counter;
+import com.banking.core.metrics.LatencyHistogram;
+import com.banking.core.metrics.MetricsRegistry;
 import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.hotspot.HotAccountDetector;
+import com.banking.transaction.netting.NetPositions;
+import com.banking.transaction.netting.TransferInstruction;
+import com.banking.transaction.posting.PostingEngine;
+import com.banking.transaction.store.HeapTransactionStore;
+import com.banking.transaction.store.TransactionStore;
+import com.banking.transaction.velocity.VelocityLimiter;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Service for processing banking transactions.
+ * <p>
+ * Recorded transactions are kept in a {@link TransactionStore}, by default a {@link HeapTransactionStore},
+ * and posted as balanced debit and credit legs to a {@link PostingEngine}, which indexes them by account.
  */
 public class TransactionService {
     private final AccountService accountService;
-    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final TransactionStore transactions;
+    private final PostingEngine postings = new PostingEngine();
+    private final MetricsRegistry metrics;
+    private final List<TransactionListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> pendingRemoteTransfers = new ConcurrentHashMap<>();
+    private volatile HotAccountDetector hotAccountDetector;
+    private volatile FxRateCache fxRateCache;
+    private volatile VelocityLimiter velocityLimiter;
+
+    private final LatencyHistogram depositLatency;
+    private final LatencyHistogram withdrawLatency;
+    private final LatencyHistogram transferLatency;
+    private final LatencyHistogram settlementLatency;
+    private final Counter nettedTransfers;
+    private final Counter insufficientFunds;
+    private final Counter invalidAccount;
+    private final Counter velocityLimited;
 
     public TransactionService(AccountService accountService) {
+        this(accountService, new MetricsRegistry());
+    }
+
+    public TransactionService(AccountService accountService, MetricsRegistry metrics) {
+        this(accountService, metrics, new HeapTransactionStore());
+    }
+
+    public TransactionService(AccountService accountService, MetricsRegistry metrics, TransactionStore store) {
         if (accountService == null) {
             throw new IllegalArgumentException("AccountService cannot be null");
         }
+        if (metrics == null) {
+            throw new IllegalArgumentException("MetricsRegistry cannot be null");
+        }
+        if (store == null) {
+            throw new IllegalArgumentException("TransactionStore cannot be null");
+        }
         this.accountService = accountService;
+        this.metrics = metrics;
+        this.transactions = store;
+
+        String latencyHelp = "Latency of TransactionService operations";
+        this.depositLatency = metrics.histogram("banking_transaction_duration_seconds", latencyHelp, "operation", "deposit");
+        this.withdrawLatency = metrics.histogram("banking_transaction_duration_seconds", latencyHelp, "operation", "withdraw");
+        this.transferLatency = metrics.histogram("banking_transaction_duration_seconds", latencyHelp, "operation", "transfer");
+        this.settlementLatency = metrics.histogram("banking_transaction_duration_seconds", latencyHelp, "operation", "settle_netted");
+        this.nettedTransfers = metrics.counter("banking_netted_transfers_total", "Transfers settled through netted batches");
+        String failureHelp = "Transaction operations rejected, by reason";
+        this.insufficientFunds = metrics.counter("banking_transaction_failures_total", failureHelp, "reason", "insufficient_funds");
+        this.invalidAccount = metrics.counter("banking_transaction_failures_total", failureHelp, "reason", "invalid_account");
+        this.velocityLimited = metrics.counter("banking_transaction_failures_total", failureHelp, "reason", "velocity_limit");
+        metrics.gauge("banking_transactions", "Number of recorded transactions", transactions::size);
     }
 
     public Transaction deposit(String accountId, Money amount, String description) {
-        Account account = accountService.getAccount(accountId);
-        account.deposit(amount);
-        Transaction transaction = new Transaction(accountId, TransactionType.DEPOSIT, amount, description);
-        transactions.put(transaction.getTransactionId(), transaction);
-        return transaction;
+        long start = System.nanoTime();
+        LedgerOperationEvent event = new LedgerOperationEvent();
+        event.begin();
+        long lockWait = 0;
+        long journalWait = 0;
+        String outcome = LedgerOperationEvent.OUTCOME_SUCCESS;
+        try {
+            Account account = accountService.getAccount(accountId);
+            detectHotAccount(account);
+            Transaction transaction = new Transaction(accountId, TransactionType.DEPOSIT, amount, description);
+            // A striped account takes the deposit without its lock. The transaction is recorded while the
+            // stripe is held, so listeners see it before any withdrawal that consolidates the stripes.
+            long[] listenerWait = new long[1];
+            if (account.isStriped() && account.depositToStripe(amount, () -> {
+                listenerWait[0] = record(transaction);
+                return true;
+            })) {
+                journalWait = listenerWait[0];
+            } else {
+                lockWait = account.lock();
+                try {
+                    account.deposit(amount);
+                    journalWait = record(transaction);
+                } finally {
+                    account.unlock();
+                }
+            }
+            return transaction;
+        } catch (RuntimeException e) {
+            outcome = countFailure(e);
+            throw e;
+        } finally {
+            depositLatency.recordSince(start);
+            commitEvent(event, TransactionType.DEPOSIT, accountId, null, amount, outcome, lockWait, journalWait);
+        }
     }
 
     public Transaction withdraw(String accountId, Money amount, String description) {
-        Account account = accountService.getAccount(accountId);
-        account.withdraw(amount);
-        Transaction transaction = new Transaction(accountId, TransactionType.WITHDRAWAL, amount, description);
-        transactions.put(transaction.getTransactionId(), transaction);
-        return transaction;
+        long start = System.nanoTime();
+        LedgerOperationEvent event = new LedgerOperationEvent();
+        event.begin();
+        long lockWait = 0;
+        long journalWait = 0;
+        String outcome = LedgerOperationEvent.OUTCOME_SUCCESS;
+        try {
+            Account account = accountService.getAccount(accountId);
+            Transaction transaction = new Transaction(accountId, TransactionType.WITHDRAWAL, amount, description);
+            VelocityLimiter limiter = velocityLimiter;
+            lockWait = account.lock();
+            try {
+                checkVelocity(limiter, account, amount);
+                account.withdraw(amount);
+                recordVelocity(limiter, account, amount);
+                journalWait = record(transaction);
+            } finally {
+                account.unlock();
+            }
+            return transaction;
+        } catch (RuntimeException e) {
+            outcome = countFailure(e);
+            throw e;
+        } finally {
+            withdrawLatency.recordSince(start);
+            commitEvent(event, TransactionType.WITHDRAWAL, accountId, null, amount, outcome, lockWait, journalWait);
+        }
     }
 
     public Transaction transfer(String fromAccountId, String toAccountId, Money amount, String description) {
-        Account fromAccount = accountService.getAccount(fromAccountId);
-        Account toAccount = accountService.getAccount(toAccountId);
-
-        // Withdraw from source account
-        fromAccount.withdraw(amount);
-        
-        // Deposit to destination account
-        toAccount.deposit(amount);
-
-        // Create transaction record
-        Transaction transaction = new Transaction(
-            fromAccountId, 
-            TransactionType.TRANSFER, 
-            amount, 
-            description,
-            toAccountId
-        );
-        transactions.put(transaction.getTransactionId(), transaction);
-        return transaction;
+        long start = System.nanoTime();
+        LedgerOperationEvent event = new LedgerOperationEvent();
+        event.begin();
+        long lockWait = 0;
+        long journalWait = 0;
+        String outcome = LedgerOperationEvent.OUTCOME_SUCCESS;
+        try {
+            Account fromAccount = accountService.getAccount(fromAccountId);
+            Account toAccount = accountService.getAccount(toAccountId);
+            detectHotAccount(toAccount);
+            VelocityLimiter limiter = velocityLimiter;
+
+            Money debit = amount;
+            Money credit = amount;
+            Transaction transaction;
+            Transaction creditLeg = null;
+            if (fromAccount.getCurrency().equals(toAccount.getCurrency())) {
+                // Create transaction record
+                transaction = new Transaction(
+                    fromAccountId,
+                    TransactionType.TRANSFER,
+                    amount,
+                    description,
+                    toAccountId
+                );
+            } else {
+                // Cross-currency: one rate table for both legs, each recorded in its account's currency.
+                FxRates rates = currentFxRates();
+                if (amount.getCurrency().equals(fromAccount.getCurrency())) {
+                    credit = rates.convert(amount, toAccount.getCurrency());
+                } else if (amount.getCurrency().equals(toAccount.getCurrency())) {
+                    debit = rates.convert(amount, fromAccount.getCurrency());
+                } else {
+                    throw new IllegalArgumentException(
+                        "Transfer amount must be in the currency of the source or destination account");
+                }
+                if (debit.getAmount().signum() <= 0 || credit.getAmount().signum() <= 0) {
+                    throw new IllegalArgumentException("Transfer amount is too small to convert: " + amount);
+                }
+                transaction = new Transaction(fromAccountId, TransactionType.FX_TRANSFER_OUT, debit, description,
+                    toAccountId);
+                creditLeg = new Transaction(toAccountId, TransactionType.FX_TRANSFER_IN, credit, description,
+                    fromAccountId);
+            }
+
+            // A striped destination takes deposits without its account lock, so only the source is
+            // locked and the withdrawal, and the recording of the transfer, run while a stripe of the
+            // destination is held. During a balance snapshot the transfer takes the locked path below instead.
+            // So does a transfer from a striped source: its withdrawal drains every stripe of the source,
+            // and waiting for those while holding a stripe of the destination deadlocks with a transfer
+            // the other way. The source cannot become striped while its lock is held.
+            if (creditLeg == null && toAccount.isStriped()) {
+                lockWait = fromAccount.lock();
+                try {
+                    long[] listenerWait = new long[1];
+                    Transaction striped = transaction;
+                    if (!fromAccount.isStriped() && toAccount.depositToStripe(amount, () -> {
+                        if (accountService.isSnapshotInProgress()) {
+                            return false;
+                        }
+                        checkVelocity(limiter, fromAccount, amount);
+                        fromAccount.withdraw(amount);
+                        recordVelocity(limiter, fromAccount, amount);
+                        listenerWait[0] = record(striped);
+                        return true;
+                    })) {
+                        journalWait = listenerWait[0];
+                        return transaction;
+                    }
+                } finally {
+                    fromAccount.unlock();
+                }
+            }
+
+            // Lock both accounts in a global order so concurrent opposite transfers cannot deadlock.
+            Account first;
+            Account second;
+            if (fromAccountId.compareTo(toAccountId) <= 0) {
+                first = fromAccount;
+                second = toAccount;
+            } else {
+                first = toAccount;
+                second = fromAccount;
+            }
+            lockWait += first.lock();
+            try {
+                lockWait += second.lock();
+                try {
+                    accountService.preserveForSnapshot(fromAccount, toAccount);
+
+                    // Withdraw from source account
+                    checkVelocity(limiter, fromAccount, debit);
+                    fromAccount.withdraw(debit);
+                    recordVelocity(limiter, fromAccount, debit);
+
+                    // Deposit to destination account
+                    toAccount.deposit(credit);
+
+                    journalWait = record(transaction);
+                    if (creditLeg != null) {
+                        journalWait += record(creditLeg);
+                    }
+                } finally {
+                    second.unlock();
+                }
+            } finally {
+                first.unlock();
+            }
+            return transaction;
+        } catch (RuntimeException e) {
+            outcome = countFailure(e);
+            throw e;
+        } finally {
+            transferLatency.recordSince(start);
+            commitEvent(event, TransactionType.TRANSFER, fromAccountId, toAccountId, amount, outcome, lockWait,
+                    journalWait);
+        }
+    }
+
+    /**
+     * First half of a transfer to an account owned by another node: takes the amount out of the
+     * local source account under its lock, with the status, funds and velocity checks of
+     * {@link #transfer}, but records nothing. The transfer is then either recorded with
+     * {@link #completeRemoteTransfer} once the destination node has prepared the credit, or the
+     * amount is given back with {@link #cancelRemoteTransfer}. Until then the account is reported
+     * by {@link #hasPendingRemoteTransfer}, since its balance is ahead of its history.
+     */
+    public void holdRemoteTransfer(String fromAccountId, Money amount) {
+        long start = System.nanoTime();
+        try {
+            Account account = accountService.getAccount(fromAccountId);
+            VelocityLimiter limiter = velocityLimiter;
+            account.lock();
+            try {
+                checkVelocity(limiter, account, amount);
+                account.withdraw(amount);
+                recordVelocity(limiter, account, amount);
+                pendingRemoteTransfers.merge(fromAccountId, 1, Integer::sum);
+            } finally {
+                account.unlock();
+            }
+        } catch (RuntimeException e) {
+            countFailure(e);
+            throw e;
+        } finally {
+            transferLatency.recordSince(start);
+        }
+    }
+
+    /**
+     * Gives back an amount taken by {@link #holdRemoteTransfer} for a transfer the destination node
+     * refused. The debit still counts towards the account's velocity limit.
+     */
+    public void cancelRemoteTransfer(String fromAccountId, Money amount) {
+        Account account = accountService.getAccount(fromAccountId);
+        account.lock();
+        try {
+            account.adjustBalance(amount);
+            pendingRemoteTransfers.computeIfPresent(fromAccountId, (id, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            account.unlock();
+        }
+    }
+
+    /**
+     * Records a transfer whose amount was taken by {@link #holdRemoteTransfer}, under the source
+     * account's lock, and reports it to the listeners as executed here.
+     */
+    public void completeRemoteTransfer(Transaction transaction) {
+        Account account = accountService.getAccount(transaction.getAccountId());
+        account.lock();
+        try {
+            record(transaction);
+            pendingRemoteTransfers.computeIfPresent(transaction.getAccountId(),
+                    (id, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            account.unlock();
+        }
+    }
+
+    /**
+     * Destination side of a transfer from an account owned by another node: credits the local
+     * related account and records the transaction, both under that account's lock. Listeners get it
+     * through {@link TransactionListener#onTransaction}, like the source side, since it changed a
+     * balance here. Idempotent on the transaction ID, so a commit that is delivered again is not
+     * credited twice.
+     *
+     * @return false if the transaction was already applied
+     */
+    public boolean applyRemoteTransfer(Transaction transaction) {
+        if (transaction.getType() != TransactionType.TRANSFER || transaction.getRelatedAccountId() == null) {
+            throw new IllegalArgumentException("Not a transfer: " + transaction.getTransactionId());
+        }
+        Account account = accountService.getAccount(transaction.getRelatedAccountId());
+        account.lock();
+        try {
+            if (transactions.contains(transaction.getTransactionId())) {
+                return false;
+            }
+            account.deposit(transaction.getAmount());
+            record(transaction);
+            return true;
+        } finally {
+            account.unlock();
+        }
+    }
+
+    /**
+     * @return whether an amount was taken from the account by {@link #holdRemoteTransfer} for a
+     * transfer that is not recorded or cancelled yet
+     */
+    public boolean hasPendingRemoteTransfer(String accountId) {
+        return pendingRemoteTransfers.containsKey(accountId);
     }
 
+    /**
+     * Settles a batch of transfers by netting: computes each account's net position, checks the
+     * funds of the accounts that pay out net, and then changes every balance once, with all
+     * accounts of the batch locked in ID order. Every transfer is still recorded as its own
+     * {@code TRANSFER} transaction, in batch order, all with the same timestamp.
+     * <p>
+     * The batch succeeds or fails as a whole. Because funds are checked against net positions, a
+     * batch can succeed even if applying its transfers one by one in the given order would not.
+     * Velocity limits, by contrast, apply to every transfer an account sends, whatever it receives.
+     *
+     * @return the recorded transactions, in batch order
+     */
+    public List<Transaction> settleNetted(List<TransferInstruction> instructions) {
+        long start = System.nanoTime();
+        try {
+            NetPositions positions = NetPositions.of(instructions);
+            List<Account> accounts = new ArrayList<>(positions.size());
+            for (int i = 0; i < positions.size(); i++) {
+                accounts.add(accountService.getAccount(positions.getAccountId(i)));
+            }
+            // Built before locking so that the accounts are held only for the balance updates and recording.
+            LocalDateTime settledAt = LocalDateTime.now();
+            List<Transaction> settled = new ArrayList<>(instructions.size());
+            for (TransferInstruction instruction : instructions) {
+                settled.add(new Transaction(UUID.randomUUID().toString(), instruction.getFromAccountId(),
+                        TransactionType.TRANSFER, instruction.getAmount(), instruction.getDescription(),
+                        instruction.getToAccountId(), settledAt));
+            }
+
+            VelocityLimiter limiter = velocityLimiter;
+            int locked = 0;
+            try {
+                for (Account account : accounts) {
+                    account.lock();
+                    locked++;
+                }
+                for (int i = 0; i < accounts.size(); i++) {
+                    validateNetPosition(accounts.get(i), positions.getNet(i));
+                    if (limiter != null && positions.getDebitCount(i) > 0) {
+                        limiter.check(accounts.get(i).getAccountId(), accounts.get(i).getAccountType(),
+                                positions.getDebited(i), positions.getDebitCount(i));
+                    }
+                }
+                accountService.preserveForSnapshot(accounts);
+                for (int i = 0; i < accounts.size(); i++) {
+                    Money net = positions.getNet(i);
+                    if (net.getAmount().signum() != 0) {
+                        accounts.get(i).adjustBalance(net);
+                    }
+                    if (limiter != null && positions.getDebitCount(i) > 0) {
+                        limiter.record(accounts.get(i).getAccountId(), accounts.get(i).getAccountType(),
+                                positions.getDebited(i), positions.getDebitCount(i));
+                    }
+                }
+                recordAll(settled);
+            } finally {
+                for (int i = locked - 1; i >= 0; i--) {
+                    accounts.get(i).unlock();
+                }
+            }
+            nettedTransfers.add(settled.size());
+            return settled;
+        } catch (RuntimeException e) {
+            countFailure(e);
+            throw e;
+        } finally {
+            settlementLatency.recordSince(start);
+        }
+    }
+
+    private static void validateNetPosition(Account account, Money net) {
+        if (!account.isActive()) {
+            throw new InvalidAccountException("Account " + account.getAccountId() + " is not active");
+        }
+        Money balance = account.getBalance();
+        if (!balance.getCurrency().equals(net.getCurrency())) {
+            throw new IllegalArgumentException("Account " + account.getAccountId() + " is in " + balance.getCurrency()
+                    + ", not " + net.getCurrency());
+        }
+        if (net.getAmount().signum() < 0 && balance.getAmount().add(net.getAmount()).signum() < 0) {
+            throw new InsufficientFundsException(String.format(
+                    "Insufficient funds in %s for net settlement. Balance: %s, Net: %s",
+                    account.getAccountId(), balance, net));
+        }
+    }
+
+    /**
+     * Returns the transactions with a leg on the account, newest first. Transactions stored out of
+     * order, e.g. history imported with a migrated account, are placed by timestamp.
+     */
     public List<Transaction> getTransactionsByAccount(String accountId) {
-        return transactions.values().stream()
-                .filter(t -> t.getAccountId().equals(accountId) || 
-                           (t.getRelatedAccountId() != null && t.getRelatedAccountId().equals(accountId)))
-                .sorted(Comparator.comparing(Transaction::getTimestamp).reversed())
-                .collect(Collectors.toList());
+        List<Transaction> history = new ArrayList<>();
+        for (String transactionId : postings.getTransactionIds(accountId)) {
+            Transaction transaction = transactions.get(transactionId);
+            if (transaction != null) {
+                history.add(transaction);
+            }
+        }
+        history.sort(Comparator.comparing(Transaction::getTimestamp).reversed());
+        return history;
     }
 
     public Transaction getTransaction(String transactionId) {
@@ -79,13 +482,259 @@ public class TransactionService {
         return transaction;
     }
 
+    /**
+     * Stores a transaction whose balance effects were applied elsewhere, e.g. on another
+     * shard or during account migration. Balances are not touched; a transaction with the
+     * same ID is kept as is.
+     */
+    public void recordTransaction(Transaction transaction) {
+        if (transactions.putIfAbsent(transaction)) {
+            postings.post(transaction);
+            notifyStored(transaction);
+        }
+    }
+
+    /**
+     * Replays a transaction validated elsewhere, e.g. by the primary whose journal a read
+     * replica follows: stores it and applies its balance effects without funds or status checks.
+     * Effects on accounts that are not on this node, like the remote side of a cross-shard
+     * transfer, are skipped. A transaction that is already known is ignored, so replaying is idempotent.
+     */
+    public void applyTransaction(Transaction transaction) {
+        if (!transactions.putIfAbsent(transaction)) {
+            return;
+        }
+        Money amount = transaction.getAmount();
+        Money negated = new Money(amount.getAmount().negate(), amount.getCurrency());
+        switch (transaction.getType()) {
+            case DEPOSIT:
+            case INTEREST_CREDIT:
+            case FX_TRANSFER_IN:
+                adjustIfLocal(transaction.getAccountId(), amount);
+                break;
+            case WITHDRAWAL:
+            case FX_TRANSFER_OUT:
+                adjustIfLocal(transaction.getAccountId(), negated);
+                break;
+            case TRANSFER:
+                if (accountService.hasAccount(transaction.getAccountId())
+                        && accountService.hasAccount(transaction.getRelatedAccountId())) {
+                    applyTransfer(accountService.getAccount(transaction.getAccountId()),
+                            accountService.getAccount(transaction.getRelatedAccountId()), amount, negated);
+                } else {
+                    adjustIfLocal(transaction.getAccountId(), negated);
+                    adjustIfLocal(transaction.getRelatedAccountId(), amount);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type: " + transaction.getType());
+        }
+        postings.post(transaction);
+        notifyStored(transaction);
+    }
+
+    private void adjustIfLocal(String accountId, Money delta) {
+        if (accountService.hasAccount(accountId)) {
+            accountService.getAccount(accountId).adjustBalance(delta);
+        }
+    }
+
+    private void applyTransfer(Account fromAccount, Account toAccount, Money amount, Money negated) {
+        boolean fromFirst = fromAccount.getAccountId().compareTo(toAccount.getAccountId()) <= 0;
+        Account first = fromFirst ? fromAccount : toAccount;
+        Account second = fromFirst ? toAccount : fromAccount;
+        first.lock();
+        try {
+            second.lock();
+            try {
+                accountService.preserveForSnapshot(fromAccount, toAccount);
+                fromAccount.adjustBalance(negated);
+                toAccount.adjustBalance(amount);
+            } finally {
+                second.unlock();
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    public boolean hasTransaction(String transactionId) {
+        return transactions.contains(transactionId);
+    }
+
+    public void removeTransaction(String transactionId) {
+        Transaction transaction = transactions.get(transactionId);
+        if (transaction != null) {
+            transactions.remove(transactionId);
+            postings.unpost(transaction);
+            for (TransactionListener listener : listeners) {
+                listener.onTransactionRemoved(transaction);
+            }
+        }
+    }
+
     public List<Transaction> getAllTransactions() {
-        return new ArrayList<>(transactions.values());
+        return transactions.getAll();
+    }
+
+    public int getTransactionCount() {
+        return transactions.size();
+    }
+
+    public PostingEngine getPostingEngine() {
+        return postings;
+    }
+
+    /**
+     * Registers a listener for transactions recorded from now on: those executed by deposit, withdraw
+     * and transfer, and those stored with {@link #recordTransaction} or {@link #applyTransaction}.
+     */
+    public void addTransactionListener(TransactionListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Enables hot-account detection. Deposits, including the receiving side of transfers,
+     * are fed to the detector, and accounts it reports as hot are switched to striped balances.
+     */
+    public void setHotAccountDetector(HotAccountDetector detector) {
+        this.hotAccountDetector = detector;
+        if (detector != null) {
+            metrics.gauge("banking_hot_accounts", "Accounts switched to striped balances", detector::getHotAccountCount);
+        }
+    }
+
+    public HotAccountDetector getHotAccountDetector() {
+        return hotAccountDetector;
+    }
+
+    /**
+     * Enables velocity limits on withdrawals and on the debit side of transfers, including each
+     * transfer of a netted settlement batch.
+     */
+    public void setVelocityLimiter(VelocityLimiter limiter) {
+        this.velocityLimiter = limiter;
+        if (limiter != null) {
+            metrics.gauge("banking_velocity_tracked_accounts", "Accounts with debits in their velocity window",
+                    limiter::getTrackedAccountCount);
+        }
+    }
+
+    public VelocityLimiter getVelocityLimiter() {
+        return velocityLimiter;
+    }
+
+    /**
+     * Enables transfers between accounts of different currencies, converted at the cache's current rates.
+     * A cross-currency transfer is recorded as an {@code FX_TRANSFER_OUT} transaction on the source
+     * account and an {@code FX_TRANSFER_IN} transaction on the destination; the former is returned.
+     */
+    public void setFxRateCache(FxRateCache fxRateCache) {
+        this.fxRateCache = fxRateCache;
+    }
+
+    private FxRates currentFxRates() {
+        FxRateCache cache = fxRateCache;
+        if (cache == null) {
+            throw new IllegalArgumentException("Cross-currency transfers are not enabled");
+        }
+        return cache.current();
     }
 
     public Money calculateAccountBalance(String accountId) {
         Account account = accountService.getAccount(accountId);
         return account.getBalance();
     }
-}
 
+    /**
+     * Stores the transaction and reports it to the listeners. Returns the nanoseconds spent in listeners.
+     */
+    private long record(Transaction transaction) {
+        transactions.put(transaction);
+        postings.post(transaction);
+        if (listeners.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        for (TransactionListener listener : listeners) {
+            listener.onTransaction(transaction);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Stores a batch and posts it in one pass, then reports each transaction to the listeners.
+     */
+    private void recordAll(List<Transaction> batch) {
+        for (Transaction transaction : batch) {
+            transactions.put(transaction);
+        }
+        postings.postAll(batch);
+        for (Transaction transaction : batch) {
+            for (TransactionListener listener : listeners) {
+                listener.onTransaction(transaction);
+            }
+        }
+    }
+
+    private void notifyStored(Transaction transaction) {
+        for (TransactionListener listener : listeners) {
+            listener.onTransactionStored(transaction);
+        }
+    }
+
+    private static void checkVelocity(VelocityLimiter limiter, Account account, Money debit) {
+        if (limiter != null) {
+            limiter.check(account.getAccountId(), account.getAccountType(), debit);
+        }
+    }
+
+    private static void recordVelocity(VelocityLimiter limiter, Account account, Money debit) {
+        if (limiter != null) {
+            limiter.record(account.getAccountId(), account.getAccountType(), debit);
+        }
+    }
+
+    private void detectHotAccount(Account account) {
+        HotAccountDetector detector = hotAccountDetector;
+        if (detector != null && !account.isStriped() && detector.record(account.getAccountId())) {
+            account.enableStriping(detector.getStripeCount());
+        }
+    }
+
+    private String countFailure(RuntimeException e) {
+        if (e instanceof InsufficientFundsException) {
+            insufficientFunds.increment();
+            return LedgerOperationEvent.OUTCOME_INSUFFICIENT_FUNDS;
+        } else if (e instanceof InvalidAccountException) {
+            invalidAccount.increment();
+            return LedgerOperationEvent.OUTCOME_INVALID_ACCOUNT;
+        } else if (e instanceof VelocityLimitExceededException) {
+            velocityLimited.increment();
+            return LedgerOperationEvent.OUTCOME_VELOCITY_LIMIT;
+        }
+        return LedgerOperationEvent.OUTCOME_REJECTED;
+    }
+
+    private static void commitEvent(LedgerOperationEvent event, TransactionType type, String accountId,
+                                    String relatedAccountId, Money amount, String outcome, long lockWait,
+                                    long journalWait) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = type.name();
+            event.accountId = accountId;
+            event.relatedAccountId = relatedAccountId;
+            if (amount != null) {
+                event.amount = amount.getAmount().toPlainString();
+                event.currency = amount.getCurrency();
+            }
+            event.outcome = outcome;
+            event.lockWait = lockWait;
+            event.journalWait = journalWait;
+            event.commit();
+        }
+    }
+}
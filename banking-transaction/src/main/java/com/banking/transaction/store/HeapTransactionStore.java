@@ -0,0 +1,58 @@
+package com.banking.transaction.store;
+
+import com.banking.transaction.domain.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link Transaction} objects in a concurrent map. The default store.
+ */
+public class HeapTransactionStore implements TransactionStore {
+    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(Transaction transaction) {
+        transactions.put(transaction.getTransactionId(), transaction);
+    }
+
+    @Override
+    public boolean putIfAbsent(Transaction transaction) {
+        return transactions.putIfAbsent(transaction.getTransactionId(), transaction) == null;
+    }
+
+    @Override
+    public Transaction get(String transactionId) {
+        return transactions.get(transactionId);
+    }
+
+    @Override
+    public boolean contains(String transactionId) {
+        return transactions.containsKey(transactionId);
+    }
+
+    @Override
+    public void remove(String transactionId) {
+        transactions.remove(transactionId);
+    }
+
+    @Override
+    public List<Transaction> findByAccount(String accountId) {
+        return transactions.values().stream()
+                .filter(t -> t.getAccountId().equals(accountId) || accountId.equals(t.getRelatedAccountId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Transaction> getAll() {
+        return new ArrayList<>(transactions.values());
+    }
+
+    @Override
+    public int size() {
+        return transactions.size();
+    }
+}
@@ -0,0 +1,104 @@
+package com.banking.transaction.store;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Map from a pair of longs (a UUID) to a non-negative int, without boxing.
+ * <p>
+ * Split into stripes selected by the key hash; each stripe is an open-addressing table
+ * guarded by its own monitor. Entries are never removed.
+ */
+public final class LongPairIndex {
+    public static final int ABSENT = -1;
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public LongPairIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public int get(long high, long low) {
+        long hash = hash(high, low);
+        return stripes[(int) (hash >>> 58)].get(high, low, hash);
+    }
+
+    /**
+     * Atomically replaces the value of a key with {@code function} applied to the current
+     * value, or to {@link #ABSENT}. Returning {@link #ABSENT} leaves the entry unchanged.
+     * The function runs under the stripe lock.
+     */
+    public int compute(long high, long low, IntUnaryOperator function) {
+        long hash = hash(high, low);
+        return stripes[(int) (hash >>> 58)].compute(high, low, hash, function);
+    }
+
+    private static long hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Stripe {
+        private long[] highs = new long[16];
+        private long[] lows = new long[16];
+        private int[] values = new int[16];
+        private int size;
+
+        synchronized int get(long high, long low, long hash) {
+            int slot = find(high, low, hash);
+            return values[slot] - 1;
+        }
+
+        synchronized int compute(long high, long low, long hash, IntUnaryOperator function) {
+            int slot = find(high, low, hash);
+            int current = values[slot] - 1;
+            int updated = function.applyAsInt(current);
+            if (updated == ABSENT) {
+                return current;
+            }
+            if (current == ABSENT) {
+                highs[slot] = high;
+                lows[slot] = low;
+                if (++size * 4 > values.length * 3) {
+                    values[slot] = updated + 1;
+                    resize();
+                    return updated;
+                }
+            }
+            values[slot] = updated + 1;
+            return updated;
+        }
+
+        /** Returns the slot holding the key, or the empty slot where it belongs. */
+        private int find(long high, long low, long hash) {
+            int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            while (values[slot] != 0 && (highs[slot] != high || lows[slot] != low)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            long[] oldHighs = highs;
+            long[] oldLows = lows;
+            int[] oldValues = values;
+            highs = new long[oldValues.length * 2];
+            lows = new long[oldValues.length * 2];
+            values = new int[oldValues.length * 2];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int slot = find(oldHighs[i], oldLows[i], hash(oldHighs[i], oldLows[i]));
+                    highs[slot] = oldHighs[i];
+                    lows[slot] = oldLows[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.banking.transaction.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Off-heap storage for the values a {@link SlabTransactionStore} record cannot hold inline:
+ * non-UUID IDs, amounts beyond 63 bits and strings a dictionary does not admit.
+ * <p>
+ * Each value takes a slot of the smallest power-of-two size class that fits its UTF-8 bytes and
+ * a length prefix. Freed slots are reused by later values of the same class, and a chunk that
+ * holds a single slot is released as soon as that slot is freed. A slot may be freed and reused
+ * while a reader is still decoding it; {@link #get} then returns garbage or null, and the store
+ * discards the result once it sees that the owning record is no longer live.
+ */
+final class OverflowSlab {
+    private static final int MIN_SLOT_SHIFT = 4;
+    private static final int CLASS_COUNT = 22;
+    private static final int SLOT_BITS = 24;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private final SizeClass[] classes = new SizeClass[CLASS_COUNT];
+
+    OverflowSlab() {
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            classes[i] = new SizeClass(1 << (MIN_SLOT_SHIFT + i));
+        }
+    }
+
+    /**
+     * @return a non-negative reference to the stored value, below {@code 1 << 29}
+     */
+    int add(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int needed = bytes.length + Integer.BYTES;
+        int sizeClass = Math.max(0, Integer.SIZE - Integer.numberOfLeadingZeros(needed - 1) - MIN_SLOT_SHIFT);
+        if (sizeClass >= CLASS_COUNT) {
+            throw new IllegalArgumentException("Value is too long to store: " + bytes.length + " bytes");
+        }
+        return sizeClass << SLOT_BITS | classes[sizeClass].write(bytes);
+    }
+
+    /**
+     * @return the value, or null if its slot has been released; either way only valid if the
+     *         value had not been freed when the read completed
+     */
+    String get(int ref) {
+        return classes[ref >>> SLOT_BITS].read(ref & SLOT_MASK);
+    }
+
+    void free(int ref) {
+        classes[ref >>> SLOT_BITS].free(ref & SLOT_MASK);
+    }
+
+    /**
+     * Bytes of off-heap memory currently allocated.
+     */
+    long getBytes() {
+        long bytes = 0;
+        for (SizeClass sizeClass : classes) {
+            bytes += sizeClass.getBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * The slots of one size, in chunks of {@link #CHUNK_BYTES} or of a single slot if larger.
+     * Writers synchronize on the class; readers only read the published chunk array.
+     */
+    private static final class SizeClass {
+        private final int slotSize;
+        private final int slotsPerChunkShift;
+        private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+        private int nextSlot;
+        private long bytes;
+
+        SizeClass(int slotSize) {
+            this.slotSize = slotSize;
+            this.slotsPerChunkShift = Integer.numberOfTrailingZeros(Math.max(1, CHUNK_BYTES / slotSize));
+        }
+
+        synchronized int write(byte[] value) {
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else if (nextSlot <= SLOT_MASK) {
+                slot = nextSlot++;
+            } else {
+                throw new IllegalStateException("Transaction store overflow is full");
+            }
+            ByteBuffer chunk = chunk(slot >>> slotsPerChunkShift);
+            int offset = offsetOf(slot);
+            chunk.putInt(offset, value.length);
+            ByteBuffer target = chunk.duplicate();
+            target.position(offset + Integer.BYTES);
+            target.put(value);
+            return slot;
+        }
+
+        String read(int slot) {
+            ByteBuffer[] current = chunks;
+            int index = slot >>> slotsPerChunkShift;
+            ByteBuffer chunk = index < current.length ? current[index] : null;
+            if (chunk == null) {
+                return null;
+            }
+            int offset = offsetOf(slot);
+            int length = chunk.getInt(offset);
+            if (length < 0 || length > slotSize - Integer.BYTES) {
+                return null;
+            }
+            byte[] value = new byte[length];
+            ByteBuffer source = chunk.duplicate();
+            source.position(offset + Integer.BYTES);
+            source.get(value);
+            return new String(value, StandardCharsets.UTF_8);
+        }
+
+        synchronized void free(int slot) {
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            if (slotsPerChunkShift == 0) {
+                chunks[slot] = null;
+                bytes -= slotSize;
+            }
+        }
+
+        synchronized long getBytes() {
+            return bytes;
+        }
+
+        private ByteBuffer chunk(int index) {
+            ByteBuffer[] current = chunks;
+            if (index >= current.length) {
+                current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+            }
+            if (current[index] == null) {
+                int chunkBytes = slotSize << slotsPerChunkShift;
+                current[index] = ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.nativeOrder());
+                bytes += chunkBytes;
+            }
+            chunks = current;
+            return current[index];
+        }
+
+        private int offsetOf(int slot) {
+            return (slot & ((1 << slotsPerChunkShift) - 1)) * slotSize;
+        }
+    }
+}
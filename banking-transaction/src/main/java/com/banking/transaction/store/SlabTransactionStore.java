@@ -0,0 +1,454 @@
+package com.banking.transaction.store;
+
+import com.banking.core.domain.TransactionType;
+import com.banking.core.intern.StringDictionary;
+import com.banking.transaction.domain.Transaction;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Append-only transaction store that keeps each transaction as a fixed-layout record in
+ * large direct {@link ByteBuffer} slabs instead of as a graph of heap objects.
+ * <p>
+ * A record holds the transaction ID (a UUID as two longs), the timestamp as epoch nanos,
+ * the amount as an unscaled long with its scale, and the currency, accounts and description
+ * as int references into the shared {@link StringDictionary} instances. Values that do not
+ * fit (non-UUID IDs, amounts beyond 63 bits, strings a dictionary does not admit) are kept
+ * off-heap in an {@link OverflowSlab} and referenced instead. The only per-transaction heap
+ * state is the ID index entry, so stored transactions add almost nothing to what the GC has
+ * to trace.
+ * <p>
+ * Appends claim a record slot with a single atomic increment and write it without locks;
+ * the record's status word is published last with release semantics, and readers skip
+ * records whose status is not yet visible. Removal marks a record dead; its slot is not reused,
+ * but its overflow values are freed. A reader decoding an overflow value checks afterwards that
+ * the record is still live, so a value freed and reused in the meantime is never returned: the
+ * record is skipped by scans and not found by {@link #get}.
+ * Records are read through a reusable {@link TransactionView}; {@link #get} and the list
+ * methods materialize {@link Transaction} objects.
+ */
+public class SlabTransactionStore implements TransactionStore {
+    static final int RECORD_SIZE = 56;
+
+    private static final int STATUS = 0;
+    private static final int TYPE = 4;
+    private static final int SCALE = 5;
+    private static final int FLAGS = 6;
+    private static final int ID_HIGH = 8;
+    private static final int ID_LOW = 16;
+    private static final int TIMESTAMP = 24;
+    private static final int AMOUNT = 32;
+    private static final int CURRENCY = 40;
+    private static final int ACCOUNT = 44;
+    private static final int RELATED_ACCOUNT = 48;
+    private static final int DESCRIPTION = 52;
+
+    private static final int LIVE = 1;
+    private static final int REMOVED = 2;
+
+    private static final int FLAG_UUID = 1;
+    private static final int FLAG_AMOUNT_OVERFLOW = 2;
+
+    private static final int[] REF_FIELDS = {CURRENCY, ACCOUNT, RELATED_ACCOUNT, DESCRIPTION};
+
+    private static final int NULL_REF = -1;
+    private static final int MAX_SLABS = 1 << 15;
+    private static final int DEFAULT_SLAB_SHIFT = 16;
+
+    private static final VarHandle STATUS_WORD =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final int slabShift;
+    private final int slabMask;
+    private final long capacity;
+    private final AtomicReferenceArray<ByteBuffer> slabs = new AtomicReferenceArray<>(MAX_SLABS);
+    private final AtomicInteger nextRecord = new AtomicInteger();
+    private final AtomicInteger liveRecords = new AtomicInteger();
+    private final LongPairIndex uuidIndex = new LongPairIndex();
+    private final Map<String, Integer> otherIndex = new ConcurrentHashMap<>();
+    private final StringDictionary currencies = new StringDictionary(1024, 16);
+    private final OverflowSlab overflow = new OverflowSlab();
+
+    public SlabTransactionStore() {
+        this(DEFAULT_SLAB_SHIFT);
+    }
+
+    /**
+     * @param slabShift log2 of the number of records per slab
+     */
+    SlabTransactionStore(int slabShift) {
+        if (slabShift < 0 || slabShift > 24) {
+            throw new IllegalArgumentException("Slab shift must be between 0 and 24");
+        }
+        this.slabShift = slabShift;
+        this.slabMask = (1 << slabShift) - 1;
+        this.capacity = Math.min((long) MAX_SLABS << slabShift, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void put(Transaction transaction) {
+        insert(transaction, true);
+    }
+
+    @Override
+    public boolean putIfAbsent(Transaction transaction) {
+        return insert(transaction, false);
+    }
+
+    @Override
+    public Transaction get(String transactionId) {
+        TransactionView view = new TransactionView(this);
+        try {
+            return view.moveTo(lookup(transactionId)) ? view.toTransaction() : null;
+        } catch (RemovedWhileReadingException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean contains(String transactionId) {
+        return isLive(lookup(transactionId));
+    }
+
+    @Override
+    public void remove(String transactionId) {
+        if (transactionId != null && !isUuid(transactionId)) {
+            otherIndex.computeIfPresent(transactionId, (id, record) -> {
+                markRemoved(record);
+                return null;
+            });
+        } else {
+            markRemoved(lookup(transactionId));
+        }
+    }
+
+    @Override
+    public List<Transaction> findByAccount(String accountId) {
+        List<Transaction> result = new ArrayList<>();
+        forEach(view -> {
+            if (view.getAccountId().equals(accountId) || accountId.equals(view.getRelatedAccountId())) {
+                result.add(view.toTransaction());
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public List<Transaction> getAll() {
+        List<Transaction> result = new ArrayList<>(liveRecords.get());
+        forEach(view -> result.add(view.toTransaction()));
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return liveRecords.get();
+    }
+
+    /**
+     * Calls {@code action} for every stored transaction in append order, passing the same
+     * view positioned on each record in turn. The view must not be kept after the call. A record
+     * removed while the action reads one of its overflow values is skipped from that point.
+     */
+    public void forEach(Consumer<TransactionView> action) {
+        TransactionView view = new TransactionView(this);
+        int end = nextRecord.get();
+        for (int record = 0; record < end; record++) {
+            if (view.moveTo(record)) {
+                try {
+                    action.accept(view);
+                } catch (RemovedWhileReadingException e) {
+                    // As if the scan had reached the record just after it was removed.
+                }
+            }
+        }
+    }
+
+    /**
+     * Bytes of slab memory allocated so far.
+     */
+    public long getSlabBytes() {
+        long bytes = 0;
+        for (int i = 0; i < MAX_SLABS && slabs.get(i) != null; i++) {
+            bytes += (long) RECORD_SIZE << slabShift;
+        }
+        return bytes;
+    }
+
+    /**
+     * Bytes of off-heap memory holding overflow values of live transactions.
+     */
+    public long getOverflowBytes() {
+        return overflow.getBytes();
+    }
+
+    // Record access used by TransactionView
+
+    ByteBuffer slabOf(int record) {
+        return record >= 0 ? slabs.get(record >>> slabShift) : null;
+    }
+
+    int offsetOf(int record) {
+        return (record & slabMask) * RECORD_SIZE;
+    }
+
+    boolean isLive(ByteBuffer slab, int offset) {
+        return (int) STATUS_WORD.getAcquire(slab, offset) == LIVE;
+    }
+
+    String transactionId(ByteBuffer slab, int offset) {
+        long high = slab.getLong(offset + ID_HIGH);
+        if ((slab.get(offset + FLAGS) & FLAG_UUID) == 0) {
+            return overflowValue(slab, offset, (int) high);
+        }
+        return new UUID(high, slab.getLong(offset + ID_LOW)).toString();
+    }
+
+    static TransactionType type(ByteBuffer slab, int offset) {
+        return TYPES[slab.get(offset + TYPE)];
+    }
+
+    static long epochNanos(ByteBuffer slab, int offset) {
+        return slab.getLong(offset + TIMESTAMP);
+    }
+
+    BigDecimal amount(ByteBuffer slab, int offset) {
+        long amount = slab.getLong(offset + AMOUNT);
+        if ((slab.get(offset + FLAGS) & FLAG_AMOUNT_OVERFLOW) != 0) {
+            return new BigDecimal(overflowValue(slab, offset, (int) amount));
+        }
+        return BigDecimal.valueOf(amount, slab.get(offset + SCALE));
+    }
+
+    String currency(ByteBuffer slab, int offset) {
+        return decode(slab, offset, currencies, slab.getInt(offset + CURRENCY));
+    }
+
+    String accountId(ByteBuffer slab, int offset) {
+        return decode(slab, offset, StringDictionary.IDENTIFIERS, slab.getInt(offset + ACCOUNT));
+    }
+
+    String relatedAccountId(ByteBuffer slab, int offset) {
+        return decode(slab, offset, StringDictionary.IDENTIFIERS, slab.getInt(offset + RELATED_ACCOUNT));
+    }
+
+    String description(ByteBuffer slab, int offset) {
+        return decode(slab, offset, StringDictionary.DESCRIPTIONS, slab.getInt(offset + DESCRIPTION));
+    }
+
+    public static long toEpochNanos(LocalDateTime timestamp) {
+        return Math.addExact(Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L),
+                timestamp.getNano());
+    }
+
+    static LocalDateTime fromEpochNanos(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private boolean insert(Transaction transaction, boolean replace) {
+        String transactionId = transaction.getTransactionId();
+        boolean[] inserted = new boolean[1];
+        IntUnaryOperator update = current -> {
+            if (isLive(current)) {
+                if (!replace) {
+                    return LongPairIndex.ABSENT;
+                }
+                markRemoved(current);
+            }
+            inserted[0] = true;
+            return append(transaction);
+        };
+        if (isUuid(transactionId)) {
+            uuidIndex.compute(uuidHigh(transactionId), uuidLow(transactionId), update);
+        } else {
+            otherIndex.compute(transactionId, (id, current) -> {
+                int updated = update.applyAsInt(current != null ? current : LongPairIndex.ABSENT);
+                return updated != LongPairIndex.ABSENT ? Integer.valueOf(updated) : current;
+            });
+        }
+        return inserted[0];
+    }
+
+    private int append(Transaction transaction) {
+        int record = nextRecord.getAndIncrement();
+        if (record < 0 || record >= capacity) {
+            nextRecord.decrementAndGet();
+            throw new IllegalStateException("Transaction store is full");
+        }
+        ByteBuffer slab = slab(record >>> slabShift);
+        int offset = offsetOf(record);
+
+        String transactionId = transaction.getTransactionId();
+        int flags = 0;
+        if (isUuid(transactionId)) {
+            flags |= FLAG_UUID;
+            slab.putLong(offset + ID_HIGH, uuidHigh(transactionId));
+            slab.putLong(offset + ID_LOW, uuidLow(transactionId));
+        } else {
+            slab.putLong(offset + ID_HIGH, overflow.add(transactionId));
+        }
+
+        BigDecimal amount = transaction.getAmount().getAmount();
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() < 64 && amount.scale() >= Byte.MIN_VALUE && amount.scale() <= Byte.MAX_VALUE) {
+            slab.putLong(offset + AMOUNT, unscaled.longValue());
+            slab.put(offset + SCALE, (byte) amount.scale());
+        } else {
+            flags |= FLAG_AMOUNT_OVERFLOW;
+            slab.putLong(offset + AMOUNT, overflow.add(amount.toString()));
+        }
+
+        slab.put(offset + TYPE, (byte) transaction.getType().ordinal());
+        slab.put(offset + FLAGS, (byte) flags);
+        slab.putLong(offset + TIMESTAMP, toEpochNanos(transaction.getTimestamp()));
+        slab.putInt(offset + CURRENCY, encode(currencies, transaction.getAmount().getCurrency()));
+        slab.putInt(offset + ACCOUNT, encode(StringDictionary.IDENTIFIERS, transaction.getAccountId()));
+        slab.putInt(offset + RELATED_ACCOUNT, encode(StringDictionary.IDENTIFIERS, transaction.getRelatedAccountId()));
+        slab.putInt(offset + DESCRIPTION, encode(StringDictionary.DESCRIPTIONS, transaction.getDescription()));
+        STATUS_WORD.setRelease(slab, offset + STATUS, LIVE);
+        liveRecords.incrementAndGet();
+        return record;
+    }
+
+    private ByteBuffer slab(int index) {
+        ByteBuffer slab = slabs.get(index);
+        if (slab == null) {
+            ByteBuffer allocated = ByteBuffer.allocateDirect(RECORD_SIZE << slabShift).order(ByteOrder.nativeOrder());
+            slab = slabs.compareAndSet(index, null, allocated) ? allocated : slabs.get(index);
+        }
+        return slab;
+    }
+
+    private int lookup(String transactionId) {
+        if (transactionId == null) {
+            return LongPairIndex.ABSENT;
+        }
+        if (isUuid(transactionId)) {
+            return uuidIndex.get(uuidHigh(transactionId), uuidLow(transactionId));
+        }
+        Integer record = otherIndex.get(transactionId);
+        return record != null ? record : LongPairIndex.ABSENT;
+    }
+
+    private boolean isLive(int record) {
+        ByteBuffer slab = slabOf(record);
+        return slab != null && isLive(slab, offsetOf(record));
+    }
+
+    private void markRemoved(int record) {
+        ByteBuffer slab = slabOf(record);
+        if (slab != null && STATUS_WORD.compareAndSet(slab, offsetOf(record), LIVE, REMOVED)) {
+            liveRecords.decrementAndGet();
+            freeOverflow(slab, offsetOf(record));
+        }
+    }
+
+    private void freeOverflow(ByteBuffer slab, int offset) {
+        int flags = slab.get(offset + FLAGS);
+        if ((flags & FLAG_UUID) == 0) {
+            overflow.free((int) slab.getLong(offset + ID_HIGH));
+        }
+        if ((flags & FLAG_AMOUNT_OVERFLOW) != 0) {
+            overflow.free((int) slab.getLong(offset + AMOUNT));
+        }
+        for (int field : REF_FIELDS) {
+            int ref = slab.getInt(offset + field);
+            if (ref < NULL_REF) {
+                overflow.free(NULL_REF - 1 - ref);
+            }
+        }
+    }
+
+    private int encode(StringDictionary dictionary, String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        int id = dictionary.idOf(value);
+        return id != StringDictionary.NO_ID ? id : NULL_REF - 1 - overflow.add(value);
+    }
+
+    private String decode(ByteBuffer slab, int offset, StringDictionary dictionary, int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        return ref >= 0 ? dictionary.valueOf(ref) : overflowValue(slab, offset, NULL_REF - 1 - ref);
+    }
+
+    /**
+     * Reads an overflow value of a record. The value is freed, and its slot may be reused, once the
+     * record is removed, so it is only returned if the record was still live after the read.
+     */
+    private String overflowValue(ByteBuffer slab, int offset, int ref) {
+        String value = overflow.get(ref);
+        VarHandle.acquireFence();
+        if (value == null || !isLive(slab, offset)) {
+            throw RemovedWhileReadingException.INSTANCE;
+        }
+        return value;
+    }
+
+    /**
+     * Only the canonical lower-case form, so the ID can be rebuilt exactly from its two longs
+     * with {@code new UUID(uuidHigh(id), uuidLow(id)).toString()}.
+     */
+    public static boolean isUuid(String id) {
+        if (id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : !((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static long uuidHigh(String id) {
+        return hex(id, 0, 8) << 32 | hex(id, 9, 13) << 16 | hex(id, 14, 18);
+    }
+
+    public static long uuidLow(String id) {
+        return hex(id, 19, 23) << 48 | hex(id, 24, 36);
+    }
+
+    private static long hex(String id, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value << 4 | Character.digit(id.charAt(i), 16);
+        }
+        return value;
+    }
+
+    /**
+     * Thrown out of a {@link TransactionView} getter when the record was removed while one of its
+     * overflow values was being read.
+     */
+    static final class RemovedWhileReadingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final RemovedWhileReadingException INSTANCE = new RemovedWhileReadingException();
+
+        private RemovedWhileReadingException() {
+            super("Transaction was removed while it was read", null, false, false);
+        }
+    }
+}
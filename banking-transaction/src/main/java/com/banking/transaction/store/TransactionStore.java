@@ -0,0 +1,41 @@
+package com.banking.transaction.store;
+
+import com.banking.transaction.domain.Transaction;
+
+import java.util.List;
+
+/**
+ * Storage of recorded transactions, keyed by transaction ID. Implementations are thread-safe.
+ */
+public interface TransactionStore {
+
+    /**
+     * Stores a transaction, replacing any transaction with the same ID.
+     */
+    void put(Transaction transaction);
+
+    /**
+     * Stores a transaction unless one with the same ID is already stored.
+     *
+     * @return true if it was stored
+     */
+    boolean putIfAbsent(Transaction transaction);
+
+    /**
+     * Returns the transaction with the given ID, or null.
+     */
+    Transaction get(String transactionId);
+
+    boolean contains(String transactionId);
+
+    void remove(String transactionId);
+
+    /**
+     * Returns the transactions from or to the given account, in no particular order.
+     */
+    List<Transaction> findByAccount(String accountId);
+
+    List<Transaction> getAll();
+
+    int size();
+}
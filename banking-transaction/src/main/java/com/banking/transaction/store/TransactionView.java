@@ -0,0 +1,92 @@
+package com.banking.transaction.store;
+
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * Reusable flyweight over one record of a {@link SlabTransactionStore}.
+ * <p>
+ * {@link #moveTo} repositions the view without allocating. Account IDs and descriptions
+ * resolve to shared canonical strings; the ID, timestamp and amount getters decode into new
+ * objects, so scans should filter on the cheap getters first and {@link #toTransaction()}
+ * only the records they keep. Not thread-safe.
+ */
+public final class TransactionView {
+    private final SlabTransactionStore store;
+    private ByteBuffer slab;
+    private int offset;
+
+    TransactionView(SlabTransactionStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Positions the view on a record.
+     *
+     * @return false, leaving the view unpositioned, if the record does not exist or was removed
+     */
+    boolean moveTo(int record) {
+        ByteBuffer target = store.slabOf(record);
+        int targetOffset = store.offsetOf(record);
+        if (target == null || !store.isLive(target, targetOffset)) {
+            slab = null;
+            return false;
+        }
+        slab = target;
+        offset = targetOffset;
+        return true;
+    }
+
+    public String getTransactionId() {
+        return store.transactionId(slab, offset);
+    }
+
+    public String getAccountId() {
+        return store.accountId(slab, offset);
+    }
+
+    public String getRelatedAccountId() {
+        return store.relatedAccountId(slab, offset);
+    }
+
+    public TransactionType getType() {
+        return SlabTransactionStore.type(slab, offset);
+    }
+
+    public long getEpochNanos() {
+        return SlabTransactionStore.epochNanos(slab, offset);
+    }
+
+    public LocalDateTime getTimestamp() {
+        return SlabTransactionStore.fromEpochNanos(getEpochNanos());
+    }
+
+    public String getCurrency() {
+        return store.currency(slab, offset);
+    }
+
+    public BigDecimal getAmountValue() {
+        return store.amount(slab, offset);
+    }
+
+    public Money getAmount() {
+        return new Money(getAmountValue(), getCurrency());
+    }
+
+    public String getDescription() {
+        return store.description(slab, offset);
+    }
+
+    /**
+     * Copies the current record into a standalone {@link Transaction}.
+     */
+    public Transaction toTransaction() {
+        return new Transaction(getTransactionId(), getAccountId(), getType(), getAmount(), getDescription(),
+                getRelatedAccountId(), getTimestamp());
+    }
+}
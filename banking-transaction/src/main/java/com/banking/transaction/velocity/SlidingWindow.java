@@ -0,0 +1,74 @@
+package com.banking.transaction.velocity;
+
+import java.util.Arrays;
+
+/**
+ * Debit count and amount of one account over a rolling window, kept as a ring of buckets plus
+ * running totals. Moving the window forward clears the buckets that fell out of it, so adding
+ * and reading are constant time. Amounts are in units of {@link VelocityLimiter#AMOUNT_SCALE}
+ * decimals and only ever added after passing the limit, so they cannot overflow. Callers
+ * synchronize on the window.
+ */
+final class SlidingWindow {
+    private final long bucketNanos;
+    private final int[] counts;
+    private final long[] amounts;
+    private long currentBucket;
+    private int count;
+    private long amount;
+
+    SlidingWindow(int buckets, long bucketNanos, long nowNanos) {
+        this.bucketNanos = bucketNanos;
+        this.counts = new int[buckets];
+        this.amounts = new long[buckets];
+        this.currentBucket = Math.floorDiv(nowNanos, bucketNanos);
+    }
+
+    void advance(long nowNanos) {
+        long bucket = Math.floorDiv(nowNanos, bucketNanos);
+        long elapsed = bucket - currentBucket;
+        if (elapsed <= 0) {
+            return;
+        }
+        if (elapsed >= counts.length) {
+            Arrays.fill(counts, 0);
+            Arrays.fill(amounts, 0);
+            count = 0;
+            amount = 0;
+        } else {
+            for (long expired = currentBucket + 1; expired <= bucket; expired++) {
+                int index = (int) Math.floorMod(expired, (long) counts.length);
+                count -= counts[index];
+                amount -= amounts[index];
+                counts[index] = 0;
+                amounts[index] = 0;
+            }
+        }
+        currentBucket = bucket;
+    }
+
+    void add(long nowNanos, int debits, long units) {
+        advance(nowNanos);
+        int index = (int) Math.floorMod(currentBucket, (long) counts.length);
+        counts[index] += debits;
+        amounts[index] += units;
+        count += debits;
+        amount += units;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    long getAmount() {
+        return amount;
+    }
+
+    /**
+     * Whether nothing is left in the window, i.e. the window is indistinguishable from a new one.
+     */
+    boolean isIdle(long nowNanos) {
+        advance(nowNanos);
+        return count == 0;
+    }
+}
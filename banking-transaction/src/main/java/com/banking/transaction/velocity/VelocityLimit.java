@@ -0,0 +1,65 @@
+package com.banking.transaction.velocity;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Limit on the debits (withdrawals and outgoing transfers) of one account within a rolling window:
+ * at most {@code maxCount} debits and at most {@code maxAmount} in total, in the account's
+ * currency. The window is tracked in {@code buckets} equal slices, so it rolls forward one slice
+ * at a time.
+ */
+public final class VelocityLimit {
+    private final Duration window;
+    private final int buckets;
+    private final int maxCount;
+    private final BigDecimal maxAmount;
+
+    /**
+     * @param maxCount  debits allowed per window, 0 for no count limit
+     * @param maxAmount total debited amount allowed per window, null for no amount limit
+     */
+    public VelocityLimit(Duration window, int buckets, int maxCount, BigDecimal maxAmount) {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        if (buckets < 1 || window.toNanos() / buckets == 0) {
+            throw new IllegalArgumentException("Buckets must be positive and no finer than a nanosecond");
+        }
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("Max count cannot be negative");
+        }
+        if (maxAmount != null && maxAmount.signum() < 0) {
+            throw new IllegalArgumentException("Max amount cannot be negative");
+        }
+        this.window = window;
+        this.buckets = buckets;
+        this.maxCount = maxCount;
+        this.maxAmount = maxAmount;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    long getBucketNanos() {
+        return window.toNanos() / buckets;
+    }
+
+    @Override
+    public String toString() {
+        return "VelocityLimit{window=" + window + ", maxCount=" + maxCount + ", maxAmount=" + maxAmount + "}";
+    }
+}
@@ -0,0 +1,185 @@
+package com.banking.transaction.velocity;
+
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.exception.VelocityLimitExceededException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces a {@link VelocityLimit} per {@link AccountType} on account debits, in memory.
+ * <p>
+ * Each account with recent debits has a {@link SlidingWindow} per currency debited, and amount
+ * limits apply in the currency of the debit. {@link #check} and {@link #record} are meant to be
+ * called under the account's lock, around the debit itself, so a debit that fails for another
+ * reason is not counted. Windows left empty by the passing of time are dropped by {@link #sweep},
+ * which the owner should run every {@link #getSweepIntervalNanos()} so idle accounts hold no
+ * memory; debits never wait for it.
+ */
+public class VelocityLimiter {
+    /**
+     * Decimals kept of debited amounts; smaller fractions are rounded up.
+     */
+    public static final int AMOUNT_SCALE = 4;
+    private static final BigDecimal MAX_UNITS = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final Map<AccountType, VelocityLimit> limits;
+    private final Map<AccountType, Long> maxAmountUnits = new EnumMap<>(AccountType.class);
+    private final ConcurrentHashMap<String, SlidingWindow> windows = new ConcurrentHashMap<>();
+    private final long sweepIntervalNanos;
+
+    /**
+     * @param limits limit per account type; types without one are not limited
+     */
+    public VelocityLimiter(Map<AccountType, VelocityLimit> limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Limits cannot be null");
+        }
+        this.limits = limits.isEmpty() ? new EnumMap<>(AccountType.class) : new EnumMap<>(limits);
+        long longestWindow = 1;
+        for (Map.Entry<AccountType, VelocityLimit> entry : this.limits.entrySet()) {
+            VelocityLimit limit = entry.getValue();
+            if (limit.getMaxAmount() != null) {
+                maxAmountUnits.put(entry.getKey(), toUnits(limit.getMaxAmount(), RoundingMode.FLOOR));
+            }
+            longestWindow = Math.max(longestWindow, limit.getWindow().toNanos());
+        }
+        this.sweepIntervalNanos = longestWindow;
+    }
+
+    public VelocityLimit getLimit(AccountType accountType) {
+        return limits.get(accountType);
+    }
+
+    /**
+     * @return how often {@link #sweep} should run: the longest window of any limit
+     */
+    public long getSweepIntervalNanos() {
+        return sweepIntervalNanos;
+    }
+
+    /**
+     * @throws VelocityLimitExceededException if debiting {@code amount} now would exceed the limit
+     */
+    public void check(String accountId, AccountType accountType, Money amount) {
+        check(accountId, accountType, amount, 1, System.nanoTime());
+    }
+
+    /**
+     * Checks several debits made together, e.g. by one settlement batch.
+     *
+     * @param amount the total of the debits
+     * @throws VelocityLimitExceededException if making the debits now would exceed the limit
+     */
+    public void check(String accountId, AccountType accountType, Money amount, int debits) {
+        check(accountId, accountType, amount, debits, System.nanoTime());
+    }
+
+    /**
+     * Counts a debit that was made.
+     */
+    public void record(String accountId, AccountType accountType, Money amount) {
+        record(accountId, accountType, amount, 1, System.nanoTime());
+    }
+
+    /**
+     * Counts several debits that were made together.
+     *
+     * @param amount the total of the debits
+     */
+    public void record(String accountId, AccountType accountType, Money amount, int debits) {
+        record(accountId, accountType, amount, debits, System.nanoTime());
+    }
+
+    void check(String accountId, AccountType accountType, Money amount, long nowNanos) {
+        check(accountId, accountType, amount, 1, nowNanos);
+    }
+
+    void record(String accountId, AccountType accountType, Money amount, long nowNanos) {
+        record(accountId, accountType, amount, 1, nowNanos);
+    }
+
+    private void check(String accountId, AccountType accountType, Money amount, int debits, long nowNanos) {
+        VelocityLimit limit = limits.get(accountType);
+        if (limit == null) {
+            return;
+        }
+        int count = 0;
+        long debited = 0;
+        SlidingWindow window = windows.get(key(accountId, amount));
+        if (window != null) {
+            synchronized (window) {
+                window.advance(nowNanos);
+                count = window.getCount();
+                debited = window.getAmount();
+            }
+        }
+        if (limit.getMaxCount() > 0 && count > limit.getMaxCount() - debits) {
+            throw new VelocityLimitExceededException(String.format(
+                    "Account %s has reached its limit of %d debits per %s", accountId, limit.getMaxCount(),
+                    limit.getWindow()));
+        }
+        Long maxUnits = maxAmountUnits.get(accountType);
+        if (maxUnits != null && toUnits(amount.getAmount(), RoundingMode.CEILING) > maxUnits - debited) {
+            throw new VelocityLimitExceededException(String.format(
+                    "Debit of %s would take account %s over its limit of %s per %s", amount, accountId,
+                    limit.getMaxAmount(), limit.getWindow()));
+        }
+    }
+
+    private void record(String accountId, AccountType accountType, Money amount, int debits, long nowNanos) {
+        VelocityLimit limit = limits.get(accountType);
+        if (limit == null) {
+            return;
+        }
+        long units = maxAmountUnits.containsKey(accountType) ? toUnits(amount.getAmount(), RoundingMode.CEILING) : 0;
+        windows.compute(key(accountId, amount), (key, window) -> {
+            SlidingWindow target = window != null ? window
+                    : new SlidingWindow(limit.getBuckets(), limit.getBucketNanos(), nowNanos);
+            synchronized (target) {
+                target.add(nowNanos, debits, units);
+            }
+            return target;
+        });
+    }
+
+    /**
+     * Drops the windows of accounts without debits in their current window.
+     */
+    public void sweep() {
+        sweep(System.nanoTime());
+    }
+
+    void sweep(long nowNanos) {
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, window) -> {
+                synchronized (window) {
+                    return window.isIdle(nowNanos) ? null : window;
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the number of account and currency pairs whose recent debits are being tracked
+     */
+    public int getTrackedAccountCount() {
+        return windows.size();
+    }
+
+    private static String key(String accountId, Money amount) {
+        return accountId + ':' + amount.getCurrency();
+    }
+
+    private static long toUnits(BigDecimal amount, RoundingMode rounding) {
+        BigDecimal units = amount.setScale(AMOUNT_SCALE, rounding).movePointRight(AMOUNT_SCALE);
+        if (units.signum() <= 0) {
+            return 0;
+        }
+        return units.compareTo(MAX_UNITS) >= 0 ? Long.MAX_VALUE : units.longValueExact();
+    }
+}
@@ -0,0 +1,111 @@
+package com.banking.transaction.async;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.exception.InsufficientFundsException;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTransactionServiceTest {
+
+    @Test
+    void testOperationsCompleteOnTheExecutor() throws Exception {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        Account from = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account to = accountService.createAccount("CUST2", AccountType.CHECKING, new Money(0.0, "USD"));
+        ExecutorService executor = TransactionExecutors.platformThreads(2);
+        try {
+            AsyncTransactionService async = new AsyncTransactionService(transactionService, executor, 10);
+            async.depositAsync(from.getAccountId(), new Money(50.0, "USD"), "Deposit").get(5, TimeUnit.SECONDS);
+            async.withdrawAsync(from.getAccountId(), new Money(30.0, "USD"), "ATM").get(5, TimeUnit.SECONDS);
+            Transaction transfer = async.transferAsync(from.getAccountId(), to.getAccountId(),
+                    new Money(20.0, "USD"), "Payment").get(5, TimeUnit.SECONDS);
+
+            List<Transaction> history = async.getTransactionsByAccountAsync(from.getAccountId()).get(5, TimeUnit.SECONDS);
+            assertEquals(3, history.size());
+            assertTrue(history.contains(transfer));
+            assertEquals(0, new BigDecimal("100").compareTo(from.getBalance().getAmount()));
+            assertEquals(0, new BigDecimal("20").compareTo(to.getBalance().getAmount()));
+            assertEquals(0, async.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureCompletesTheFutureWithTheOriginalException() {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        Account account = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(10.0, "USD"));
+        ExecutorService executor = TransactionExecutors.platformThreads(1);
+        try {
+            AsyncTransactionService async = new AsyncTransactionService(transactionService, executor, 10);
+            CompletableFuture<Transaction> withdrawal =
+                    async.withdrawAsync(account.getAccountId(), new Money(20.0, "USD"), "ATM");
+            ExecutionException e = assertThrows(ExecutionException.class, () -> withdrawal.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof InsufficientFundsException);
+            assertEquals(0, async.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRejectsBeyondMaxInFlight() throws Exception {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        Account account = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(10.0, "USD"));
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = TransactionExecutors.platformThreads(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            AsyncTransactionService async = new AsyncTransactionService(transactionService, executor, 2);
+            CompletableFuture<Transaction> first = async.depositAsync(account.getAccountId(), new Money(1.0, "USD"), "1");
+            CompletableFuture<Transaction> second = async.depositAsync(account.getAccountId(), new Money(1.0, "USD"), "2");
+            CompletableFuture<Transaction> third = async.depositAsync(account.getAccountId(), new Money(1.0, "USD"), "3");
+            assertEquals(2, async.getInFlight());
+            ExecutionException e = assertThrows(ExecutionException.class, third::get);
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            assertEquals(0, new BigDecimal("12").compareTo(account.getBalance().getAmount()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecutorKinds() {
+        ExecutorService auto = TransactionExecutors.create("auto", 1);
+        auto.shutdown();
+        assertThrows(IllegalArgumentException.class, () -> TransactionExecutors.create("green", 1));
+        if (TransactionExecutors.isVirtualThreadsSupported()) {
+            TransactionExecutors.create("virtual", 1).shutdown();
+        } else {
+            assertThrows(IllegalStateException.class, () -> TransactionExecutors.create("virtual", 1));
+        }
+    }
+}
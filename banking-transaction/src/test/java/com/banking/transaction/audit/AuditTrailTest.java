@@ -0,0 +1,57 @@
+package com.banking.transaction.audit;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.audit.AuditLog;
+import com.banking.core.audit.OverflowPolicy;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditTrailTest {
+
+    @Test
+    void testAuditsAccountAndTransactionChanges() throws Exception {
+        Path directory = Files.createTempDirectory("audit");
+        AuditLog auditLog = new AuditLog(directory, 1024, OverflowPolicy.BLOCK, 1 << 20, false, 1000,
+                new MetricsRegistry());
+        auditLog.start();
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        new AuditTrail(auditLog).attach(accountService, transactionService);
+
+        Account checking = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account savings = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(0.0, "USD"));
+        transactionService.transfer(checking.getAccountId(), savings.getAccountId(), new Money(25.0, "USD"), "Savings");
+        accountService.deactivateAccount(savings.getAccountId());
+        transactionService.recordTransaction(new Transaction(checking.getAccountId(),
+                TransactionType.DEPOSIT, new Money(1.0, "USD"), "Elsewhere"));
+        auditLog.close();
+
+        List<String> actions = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().collect(Collectors.toList())) {
+                AuditLog.verify(file);
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    actions.add(line.split("\\|")[1]);
+                }
+            }
+        }
+        assertEquals(List.of("ACCOUNT_OPENED", "ACCOUNT_OPENED", "TRANSFER", "ACCOUNT_DEACTIVATED", "DEPOSIT_STORED"),
+                actions);
+    }
+}
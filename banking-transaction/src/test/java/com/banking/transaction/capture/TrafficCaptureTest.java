@@ -0,0 +1,177 @@
+package com.banking.transaction.capture;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficCaptureTest {
+
+    @Test
+    void testReplayReproducesCapturedBalances() throws Exception {
+        Path file = Files.createTempDirectory("capture").resolve("traffic.bin");
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        Account existing = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(500.0, "USD"));
+        TrafficCapture capture = new TrafficCapture(file, 1024, new MetricsRegistry());
+        capture.attach(accountService, transactionService);
+
+        Account savings = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(0.0, "USD"));
+        Account other = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(10.0, "USD"));
+        for (int i = 0; i < 50; i++) {
+            transactionService.transfer(existing.getAccountId(), savings.getAccountId(),
+                    new Money(new BigDecimal("1.05"), "USD"), "Sweep " + (i % 3));
+            transactionService.deposit(other.getAccountId(), new Money(new BigDecimal("0.10"), "USD"), null);
+        }
+        transactionService.withdraw(savings.getAccountId(), new Money(20.0, "USD"), "ATM");
+        assertThrows(RuntimeException.class, () ->
+                transactionService.withdraw(other.getAccountId(), new Money(1000.0, "USD"), "Declined"));
+        accountService.removeAccount(other.getAccountId());
+        capture.close();
+        assertEquals(0, capture.getDroppedCount());
+        assertEquals(105, capture.getCapturedCount());
+
+        List<CapturedOperation> operations = new ArrayList<>();
+        try (CaptureReader reader = new CaptureReader(file)) {
+            CapturedOperation operation;
+            while ((operation = reader.next()) != null) {
+                operations.add(operation);
+            }
+            assertEquals(2, reader.getFinalBalances().size());
+        }
+        assertEquals(CapturedOperation.Kind.OPEN_ACCOUNT, operations.get(0).getKind());
+        assertEquals(existing.getAccountId(), operations.get(0).getAccountId());
+        assertEquals(new BigDecimal("1.05"), operations.get(3).getAmount().getAmount());
+        assertEquals("Sweep 0", operations.get(3).getDescription());
+        assertEquals("", operations.get(4).getDescription());
+        assertEquals(CapturedOperation.Kind.REMOVE_ACCOUNT, operations.get(operations.size() - 1).getKind());
+        for (int i = 1; i < operations.size(); i++) {
+            assertTrue(operations.get(i).getOffsetNanos() >= operations.get(i - 1).getOffsetNanos());
+        }
+
+        AccountService replayAccounts = new AccountService();
+        TrafficReplayer replayer = new TrafficReplayer(replayAccounts,
+                new TransactionService(replayAccounts));
+        ReplayReport report;
+        try (CaptureReader reader = new CaptureReader(file)) {
+            report = replayer.replay(reader, 0);
+        }
+        assertEquals(105, report.getOperationCount());
+        assertTrue(report.isFaithful(), report.toString());
+        assertEquals(50, report.getLatencies().get(CapturedOperation.Kind.TRANSFER).getCount());
+        assertEquals(0, replayAccounts.getBalance(savings.getAccountId()).getAmount()
+                .compareTo(new BigDecimal("32.50")));
+    }
+
+    @Test
+    void testStripedDepositsReplayInApplyOrder() throws Exception {
+        Path file = Files.createTempDirectory("capture").resolve("traffic.bin");
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        TrafficCapture capture = new TrafficCapture(file, 1 << 14, new MetricsRegistry());
+        capture.attach(accountService, transactionService);
+        Account hot = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        hot.enableStriping(4);
+
+        int depositors = 4;
+        int deposits = 500;
+        Thread[] threads = new Thread[depositors];
+        for (int t = 0; t < depositors; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < deposits; i++) {
+                    transactionService.deposit(hot.getAccountId(), new Money(1.0, "USD"), null);
+                }
+            });
+            threads[t].start();
+        }
+        // Each withdrawal spends deposits that were just made, so replaying it before them fails.
+        int withdrawn = 0;
+        while (withdrawn < depositors * deposits / 2) {
+            try {
+                transactionService.withdraw(hot.getAccountId(), new Money(1.0, "USD"), null);
+                withdrawn++;
+            } catch (RuntimeException insufficient) {
+                Thread.onSpinWait();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        capture.close();
+        assertEquals(0, capture.getDroppedCount());
+
+        AccountService replayAccounts = new AccountService();
+        ReplayReport report;
+        try (CaptureReader reader = new CaptureReader(file)) {
+            report = new TrafficReplayer(replayAccounts, new TransactionService(replayAccounts)).replay(reader, 1);
+        }
+        assertEquals(0, report.getFailureCount(), report.toString());
+        assertTrue(report.isFaithful(), report.toString());
+    }
+
+    @Test
+    void testCaptureRacingCloseIsWrittenOrCounted() throws Exception {
+        Path file = Files.createTempDirectory("capture").resolve("traffic.bin");
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        TrafficCapture capture = new TrafficCapture(file, 1 << 16, new MetricsRegistry());
+        capture.attach(accountService, transactionService);
+        Account account = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(0.0, "USD"));
+        Thread depositor = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                transactionService.deposit(account.getAccountId(), new Money(1.0, "USD"), null);
+            }
+        });
+        depositor.start();
+        Thread.sleep(5);
+        capture.close();
+        depositor.join();
+
+        long written = 0;
+        try (CaptureReader reader = new CaptureReader(file)) {
+            while (reader.next() != null) {
+                written++;
+            }
+            assertNotNull(reader.getFinalBalances());
+        }
+        assertEquals(capture.getCapturedCount(), written);
+        assertEquals(20_001, capture.getCapturedCount() + capture.getDroppedCount());
+    }
+
+    @Test
+    void testTruncatedCaptureReadsCompleteOperations() throws Exception {
+        Path file = Files.createTempDirectory("capture").resolve("traffic.bin");
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        TrafficCapture capture = new TrafficCapture(file, 1024, new MetricsRegistry());
+        capture.attach(accountService, transactionService);
+        Account account = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        transactionService.deposit(account.getAccountId(), new Money(5.0, "USD"), "Cash");
+        capture.close();
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        AccountService replayAccounts = new AccountService();
+        try (CaptureReader reader = new CaptureReader(file)) {
+            ReplayReport report = new TrafficReplayer(replayAccounts, new TransactionService(replayAccounts))
+                    .replay(reader, 1);
+            assertEquals(2, report.getOperationCount());
+            assertFalse(report.isComplete());
+            assertNull(reader.getFinalBalances());
+        }
+        assertEquals(0, replayAccounts.getBalance(account.getAccountId()).getAmount()
+                .compareTo(new BigDecimal("105")));
+    }
+}
@@ -0,0 +1,235 @@
+package com.banking.transaction.cdc;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogTest {
+
+    @Test
+    void testConsumerReadsChangesInBatchesFromItsOffset() throws Exception {
+        Path directory = Files.createTempDirectory("cdc");
+        ChangeLog changeLog = new ChangeLog(directory, 1024, 1 << 20, 0, false, 1000, new MetricsRegistry());
+        changeLog.start();
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        new ChangeFeed(changeLog).attach(accountService, transactionService);
+
+        Account checking = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account savings = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(0.0, "USD"));
+        transactionService.transfer(checking.getAccountId(), savings.getAccountId(),
+                new Money(new BigDecimal("25.10"), "USD"), "Savings | July");
+        accountService.deactivateAccount(savings.getAccountId());
+        changeLog.flush();
+
+        ConsumerOffsets offsets = new ConsumerOffsets(directory.resolve("consumers"), true);
+        assertEquals(0, offsets.get("warehouse"));
+        List<ChangeEvent> first = changeLog.read(1, 2, 0);
+        assertEquals(List.of(1L, 2L), first.stream().map(ChangeEvent::getOffset).collect(Collectors.toList()));
+        assertEquals(ChangeEvent.Type.ACCOUNT_OPENED, first.get(0).getType());
+        assertEquals("CHECKING", first.get(0).getKind());
+        offsets.commit("warehouse", first.get(first.size() - 1).getOffset() + 1);
+
+        ConsumerOffsets reopened = new ConsumerOffsets(directory.resolve("consumers"), true);
+        List<ChangeEvent> rest = changeLog.read(reopened.get("warehouse"), 100, 0);
+        assertEquals(2, rest.size());
+        ChangeEvent transfer = rest.get(0);
+        assertEquals(ChangeEvent.Type.TRANSACTION, transfer.getType());
+        assertEquals("TRANSFER", transfer.getKind());
+        assertEquals(savings.getAccountId(), transfer.getRelatedAccountId());
+        assertEquals(new BigDecimal("25.10"), transfer.getAmount().getAmount());
+        assertEquals("Savings | July", transfer.getDescription());
+        assertEquals(ChangeEvent.Type.ACCOUNT_DEACTIVATED, rest.get(1).getType());
+        assertEquals(5, changeLog.getEndOffset());
+
+        long start = System.nanoTime();
+        assertTrue(changeLog.read(5, 100, 50).isEmpty());
+        assertTrue(System.nanoTime() - start >= 40_000_000L);
+        Thread depositor = new Thread(() -> transactionService.deposit(checking.getAccountId(),
+                new Money(1.0, "USD"), "Late"));
+        depositor.start();
+        List<ChangeEvent> late = changeLog.read(5, 100, 10_000);
+        depositor.join();
+        assertEquals(1, late.size());
+        assertEquals("DEPOSIT", late.get(0).getKind());
+        changeLog.close();
+    }
+
+    @Test
+    void testRollsSegmentsAndRecoversAfterTornWrite() throws Exception {
+        Path directory = Files.createTempDirectory("cdc");
+        ChangeLog changeLog = new ChangeLog(directory, 1024, 16 * 1024, 3, false, 1000, new MetricsRegistry());
+        changeLog.start();
+        for (int i = 0; i < 1000; i++) {
+            changeLog.append(new ChangeEvent(0, i, ChangeEvent.Type.TRANSACTION, "ACC-" + (i % 7), "T" + i, null,
+                    null, "DEPOSIT", new Money(new BigDecimal(i), "USD"), null));
+        }
+        changeLog.flush();
+        assertEquals(3, changeLog.getSegmentCount());
+        long startOffset = changeLog.getStartOffset();
+        assertTrue(startOffset > 1);
+        assertThrows(IllegalArgumentException.class, () -> changeLog.read(1, 10, 0));
+        List<ChangeEvent> tail = changeLog.read(startOffset, 10_000, 0);
+        assertEquals(1001 - startOffset, tail.size());
+        assertEquals(new BigDecimal(999), tail.get(tail.size() - 1).getAmount().getAmount());
+        assertEquals("T" + (startOffset + 199), changeLog.read(startOffset + 200, 1, 0).get(0).getTransactionId());
+        changeLog.close();
+
+        Path last = lastSegment(directory);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+        ChangeLog recovered = new ChangeLog(directory, 1024, 16 * 1024, 3, false, 1000, new MetricsRegistry());
+        recovered.start();
+        assertEquals(1000, recovered.getEndOffset());
+        recovered.append(new ChangeEvent(0, 0, ChangeEvent.Type.ACCOUNT_REMOVED, "ACC-1", null, null, "CUST001",
+                "CHECKING", null, null));
+        recovered.flush();
+        List<ChangeEvent> events = recovered.read(998, 10, 0);
+        assertEquals(List.of("T997", "T998"), List.of(events.get(0).getTransactionId(),
+                events.get(1).getTransactionId()));
+        assertEquals(ChangeEvent.Type.ACCOUNT_REMOVED, events.get(2).getType());
+        assertEquals(1000, events.get(2).getOffset());
+        recovered.close();
+    }
+
+    @Test
+    void testRetentionKeepsWhatConsumersHaveNotCommitted() throws Exception {
+        Path directory = Files.createTempDirectory("cdc");
+        ConsumerOffsets consumers = new ConsumerOffsets(directory.resolve("consumers"), false);
+        consumers.commit("warehouse", 1);
+        ChangeLog changeLog = new ChangeLog(directory, 1024, 16 * 1024, 3, false, 1000, consumers,
+                new MetricsRegistry());
+        changeLog.start();
+        appendDeposits(changeLog, 0, 1000);
+        changeLog.flush();
+        assertEquals(1, changeLog.getStartOffset());
+        assertTrue(changeLog.getSegmentCount() > 3);
+        assertEquals("T0", changeLog.read(1, 1, 0).get(0).getTransactionId());
+
+        consumers.commit("warehouse", 900);
+        appendDeposits(changeLog, 1000, 200);
+        changeLog.flush();
+        assertEquals(3, changeLog.getSegmentCount());
+        assertTrue(changeLog.getStartOffset() <= 900);
+        changeLog.close();
+    }
+
+    @Test
+    void testOversizedDescriptionIsCutToFit() throws Exception {
+        Path directory = Files.createTempDirectory("cdc");
+        ChangeLog changeLog = new ChangeLog(directory, 1024, 16 * 1024, 0, false, 1000, new MetricsRegistry());
+        changeLog.start();
+        String description = "\u00e9".repeat(ChangeLogSegment.MAX_EVENT_BYTES);
+        changeLog.append(new ChangeEvent(0, 0, ChangeEvent.Type.TRANSACTION, "ACC-1", "T1", null, null, "DEPOSIT",
+                new Money(BigDecimal.ONE, "USD"), description));
+        changeLog.append(new ChangeEvent(0, 0, ChangeEvent.Type.TRANSACTION, "ACC-1", "T2", null, null, "DEPOSIT",
+                new Money(BigDecimal.ONE, "USD"), "Next"));
+        changeLog.flush();
+        changeLog.close();
+
+        ChangeLog reopened = new ChangeLog(directory, 1024, 16 * 1024, 0, false, 1000, new MetricsRegistry());
+        reopened.start();
+        assertEquals(3, reopened.getEndOffset());
+        List<ChangeEvent> events = reopened.read(1, 10, 0);
+        assertEquals(2, events.size());
+        String cut = events.get(0).getDescription();
+        assertEquals(ChangeLogSegment.MAX_DESCRIPTION_BYTES / 2, cut.length());
+        assertTrue(description.startsWith(cut));
+        assertEquals("T2", events.get(1).getTransactionId());
+        assertEquals("Next", events.get(1).getDescription());
+        reopened.close();
+    }
+
+    @Test
+    void testAppendGivesUpWhenTheBufferStaysFull() throws Exception {
+        ChangeLog changeLog = new ChangeLog(Files.createTempDirectory("cdc"), 4, 1 << 20, 0, false, 10,
+                new MetricsRegistry());
+        // Not started, so nothing drains the buffer.
+        for (int i = 0; i < 6; i++) {
+            changeLog.append(new ChangeEvent(0, 0, ChangeEvent.Type.ACCOUNT_OPENED, "ACC-" + i, null, null,
+                    "CUST001", "CHECKING", null, null));
+        }
+        assertEquals(4, changeLog.getPendingCount());
+        assertEquals(2, changeLog.getDroppedCount());
+
+        changeLog.start();
+        changeLog.flush();
+        // The four queued events, then a marker for the two that were dropped.
+        while (changeLog.getEndOffset() < 6) {
+            Thread.sleep(1);
+        }
+        List<ChangeEvent> events = changeLog.read(1, 10, 0);
+        assertEquals(5, events.size());
+        assertEquals("ACC-3", events.get(3).getAccountId());
+        ChangeEvent marker = events.get(4);
+        assertEquals(ChangeEvent.Type.EVENTS_LOST, marker.getType());
+        assertEquals(5, marker.getOffset());
+        assertEquals(2, marker.getLostCount());
+        assertNull(marker.getAccountId());
+        changeLog.close();
+        changeLog.append(new ChangeEvent(0, 0, ChangeEvent.Type.ACCOUNT_REMOVED, "ACC-0", null, null, "CUST001",
+                "CHECKING", null, null));
+        assertEquals(3, changeLog.getDroppedCount());
+    }
+
+    @Test
+    void testWriterFailureStopsTheLogVisibly() throws Exception {
+        ChangeLog changeLog = new ChangeLog(Files.createTempDirectory("cdc"), 1024, 1 << 20, 0, false, 1000,
+                new MetricsRegistry());
+        changeLog.start();
+        changeLog.append(new ChangeEvent(0, 0, ChangeEvent.Type.TRANSACTION, "ACC-1", "T1", null, null, "DEPOSIT",
+                new Money(BigDecimal.ONE, "USD"), null));
+        changeLog.flush();
+        Money unreadable = new Money(BigDecimal.ONE, "USD") {
+            @Override
+            public BigDecimal getAmount() {
+                throw new IllegalStateException("Unreadable amount");
+            }
+        };
+        changeLog.append(new ChangeEvent(0, 0, ChangeEvent.Type.TRANSACTION, "ACC-1", "T2", null, null, "DEPOSIT",
+                unreadable, null));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, changeLog::flush);
+        assertEquals("Unreadable amount", e.getCause().getMessage());
+        assertSame(e.getCause(), changeLog.getFailure());
+        changeLog.append(new ChangeEvent(0, 0, ChangeEvent.Type.TRANSACTION, "ACC-1", "T3", null, null, "DEPOSIT",
+                new Money(BigDecimal.ONE, "USD"), null));
+        assertEquals(2, changeLog.getDroppedCount());
+        assertEquals(2, changeLog.getEndOffset());
+        assertEquals("T1", changeLog.read(1, 10, 0).get(0).getTransactionId());
+        changeLog.close();
+    }
+
+    private static void appendDeposits(ChangeLog changeLog, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            changeLog.append(new ChangeEvent(0, i, ChangeEvent.Type.TRANSACTION, "ACC-" + (i % 7), "T" + i, null,
+                    null, "DEPOSIT", new Money(new BigDecimal(i), "USD"), null));
+        }
+    }
+
+    private static Path lastSegment(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(ChangeLogSegment::isSegmentFile).sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+            return segments.get(segments.size() - 1);
+        }
+    }
+}
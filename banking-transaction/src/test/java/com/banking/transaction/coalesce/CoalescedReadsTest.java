@@ -0,0 +1,64 @@
+package com.banking.transaction.coalesce;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.metrics.MetricsRegistry;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescedReadsTest {
+
+    @Test
+    void testWritesInvalidateRunningQueries() throws Exception {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        CoalescedReads reads = new CoalescedReads(accountService, transactionService, new MetricsRegistry());
+        reads.attach();
+        Account from = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account to = accountService.createAccount("CUST2", AccountType.CHECKING, new Money(0.0, "USD"));
+        transactionService.deposit(from.getAccountId(), new Money(10.0, "USD"), "Deposit");
+
+        // Holds a history query for the destination open while a transfer to it is made.
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Transaction>> stale = executor.submit(() -> reads.getHistories().execute(to.getAccountId(), () -> {
+                List<Transaction> history = transactionService.getTransactionsByAccount(to.getAccountId());
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return history;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            transactionService.transfer(from.getAccountId(), to.getAccountId(), new Money(5.0, "USD"), "Payment");
+
+            assertEquals(1, reads.getTransactionsByAccount(to.getAccountId()).size());
+            release.countDown();
+            assertEquals(0, stale.get(5, TimeUnit.SECONDS).size());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, reads.getTransactionsByAccount(from.getAccountId()).size());
+
+        assertEquals(1, reads.getAccountsByCustomer("CUST1").size());
+        accountService.createAccount("CUST1", AccountType.SAVINGS, new Money(0.0, "USD"));
+        assertEquals(2, reads.getAccountsByCustomer("CUST1").size());
+        assertThrows(UnsupportedOperationException.class, () -> reads.getAccountsByCustomer("CUST1").clear());
+    }
+}
@@ -0,0 +1,53 @@
+package com.banking.transaction.hotspot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountDetectorTest {
+
+    @Test
+    void testHotAccountReportedOnce() {
+        HotAccountDetector detector = new HotAccountDetector(4, 0.2, 100, 100_000, 1, 4);
+        int hotReports = 0;
+        for (int i = 0; i < 5000; i++) {
+            String account = i % 2 == 0 ? "MERCHANT" : "ACC" + i;
+            if (detector.record(account)) {
+                assertEquals("MERCHANT", account);
+                hotReports++;
+            }
+        }
+        assertEquals(1, hotReports);
+        assertTrue(detector.isHot("MERCHANT"));
+        assertFalse(detector.isHot("ACC1"));
+    }
+
+    @Test
+    void testNothingHotBeforeMinSamples() {
+        HotAccountDetector detector = new HotAccountDetector(4, 0.2, 1000, 100_000, 1, 4);
+        for (int i = 0; i < 999; i++) {
+            assertFalse(detector.record("MERCHANT"));
+        }
+        assertTrue(detector.record("MERCHANT"));
+    }
+
+    @Test
+    void testTopKTracksHeaviestAccounts() {
+        HotAccountDetector detector = new HotAccountDetector(2, 0.9, 10, 100_000, 1, 4);
+        for (int i = 0; i < 300; i++) {
+            detector.record("A");
+            if (i % 2 == 0) {
+                detector.record("B");
+            }
+            if (i % 10 == 0) {
+                detector.record("C");
+            }
+        }
+        List<HotAccountDetector.HeavyHitter> top = detector.getTopK();
+        assertEquals(2, top.size());
+        assertEquals("A", top.get(0).getAccountId());
+        assertEquals("B", top.get(1).getAccountId());
+    }
+}
@@ -0,0 +1,217 @@
+package com.banking.transaction.journal;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+
+    private AccountService primaryAccounts;
+    private TransactionService primaryTransactions;
+    private TransactionJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        primaryAccounts = new AccountService();
+        primaryTransactions = new TransactionService(primaryAccounts);
+        journal = new TransactionJournal(1000);
+        journal.attach(primaryAccounts, primaryTransactions);
+    }
+
+    @Test
+    void testReplicaConvergesWithPrimary() throws InterruptedException {
+        Account a = primaryAccounts.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        Account b = primaryAccounts.createAccount("CUST002", AccountType.SAVINGS, new Money(50.0, "USD"));
+        primaryTransactions.deposit(a.getAccountId(), new Money(25.0, "USD"), "Deposit");
+        primaryTransactions.withdraw(b.getAccountId(), new Money(10.0, "USD"), "Withdrawal");
+        primaryTransactions.transfer(a.getAccountId(), b.getAccountId(), new Money(40.0, "USD"), "Transfer");
+        assertEquals(5, journal.getLastPosition());
+
+        AccountService replicaAccounts = new AccountService();
+        TransactionService replicaTransactions = new TransactionService(replicaAccounts);
+        JournalReplica replica = new JournalReplica(replicaAccounts, replicaTransactions);
+        List<JournalEntry> firstBatch = journal.read(1, 3, 0);
+        List<JournalEntry> secondBatch = journal.read(4, 100, 0);
+        assertEquals(3, firstBatch.size());
+        assertEquals(2, secondBatch.size());
+        for (JournalEntry entry : firstBatch) {
+            replica.apply(entry);
+        }
+        for (JournalEntry entry : firstBatch) {
+            replica.apply(entry);
+        }
+        for (JournalEntry entry : secondBatch) {
+            replica.apply(entry);
+        }
+
+        assertEquals(5, replica.getAppliedPosition());
+        assertEquals(a.getBalance(), replicaAccounts.getBalance(a.getAccountId()));
+        assertEquals(b.getBalance(), replicaAccounts.getBalance(b.getAccountId()));
+        assertEquals(3, replicaTransactions.getTransactionCount());
+        assertEquals(2, replicaTransactions.getTransactionsByAccount(b.getAccountId()).size());
+    }
+
+    @Test
+    void testReplicaRejectsGap() throws InterruptedException {
+        primaryAccounts.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        primaryAccounts.createAccount("CUST002", AccountType.CHECKING, new Money(100.0, "USD"));
+        JournalReplica replica = new JournalReplica(new AccountService(), new TransactionService(new AccountService()));
+
+        JournalEntry second = journal.read(2, 1, 0).get(0);
+        assertThrows(IllegalStateException.class, () -> replica.apply(second));
+        assertEquals(0, replica.getAppliedPosition());
+    }
+
+    @Test
+    void testReadWaitsForNewEntries() throws InterruptedException {
+        assertTrue(journal.read(1, 10, 0).isEmpty());
+
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            primaryAccounts.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        });
+        writer.start();
+        List<JournalEntry> entries = journal.read(1, 10, 5000);
+        writer.join();
+
+        assertEquals(1, entries.size());
+        assertEquals(JournalEntry.Type.ACCOUNT_OPENED, entries.get(0).getType());
+    }
+
+    @Test
+    void testReplicaFollowsImportsRemovalsAndStatusChanges() throws InterruptedException {
+        Account a = primaryAccounts.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        primaryTransactions.deposit(a.getAccountId(), new Money(25.0, "USD"), "Deposit");
+        primaryAccounts.deactivateAccount(a.getAccountId());
+
+        // An account migrated in from another node: its history is stored first, then the account.
+        Transaction history = new Transaction("T-MIGRATED", "ACC-IN", TransactionType.DEPOSIT,
+                new Money(30.0, "USD"), "Before migration", null, LocalDateTime.now());
+        primaryTransactions.recordTransaction(history);
+        primaryAccounts.importAccount(new Account("ACC-IN", "CUST002", AccountType.SAVINGS,
+                new Money(30.0, "USD"), true));
+        primaryTransactions.deposit("ACC-IN", new Money(5.0, "USD"), "After migration");
+
+        // And an account migrated away.
+        Account b = primaryAccounts.createAccount("CUST003", AccountType.CHECKING, new Money(10.0, "USD"));
+        primaryTransactions.deposit(b.getAccountId(), new Money(1.0, "USD"), "Deposit");
+        primaryAccounts.removeAccount(b.getAccountId());
+        for (Transaction transaction : primaryTransactions.getTransactionsByAccount(b.getAccountId())) {
+            primaryTransactions.removeTransaction(transaction.getTransactionId());
+        }
+
+        AccountService replicaAccounts = new AccountService();
+        TransactionService replicaTransactions = new TransactionService(replicaAccounts);
+        JournalReplica replica = new JournalReplica(replicaAccounts, replicaTransactions);
+        for (JournalEntry entry : journal.read(1, 100, 0)) {
+            replica.apply(entry);
+        }
+
+        assertEquals(journal.getLastPosition(), replica.getAppliedPosition());
+        assertFalse(replicaAccounts.getAccount(a.getAccountId()).isActive());
+        assertEquals(a.getBalance(), replicaAccounts.getBalance(a.getAccountId()));
+        assertEquals(new Money(35.0, "USD"), replicaAccounts.getBalance("ACC-IN"));
+        assertEquals(2, replicaTransactions.getTransactionsByAccount("ACC-IN").size());
+        assertFalse(replicaAccounts.hasAccount(b.getAccountId()));
+        assertTrue(replicaTransactions.getTransactionsByAccount(b.getAccountId()).isEmpty());
+        assertEquals(primaryTransactions.getTransactionCount(), replicaTransactions.getTransactionCount());
+    }
+
+    @Test
+    void testConcurrentAppendsGetConsecutivePositions() throws InterruptedException {
+        Thread[] writers = new Thread[8];
+        for (int t = 0; t < writers.length; t++) {
+            Account account = primaryAccounts.createAccount("CUST" + t, AccountType.CHECKING, new Money(0.0, "USD"));
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    primaryTransactions.deposit(account.getAccountId(), new Money(1.0, "USD"), "Deposit " + i);
+                }
+            });
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        List<JournalEntry> entries = journal.read(1, 1000, 0);
+        assertEquals(808, journal.getLastPosition());
+        assertEquals(808, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i + 1, entries.get(i).getPosition());
+        }
+    }
+
+    @Test
+    void testKeepsOnlyTheMostRecentEntries() throws InterruptedException {
+        TransactionJournal window = new TransactionJournal(3);
+        window.attach(primaryAccounts, primaryTransactions);
+        Account a = primaryAccounts.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        for (int i = 0; i < 4; i++) {
+            primaryTransactions.deposit(a.getAccountId(), new Money(1.0, "USD"), "Deposit " + i);
+        }
+
+        assertEquals(5, window.getLastPosition());
+        assertEquals(3, window.getFirstPosition());
+        assertThrows(IllegalArgumentException.class, () -> window.read(2, 10, 0));
+        List<JournalEntry> kept = window.read(3, 10, 0);
+        assertEquals(3, kept.size());
+        assertEquals(3, kept.get(0).getPosition());
+        assertEquals("Deposit 3", kept.get(2).getTransaction().getDescription());
+    }
+
+    @Test
+    void testReplicaStartsOverOnANewJournal() throws InterruptedException {
+        primaryAccounts.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        AccountService replicaAccounts = new AccountService();
+        TransactionService replicaTransactions = new TransactionService(replicaAccounts);
+        JournalReplica replica = new JournalReplica(replicaAccounts, replicaTransactions);
+        for (JournalEntry entry : journal.read(1, 100, 0)) {
+            replica.apply(entry);
+        }
+
+        // The primary restarts with new state and a new journal.
+        AccountService restartedAccounts = new AccountService();
+        TransactionService restartedTransactions = new TransactionService(restartedAccounts);
+        TransactionJournal restarted = new TransactionJournal(1000);
+        restarted.attach(restartedAccounts, restartedTransactions);
+        Account b = restartedAccounts.createAccount("CUST002", AccountType.SAVINGS, new Money(50.0, "USD"));
+        restartedTransactions.deposit(b.getAccountId(), new Money(5.0, "USD"), "Deposit");
+        assertNotEquals(journal.getJournalId(), restarted.getJournalId());
+
+        replica.reset();
+        assertEquals(0, replica.getAppliedPosition());
+        for (JournalEntry entry : restarted.read(1, 100, 0)) {
+            replica.apply(entry);
+        }
+        assertEquals(1, replicaAccounts.getAccountCount());
+        assertEquals(b.getBalance(), replicaAccounts.getBalance(b.getAccountId()));
+        assertEquals(1, replicaTransactions.getTransactionCount());
+    }
+
+    @Test
+    void testOpeningBalanceIsTheBalanceAtCreation() throws InterruptedException {
+        Account a = primaryAccounts.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        primaryTransactions.deposit(a.getAccountId(), new Money(25.0, "USD"), "Deposit");
+
+        JournalEntry opened = journal.read(1, 1, 0).get(0);
+        assertEquals(JournalEntry.Type.ACCOUNT_OPENED, opened.getType());
+        assertEquals(new Money(100.0, "USD"), opened.getOpeningBalance());
+    }
+}
@@ -0,0 +1,40 @@
+package com.banking.transaction.netting;
+
+import com.banking.core.domain.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetPositionsTest {
+
+    @Test
+    void testNetsPerAccountInIdOrder() {
+        NetPositions positions = NetPositions.of(Arrays.asList(
+                new TransferInstruction("ACC-B", "ACC-A", new Money(100.0, "USD"), null),
+                new TransferInstruction("ACC-A", "ACC-C", new Money(30.0, "USD"), null),
+                new TransferInstruction("ACC-C", "ACC-B", new Money(30.0, "USD"), null),
+                new TransferInstruction("ACC-A", "ACC-B", new Money(70.0, "USD"), null)));
+
+        assertEquals(3, positions.size());
+        assertEquals("ACC-A", positions.getAccountId(0));
+        assertEquals("ACC-C", positions.getAccountId(2));
+        assertEquals(0, BigDecimal.ZERO.compareTo(positions.getNet("ACC-A").getAmount()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(positions.getNet("ACC-B").getAmount()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(positions.getNet(2).getAmount()));
+        assertNull(positions.getNet("ACC-D"));
+    }
+
+    @Test
+    void testRejectsInvalidBatches() {
+        assertThrows(IllegalArgumentException.class, () -> NetPositions.of(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> NetPositions.of(Arrays.asList(
+                new TransferInstruction("ACC-A", "ACC-B", new Money(1.0, "USD"), null),
+                new TransferInstruction("ACC-B", "ACC-C", new Money(1.0, "EUR"), null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransferInstruction("ACC-A", "ACC-B", new Money(0.0, "USD"), null));
+    }
+}
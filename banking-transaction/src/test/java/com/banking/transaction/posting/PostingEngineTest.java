@@ -0,0 +1,118 @@
+package com.banking.transaction.posting;
+
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.netting.TransferInstruction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingEngineTest {
+
+    @Test
+    void testLegsAreBalanced() {
+        Transaction deposit = new Transaction("ACC-A", TransactionType.DEPOSIT, new Money(10.0, "USD"), null);
+        Transaction transfer = new Transaction("ACC-A", TransactionType.TRANSFER, new Money(4.0, "USD"), null, "ACC-B");
+        Transaction fxOut = new Transaction("ACC-A", TransactionType.FX_TRANSFER_OUT, new Money(5.0, "USD"), null, "ACC-E");
+
+        List<Posting> depositLegs = PostingEngine.legsOf(deposit);
+        assertEquals("ACC-A", depositLegs.get(0).getAccountId());
+        assertFalse(depositLegs.get(0).isDebit());
+        assertEquals(PostingEngine.CLEARING_ACCOUNT, depositLegs.get(1).getAccountId());
+        List<Posting> transferLegs = PostingEngine.legsOf(transfer);
+        assertTrue(transferLegs.get(0).isDebit());
+        assertEquals("ACC-B", transferLegs.get(1).getAccountId());
+        assertEquals(PostingEngine.SUSPENSE_ACCOUNT, PostingEngine.legsOf(fxOut).get(1).getAccountId());
+        for (Transaction transaction : Arrays.asList(deposit, transfer, fxOut)) {
+            List<Posting> legs = PostingEngine.legsOf(transaction);
+            assertEquals(0, legs.get(0).getAmount().getAmount().add(legs.get(1).getAmount().getAmount()).signum());
+        }
+    }
+
+    @Test
+    void testHistoryIsAPerAccountLegScan() {
+        PostingEngine engine = new PostingEngine();
+        Transaction first = new Transaction("ACC-A", TransactionType.DEPOSIT, new Money(10.0, "USD"), null);
+        Transaction second = new Transaction("ACC-A", TransactionType.TRANSFER, new Money(4.0, "USD"), null, "ACC-B");
+        Transaction third = new Transaction("ACC-B", TransactionType.WITHDRAWAL, new Money(1.0, "USD"), null);
+        engine.post(first);
+        engine.postAll(Arrays.asList(second, third));
+
+        assertEquals(Arrays.asList(second.getTransactionId(), first.getTransactionId()), engine.getTransactionIds("ACC-A"));
+        assertEquals(2, engine.getPostings("ACC-B").size());
+        assertEquals(0, new BigDecimal("6.0").compareTo(engine.getPostedTotals("ACC-A").get("USD")));
+        assertEquals(0, new BigDecimal("-9.0").compareTo(
+                engine.getPostedTotals(PostingEngine.CLEARING_ACCOUNT).get("USD")));
+        assertTrue(engine.getImbalances().isEmpty());
+
+        engine.unpost(third);
+        assertEquals(1, engine.getPostings("ACC-B").size());
+        assertTrue(engine.getImbalances().isEmpty());
+        engine.unpost(second);
+        assertTrue(engine.getPostings("ACC-B").isEmpty());
+        assertEquals(1, engine.getAccountCount());
+    }
+
+    @Test
+    void testLegsRoundTripWhateverTheirEncoding() {
+        PostingEngine engine = new PostingEngine();
+        LocalDateTime now = LocalDateTime.now();
+        Transaction uuid = new Transaction("ACC-A", TransactionType.DEPOSIT, new Money(new BigDecimal("10.25"), "USD"), null);
+        Transaction named = new Transaction("IMPORT-7", "ACC-A", TransactionType.DEPOSIT,
+                new Money(new BigDecimal("3"), "EUR"), null, null, now);
+        BigDecimal huge = new BigDecimal("123456789012345678901234567890.12");
+        Transaction large = new Transaction("IMPORT-8", "ACC-A", TransactionType.WITHDRAWAL,
+                new Money(huge, "USD"), null, null, now);
+        engine.postAll(Arrays.asList(uuid, named, large));
+
+        List<Posting> legs = engine.getPostings("ACC-A");
+        assertEquals(uuid.getTransactionId(), legs.get(0).getTransactionId());
+        assertEquals(new BigDecimal("10.25"), legs.get(0).getAmount().getAmount());
+        assertEquals("IMPORT-7", legs.get(1).getTransactionId());
+        assertEquals("EUR", legs.get(1).getAmount().getCurrency());
+        assertEquals(huge.negate(), legs.get(2).getAmount().getAmount());
+        assertEquals(Arrays.asList("IMPORT-8", "IMPORT-7", uuid.getTransactionId()), engine.getTransactionIds("ACC-A"));
+
+        engine.unpost(named);
+        engine.unpost(uuid);
+        assertEquals(1, engine.getPostings("ACC-A").size());
+        assertEquals(0, engine.getPostedTotals("ACC-A").get("EUR").signum());
+        assertEquals(0, huge.negate().compareTo(engine.getPostedTotals("ACC-A").get("USD")));
+        assertTrue(engine.getImbalances().isEmpty());
+    }
+
+    @Test
+    void testServicePostsEveryOperation() {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        accountService.createAccount("ACC-A", "CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        accountService.createAccount("ACC-B", "CUST002", AccountType.CHECKING, new Money(100.0, "USD"));
+        transactionService.deposit("ACC-A", new Money(25.0, "USD"), "Salary");
+        transactionService.withdraw("ACC-B", new Money(10.0, "USD"), "Cash");
+        transactionService.transfer("ACC-A", "ACC-B", new Money(30.0, "USD"), "Rent");
+        transactionService.settleNetted(Arrays.asList(
+                new TransferInstruction("ACC-B", "ACC-A", new Money(5.0, "USD"), "Refund"),
+                new TransferInstruction("ACC-A", "ACC-B", new Money(1.0, "USD"), "Fee")));
+
+        PostingEngine postings = transactionService.getPostingEngine();
+        assertTrue(postings.getImbalances().isEmpty());
+        assertEquals(0, new BigDecimal("-1.0").compareTo(postings.getPostedTotals("ACC-A").get("USD")));
+        assertEquals(0, new BigDecimal("16.0").compareTo(postings.getPostedTotals("ACC-B").get("USD")));
+        assertEquals(4, transactionService.getTransactionsByAccount("ACC-A").size());
+
+        Transaction rent = transactionService.getTransactionsByAccount("ACC-B").stream()
+                .filter(t -> "Rent".equals(t.getDescription())).findFirst().orElseThrow();
+        transactionService.removeTransaction(rent.getTransactionId());
+        assertEquals(3, transactionService.getTransactionsByAccount("ACC-A").size());
+        assertTrue(postings.getImbalances().isEmpty());
+    }
+}
@@ -0,0 +1,187 @@
+package com.banking.transaction.reconcile;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReconcilerTest {
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private LedgerDigest digest;
+    private Reconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        digest = new LedgerDigest(64);
+        digest.attach(accountService, transactionService);
+        reconciler = new Reconciler(accountService, transactionService, digest);
+    }
+
+    @Test
+    void testDiffFindsOnlyMismatchedLeaves() throws Exception {
+        long[] leaves = new long[16];
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = i * 31L + 7;
+        }
+        MerkleTree tree = MerkleTree.fromLeaves(leaves);
+        assertTrue(tree.diff(MerkleTree.fromLeaves(leaves.clone())).isEmpty());
+
+        long[] changed = leaves.clone();
+        changed[3]++;
+        changed[12]++;
+        int[] requested = new int[1];
+        NodeHashes counting = indexes -> {
+            requested[0] += indexes.length;
+            return MerkleTree.fromLeaves(changed).getNodes(indexes);
+        };
+        assertEquals(Arrays.asList(3, 12), tree.diff(counting));
+        assertTrue(requested[0] < 2 * leaves.length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> MerkleTree.fromLeaves(new long[12]));
+        assertThrows(IllegalArgumentException.class, () -> new LedgerDigest(100));
+    }
+
+    @Test
+    void testBalancesMatchHistory() {
+        List<Account> accounts = createAccounts(200);
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            transactionService.deposit(account.getAccountId(), new Money(10.5, "USD"), "Deposit");
+            transactionService.transfer(account.getAccountId(), accounts.get((i + 1) % accounts.size()).getAccountId(),
+                    new Money(25.0, "USD"), "Transfer");
+            transactionService.withdraw(account.getAccountId(), new Money(1.25, "USD"), "Withdrawal");
+        }
+
+        ReconciliationReport report = reconciler.reconcile();
+        assertTrue(report.isConsistent(), report.getMismatches().toString());
+        assertTrue(report.getMismatchedLeaves().isEmpty());
+        assertEquals(200, report.getAccountCount());
+        assertEquals(0, new BigDecimal("201850.00").compareTo(digest.getTotals().get("USD")));
+        assertEquals(0, new BigDecimal("1009.25").compareTo(
+                digest.getExpectedBalance(accounts.get(0).getAccountId()).getAmount()));
+    }
+
+    @Test
+    void testReportsBalanceChangedOutsideHistory() {
+        List<Account> accounts = createAccounts(100);
+        Account tampered = accounts.get(42);
+        tampered.adjustBalance(new Money(5.0, "USD"));
+
+        ReconciliationReport report = reconciler.reconcile();
+        assertFalse(report.isConsistent());
+        assertEquals(Arrays.asList(digest.leafOf(tampered.getAccountId())), report.getMismatchedLeaves());
+        assertTrue(report.getAccountsRechecked() < accounts.size());
+        assertEquals(1, report.getMismatches().size());
+        ReconciliationReport.Mismatch mismatch = report.getMismatches().get(0);
+        assertEquals(tampered.getAccountId(), mismatch.getAccountId());
+        assertEquals(0, new BigDecimal("1005.00").compareTo(mismatch.getBalance().getAmount()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(mismatch.getExpected().getAmount()));
+    }
+
+    @Test
+    void testFollowsImportsAndRemovals() {
+        Account local = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+        Transaction incoming = new Transaction("TX-1", "MOVED", TransactionType.TRANSFER,
+                new Money(40.0, "USD"), "Moved", local.getAccountId(), LocalDateTime.now());
+        transactionService.recordTransaction(incoming);
+        local.adjustBalance(new Money(40.0, "USD"));
+        accountService.importAccount(new Account("MOVED", "CUST2", AccountType.SAVINGS, new Money(60.0, "USD")));
+        assertTrue(reconciler.reconcile().isConsistent());
+        assertEquals(0, new BigDecimal("60").compareTo(digest.getExpectedBalance("MOVED").getAmount()));
+
+        accountService.removeAccount("MOVED");
+        assertNull(digest.getExpectedBalance("MOVED"));
+        assertTrue(reconciler.reconcile().isConsistent());
+
+        long before = digest.tree().getRoot();
+        Transaction other = new Transaction("TX-2", "ELSEWHERE", TransactionType.TRANSFER,
+                new Money(1.0, "USD"), "Other", "MOVED", LocalDateTime.now());
+        transactionService.recordTransaction(other);
+        transactionService.removeTransaction(other.getTransactionId());
+        assertEquals(before, digest.tree().getRoot());
+    }
+
+    @Test
+    void testSkipsTransferOnHoldAndKeepsNoRemoteEntries() {
+        Account local = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(100.0, "USD"));
+        transactionService.holdRemoteTransfer(local.getAccountId(), new Money(30.0, "USD"));
+        assertTrue(reconciler.reconcile().isConsistent());
+
+        transactionService.completeRemoteTransfer(new Transaction("TX-1", local.getAccountId(), TransactionType.TRANSFER,
+                new Money(30.0, "USD"), "Out", "REMOTE", LocalDateTime.now()));
+        transactionService.applyRemoteTransfer(new Transaction("TX-2", "REMOTE", TransactionType.TRANSFER,
+                new Money(5.0, "USD"), "In", local.getAccountId(), LocalDateTime.now()));
+        ReconciliationReport report = reconciler.reconcile();
+        assertTrue(report.isConsistent(), report.getMismatches().toString());
+        assertEquals(0, new BigDecimal("75").compareTo(digest.getExpectedBalance(local.getAccountId()).getAmount()));
+        assertNull(digest.getExpectedBalance("REMOTE"));
+        assertFalse(digest.getLeafEntries(digest.leafOf("REMOTE")).containsKey("REMOTE"));
+    }
+
+    @Test
+    void testNoFalseMismatchesDuringStripedDeposits() throws InterruptedException {
+        Account hot = accountService.createAccount("CUST1", AccountType.CHECKING, new Money(0.0, "USD"));
+        hot.enableStriping(4);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> depositors = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread depositor = new Thread(() -> {
+                while (running.get()) {
+                    transactionService.deposit(hot.getAccountId(), new Money(1.0, "USD"), "Deposit");
+                }
+            });
+            depositor.start();
+            depositors.add(depositor);
+        }
+        try {
+            for (int i = 0; i < 200; i++) {
+                ReconciliationReport report = reconciler.reconcile();
+                assertTrue(report.isConsistent(), report.getMismatches().toString());
+            }
+        } finally {
+            running.set(false);
+            for (Thread depositor : depositors) {
+                depositor.join();
+            }
+        }
+        assertTrue(reconciler.reconcile().getMismatchedLeaves().isEmpty());
+    }
+
+    @Test
+    void testSnapshotTreesMatchDigest() throws Exception {
+        List<Account> accounts = createAccounts(50);
+        transactionService.transfer(accounts.get(0).getAccountId(), accounts.get(1).getAccountId(),
+                new Money(12.34, "USD"), "Transfer");
+        MerkleTree snapshotTree = reconciler.tree(accountService.takeSnapshot());
+        assertTrue(reconciler.compare(snapshotTree).isEmpty());
+
+        accounts.get(7).adjustBalance(new Money(-1.0, "USD"));
+        assertEquals(Arrays.asList(digest.leafOf(accounts.get(7).getAccountId())),
+                reconciler.compare(reconciler.tree(accountService.takeSnapshot())));
+    }
+
+    private List<Account> createAccounts(int count) {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            accounts.add(accountService.createAccount("CUST" + i, AccountType.CHECKING, new Money(1000.0, "USD")));
+        }
+        return accounts;
+    }
+}
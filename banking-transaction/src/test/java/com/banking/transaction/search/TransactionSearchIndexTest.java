@@ -0,0 +1,129 @@
+package com.banking.transaction.search;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSearchIndexTest {
+
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private TransactionSearchIndex index;
+    private Account checking;
+    private Account savings;
+
+    @BeforeEach
+    void setUp() {
+        accountService = new AccountService();
+        transactionService = new TransactionService(accountService);
+        checking = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(1000.0, "USD"));
+        savings = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(0.0, "USD"));
+        transactionService.deposit(checking.getAccountId(), new Money(10.0, "USD"), "Refund ACME Corp #A-1001");
+        index = new TransactionSearchIndex(transactionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void testTokenAndPrefixQueries() throws InterruptedException {
+        transactionService.withdraw(checking.getAccountId(), new Money(20.0, "USD"), "Card payment ACME Store");
+        transactionService.withdraw(checking.getAccountId(), new Money(5.0, "USD"), "Coffee Shop");
+        index.flush();
+
+        assertEquals(2, index.search("acme", null, null, null, 10).size());
+        assertEquals(1, index.search("ACME store", null, null, null, 10).size());
+        assertEquals(1, index.search("a-1001", null, null, null, 10).size());
+        assertEquals(1, index.search("cof*", null, null, null, 10).size());
+        assertEquals(3, index.search("c*", null, null, null, 10).size());
+        assertTrue(index.search("unknown", null, null, null, 10).isEmpty());
+        assertEquals(1, index.search("acme", null, null, null, 1).size());
+        assertEquals("Card payment ACME Store", index.search("acme", null, null, null, 10).get(0).getDescription());
+    }
+
+    @Test
+    void testAccountAndDateScope() throws InterruptedException {
+        transactionService.transfer(checking.getAccountId(), savings.getAccountId(), new Money(100.0, "USD"), "Rent ACME");
+        Transaction old = new Transaction("old-1", savings.getAccountId(), TransactionType.DEPOSIT,
+                new Money(1.0, "USD"), "Rent ACME", null, LocalDateTime.now().minusYears(1));
+        transactionService.recordTransaction(old);
+        index.flush();
+
+        assertEquals(2, index.search("acme", checking.getAccountId(), null, null, 10).size());
+        assertEquals(2, index.search("acme", savings.getAccountId(), null, null, 10).size());
+        List<Transaction> recent = index.search("rent", savings.getAccountId(), LocalDateTime.now().minusDays(1), null, 10);
+        assertEquals(1, recent.size());
+        assertEquals(TransactionType.TRANSFER, recent.get(0).getType());
+        assertEquals(1, index.search(null, savings.getAccountId(), null, LocalDateTime.now().minusDays(1), 10).size());
+    }
+
+    @Test
+    void testRemovedTransactionsNotReturned() throws InterruptedException {
+        index.flush();
+        Transaction refund = index.search("refund", null, null, null, 10).get(0);
+
+        transactionService.removeTransaction(refund.getTransactionId());
+
+        assertTrue(index.search("refund", null, null, null, 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.search(" ", null, null, null, 10));
+    }
+
+    @Test
+    void testRemovedDocumentsAreClearedAndCompacted() throws InterruptedException {
+        index.flush();
+        long initialBytes = index.getPostingsBytes();
+        List<Transaction> deposits = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            deposits.add(transactionService.deposit(savings.getAccountId(), new Money(1.0, "USD"), "Payroll batch " + i));
+        }
+        index.flush();
+        long fullBytes = index.getPostingsBytes();
+        assertTrue(fullBytes > initialBytes);
+        assertEquals(1501, index.getDocumentCount());
+
+        for (int i = 0; i < 1200; i++) {
+            transactionService.removeTransaction(deposits.get(i).getTransactionId());
+        }
+        index.flush();
+
+        assertEquals(301, index.getDocumentCount());
+        assertTrue(index.getPostingsBytes() < fullBytes / 2);
+        assertEquals(300, index.search("payroll", null, null, null, 1000).size());
+        assertEquals(1, index.search("batch 1499", null, null, null, 10).size());
+        assertTrue(index.search("batch 5", null, null, null, 10).isEmpty());
+        assertEquals(1, index.search("refund", checking.getAccountId(), null, null, 10).size());
+
+        Transaction readded = deposits.get(0);
+        transactionService.recordTransaction(readded);
+        index.flush();
+        assertEquals(1, index.search("batch 0", null, null, null, 10).size());
+    }
+
+    @Test
+    void testPostingsEncoding() {
+        Postings postings = new Postings();
+        int[] documents = {0, 1, 2, 130, 100_000, 100_001};
+        for (int document : documents) {
+            postings.add(document);
+            assertEquals(0, postings.add(document));
+        }
+        assertArrayEquals(documents, postings.toArray());
+        assertEquals(6, postings.size());
+        assertEquals(1 + 1 + 1 + 2 + 3 + 1, postings.byteSize());
+    }
+}
@@ -2,13 +2,36 @@ package com.banking.transaction.service;
 
 import com.banking.account.domain.Account;
 import com.banking.account.service.AccountService;
+import com.banking.account.snapshot.BalanceSnapshot;
 import com.banking.core.domain.AccountType;
 import com.banking.core.domain.Money;
 import com.banking.core.domain.TransactionType;
 import com.banking.core.exception.InsufficientFundsException;
+import com.banking.core.exception.InvalidAccountException;
+import com.banking.core.fx.FxRateCache;
+import com.banking.core.fx.FxRates;
+import com.banking.core.jfr.LedgerOperationEvent;
+import com.banking.core.metrics.MetricsRegistry;
 import com.banking.transaction.domain.Transaction;
+import com.banking.transaction.hotspot.HotAccountDetector;
+import com.banking.transaction.netting.TransferInstruction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TransactionServiceTest {
@@ -75,5 +98,246 @@ class TransactionServiceTest {
         var transactions = transactionService.getTransactionsByAccount(account.getAccountId());
         assertEquals(2, transactions.size());
     }
-}
 
+    @Test
+    void testMetricsRecorded() throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        TransactionService service = new TransactionService(accountService, metrics);
+        Account account = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+
+        service.deposit(account.getAccountId(), new Money(50.0, "USD"), "Deposit");
+        assertThrows(InsufficientFundsException.class, () ->
+            service.withdraw(account.getAccountId(), new Money(500.0, "USD"), "Too much")
+        );
+        assertThrows(InvalidAccountException.class, () ->
+            service.deposit("NON_EXISTENT", new Money(1.0, "USD"), "Nobody")
+        );
+
+        StringBuilder out = new StringBuilder();
+        metrics.writePrometheus(out);
+        String text = out.toString();
+        assertTrue(text.contains("banking_transaction_duration_seconds_count{operation=\"deposit\"} 2\n"));
+        assertTrue(text.contains("banking_transaction_failures_total{reason=\"insufficient_funds\"} 1\n"));
+        assertTrue(text.contains("banking_transaction_failures_total{reason=\"invalid_account\"} 1\n"));
+        assertTrue(text.contains("banking_transactions 1\n"));
+    }
+
+    @Test
+    void testLedgerEventsRecorded() throws Exception {
+        Account fromAccount = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(100.0, "USD"));
+        Account toAccount = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(50.0, "USD"));
+
+        Path file = Files.createTempFile("ledger", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(LedgerOperationEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            transactionService.transfer(fromAccount.getAccountId(), toAccount.getAccountId(), new Money(40.0, "USD"), "Rent");
+            assertThrows(InsufficientFundsException.class, () ->
+                transactionService.withdraw(fromAccount.getAccountId(), new Money(500.0, "USD"), "Too much")
+            );
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().equals(LedgerOperationEvent.NAME))
+            .collect(Collectors.toList());
+        Files.deleteIfExists(file);
+
+        assertEquals(2, events.size());
+        RecordedEvent transfer = events.stream().filter(e -> e.getString("operation").equals("TRANSFER")).findFirst().get();
+        assertEquals(fromAccount.getAccountId(), transfer.getString("accountId"));
+        assertEquals(toAccount.getAccountId(), transfer.getString("relatedAccountId"));
+        assertEquals("40.0", transfer.getString("amount"));
+        assertEquals(LedgerOperationEvent.OUTCOME_SUCCESS, transfer.getString("outcome"));
+        RecordedEvent withdrawal = events.stream().filter(e -> e.getString("operation").equals("WITHDRAWAL")).findFirst().get();
+        assertEquals(LedgerOperationEvent.OUTCOME_INSUFFICIENT_FUNDS, withdrawal.getString("outcome"));
+    }
+
+    @Test
+    void testHotAccountSwitchedToStripes() {
+        transactionService.setHotAccountDetector(new HotAccountDetector(4, 0.5, 10, 100_000, 1, 4));
+        Account merchant = accountService.createAccount("MERCHANT", AccountType.CURRENT, new Money(0.0, "USD"));
+        Account customer = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(1000.0, "USD"));
+
+        for (int i = 0; i < 20; i++) {
+            transactionService.deposit(merchant.getAccountId(), new Money(5.0, "USD"), "Sale");
+        }
+        assertTrue(merchant.isStriped());
+        assertFalse(customer.isStriped());
+
+        transactionService.transfer(customer.getAccountId(), merchant.getAccountId(), new Money(100.0, "USD"), "Purchase");
+        transactionService.withdraw(merchant.getAccountId(), new Money(150.0, "USD"), "Settlement");
+        assertEquals(50.0, merchant.getBalance().getAmount().doubleValue());
+        assertEquals(900.0, customer.getBalance().getAmount().doubleValue());
+    }
+
+    @Test
+    void testSnapshotsDuringConcurrentTransfers() throws InterruptedException {
+        Account[] accounts = new Account[8];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = accountService.createAccount("ACC-" + i, "CUST" + i, AccountType.CHECKING, new Money(1000.0, "USD"));
+        }
+        accounts[0].enableStriping(4);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    Account from = accounts[(seed + i) % accounts.length];
+                    Account to = accounts[(seed * 3 + i * 5 + 1) % accounts.length];
+                    try {
+                        transactionService.transfer(from.getAccountId(), to.getAccountId(), new Money(1.0, "USD"), null);
+                    } catch (InsufficientFundsException e) {
+                        // balances drift; the total is what matters
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        int snapshots = 0;
+        do {
+            BalanceSnapshot snapshot = accountService.takeSnapshot();
+            assertEquals(0, new BigDecimal("8000").compareTo(snapshot.getTotals().get("USD")));
+            snapshots++;
+        } while (threads[0].isAlive() || snapshots < 10);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, new BigDecimal("8000").compareTo(accountService.takeSnapshot().getTotals().get("USD")));
+    }
+
+    @Test
+    void testTwoWayTransfersBetweenStripedAccounts() throws InterruptedException {
+        Account x = accountService.createAccount("ACC-X", "CUST001", AccountType.CHECKING, new Money(1000.0, "USD"));
+        Account y = accountService.createAccount("ACC-Y", "CUST002", AccountType.CHECKING, new Money(1000.0, "USD"));
+        x.enableStriping(4);
+        y.enableStriping(4);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            Account from = t % 2 == 0 ? x : y;
+            Account to = t % 2 == 0 ? y : x;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    try {
+                        transactionService.transfer(from.getAccountId(), to.getAccountId(), new Money(1.0, "USD"), null);
+                    } catch (InsufficientFundsException e) {
+                        // balances drift; the total is what matters
+                    }
+                }
+            });
+            threads[t].setDaemon(true);
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join(30_000);
+            assertFalse(thread.isAlive(), "transfers between striped accounts deadlocked");
+        }
+        assertEquals(0, new BigDecimal("2000").compareTo(x.getBalance().getAmount().add(y.getBalance().getAmount())));
+    }
+
+    @Test
+    void testSettleNetted() {
+        Account a = accountService.createAccount("ACC-A", "CUST001", AccountType.CHECKING, new Money(10.0, "USD"));
+        Account b = accountService.createAccount("ACC-B", "CUST002", AccountType.CHECKING, new Money(0.0, "USD"));
+        Account c = accountService.createAccount("ACC-C", "CUST003", AccountType.CHECKING, new Money(50.0, "USD"));
+
+        // A could not pay 100 up front, but its net position is -5.
+        List<Transaction> settled = transactionService.settleNetted(Arrays.asList(
+                new TransferInstruction("ACC-A", "ACC-B", new Money(100.0, "USD"), "Invoice 1"),
+                new TransferInstruction("ACC-B", "ACC-A", new Money(95.0, "USD"), "Invoice 2"),
+                new TransferInstruction("ACC-C", "ACC-B", new Money(20.0, "USD"), "Invoice 3")));
+
+        assertEquals(3, settled.size());
+        assertEquals("Invoice 2", settled.get(1).getDescription());
+        assertEquals(TransactionType.TRANSFER, settled.get(1).getType());
+        assertEquals("ACC-A", settled.get(1).getRelatedAccountId());
+        assertEquals(5.0, a.getBalance().getAmount().doubleValue());
+        assertEquals(25.0, b.getBalance().getAmount().doubleValue());
+        assertEquals(30.0, c.getBalance().getAmount().doubleValue());
+        assertEquals(1, transactionService.getTransactionsByAccount("ACC-C").size());
+        assertEquals(3, transactionService.getTransactionCount());
+    }
+
+    @Test
+    void testSettleNettedIsAllOrNothing() {
+        Account a = accountService.createAccount("ACC-A", "CUST001", AccountType.CHECKING, new Money(10.0, "USD"));
+        Account b = accountService.createAccount("ACC-B", "CUST002", AccountType.CHECKING, new Money(0.0, "USD"));
+
+        assertThrows(InsufficientFundsException.class, () -> transactionService.settleNetted(Arrays.asList(
+                new TransferInstruction("ACC-B", "ACC-A", new Money(5.0, "USD"), null),
+                new TransferInstruction("ACC-A", "ACC-B", new Money(20.0, "USD"), null))));
+        assertThrows(InvalidAccountException.class, () -> transactionService.settleNetted(Arrays.asList(
+                new TransferInstruction("ACC-A", "ACC-X", new Money(1.0, "USD"), null))));
+
+        assertEquals(10.0, a.getBalance().getAmount().doubleValue());
+        assertEquals(0.0, b.getBalance().getAmount().doubleValue());
+        assertEquals(0, transactionService.getTransactionCount());
+    }
+
+    @Test
+    void testCrossCurrencyTransfer() throws Exception {
+        Account usd = accountService.createAccount("ACC-USD", "CUST001", AccountType.CHECKING, new Money(new BigDecimal("100.00"), "USD"));
+        Account eur = accountService.createAccount("ACC-EUR", "CUST001", AccountType.SAVINGS, new Money(new BigDecimal("0.00"), "EUR"));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.transfer("ACC-USD", "ACC-EUR",
+                new Money(10.0, "USD"), "Not enabled"));
+
+        transactionService.setFxRateCache(new FxRateCache(
+                () -> FxRates.parse(new StringReader("base=USD\nEUR=0.92\n"), Instant.now()), new MetricsRegistry()));
+        Transaction out = transactionService.transfer("ACC-USD", "ACC-EUR", new Money(new BigDecimal("50.00"), "USD"), "Savings");
+        transactionService.transfer("ACC-USD", "ACC-EUR", new Money(new BigDecimal("9.20"), "EUR"), "Exact EUR");
+
+        assertEquals(TransactionType.FX_TRANSFER_OUT, out.getType());
+        assertEquals(new BigDecimal("40.00"), usd.getBalance().getAmount());
+        assertEquals(new BigDecimal("55.20"), eur.getBalance().getAmount());
+        // Each leg posts to its own account and the FX suspense account only.
+        List<Transaction> eurHistory = transactionService.getTransactionsByAccount("ACC-EUR");
+        assertEquals(2, eurHistory.size());
+        assertEquals(2, eurHistory.stream().filter(t -> t.getType() == TransactionType.FX_TRANSFER_IN).count());
+        assertThrows(IllegalArgumentException.class, () -> transactionService.transfer("ACC-USD", "ACC-EUR",
+                new Money(1.0, "GBP"), "Wrong currency"));
+
+        // A replica replaying both legs ends up with the same balances.
+        AccountService replicaAccounts = new AccountService();
+        replicaAccounts.createAccount("ACC-USD", "CUST001", AccountType.CHECKING, new Money(new BigDecimal("100.00"), "USD"));
+        replicaAccounts.createAccount("ACC-EUR", "CUST001", AccountType.SAVINGS, new Money(new BigDecimal("0.00"), "EUR"));
+        TransactionService replica = new TransactionService(replicaAccounts);
+        for (Transaction transaction : transactionService.getAllTransactions()) {
+            replica.applyTransaction(transaction);
+        }
+        assertEquals(new BigDecimal("40.00"), replicaAccounts.getBalance("ACC-USD").getAmount());
+        assertEquals(new BigDecimal("55.20"), replicaAccounts.getBalance("ACC-EUR").getAmount());
+    }
+
+    @Test
+    void testRemoteTransferIsCreditedOnceAndRetriedAfterFailure() {
+        Account source = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(100.0, "USD"));
+        AccountService remoteAccounts = new AccountService();
+        TransactionService remoteService = new TransactionService(remoteAccounts);
+        Account destination = remoteAccounts.createAccount("ACC-REMOTE", "CUST002", AccountType.CHECKING,
+                new Money(0.0, "USD"));
+
+        transactionService.holdRemoteTransfer(source.getAccountId(), new Money(40.0, "USD"));
+        assertTrue(transactionService.hasPendingRemoteTransfer(source.getAccountId()));
+        Transaction transfer = new Transaction("T1", source.getAccountId(), TransactionType.TRANSFER,
+                new Money(40.0, "USD"), "Remote", destination.getAccountId(), LocalDateTime.now());
+        transactionService.completeRemoteTransfer(transfer);
+        assertFalse(transactionService.hasPendingRemoteTransfer(source.getAccountId()));
+        assertEquals(1, transactionService.getTransactionsByAccount(source.getAccountId()).size());
+
+        destination.deactivate();
+        assertThrows(InvalidAccountException.class, () -> remoteService.applyRemoteTransfer(transfer));
+        assertFalse(remoteService.hasTransaction("T1"));
+        destination.activate();
+        assertTrue(remoteService.applyRemoteTransfer(transfer));
+        assertFalse(remoteService.applyRemoteTransfer(transfer));
+        assertEquals(new Money(40.0, "USD"), destination.getBalance());
+        assertEquals(new Money(60.0, "USD"), source.getBalance());
+
+        transactionService.holdRemoteTransfer(source.getAccountId(), new Money(10.0, "USD"));
+        transactionService.cancelRemoteTransfer(source.getAccountId(), new Money(10.0, "USD"));
+        assertFalse(transactionService.hasPendingRemoteTransfer(source.getAccountId()));
+        assertEquals(new Money(60.0, "USD"), source.getBalance());
+    }
+}
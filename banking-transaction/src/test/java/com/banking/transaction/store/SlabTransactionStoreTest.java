@@ -0,0 +1,195 @@
+package com.banking.transaction.store;
+
+import com.banking.core.domain.Money;
+import com.banking.core.domain.TransactionType;
+import com.banking.transaction.domain.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlabTransactionStoreTest {
+
+    @Test
+    void testRecordRoundTrip() {
+        SlabTransactionStore store = new SlabTransactionStore(2);
+        Transaction transfer = new Transaction("ACC-1", TransactionType.TRANSFER, new Money(new BigDecimal("12.50"), "EUR"),
+                "Rent March", "ACC-2");
+        Transaction deposit = new Transaction("ACC-1", TransactionType.DEPOSIT, new Money(10.0, "USD"), null);
+
+        store.put(transfer);
+        store.put(deposit);
+
+        Transaction stored = store.get(transfer.getTransactionId());
+        assertEquals(transfer.getTransactionId(), stored.getTransactionId());
+        assertEquals("ACC-1", stored.getAccountId());
+        assertEquals("ACC-2", stored.getRelatedAccountId());
+        assertEquals(TransactionType.TRANSFER, stored.getType());
+        assertEquals(new Money(new BigDecimal("12.50"), "EUR"), stored.getAmount());
+        assertEquals(transfer.getTimestamp(), stored.getTimestamp());
+        assertEquals("Rent March", stored.getDescription());
+        assertNull(store.get(deposit.getTransactionId()).getRelatedAccountId());
+        assertEquals("", store.get(deposit.getTransactionId()).getDescription());
+        assertNull(store.get(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void testValuesThatDoNotFitTheRecord() {
+        SlabTransactionStore store = new SlabTransactionStore(2);
+        BigDecimal huge = new BigDecimal("123456789012345678901234567890.12");
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            description.append('x');
+        }
+        Transaction transaction = new Transaction("legacy-42", "ACC-1", TransactionType.WITHDRAWAL,
+                new Money(huge, "USD"), description.toString(), null, LocalDateTime.of(1969, 12, 31, 23, 59, 59, 5));
+
+        store.put(transaction);
+
+        Transaction stored = store.get("legacy-42");
+        assertEquals(huge, stored.getAmount().getAmount());
+        assertEquals(description.toString(), stored.getDescription());
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 5), stored.getTimestamp());
+        assertFalse(store.contains(transaction.getTransactionId().toUpperCase()));
+    }
+
+    @Test
+    void testOverflowIsFreedOnRemove() {
+        SlabTransactionStore store = new SlabTransactionStore(4);
+        LocalDateTime now = LocalDateTime.now();
+        String longDescription = "x".repeat(100_000);
+        store.put(new Transaction("legacy-1", "ACC-1", TransactionType.DEPOSIT, new Money(1.0, "USD"),
+                longDescription, null, now));
+        long withLongDescription = store.getOverflowBytes();
+        assertTrue(withLongDescription > 100_000);
+        assertEquals(longDescription, store.get("legacy-1").getDescription());
+
+        store.remove("legacy-1");
+        assertNull(store.get("legacy-1"));
+        assertTrue(store.getOverflowBytes() < withLongDescription - 100_000);
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 100; i++) {
+                store.put(new Transaction("legacy-" + i, "ACC-1", TransactionType.DEPOSIT, new Money(1.0, "USD"),
+                        "Round " + round + " " + "y".repeat(100), null, now));
+            }
+            assertEquals("Round " + round + " " + "y".repeat(100), store.get("legacy-7").getDescription());
+            for (int i = 0; i < 100; i++) {
+                store.remove("legacy-" + i);
+            }
+        }
+        long afterTwoRounds = store.getOverflowBytes();
+        for (int i = 0; i < 100; i++) {
+            store.put(new Transaction("legacy-" + i, "ACC-1", TransactionType.DEPOSIT, new Money(1.0, "USD"),
+                    "Round 2 " + "y".repeat(100), null, now));
+        }
+        assertEquals(afterTwoRounds, store.getOverflowBytes());
+        assertEquals(100, store.size());
+    }
+
+    @Test
+    void testReadersNeverSeeAReusedOverflowValue() throws InterruptedException {
+        SlabTransactionStore store = new SlabTransactionStore(8);
+        LocalDateTime now = LocalDateTime.now();
+        String[] descriptions = {"a".repeat(100), "b".repeat(100)};
+        store.put(new Transaction("legacy-1", "ACC-1", TransactionType.DEPOSIT, new Money(1.0, "USD"),
+                descriptions[0], null, now));
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i < 20_000; i++) {
+                store.put(new Transaction("legacy-1", "ACC-1", TransactionType.DEPOSIT, new Money(1.0, "USD"),
+                        descriptions[i % 2], null, now));
+            }
+        });
+        writer.start();
+        int seen = 0;
+        while (writer.isAlive()) {
+            Transaction transaction = store.get("legacy-1");
+            if (transaction != null) {
+                assertEquals("legacy-1", transaction.getTransactionId());
+                String description = transaction.getDescription();
+                assertTrue(description.equals(descriptions[0]) || description.equals(descriptions[1]), description);
+                seen++;
+            }
+        }
+        writer.join();
+        assertTrue(seen > 0);
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testPutIfAbsentReplaceAndRemove() {
+        SlabTransactionStore store = new SlabTransactionStore(2);
+        String id = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        Transaction first = new Transaction(id, "ACC-1", TransactionType.DEPOSIT, new Money(1.0, "USD"), "first", null, now);
+        Transaction second = new Transaction(id, "ACC-1", TransactionType.DEPOSIT, new Money(2.0, "USD"), "second", null, now);
+
+        assertTrue(store.putIfAbsent(first));
+        assertFalse(store.putIfAbsent(second));
+        assertEquals("first", store.get(id).getDescription());
+
+        store.put(second);
+        assertEquals("second", store.get(id).getDescription());
+        assertEquals(1, store.size());
+
+        store.remove(id);
+        assertFalse(store.contains(id));
+        assertEquals(0, store.size());
+        assertTrue(store.putIfAbsent(first));
+        assertEquals(1, store.getAll().size());
+    }
+
+    @Test
+    void testScansAcrossSlabs() {
+        SlabTransactionStore store = new SlabTransactionStore(2);
+        for (int i = 0; i < 10; i++) {
+            store.put(new Transaction(i % 2 == 0 ? "ACC-1" : "ACC-2", TransactionType.TRANSFER, new Money(i, "USD"),
+                    "Transfer " + i, "ACC-3"));
+        }
+
+        assertEquals(5, store.findByAccount("ACC-1").size());
+        assertEquals(10, store.findByAccount("ACC-3").size());
+        assertTrue(store.findByAccount("ACC-4").isEmpty());
+        List<String> descriptions = new ArrayList<>();
+        store.forEach(view -> descriptions.add(view.getDescription()));
+        assertEquals("Transfer 0", descriptions.get(0));
+        assertEquals("Transfer 9", descriptions.get(9));
+        assertEquals(3 * 4 * SlabTransactionStore.RECORD_SIZE, store.getSlabBytes());
+    }
+
+    @Test
+    void testConcurrentAppends() throws InterruptedException {
+        SlabTransactionStore store = new SlabTransactionStore(8);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            String accountId = "ACC-" + t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Transaction transaction = new Transaction(accountId, TransactionType.DEPOSIT, new Money(1.0, "USD"), "d");
+                    store.put(transaction);
+                    assertTrue(store.contains(transaction.getTransactionId()));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4000, store.size());
+        assertEquals(1000, store.findByAccount("ACC-2").size());
+    }
+
+    @Test
+    void testEpochNanosConversion() {
+        LocalDateTime timestamp = LocalDateTime.of(2024, 2, 29, 12, 0, 0, 123_456_789);
+        assertEquals(timestamp, SlabTransactionStore.fromEpochNanos(SlabTransactionStore.toEpochNanos(timestamp)));
+        assertTrue(SlabTransactionStore.isUuid(UUID.randomUUID().toString()));
+        assertFalse(SlabTransactionStore.isUuid("legacy-42"));
+    }
+}
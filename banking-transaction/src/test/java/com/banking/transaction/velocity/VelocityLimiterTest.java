@@ -0,0 +1,133 @@
+package com.banking.transaction.velocity;
+
+import com.banking.account.domain.Account;
+import com.banking.account.service.AccountService;
+import com.banking.core.domain.AccountType;
+import com.banking.core.domain.Money;
+import com.banking.core.exception.InsufficientFundsException;
+import com.banking.core.exception.VelocityLimitExceededException;
+import com.banking.transaction.netting.TransferInstruction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityLimiterTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void testCountLimitRollsWithTheWindow() {
+        VelocityLimiter limiter = new VelocityLimiter(Map.of(AccountType.CHECKING,
+                new VelocityLimit(Duration.ofHours(1), 60, 3, null)));
+        Money amount = new Money(10.0, "USD");
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.check("ACC-1", AccountType.CHECKING, amount, start + i * MINUTE);
+            limiter.record("ACC-1", AccountType.CHECKING, amount, start + i * MINUTE);
+        }
+        assertThrows(VelocityLimitExceededException.class,
+                () -> limiter.check("ACC-1", AccountType.CHECKING, amount, start + 59 * MINUTE));
+        limiter.check("ACC-2", AccountType.CHECKING, amount, start + 59 * MINUTE);
+        limiter.check("ACC-1", AccountType.SAVINGS, amount, start + 59 * MINUTE);
+
+        // The first debit leaves the window an hour later, the others a minute apart after it.
+        limiter.check("ACC-1", AccountType.CHECKING, amount, start + 60 * MINUTE);
+        limiter.record("ACC-1", AccountType.CHECKING, amount, start + 60 * MINUTE);
+        assertThrows(VelocityLimitExceededException.class,
+                () -> limiter.check("ACC-1", AccountType.CHECKING, amount, start + 60 * MINUTE));
+        limiter.check("ACC-1", AccountType.CHECKING, amount, start + 61 * MINUTE);
+    }
+
+    @Test
+    void testAmountLimit() {
+        VelocityLimiter limiter = new VelocityLimiter(Map.of(AccountType.SAVINGS,
+                new VelocityLimit(Duration.ofHours(1), 12, 0, new BigDecimal("1000.00"))));
+        long now = System.nanoTime();
+        limiter.record("ACC-1", AccountType.SAVINGS, new Money(600.0, "USD"), now);
+        limiter.check("ACC-1", AccountType.SAVINGS, new Money(400.0, "USD"), now);
+        assertThrows(VelocityLimitExceededException.class,
+                () -> limiter.check("ACC-1", AccountType.SAVINGS, new Money(400.001, "USD"), now));
+        // Debits in another currency are limited on their own.
+        limiter.check("ACC-1", AccountType.SAVINGS, new Money(1000.0, "EUR"), now);
+        limiter.record("ACC-1", AccountType.SAVINGS, new Money(900.0, "EUR"), now);
+        assertThrows(VelocityLimitExceededException.class,
+                () -> limiter.check("ACC-1", AccountType.SAVINGS, new Money(200.0, "EUR"), now));
+        limiter.check("ACC-1", AccountType.SAVINGS, new Money(400.0, "USD"), now);
+        limiter.check("ACC-1", AccountType.SAVINGS, new Money(1000.0, "USD"), now + 61 * MINUTE);
+        assertThrows(IllegalArgumentException.class,
+                () -> new VelocityLimit(Duration.ofHours(1), 0, 1, null));
+    }
+
+    @Test
+    void testIdleAccountsAreDropped() {
+        VelocityLimiter limiter = new VelocityLimiter(Map.of(AccountType.CHECKING,
+                new VelocityLimit(Duration.ofMinutes(10), 10, 5, null)));
+        long now = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            limiter.record("ACC-" + i, AccountType.CHECKING, new Money(1.0, "USD"), now);
+        }
+        assertEquals(100, limiter.getTrackedAccountCount());
+        limiter.record("ACC-LATE", AccountType.CHECKING, new Money(1.0, "USD"), now + 5 * MINUTE);
+        limiter.sweep(now + 11 * MINUTE);
+        assertEquals(1, limiter.getTrackedAccountCount());
+        limiter.sweep(now + 16 * MINUTE);
+        assertEquals(0, limiter.getTrackedAccountCount());
+    }
+
+    @Test
+    void testServiceLimitsWithdrawalsAndTransfers() {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        transactionService.setVelocityLimiter(new VelocityLimiter(Map.of(AccountType.CHECKING,
+                new VelocityLimit(Duration.ofHours(1), 60, 2, new BigDecimal("100")))));
+        Account checking = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(50.0, "USD"));
+        Account savings = accountService.createAccount("CUST001", AccountType.SAVINGS, new Money(500.0, "USD"));
+
+        // A debit that fails for lack of funds does not count.
+        assertThrows(InsufficientFundsException.class,
+                () -> transactionService.withdraw(checking.getAccountId(), new Money(60.0, "USD"), "Too much"));
+        transactionService.deposit(checking.getAccountId(), new Money(450.0, "USD"), "Salary");
+        transactionService.withdraw(checking.getAccountId(), new Money(30.0, "USD"), "Cash");
+        assertThrows(VelocityLimitExceededException.class, () -> transactionService.transfer(
+                checking.getAccountId(), savings.getAccountId(), new Money(80.0, "USD"), "Over amount"));
+        transactionService.transfer(checking.getAccountId(), savings.getAccountId(), new Money(70.0, "USD"), "Rent");
+        assertThrows(VelocityLimitExceededException.class,
+                () -> transactionService.withdraw(checking.getAccountId(), new Money(0.01, "USD"), "Over count"));
+        assertEquals(0, new BigDecimal("400.0").compareTo(checking.getBalance().getAmount()));
+
+        transactionService.withdraw(savings.getAccountId(), new Money(200.0, "USD"), "Not limited");
+        assertEquals(4, transactionService.getTransactionCount());
+    }
+
+    @Test
+    void testNettedSettlementCountsEveryDebit() {
+        AccountService accountService = new AccountService();
+        TransactionService transactionService = new TransactionService(accountService);
+        transactionService.setVelocityLimiter(new VelocityLimiter(Map.of(AccountType.CHECKING,
+                new VelocityLimit(Duration.ofHours(1), 60, 3, new BigDecimal("100")))));
+        Account a = accountService.createAccount("CUST001", AccountType.CHECKING, new Money(500.0, "USD"));
+        Account b = accountService.createAccount("CUST002", AccountType.CHECKING, new Money(500.0, "USD"));
+
+        // Netting to zero does not hide the debits from the limit.
+        assertThrows(VelocityLimitExceededException.class, () -> transactionService.settleNetted(List.of(
+                new TransferInstruction(a.getAccountId(), b.getAccountId(), new Money(60.0, "USD"), null),
+                new TransferInstruction(b.getAccountId(), a.getAccountId(), new Money(60.0, "USD"), null),
+                new TransferInstruction(a.getAccountId(), b.getAccountId(), new Money(50.0, "USD"), null))));
+        assertEquals(0, new BigDecimal("500.0").compareTo(a.getBalance().getAmount()));
+
+        transactionService.settleNetted(List.of(
+                new TransferInstruction(a.getAccountId(), b.getAccountId(), new Money(10.0, "USD"), null),
+                new TransferInstruction(a.getAccountId(), b.getAccountId(), new Money(10.0, "USD"), null),
+                new TransferInstruction(b.getAccountId(), a.getAccountId(), new Money(10.0, "USD"), null)));
+        transactionService.withdraw(a.getAccountId(), new Money(1.0, "USD"), "Third debit");
+        assertThrows(VelocityLimitExceededException.class,
+                () -> transactionService.withdraw(a.getAccountId(), new Money(1.0, "USD"), "Fourth debit"));
+        transactionService.withdraw(b.getAccountId(), new Money(1.0, "USD"), "Second debit");
+    }
+}
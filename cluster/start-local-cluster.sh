@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Starts a local sharded banking-api cluster, one JVM per node.
+#
+#   cluster/start-local-cluster.sh [nodes] [join]
+#
+# nodes: number of nodes started together (default 2, ports 8081..)
+# join:  number of extra nodes that join afterwards through the first node (default 1),
+#        which triggers rebalancing of the accounts they now own.
+# Logs go to cluster/logs/<node>.log; stop everything with Ctrl-C. The nodes share a random
+# cluster secret, which the internal endpoints require (override with BANKING_CLUSTER_SECRET).
+set -euo pipefail
+
+NODES=${1:-2}
+JOINERS=${2:-1}
+BASE_PORT=8081
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR="$ROOT/banking-api/target/banking-api-1.0.0.jar"
+LOGS="$ROOT/cluster/logs"
+SECRET=${BANKING_CLUSTER_SECRET:-$(head -c 16 /dev/urandom | od -An -tx1 | tr -d ' \n')}
+
+if [ ! -f "$JAR" ]; then
+    echo "Application jar not found: $JAR (run 'mvn clean install -DskipTests' first)" >&2
+    exit 1
+fi
+mkdir -p "$LOGS"
+
+PIDS=()
+trap 'kill "${PIDS[@]}" 2>/dev/null' EXIT
+
+MEMBERS=""
+for ((i = 1; i <= NODES; i++)); do
+    MEMBERS="${MEMBERS:+$MEMBERS,}node$i=http://localhost:$((BASE_PORT + i - 1))"
+done
+
+wait_ready() {
+    until curl -sf "http://localhost:$1/metrics" > /dev/null; do
+        sleep 1
+    done
+}
+
+start_node() {
+    local id=$1 port=$2
+    shift 2
+    java -jar "$JAR" --server.port="$port" --banking.cluster.node-id="$id" --banking.audit.directory="$LOGS/audit-$id" \
+        --banking.cluster.secret="$SECRET" "$@" > "$LOGS/$id.log" 2>&1 &
+    PIDS+=($!)
+}
+
+for ((i = 1; i <= NODES; i++)); do
+    start_node "node$i" $((BASE_PORT + i - 1)) --banking.cluster.nodes="$MEMBERS"
+done
+for ((i = 1; i <= NODES; i++)); do
+    wait_ready $((BASE_PORT + i - 1))
+done
+echo "Cluster ready: $MEMBERS"
+
+for ((j = 1; j <= JOINERS; j++)); do
+    read -r -p "Press Enter to start a joining node..."
+    n=$((NODES + j))
+    port=$((BASE_PORT + n - 1))
+    start_node "node$n" "$port" --banking.cluster.seed="http://localhost:$BASE_PORT"
+    wait_ready "$port"
+    echo "node$n joined on port $port"
+    curl -s -H "X-Banking-Cluster-Secret: $SECRET" "http://localhost:$BASE_PORT/internal/cluster/members"
+    echo
+done
+
+echo "Press Ctrl-C to stop the cluster."
+wait